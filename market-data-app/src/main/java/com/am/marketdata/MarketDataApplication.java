@@ -38,6 +38,7 @@ import org.springframework.scheduling.annotation.EnableScheduling;
 )
 @EntityScan(basePackages = {
     "com.am.marketdata.model",
+    "com.am.marketdata.scraper.model",
     "com.am.common.amcommondata.domain",
     "com.am.common.amcommondata.domain.asset",
     "com.am.common.investment.persistence.model"
@@ -0,0 +1,119 @@
+package com.am.marketdata.common.cache;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+/**
+ * Last-value cache that lets only changed records through. Each record is reduced to a key
+ * and a price fingerprint; a record is forwarded when its fingerprint differs from the last
+ * one delivered for that key. Every {@code fullSnapshotInterval} a cycle forwards everything,
+ * so downstream state is periodically re-synchronised even if nothing moved.
+ *
+ * <p>Work happens in {@link Cycle}s: whether a cycle is a full snapshot is decided once when it
+ * starts, however many chunks it is split into, and fingerprints are only remembered once the
+ * caller {@linkplain Cycle#commit commits} records it has actually persisted and published. A
+ * failed write therefore leaves the records looking changed, and they are retried next cycle.
+ *
+ * @param <T> record type
+ */
+public class ChangeDetector<T> {
+    private final Function<T, String> keyExtractor;
+    private final Function<T, List<?>> fingerprintExtractor;
+    private final Duration fullSnapshotInterval;
+    private final Clock clock;
+    private final Map<String, List<?>> lastValues = new ConcurrentHashMap<>();
+    private volatile Instant lastFullSnapshot;
+
+    public ChangeDetector(Function<T, String> keyExtractor, Function<T, List<?>> fingerprintExtractor,
+                          Duration fullSnapshotInterval) {
+        this(keyExtractor, fingerprintExtractor, fullSnapshotInterval, Clock.systemUTC());
+    }
+
+    public ChangeDetector(Function<T, String> keyExtractor, Function<T, List<?>> fingerprintExtractor,
+                          Duration fullSnapshotInterval, Clock clock) {
+        this.keyExtractor = keyExtractor;
+        this.fingerprintExtractor = fingerprintExtractor;
+        this.fullSnapshotInterval = fullSnapshotInterval;
+        this.clock = clock;
+    }
+
+    /**
+     * Starts a cycle, deciding here whether it forwards everything.
+     */
+    public Cycle startCycle() {
+        Instant now = clock.instant();
+        Instant last = lastFullSnapshot;
+        boolean fullSnapshot = last == null || !now.isBefore(last.plus(fullSnapshotInterval));
+        return new Cycle(now, fullSnapshot);
+    }
+
+    public void reset() {
+        lastValues.clear();
+        lastFullSnapshot = null;
+    }
+
+    public final class Cycle {
+        private final Instant startedAt;
+        private final boolean fullSnapshot;
+
+        private Cycle(Instant startedAt, boolean fullSnapshot) {
+            this.startedAt = startedAt;
+            this.fullSnapshot = fullSnapshot;
+        }
+
+        public boolean isFullSnapshot() {
+            return fullSnapshot;
+        }
+
+        /**
+         * Returns the records whose fingerprint differs from the last committed one, or all
+         * records in a full-snapshot cycle. Does not update the cache.
+         */
+        public List<T> filterChanged(List<T> records) {
+            if (fullSnapshot) {
+                return records;
+            }
+            List<T> changed = new ArrayList<>(Math.min(records.size(), 16));
+            for (T record : records) {
+                String key = keyExtractor.apply(record);
+                if (key == null || !Objects.equals(lastValues.get(key), fingerprintExtractor.apply(record))) {
+                    changed.add(record);
+                }
+            }
+            return changed;
+        }
+
+        /**
+         * Remembers the fingerprints of records that have been delivered downstream.
+         */
+        public void commit(List<T> delivered) {
+            for (T record : delivered) {
+                String key = keyExtractor.apply(record);
+                if (key != null) {
+                    lastValues.put(key, fingerprintExtractor.apply(record));
+                }
+            }
+        }
+
+        /**
+         * Ends the cycle. A full snapshot only counts as done when every part of it succeeded;
+         * otherwise the next cycle is a full snapshot again.
+         */
+        public void finish(boolean succeeded) {
+            if (fullSnapshot && succeeded) {
+                synchronized (ChangeDetector.this) {
+                    if (lastFullSnapshot == null || lastFullSnapshot.isBefore(startedAt)) {
+                        lastFullSnapshot = startedAt;
+                    }
+                }
+            }
+        }
+    }
+}
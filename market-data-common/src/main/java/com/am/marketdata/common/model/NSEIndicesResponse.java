@@ -6,4 +6,5 @@ import java.util.List;
 @Data
 public class NSEIndicesResponse {
     private List<NSEIndex> data;
+    private String timestamp;
 }
@@ -0,0 +1,57 @@
+package com.am.marketdata.common.quote;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * In-memory latest value per key. Updates carry the event timestamp and an update older than the
+ * stored one is ignored, so replays and out-of-order deliveries never roll a quote back. A null
+ * value removes the key, matching tombstones on a compacted topic.
+ *
+ * @param <T> value type
+ */
+public class LatestValueStore<T> {
+    private final Map<String, Entry<T>> values = new ConcurrentHashMap<>();
+
+    private record Entry<T>(T value, long timestamp) {
+    }
+
+    /**
+     * @return true if the update was applied, false if it was older than the stored value
+     */
+    public boolean apply(String key, T value, long timestamp) {
+        boolean[] applied = new boolean[1];
+        values.compute(key, (k, current) -> {
+            if (current != null && current.timestamp() > timestamp) {
+                return current;
+            }
+            applied[0] = true;
+            return value != null ? new Entry<>(value, timestamp) : null;
+        });
+        return applied[0];
+    }
+
+    public Optional<T> get(String key) {
+        Entry<T> entry = values.get(key);
+        return entry != null ? Optional.of(entry.value()) : Optional.empty();
+    }
+
+    /**
+     * Returns a point-in-time copy; later updates do not change it.
+     */
+    public Map<String, T> snapshot() {
+        Map<String, T> copy = new HashMap<>(values.size() * 2);
+        values.forEach((key, entry) -> copy.put(key, entry.value()));
+        return copy;
+    }
+
+    public int size() {
+        return values.size();
+    }
+
+    public void clear() {
+        values.clear();
+    }
+}
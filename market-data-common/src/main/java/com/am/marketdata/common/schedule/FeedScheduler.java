@@ -0,0 +1,190 @@
+package com.am.marketdata.common.schedule;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import jakarta.annotation.PreDestroy;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Function;
+
+/**
+ * Drives every {@link ScheduledFeed} from one clock. A single tick thread checks, for the current
+ * {@link MarketSession}, which feeds are due and hands them to their own worker. A feed never runs
+ * twice at once: a tick that arrives while it is still running is coalesced into one follow-up run,
+ * and periods missed entirely are skipped rather than replayed.
+ */
+@Slf4j
+@Component
+public class FeedScheduler {
+    private final MarketScheduleConfig config;
+    private final MarketSessionCalendar calendar;
+    private final ObjectProvider<ScheduledFeed> feeds;
+    private final MeterRegistry meterRegistry;
+    private final Clock clock;
+    private final Function<String, ExecutorService> workerFactory;
+
+    // Metric names
+    private static final String METRIC_PREFIX = "market.schedule.";
+    private static final String METRIC_DRIFT = METRIC_PREFIX + "drift";
+    private static final String METRIC_RUN_TIME = METRIC_PREFIX + "run.time";
+    private static final String METRIC_COALESCED = METRIC_PREFIX + "coalesced";
+    private static final String METRIC_FAILURES = METRIC_PREFIX + "failures";
+    private static final String TAG_FEED = "feed";
+    private static final String TAG_SESSION = "session";
+
+    private ScheduledExecutorService ticker;
+    private List<FeedState> states;
+    private volatile MarketSession lastSession;
+
+    @Autowired
+    public FeedScheduler(MarketScheduleConfig config, MarketSessionCalendar calendar,
+                         ObjectProvider<ScheduledFeed> feeds, MeterRegistry meterRegistry) {
+        this(config, calendar, feeds, meterRegistry, Clock.systemUTC(),
+            name -> Executors.newSingleThreadExecutor(runnable -> daemon(runnable, "feed-" + name)));
+    }
+
+    FeedScheduler(MarketScheduleConfig config, MarketSessionCalendar calendar, ObjectProvider<ScheduledFeed> feeds,
+                  MeterRegistry meterRegistry, Clock clock, Function<String, ExecutorService> workerFactory) {
+        this.config = config;
+        this.calendar = calendar;
+        this.feeds = feeds;
+        this.meterRegistry = meterRegistry;
+        this.clock = clock;
+        this.workerFactory = workerFactory;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (!config.isEnabled()) {
+            log.info("Feed scheduler disabled");
+            return;
+        }
+        registerFeeds();
+        ticker = Executors.newSingleThreadScheduledExecutor(runnable -> daemon(runnable, "feed-scheduler"));
+        ticker.scheduleAtFixedRate(this::tick, 0, config.getTickMs(), TimeUnit.MILLISECONDS);
+        log.info("Started feed scheduler with tick {}ms for feeds {}", config.getTickMs(),
+            states.stream().map(state -> state.feed.getName()).toList());
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (ticker != null) {
+            ticker.shutdownNow();
+        }
+        if (states != null) {
+            states.forEach(state -> state.worker.shutdown());
+        }
+    }
+
+    void registerFeeds() {
+        states = feeds.orderedStream().map(FeedState::new).toList();
+    }
+
+    void tick() {
+        try {
+            Instant now = clock.instant();
+            MarketSession session = calendar.sessionAt(now);
+            if (session != lastSession) {
+                log.info("Market session is now {}", session);
+                lastSession = session;
+            }
+            states.forEach(state -> state.tick(now, session));
+        } catch (RuntimeException e) {
+            // An exception would cancel the fixed-rate schedule
+            log.error("Feed scheduler tick failed: {}", e.getMessage(), e);
+        }
+    }
+
+    private static Thread daemon(Runnable runnable, String name) {
+        Thread thread = new Thread(runnable, name);
+        thread.setDaemon(true);
+        return thread;
+    }
+
+    private final class FeedState {
+        private final ScheduledFeed feed;
+        private final ExecutorService worker;
+        private final AtomicBoolean running = new AtomicBoolean();
+        private final AtomicBoolean pending = new AtomicBoolean();
+        // Next time the feed is due in the current session; null until the session has a cadence
+        private Instant nextDue;
+        private MarketSession nextDueSession;
+
+        private FeedState(ScheduledFeed feed) {
+            this.feed = feed;
+            this.worker = workerFactory.apply(feed.getName());
+        }
+
+        // Only called from the tick thread
+        private void tick(Instant now, MarketSession session) {
+            Duration interval = intervalFor(session);
+            if (interval == null) {
+                nextDue = null;
+                return;
+            }
+            if (nextDue == null || nextDueSession != session) {
+                // Run as soon as a session with a cadence begins
+                nextDue = now;
+                nextDueSession = session;
+            }
+            if (now.isBefore(nextDue)) {
+                return;
+            }
+
+            Instant due = nextDue;
+            long missed = Duration.between(due, now).toMillis() / interval.toMillis();
+            nextDue = due.plus(interval.multipliedBy(missed + 1));
+            if (missed > 0) {
+                meterRegistry.counter(METRIC_COALESCED, TAG_FEED, feed.getName()).increment(missed);
+            }
+
+            if (running.compareAndSet(false, true)) {
+                worker.execute(() -> run(due, session));
+            } else if (!pending.getAndSet(true)) {
+                meterRegistry.counter(METRIC_COALESCED, TAG_FEED, feed.getName()).increment();
+            }
+        }
+
+        private void run(Instant due, MarketSession session) {
+            Instant started = clock.instant();
+            meterRegistry.timer(METRIC_DRIFT, TAG_FEED, feed.getName())
+                .record(Duration.between(due, started).abs());
+            Timer.Sample sample = Timer.start(meterRegistry);
+            try {
+                feed.run(session);
+            } catch (Exception e) {
+                log.error("Scheduled feed {} failed: {}", feed.getName(), e.getMessage(), e);
+                meterRegistry.counter(METRIC_FAILURES, TAG_FEED, feed.getName()).increment();
+            } finally {
+                sample.stop(meterRegistry.timer(METRIC_RUN_TIME, TAG_FEED, feed.getName(), TAG_SESSION, session.name()));
+                running.set(false);
+            }
+            // Ticks that arrived while running collapse into a single run straight away
+            Instant rerunDue = clock.instant();
+            MarketSession rerunSession = calendar.sessionAt(rerunDue);
+            if (pending.getAndSet(false) && intervalFor(rerunSession) != null && running.compareAndSet(false, true)) {
+                worker.execute(() -> run(rerunDue, rerunSession));
+            }
+        }
+
+        private Duration intervalFor(MarketSession session) {
+            MarketScheduleConfig.FeedCadence cadence = config.getFeeds().get(feed.getName());
+            Duration interval = cadence != null ? cadence.forSession(session) : null;
+            return interval == null || interval.isZero() || interval.isNegative() ? null : interval;
+        }
+    }
+}
@@ -0,0 +1,60 @@
+package com.am.marketdata.common.schedule;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.core.io.Resource;
+
+import java.time.DayOfWeek;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+@Data
+@Configuration
+@ConfigurationProperties(prefix = "market.schedule")
+public class MarketScheduleConfig {
+    private boolean enabled = true;
+    private String zone = "Asia/Kolkata";
+    private LocalTime preOpenStart = LocalTime.of(9, 0);
+    private LocalTime continuousStart = LocalTime.of(9, 15);
+    private LocalTime continuousEnd = LocalTime.of(15, 30);
+    private LocalTime postCloseEnd = LocalTime.of(16, 0);
+    private Set<DayOfWeek> tradingDays = EnumSet.range(DayOfWeek.MONDAY, DayOfWeek.FRIDAY);
+    // Exchange holiday calendar, one "date,description" line per holiday; the whole day is closed
+    private Resource holidayCalendar = new ClassPathResource("schedule/nse-holidays.csv");
+    // Extra closures on top of the calendar, e.g. a special holiday announced at short notice
+    private List<LocalDate> holidays = new ArrayList<>();
+
+    // How often the scheduler checks which feeds are due; bounds the finest usable cadence
+    private long tickMs = 1000;
+    // Cadence per feed name; feeds without an entry never run
+    private Map<String, FeedCadence> feeds = new HashMap<>();
+
+    /**
+     * Interval between runs of one feed in each session. A missing interval means the feed does
+     * not run in that session; nothing ever runs while the market is closed.
+     */
+    @Data
+    public static class FeedCadence {
+        private Duration preOpen;
+        private Duration continuous;
+        private Duration postClose;
+
+        public Duration forSession(MarketSession session) {
+            return switch (session) {
+                case PRE_OPEN -> preOpen;
+                case CONTINUOUS -> continuous;
+                case POST_CLOSE -> postClose;
+                case CLOSED -> null;
+            };
+        }
+    }
+}
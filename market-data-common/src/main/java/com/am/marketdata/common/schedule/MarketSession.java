@@ -0,0 +1,11 @@
+package com.am.marketdata.common.schedule;
+
+/**
+ * Phases of an NSE trading day, as resolved by {@link MarketSessionCalendar}.
+ */
+public enum MarketSession {
+    CLOSED,
+    PRE_OPEN,
+    CONTINUOUS,
+    POST_CLOSE
+}
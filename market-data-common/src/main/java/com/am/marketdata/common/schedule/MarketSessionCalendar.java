@@ -0,0 +1,124 @@
+package com.am.marketdata.common.schedule;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.io.Resource;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.time.Clock;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Resolves the NSE session for a point in time from the configured trading days, holidays and
+ * session boundaries, all in the exchange time zone. Holidays come from the exchange calendar
+ * file plus any extra dates configured directly.
+ */
+@Component
+public class MarketSessionCalendar {
+    private final MarketScheduleConfig config;
+    private final ZoneId zone;
+    private final Clock clock;
+    private final Set<LocalDate> holidays;
+
+    @Autowired
+    public MarketSessionCalendar(MarketScheduleConfig config) {
+        this(config, Clock.systemUTC());
+    }
+
+    MarketSessionCalendar(MarketScheduleConfig config, Clock clock) {
+        this.config = config;
+        this.zone = ZoneId.of(config.getZone());
+        this.clock = clock;
+        this.holidays = new HashSet<>(config.getHolidays());
+        if (config.getHolidayCalendar() != null) {
+            holidays.addAll(loadHolidays(config.getHolidayCalendar()));
+        }
+    }
+
+    public ZoneId getZone() {
+        return zone;
+    }
+
+    public Set<LocalDate> getHolidays() {
+        return Collections.unmodifiableSet(holidays);
+    }
+
+    public MarketSession current() {
+        return sessionAt(clock.instant());
+    }
+
+    public MarketSession sessionAt(Instant instant) {
+        ZonedDateTime exchangeTime = instant.atZone(zone);
+        if (!isTradingDay(exchangeTime.toLocalDate())) {
+            return MarketSession.CLOSED;
+        }
+        LocalTime time = exchangeTime.toLocalTime();
+        if (time.isBefore(config.getPreOpenStart())) {
+            return MarketSession.CLOSED;
+        }
+        if (time.isBefore(config.getContinuousStart())) {
+            return MarketSession.PRE_OPEN;
+        }
+        if (time.isBefore(config.getContinuousEnd())) {
+            return MarketSession.CONTINUOUS;
+        }
+        if (time.isBefore(config.getPostCloseEnd())) {
+            return MarketSession.POST_CLOSE;
+        }
+        return MarketSession.CLOSED;
+    }
+
+    /**
+     * The latest moment at or before {@code instant} at which continuous trading was open: the
+     * instant itself during the session, otherwise the close of the most recent trading day.
+     * Prices cannot move after this, so data stamped then is still current.
+     */
+    public Instant lastTradingMoment(Instant instant) {
+        if (sessionAt(instant) == MarketSession.CONTINUOUS) {
+            return instant;
+        }
+        ZonedDateTime exchangeTime = instant.atZone(zone);
+        LocalDate day = exchangeTime.toLocalTime().isBefore(config.getContinuousEnd())
+            ? exchangeTime.toLocalDate().minusDays(1)
+            : exchangeTime.toLocalDate();
+        // A year without a trading day would be a misconfiguration, not a calendar to walk through
+        for (int i = 0; i < 366 && !isTradingDay(day); i++) {
+            day = day.minusDays(1);
+        }
+        return day.atTime(config.getContinuousEnd()).atZone(zone).toInstant();
+    }
+
+    private boolean isTradingDay(LocalDate day) {
+        return config.getTradingDays().contains(day.getDayOfWeek()) && !holidays.contains(day);
+    }
+
+    // A calendar that cannot be read fails startup rather than trading through a holiday
+    private static Set<LocalDate> loadHolidays(Resource calendar) {
+        Set<LocalDate> loaded = new HashSet<>();
+        try (BufferedReader reader = new BufferedReader(
+                new InputStreamReader(calendar.getInputStream(), StandardCharsets.UTF_8))) {
+            for (String line = reader.readLine(); line != null; line = reader.readLine()) {
+                String entry = line.strip();
+                if (entry.isEmpty() || entry.startsWith("#")) {
+                    continue;
+                }
+                int comma = entry.indexOf(',');
+                loaded.add(LocalDate.parse(comma >= 0 ? entry.substring(0, comma).strip() : entry));
+            }
+        } catch (IOException | DateTimeParseException e) {
+            throw new IllegalStateException("Failed to load holiday calendar " + calendar.getDescription(), e);
+        }
+        return loaded;
+    }
+}
@@ -0,0 +1,12 @@
+package com.am.marketdata.common.schedule;
+
+/**
+ * A data feed driven by {@link FeedScheduler}. Its cadence per session is configured under
+ * {@code market.schedule.feeds.<name>}.
+ */
+public interface ScheduledFeed {
+
+    String getName();
+
+    void run(MarketSession session);
+}
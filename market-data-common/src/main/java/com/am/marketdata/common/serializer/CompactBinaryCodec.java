@@ -0,0 +1,83 @@
+package com.am.marketdata.common.serializer;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileGenerator;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+
+/**
+ * Compact binary encoding for market data events.
+ *
+ * <p>Payloads are framed as {@code [MAGIC][schema version][Smile body]}. Smile writes each
+ * property name once per message and back-references it afterwards, so lists of hundreds of
+ * quotes no longer repeat every field name; timestamps are written as numbers and nulls are
+ * dropped. The magic byte can never start a JSON document, which lets readers accept both
+ * encodings on the same topic while consumers migrate.
+ */
+public final class CompactBinaryCodec {
+
+    public static final byte MAGIC = (byte) 0xB1;
+    /**
+     * Bumped only for incompatible changes. Added fields do not need a bump because decoding
+     * ignores unknown properties.
+     */
+    public static final byte SCHEMA_VERSION = 1;
+
+    private static final int HEADER_LENGTH = 2;
+
+    private final ObjectMapper mapper;
+
+    public CompactBinaryCodec() {
+        SmileFactory factory = SmileFactory.builder()
+            .enable(SmileGenerator.Feature.CHECK_SHARED_NAMES)
+            .enable(SmileGenerator.Feature.CHECK_SHARED_STRING_VALUES)
+            .build();
+        this.mapper = new ObjectMapper(factory)
+            .registerModule(new JavaTimeModule())
+            .enable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+            .setSerializationInclusion(JsonInclude.Include.NON_NULL)
+            .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+    }
+
+    public byte[] encode(Object value) {
+        try {
+            ByteArrayOutputStream out = new ByteArrayOutputStream(4096);
+            out.write(MAGIC);
+            out.write(SCHEMA_VERSION);
+            mapper.writeValue(out, value);
+            return out.toByteArray();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to encode " + value.getClass().getSimpleName(), e);
+        }
+    }
+
+    public <T> T decode(byte[] payload, Class<T> type) {
+        if (!isBinary(payload)) {
+            throw new IllegalArgumentException("Payload is not in the compact binary format");
+        }
+        int version = schemaVersion(payload);
+        if (version > SCHEMA_VERSION) {
+            throw new IllegalArgumentException("Unsupported schema version " + version + ", this reader supports up to " + SCHEMA_VERSION);
+        }
+        try {
+            return mapper.readValue(payload, HEADER_LENGTH, payload.length - HEADER_LENGTH, type);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to decode " + type.getSimpleName(), e);
+        }
+    }
+
+    public static boolean isBinary(byte[] payload) {
+        return payload != null && payload.length > HEADER_LENGTH && payload[0] == MAGIC;
+    }
+
+    public static int schemaVersion(byte[] payload) {
+        return payload[1] & 0xFF;
+    }
+}
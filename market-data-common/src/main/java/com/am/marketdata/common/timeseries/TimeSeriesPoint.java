@@ -0,0 +1,46 @@
+package com.am.marketdata.common.timeseries;
+
+import lombok.Getter;
+
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Store-agnostic time-series point. Null tags and fields are dropped as they are added,
+ * so mappers can pass optional model values straight through.
+ */
+@Getter
+public class TimeSeriesPoint {
+    private final String measurement;
+    private final Map<String, String> tags = new LinkedHashMap<>();
+    private final Map<String, Number> fields = new LinkedHashMap<>();
+    private Instant time;
+
+    private TimeSeriesPoint(String measurement) {
+        this.measurement = measurement;
+    }
+
+    public static TimeSeriesPoint measurement(String measurement) {
+        return new TimeSeriesPoint(measurement);
+    }
+
+    public TimeSeriesPoint tag(String name, String value) {
+        if (value != null && !value.isEmpty()) {
+            tags.put(name, value);
+        }
+        return this;
+    }
+
+    public TimeSeriesPoint field(String name, Number value) {
+        if (value != null) {
+            fields.put(name, value);
+        }
+        return this;
+    }
+
+    public TimeSeriesPoint time(Instant time) {
+        this.time = time;
+        return this;
+    }
+}
@@ -0,0 +1,12 @@
+package com.am.marketdata.common.timeseries;
+
+import java.util.List;
+
+/**
+ * Destination for high-frequency price points. Implementations must not block the caller;
+ * points are buffered and written in the background.
+ */
+public interface TimeSeriesSink {
+
+    void write(List<TimeSeriesPoint> points);
+}
@@ -0,0 +1,9 @@
+package com.am.marketdata.common.trace;
+
+/**
+ * Deferred trace text; only invoked when the request was sampled.
+ */
+@FunctionalInterface
+public interface PayloadSupplier {
+    String get() throws Exception;
+}
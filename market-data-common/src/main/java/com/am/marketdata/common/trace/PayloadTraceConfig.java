@@ -0,0 +1,26 @@
+package com.am.marketdata.common.trace;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.HashMap;
+import java.util.Map;
+
+@Data
+@Configuration
+@ConfigurationProperties(prefix = "market.data.trace")
+public class PayloadTraceConfig {
+    private boolean enabled = true;
+    // Fraction of requests traced when an endpoint has no rate of its own
+    private double defaultSampleRate = 0.01;
+    // Per-endpoint overrides keyed by endpoint, e.g. ohlc or /api/etf
+    private Map<String, Double> sampleRates = new HashMap<>();
+
+    // Raw payloads of sampled requests are appended to a rolling local file
+    private boolean captureEnabled = false;
+    private String captureFile = "logs/payload-trace.log";
+    private long maxFileSizeBytes = 10 * 1024 * 1024;
+    private int maxFiles = 5;
+    private int captureQueueSize = 100;
+}
@@ -0,0 +1,126 @@
+package com.am.marketdata.common.trace;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Sampled request/response tracing for the HTTP clients. The sampling decision is made once per
+ * request; unsampled requests get a no-op {@link Sample} so nothing is formatted, serialized or
+ * written. Traced text is redacted before it is logged or captured, and captured payloads go to a
+ * rolling file from a single background thread that drops records rather than block callers.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class PayloadTracer {
+    private final PayloadTraceConfig traceConfig;
+
+    private ThreadPoolExecutor captureExecutor;
+    private RollingPayloadFile captureFile;
+
+    @PostConstruct
+    public void initialize() {
+        if (traceConfig.isEnabled() && traceConfig.isCaptureEnabled()) {
+            captureFile = new RollingPayloadFile(Path.of(traceConfig.getCaptureFile()),
+                traceConfig.getMaxFileSizeBytes(), traceConfig.getMaxFiles());
+            captureExecutor = new ThreadPoolExecutor(1, 1, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(Math.max(1, traceConfig.getCaptureQueueSize())),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "payload-trace");
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+            log.info("Payload capture enabled, writing sampled payloads to {}", traceConfig.getCaptureFile());
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (captureExecutor != null) {
+            captureExecutor.shutdown();
+        }
+    }
+
+    /**
+     * Decides whether this request to {@code endpoint} is traced.
+     */
+    public Sample sample(String endpoint) {
+        if (!traceConfig.isEnabled()) {
+            return Sample.NONE;
+        }
+        double rate = traceConfig.getSampleRates().getOrDefault(endpoint, traceConfig.getDefaultSampleRate());
+        if (rate <= 0 || (rate < 1 && ThreadLocalRandom.current().nextDouble() >= rate)) {
+            return Sample.NONE;
+        }
+        return new Sample(this, endpoint);
+    }
+
+    private void capture(String endpoint, String payload) {
+        if (captureExecutor == null) {
+            return;
+        }
+        String record = Instant.now() + " [" + endpoint + "] " + payload;
+        try {
+            captureExecutor.execute(() -> {
+                try {
+                    captureFile.append(record);
+                } catch (Exception e) {
+                    log.warn("Failed to write payload capture: {}", e.getMessage());
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            log.debug("Payload capture queue full, dropping sample for {}", endpoint);
+        }
+    }
+
+    private static String resolve(PayloadSupplier supplier) {
+        try {
+            return Redactor.redact(supplier.get());
+        } catch (Exception e) {
+            return "<failed to format trace: " + e.getMessage() + ">";
+        }
+    }
+
+    /**
+     * Trace handle for one request. Suppliers run only when the request was sampled.
+     */
+    public static final class Sample {
+        static final Sample NONE = new Sample(null, null);
+
+        private final PayloadTracer tracer;
+        private final String endpoint;
+
+        private Sample(PayloadTracer tracer, String endpoint) {
+            this.tracer = tracer;
+            this.endpoint = endpoint;
+        }
+
+        public boolean isSampled() {
+            return tracer != null;
+        }
+
+        public void log(String label, PayloadSupplier message) {
+            if (tracer != null) {
+                log.info("[trace:{}] {}: {}", endpoint, label, resolve(message));
+            }
+        }
+
+        public void capture(PayloadSupplier payload) {
+            if (tracer != null) {
+                tracer.capture(endpoint, resolve(payload));
+            }
+        }
+    }
+}
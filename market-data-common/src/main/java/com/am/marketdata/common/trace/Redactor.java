@@ -0,0 +1,30 @@
+package com.am.marketdata.common.trace;
+
+import java.util.regex.Pattern;
+
+/**
+ * Masks credentials in traced text: bearer tokens, cookie values and token-like JSON fields.
+ */
+public final class Redactor {
+    private static final String MASK = "*****";
+
+    private static final Pattern BEARER = Pattern.compile("(?i)(bearer\\s+)[^\\s'\"]+");
+    // Spring renders header values quoted and comma-separated; other clients print them bare
+    private static final Pattern QUOTED_COOKIE = Pattern.compile("(?i)((?:set-)?cookie\\s*:\\s*)\"[^\"]*\"(?:,\\s*\"[^\"]*\")*");
+    private static final Pattern BARE_COOKIE = Pattern.compile("(?i)((?:set-)?cookie\\s*[:=]\\s*)[^\\s\"\\[\\]][^\\]\\r\\n'\"]*");
+    private static final Pattern SECRET_FIELD = Pattern.compile(
+        "(?i)(\"(?:access_token|refresh_token|extended_token|api_key|secret|client_secret|password)\"\\s*:\\s*\")[^\"]*");
+
+    private Redactor() {
+    }
+
+    public static String redact(String text) {
+        if (text == null || text.isEmpty()) {
+            return text;
+        }
+        String redacted = BEARER.matcher(text).replaceAll("$1" + MASK);
+        redacted = QUOTED_COOKIE.matcher(redacted).replaceAll("$1\"" + MASK + "\"");
+        redacted = BARE_COOKIE.matcher(redacted).replaceAll("$1" + MASK);
+        return SECRET_FIELD.matcher(redacted).replaceAll("$1" + MASK);
+    }
+}
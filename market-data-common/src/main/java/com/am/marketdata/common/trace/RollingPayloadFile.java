@@ -0,0 +1,59 @@
+package com.am.marketdata.common.trace;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Size-bounded append-only file. When the active file reaches {@code maxFileSizeBytes} it is
+ * renamed to {@code .1}, older generations shift up and anything past {@code maxFiles} is dropped.
+ * Not thread-safe; {@link PayloadTracer} writes from a single thread.
+ */
+class RollingPayloadFile {
+    private final Path file;
+    private final long maxFileSizeBytes;
+    private final int maxFiles;
+
+    RollingPayloadFile(Path file, long maxFileSizeBytes, int maxFiles) {
+        this.file = file;
+        this.maxFileSizeBytes = maxFileSizeBytes;
+        this.maxFiles = Math.max(1, maxFiles);
+    }
+
+    void append(String record) throws IOException {
+        Path parent = file.toAbsolutePath().getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+        if (Files.exists(file) && Files.size(file) >= maxFileSizeBytes) {
+            roll();
+        }
+        try (OutputStream out = Files.newOutputStream(file, StandardOpenOption.CREATE, StandardOpenOption.APPEND)) {
+            out.write(record.getBytes(StandardCharsets.UTF_8));
+            out.write('\n');
+        }
+    }
+
+    private void roll() throws IOException {
+        Files.deleteIfExists(generation(maxFiles - 1));
+        for (int i = maxFiles - 2; i >= 1; i--) {
+            Path source = generation(i);
+            if (Files.exists(source)) {
+                Files.move(source, generation(i + 1), StandardCopyOption.REPLACE_EXISTING);
+            }
+        }
+        if (maxFiles > 1) {
+            Files.move(file, generation(1), StandardCopyOption.REPLACE_EXISTING);
+        } else {
+            Files.delete(file);
+        }
+    }
+
+    private Path generation(int index) {
+        return file.resolveSibling(file.getFileName() + "." + index);
+    }
+}
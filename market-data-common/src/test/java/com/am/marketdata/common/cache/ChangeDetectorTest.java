@@ -0,0 +1,121 @@
+package com.am.marketdata.common.cache;
+
+import com.am.marketdata.common.testing.MutableClock;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ChangeDetectorTest {
+
+    private MutableClock clock;
+    private ChangeDetector<String[]> detector;
+
+    @BeforeEach
+    void setUp() {
+        clock = new MutableClock(Instant.parse("2025-03-10T09:15:00Z"));
+        detector = new ChangeDetector<>(record -> record[0], record -> Arrays.asList(record[1]),
+            Duration.ofMinutes(15), clock);
+    }
+
+    @Test
+    void shouldForwardEverythingOnFirstCycle() {
+        ChangeDetector<String[]>.Cycle cycle = detector.startCycle();
+
+        List<String[]> changed = cycle.filterChanged(List.of(quote("A", "1.0"), quote("B", "2.0")));
+
+        assertTrue(cycle.isFullSnapshot());
+        assertEquals(2, changed.size());
+    }
+
+    @Test
+    void shouldSuppressUnchangedRecords() {
+        deliver(List.of(quote("A", "1.0"), quote("B", "2.0")));
+        clock.advance(Duration.ofMinutes(1));
+
+        List<String[]> changed = detector.startCycle().filterChanged(List.of(quote("A", "1.0"), quote("B", "2.5")));
+
+        assertEquals(1, changed.size());
+        assertEquals("B", changed.get(0)[0]);
+    }
+
+    @Test
+    void shouldForwardFullSnapshotWhenIntervalElapsed() {
+        deliver(List.of(quote("A", "1.0"), quote("B", "2.0")));
+        clock.advance(Duration.ofMinutes(15));
+
+        List<String[]> changed = detector.startCycle().filterChanged(List.of(quote("A", "1.0"), quote("B", "2.0")));
+
+        assertEquals(2, changed.size());
+    }
+
+    @Test
+    void shouldKeepFullSnapshotForEveryChunkOfACycle() {
+        deliver(List.of(quote("A", "1.0"), quote("B", "2.0"), quote("C", "3.0")));
+        clock.advance(Duration.ofMinutes(15));
+
+        ChangeDetector<String[]>.Cycle cycle = detector.startCycle();
+        List<String[]> firstChunk = cycle.filterChanged(List.<String[]>of(quote("A", "1.0")));
+        cycle.commit(firstChunk);
+        List<String[]> secondChunk = cycle.filterChanged(List.of(quote("B", "2.0"), quote("C", "3.0")));
+
+        assertEquals(1, firstChunk.size());
+        assertEquals(2, secondChunk.size());
+    }
+
+    @Test
+    void shouldDecideSnapshotModeOncePerCycle() {
+        deliver(List.<String[]>of(quote("A", "1.0")));
+        clock.advance(Duration.ofMinutes(10));
+
+        ChangeDetector<String[]>.Cycle cycle = detector.startCycle();
+        clock.advance(Duration.ofMinutes(10));
+
+        assertFalse(cycle.isFullSnapshot());
+        assertTrue(cycle.filterChanged(List.<String[]>of(quote("A", "1.0"))).isEmpty());
+    }
+
+    @Test
+    void shouldRetryRecordsThatWereNotCommitted() {
+        deliver(List.<String[]>of(quote("A", "1.0")));
+        clock.advance(Duration.ofMinutes(1));
+
+        // The write of the changed quote fails, so it is never committed
+        ChangeDetector<String[]>.Cycle failed = detector.startCycle();
+        assertEquals(1, failed.filterChanged(List.<String[]>of(quote("A", "1.5"))).size());
+        failed.finish(false);
+        clock.advance(Duration.ofMinutes(1));
+
+        List<String[]> retried = detector.startCycle().filterChanged(List.<String[]>of(quote("A", "1.5")));
+
+        assertEquals(1, retried.size());
+    }
+
+    @Test
+    void shouldRepeatFullSnapshotAfterFailedSnapshotCycle() {
+        ChangeDetector<String[]>.Cycle failed = detector.startCycle();
+        failed.commit(failed.filterChanged(List.<String[]>of(quote("A", "1.0"))));
+        failed.finish(false);
+        clock.advance(Duration.ofMinutes(1));
+
+        ChangeDetector<String[]>.Cycle next = detector.startCycle();
+
+        assertTrue(next.isFullSnapshot());
+        assertEquals(1, next.filterChanged(List.<String[]>of(quote("A", "1.0"))).size());
+    }
+
+    private void deliver(List<String[]> quotes) {
+        ChangeDetector<String[]>.Cycle cycle = detector.startCycle();
+        cycle.commit(cycle.filterChanged(quotes));
+        cycle.finish(true);
+    }
+
+    private static String[] quote(String key, String price) {
+        return new String[] {key, price};
+    }
+}
@@ -0,0 +1,62 @@
+package com.am.marketdata.common.quote;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LatestValueStoreTest {
+
+    private final LatestValueStore<String> store = new LatestValueStore<>();
+
+    @Test
+    void shouldKeepLatestValuePerKey() {
+        store.apply("INFY", "1500.0", 1000);
+        store.apply("INFY", "1501.5", 2000);
+        store.apply("TCS", "3900.0", 1500);
+
+        assertEquals(Optional.of("1501.5"), store.get("INFY"));
+        assertEquals(Optional.of("3900.0"), store.get("TCS"));
+        assertEquals(2, store.size());
+    }
+
+    @Test
+    void shouldIgnoreOlderUpdates() {
+        store.apply("INFY", "1501.5", 2000);
+
+        boolean applied = store.apply("INFY", "1500.0", 1000);
+
+        assertFalse(applied);
+        assertEquals(Optional.of("1501.5"), store.get("INFY"));
+    }
+
+    @Test
+    void shouldApplyUpdateWithSameTimestamp() {
+        store.apply("INFY", "1500.0", 1000);
+
+        assertTrue(store.apply("INFY", "1500.5", 1000));
+        assertEquals(Optional.of("1500.5"), store.get("INFY"));
+    }
+
+    @Test
+    void shouldRemoveKeyOnTombstone() {
+        store.apply("INFY", "1500.0", 1000);
+
+        store.apply("INFY", null, 2000);
+
+        assertEquals(Optional.empty(), store.get("INFY"));
+        assertEquals(0, store.size());
+    }
+
+    @Test
+    void shouldReturnDetachedSnapshot() {
+        store.apply("INFY", "1500.0", 1000);
+        Map<String, String> snapshot = store.snapshot();
+
+        store.apply("TCS", "3900.0", 1000);
+
+        assertEquals(Map.of("INFY", "1500.0"), snapshot);
+    }
+}
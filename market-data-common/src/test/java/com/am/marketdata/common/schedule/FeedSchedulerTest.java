@@ -0,0 +1,234 @@
+package com.am.marketdata.common.schedule;
+
+import com.am.marketdata.common.testing.MutableClock;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.AbstractExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FeedSchedulerTest {
+
+    // Monday 2026-10-05; continuous trading runs 03:45Z-10:00Z
+    private static final Instant CONTINUOUS = Instant.parse("2026-10-05T04:00:00Z");
+    private static final Instant LATE_PRE_OPEN = Instant.parse("2026-10-05T03:44:30Z");
+
+    private MutableClock clock;
+    private MarketScheduleConfig config;
+    private SimpleMeterRegistry meterRegistry;
+    private RecordingFeed feed;
+    private FeedScheduler scheduler;
+
+    @BeforeEach
+    void setUp() {
+        clock = new MutableClock(CONTINUOUS);
+        meterRegistry = new SimpleMeterRegistry();
+        config = new MarketScheduleConfig();
+        MarketScheduleConfig.FeedCadence cadence = new MarketScheduleConfig.FeedCadence();
+        cadence.setPreOpen(Duration.ofSeconds(60));
+        cadence.setContinuous(Duration.ofSeconds(15));
+        config.setFeeds(Map.of("quotes", cadence));
+        feed = new RecordingFeed("quotes");
+    }
+
+    @Test
+    void shouldRunOncePerInterval() {
+        start();
+
+        scheduler.tick();
+        advance(Duration.ofSeconds(10));
+        scheduler.tick();
+        advance(Duration.ofSeconds(5));
+        scheduler.tick();
+
+        assertEquals(List.of(MarketSession.CONTINUOUS, MarketSession.CONTINUOUS), feed.runs);
+        assertEquals(0.0, coalesced());
+    }
+
+    @Test
+    void shouldSkipMissedPeriodsInsteadOfReplayingThem() {
+        start();
+        scheduler.tick();
+        advance(Duration.ofSeconds(15));
+        scheduler.tick();
+
+        // When the tick thread stalls past three periods
+        advance(Duration.ofSeconds(50));
+        scheduler.tick();
+
+        // Then the feed runs once and the two periods missed outright are counted, not replayed
+        assertEquals(3, feed.runs.size());
+        assertEquals(2.0, coalesced());
+
+        // And the cadence stays on the original grid
+        advance(Duration.ofSeconds(5));
+        scheduler.tick();
+        assertEquals(3, feed.runs.size());
+        advance(Duration.ofSeconds(5));
+        scheduler.tick();
+        assertEquals(4, feed.runs.size());
+    }
+
+    @Test
+    void shouldCoalesceTicksArrivingWhileRunningIntoOneFollowUp() {
+        // Given a run that lasts two periods, during which the tick thread keeps firing
+        feed.duringFirstRun = () -> {
+            advance(Duration.ofSeconds(15));
+            scheduler.tick();
+            advance(Duration.ofSeconds(15));
+            scheduler.tick();
+        };
+        start();
+
+        // When
+        scheduler.tick();
+
+        // Then the feed never overlapped itself and ran exactly once more afterwards
+        assertEquals(2, feed.runs.size());
+        assertEquals(1, feed.maxConcurrency);
+        assertEquals(1.0, coalesced());
+    }
+
+    @Test
+    void shouldRunStraightAwayWhenSessionChanges() {
+        // Given a pre-open run due again only after the continuous session has started
+        clock.set(LATE_PRE_OPEN);
+        start();
+        scheduler.tick();
+
+        // When continuous trading starts 30 seconds later
+        advance(Duration.ofSeconds(30));
+        scheduler.tick();
+        advance(Duration.ofSeconds(10));
+        scheduler.tick();
+
+        // Then the new session's cadence starts immediately
+        assertEquals(List.of(MarketSession.PRE_OPEN, MarketSession.CONTINUOUS), feed.runs);
+    }
+
+    @Test
+    void shouldNotRunInSessionsWithoutCadence() {
+        start();
+
+        // Post-close has no cadence for this feed
+        clock.set(Instant.parse("2026-10-05T10:05:00Z"));
+        scheduler.tick();
+        // Weekend
+        clock.set(Instant.parse("2026-10-03T05:00:00Z"));
+        scheduler.tick();
+        // Exchange holiday from the NSE calendar
+        clock.set(Instant.parse("2026-10-20T05:00:00Z"));
+        scheduler.tick();
+
+        assertTrue(feed.runs.isEmpty());
+    }
+
+    @Test
+    void shouldKeepSchedulingAfterFeedFails() {
+        feed.failing = true;
+        start();
+
+        scheduler.tick();
+        advance(Duration.ofSeconds(15));
+        scheduler.tick();
+
+        assertEquals(2, feed.runs.size());
+        assertEquals(2.0, meterRegistry.counter("market.schedule.failures", "feed", "quotes").count());
+    }
+
+    private void start() {
+        StaticListableBeanFactory beans = new StaticListableBeanFactory(Map.of("quotes", feed));
+        scheduler = new FeedScheduler(config, new MarketSessionCalendar(config), beans.getBeanProvider(ScheduledFeed.class),
+            meterRegistry, clock, name -> new DirectExecutorService());
+        scheduler.registerFeeds();
+    }
+
+    private void advance(Duration duration) {
+        clock.set(clock.instant().plus(duration));
+    }
+
+    private double coalesced() {
+        return meterRegistry.counter("market.schedule.coalesced", "feed", "quotes").count();
+    }
+
+    private static final class RecordingFeed implements ScheduledFeed {
+        private final String name;
+        private final List<MarketSession> runs = new ArrayList<>();
+        private Runnable duringFirstRun;
+        private boolean failing;
+        private int concurrency;
+        private int maxConcurrency;
+
+        RecordingFeed(String name) {
+            this.name = name;
+        }
+
+        @Override
+        public String getName() {
+            return name;
+        }
+
+        @Override
+        public void run(MarketSession session) {
+            runs.add(session);
+            maxConcurrency = Math.max(maxConcurrency, ++concurrency);
+            try {
+                if (runs.size() == 1 && duringFirstRun != null) {
+                    duringFirstRun.run();
+                }
+                if (failing) {
+                    throw new IllegalStateException("feed failed");
+                }
+            } finally {
+                concurrency--;
+            }
+        }
+    }
+
+    // Runs work on the calling thread, so every tick finishes its runs before returning
+    private static final class DirectExecutorService extends AbstractExecutorService {
+        private boolean shutdown;
+
+        @Override
+        public void execute(Runnable command) {
+            command.run();
+        }
+
+        @Override
+        public void shutdown() {
+            shutdown = true;
+        }
+
+        @Override
+        public List<Runnable> shutdownNow() {
+            shutdown = true;
+            return Collections.emptyList();
+        }
+
+        @Override
+        public boolean isShutdown() {
+            return shutdown;
+        }
+
+        @Override
+        public boolean isTerminated() {
+            return shutdown;
+        }
+
+        @Override
+        public boolean awaitTermination(long timeout, TimeUnit unit) {
+            return true;
+        }
+    }
+}
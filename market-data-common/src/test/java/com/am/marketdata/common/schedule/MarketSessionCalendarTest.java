@@ -0,0 +1,73 @@
+package com.am.marketdata.common.schedule;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MarketSessionCalendarTest {
+
+    private MarketSessionCalendar calendar;
+
+    @BeforeEach
+    void setUp() {
+        MarketScheduleConfig config = new MarketScheduleConfig();
+        config.setHolidays(List.of(LocalDate.parse("2026-10-02")));
+        calendar = new MarketSessionCalendar(config, Clock.fixed(Instant.parse("2026-10-05T04:30:00Z"), ZoneOffset.UTC));
+    }
+
+    @Test
+    void shouldResolveSessionsOnTradingDay() {
+        // Monday 2026-10-05, IST is UTC+05:30
+        assertEquals(MarketSession.CLOSED, calendar.sessionAt(Instant.parse("2026-10-05T03:00:00Z")));
+        assertEquals(MarketSession.PRE_OPEN, calendar.sessionAt(Instant.parse("2026-10-05T03:35:00Z")));
+        assertEquals(MarketSession.CONTINUOUS, calendar.sessionAt(Instant.parse("2026-10-05T03:45:00Z")));
+        assertEquals(MarketSession.POST_CLOSE, calendar.sessionAt(Instant.parse("2026-10-05T10:00:00Z")));
+        assertEquals(MarketSession.CLOSED, calendar.sessionAt(Instant.parse("2026-10-05T10:30:00Z")));
+    }
+
+    @Test
+    void shouldBeClosedOnWeekendsAndHolidays() {
+        assertEquals(MarketSession.CLOSED, calendar.sessionAt(Instant.parse("2026-10-03T05:00:00Z")));
+        assertEquals(MarketSession.CLOSED, calendar.sessionAt(Instant.parse("2026-10-02T05:00:00Z")));
+    }
+
+    @Test
+    void shouldUseClockForCurrentSession() {
+        assertEquals(MarketSession.CONTINUOUS, calendar.current());
+    }
+
+    @Test
+    void shouldPlaceLastTradingMomentAtMostRecentClose() {
+        // During the session it is the instant itself
+        Instant continuous = Instant.parse("2026-10-05T05:00:00Z");
+        assertEquals(continuous, calendar.lastTradingMoment(continuous));
+
+        // After the close, including post-close, it is today's 15:30 IST
+        assertEquals(Instant.parse("2026-10-05T10:00:00Z"), calendar.lastTradingMoment(Instant.parse("2026-10-05T10:20:00Z")));
+        assertEquals(Instant.parse("2026-10-05T10:00:00Z"), calendar.lastTradingMoment(Instant.parse("2026-10-05T15:00:00Z")));
+
+        // In pre-open on Monday it is Friday's close; on Tuesday 2026-10-06 it is Monday's
+        assertEquals(Instant.parse("2026-10-01T10:00:00Z"), calendar.lastTradingMoment(Instant.parse("2026-10-05T03:35:00Z")));
+        assertEquals(Instant.parse("2026-10-05T10:00:00Z"), calendar.lastTradingMoment(Instant.parse("2026-10-06T03:35:00Z")));
+    }
+
+    @Test
+    void shouldSkipWeekendsAndHolidaysForLastTradingMoment() {
+        // Saturday 2026-10-03: Friday 2026-10-02 is a holiday, so Thursday's close
+        assertEquals(Instant.parse("2026-10-01T10:00:00Z"), calendar.lastTradingMoment(Instant.parse("2026-10-03T05:00:00Z")));
+    }
+
+    @Test
+    void shouldLoadExchangeHolidayCalendar() {
+        // Dussehra comes only from the NSE calendar file, not the configured list
+        assertEquals(MarketSession.CLOSED, calendar.sessionAt(Instant.parse("2026-10-20T05:00:00Z")));
+        assertEquals(15, calendar.getHolidays().size());
+    }
+}
@@ -0,0 +1,63 @@
+package com.am.marketdata.common.serializer;
+
+import com.am.marketdata.common.model.NseETFResponse;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Round-trip timings of the binary codec against JSON for a full ETF cycle. Excluded from the
+ * regular build because timings depend on the machine; run with {@code mvn test -Pbenchmark}.
+ */
+@Slf4j
+@Tag("benchmark")
+class CompactBinaryCodecBenchmarkTest {
+
+    private static final int WARMUP_ITERATIONS = 2000;
+    private static final int MEASURED_ITERATIONS = 2000;
+
+    private final ObjectMapper json = new ObjectMapper()
+        .setSerializationInclusion(JsonInclude.Include.NON_NULL)
+        .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+    private final CompactBinaryCodec codec = new CompactBinaryCodec();
+
+    @Test
+    void compareRoundTripWithJson() throws IOException {
+        NseETFResponse cycle = CompactBinaryCodecTest.cycleSnapshot(json, CompactBinaryCodecTest.CYCLE_SIZE);
+
+        double jsonMicros = microsPerRoundTrip(() -> json.readValue(json.writeValueAsBytes(cycle), NseETFResponse.class));
+        double binaryMicros = microsPerRoundTrip(() -> codec.decode(codec.encode(cycle), NseETFResponse.class));
+
+        log.info("{} ETFs: json={} bytes in {} us, binary={} bytes in {} us per round trip",
+            CompactBinaryCodecTest.CYCLE_SIZE, json.writeValueAsBytes(cycle).length, String.format("%.1f", jsonMicros),
+            codec.encode(cycle).length, String.format("%.1f", binaryMicros));
+        assertTrue(binaryMicros > 0 && jsonMicros > 0);
+    }
+
+    private static double microsPerRoundTrip(RoundTrip roundTrip) throws IOException {
+        Object sink = null;
+        for (int i = 0; i < WARMUP_ITERATIONS; i++) {
+            sink = roundTrip.run();
+        }
+        long started = System.nanoTime();
+        for (int i = 0; i < MEASURED_ITERATIONS; i++) {
+            sink = roundTrip.run();
+        }
+        long elapsed = System.nanoTime() - started;
+        // Keeps the results reachable so the loop cannot be optimised away
+        assertNotNull(sink);
+        return elapsed / 1000.0 / MEASURED_ITERATIONS;
+    }
+
+    @FunctionalInterface
+    private interface RoundTrip {
+        Object run() throws IOException;
+    }
+}
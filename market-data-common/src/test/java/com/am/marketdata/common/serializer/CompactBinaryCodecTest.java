@@ -0,0 +1,102 @@
+package com.am.marketdata.common.serializer;
+
+import com.am.marketdata.common.model.NseETFResponse;
+import com.am.marketdata.common.util.JsonUtils;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.ClassPathResource;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CompactBinaryCodecTest {
+
+    // Roughly the number of ETFs NSE lists in one snapshot
+    static final int CYCLE_SIZE = 250;
+    // Shared property names and values make a full cycle about a third of its JSON size
+    private static final int MIN_SIZE_RATIO = 2;
+
+    private final ObjectMapper json = new ObjectMapper()
+        .setSerializationInclusion(JsonInclude.Include.NON_NULL)
+        .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+    private final CompactBinaryCodec codec = new CompactBinaryCodec();
+
+    @Test
+    void shouldRoundTripFixture() {
+        // Given
+        NseETFResponse response = JsonUtils.fromResource("etf.json", NseETFResponse.class);
+
+        // When
+        byte[] encoded = codec.encode(response);
+        NseETFResponse decoded = codec.decode(encoded, NseETFResponse.class);
+
+        // Then
+        assertTrue(CompactBinaryCodec.isBinary(encoded));
+        assertEquals(CompactBinaryCodec.SCHEMA_VERSION, CompactBinaryCodec.schemaVersion(encoded));
+        assertEquals(response, decoded);
+    }
+
+    @Test
+    void shouldNotBeMistakenForJson() throws IOException {
+        byte[] jsonPayload = json.writeValueAsBytes(JsonUtils.fromResource("etf.json", NseETFResponse.class));
+
+        assertFalse(CompactBinaryCodec.isBinary(jsonPayload));
+        assertThrows(IllegalArgumentException.class, () -> codec.decode(jsonPayload, NseETFResponse.class));
+    }
+
+    @Test
+    void shouldRejectNewerSchemaVersion() {
+        byte[] encoded = codec.encode(JsonUtils.fromResource("etf.json", NseETFResponse.class));
+        encoded[1] = (byte) (CompactBinaryCodec.SCHEMA_VERSION + 1);
+
+        assertThrows(IllegalArgumentException.class, () -> codec.decode(encoded, NseETFResponse.class));
+    }
+
+    @Test
+    void shouldBeAtMostHalfTheSizeOfJsonForFullCycle() throws IOException {
+        // Given a cycle-sized snapshot built from the fixture with distinct symbols and prices
+        NseETFResponse cycle = cycleSnapshot(json, CYCLE_SIZE);
+
+        // When JSON also leaves out nulls, as the codec does
+        byte[] jsonPayload = json.writeValueAsBytes(cycle);
+        byte[] binaryPayload = codec.encode(cycle);
+
+        // Then
+        assertEquals(cycle, codec.decode(binaryPayload, NseETFResponse.class));
+        assertTrue(binaryPayload.length * MIN_SIZE_RATIO <= jsonPayload.length,
+            "Binary payload (" + binaryPayload.length + " bytes) should be at most 1/" + MIN_SIZE_RATIO
+                + " of JSON (" + jsonPayload.length + " bytes)");
+    }
+
+    /**
+     * Builds a snapshot of {@code size} ETFs from the fixture, each with its own symbol, name,
+     * ISIN, price and quantity so shared-value back-references do not flatter the binary size.
+     */
+    static NseETFResponse cycleSnapshot(ObjectMapper json, int size) throws IOException {
+        ObjectNode root;
+        try (InputStream is = new ClassPathResource("etf.json").getInputStream()) {
+            root = (ObjectNode) json.readTree(is);
+        }
+        ObjectNode template = (ObjectNode) root.withArray("data").get(0);
+        ArrayNode data = json.createArrayNode();
+        for (int i = 0; i < size; i++) {
+            ObjectNode etf = template.deepCopy();
+            etf.put("symbol", "ETF" + i);
+            etf.put("assets", "Underlying Index " + i);
+            etf.put("ltP", String.valueOf(10 + i * 0.37));
+            etf.put("qty", String.valueOf(1000 + i * 97));
+            ((ObjectNode) etf.get("meta")).put("symbol", "ETF" + i);
+            ((ObjectNode) etf.get("meta")).put("companyName", "Asset Management Company " + i + " ETF");
+            ((ObjectNode) etf.get("meta")).put("isin", String.format("INF%09d", i));
+            data.add(etf);
+        }
+        root.set("data", data);
+        return json.treeToValue(root, NseETFResponse.class);
+    }
+}
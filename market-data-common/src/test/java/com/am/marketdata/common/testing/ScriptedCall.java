@@ -0,0 +1,28 @@
+package com.am.marketdata.common.testing;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Supplier;
+
+/**
+ * Hands out a new incomplete future per request so the test decides how each one ends.
+ */
+public final class ScriptedCall<T> implements Supplier<CompletableFuture<T>> {
+    private final List<CompletableFuture<T>> sent = new ArrayList<>();
+
+    @Override
+    public CompletableFuture<T> get() {
+        CompletableFuture<T> request = new CompletableFuture<>();
+        sent.add(request);
+        return request;
+    }
+
+    public CompletableFuture<T> request(int index) {
+        return sent.get(index);
+    }
+
+    public int count() {
+        return sent.size();
+    }
+}
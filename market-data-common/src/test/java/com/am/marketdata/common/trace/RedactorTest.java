@@ -0,0 +1,33 @@
+package com.am.marketdata.common.trace;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RedactorTest {
+
+    @Test
+    void shouldMaskBearerToken() {
+        String redacted = Redactor.redact("curl -H 'Authorization: Bearer eyJhbGciOi.abc' -H 'Api-Version: 2.0'");
+        assertEquals("curl -H 'Authorization: Bearer *****' -H 'Api-Version: 2.0'", redacted);
+    }
+
+    @Test
+    void shouldMaskCookieHeaderValues() {
+        String redacted = Redactor.redact("Headers: [Cookie:\"nsit=abc; nseappid=xyz\", Accept:\"application/json\"]");
+        assertFalse(redacted.contains("nsit=abc"));
+        assertTrue(redacted.contains("Accept:\"application/json\""));
+    }
+
+    @Test
+    void shouldMaskTokenFieldsInJson() {
+        String redacted = Redactor.redact("{\"status\":\"success\",\"access_token\":\"secret-value\"}");
+        assertEquals("{\"status\":\"success\",\"access_token\":\"*****\"}", redacted);
+    }
+
+    @Test
+    void shouldLeaveOrdinaryPayloadUntouched() {
+        String payload = "{\"data\":[{\"symbol\":\"NIFTYBEES\",\"ltP\":\"245.10\"}]}";
+        assertEquals(payload, Redactor.redact(payload));
+    }
+}
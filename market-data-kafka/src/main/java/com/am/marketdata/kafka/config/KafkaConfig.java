@@ -1,15 +1,21 @@
 package com.am.marketdata.kafka.config;
 
+import com.am.marketdata.kafka.serialization.CompactBinarySerializer;
+import com.am.marketdata.kafka.serialization.MarketDataEventDeserializer;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.apache.kafka.clients.admin.NewTopic;
 import org.apache.kafka.clients.consumer.ConsumerConfig;
 import org.apache.kafka.clients.producer.ProducerConfig;
+import org.apache.kafka.common.config.TopicConfig;
 import org.apache.kafka.common.serialization.StringDeserializer;
 import org.apache.kafka.common.serialization.StringSerializer;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.kafka.config.ConcurrentKafkaListenerContainerFactory;
+import org.springframework.kafka.config.TopicBuilder;
 import org.springframework.kafka.core.*;
+import org.springframework.kafka.listener.ContainerProperties;
 import org.springframework.kafka.support.serializer.JsonDeserializer;
 import org.springframework.kafka.support.serializer.JsonSerializer;
 
@@ -31,6 +37,19 @@ public class KafkaConfig {
     @Value("${app.kafka.nse-indices-topic}")
     private String nseIndicesTopic;
 
+    // JSON or BINARY; consumers read both, so producers can switch at any time
+    @Value("${app.kafka.serialization.format:JSON}")
+    private String serializationFormat;
+
+    @Value("${app.kafka.consumer.max-poll-records:2000}")
+    private int maxPollRecords;
+
+    @Value("${app.kafka.consumer.fetch-min-bytes:65536}")
+    private int fetchMinBytes;
+
+    @Value("${app.kafka.consumer.fetch-max-wait-ms:100}")
+    private int fetchMaxWaitMs;
+
     @Bean
     public NewTopic createTopic() {
         return new NewTopic(topicName, 1, (short) 1);
@@ -42,12 +61,65 @@ public class KafkaConfig {
     }
 
     @Bean
-    public ProducerFactory<String, Object> producerFactory() {
+    public KafkaAdmin.NewTopics createKeyedTopics(KafkaPublishingConfig publishingConfig) {
+        if (!publishingConfig.isKeyed()) {
+            return new KafkaAdmin.NewTopics();
+        }
+        return new KafkaAdmin.NewTopics(
+            keyedTopic(publishingConfig.getEquityTopic(), publishingConfig),
+            keyedTopic(publishingConfig.getEtfTopic(), publishingConfig),
+            keyedTopic(publishingConfig.getIndicesTopic(), publishingConfig));
+    }
+
+    @Bean
+    public KafkaAdmin.NewTopics createLastValueTopics(KafkaPublishingConfig publishingConfig) {
+        KafkaPublishingConfig.LastValue lastValue = publishingConfig.getLastValue();
+        if (!lastValue.isEnabled()) {
+            return new KafkaAdmin.NewTopics();
+        }
+        return new KafkaAdmin.NewTopics(
+            compactedTopic(lastValue.getEquityTopic(), publishingConfig),
+            compactedTopic(lastValue.getEtfTopic(), publishingConfig),
+            compactedTopic(lastValue.getIndicesTopic(), publishingConfig));
+    }
+
+    private static NewTopic compactedTopic(String name, KafkaPublishingConfig publishingConfig) {
+        KafkaPublishingConfig.LastValue lastValue = publishingConfig.getLastValue();
+        return TopicBuilder.name(name)
+            .partitions(lastValue.getPartitions())
+            .replicas(publishingConfig.getReplicationFactor())
+            .compact()
+            .config(TopicConfig.MIN_COMPACTION_LAG_MS_CONFIG, String.valueOf(lastValue.getMinCompactionLagMs()))
+            .config(TopicConfig.SEGMENT_MS_CONFIG, String.valueOf(lastValue.getSegmentMs()))
+            .config(TopicConfig.MIN_CLEANABLE_DIRTY_RATIO_CONFIG, String.valueOf(lastValue.getMinCleanableDirtyRatio()))
+            .build();
+    }
+
+    private static NewTopic keyedTopic(String name, KafkaPublishingConfig publishingConfig) {
+        return new NewTopic(name, publishingConfig.getPartitions(), publishingConfig.getReplicationFactor());
+    }
+
+    @Bean
+    public ProducerFactory<String, Object> producerFactory(KafkaProducerProfileConfig profileConfig, MeterRegistry meterRegistry) {
         Map<String, Object> configProps = new HashMap<>();
         configProps.put(ProducerConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers);
         configProps.put(ProducerConfig.KEY_SERIALIZER_CLASS_CONFIG, StringSerializer.class);
-        configProps.put(ProducerConfig.VALUE_SERIALIZER_CLASS_CONFIG, JsonSerializer.class);
-        return new DefaultKafkaProducerFactory<>(configProps);
+        configProps.put(ProducerConfig.VALUE_SERIALIZER_CLASS_CONFIG,
+            "BINARY".equalsIgnoreCase(serializationFormat) ? CompactBinarySerializer.class : JsonSerializer.class);
+        // Per-instrument records are small; let the producer group them into batches per partition
+        configProps.put(ProducerConfig.LINGER_MS_CONFIG, profileConfig.effectiveLingerMs());
+        configProps.put(ProducerConfig.BATCH_SIZE_CONFIG, profileConfig.effectiveBatchSize());
+        configProps.put(ProducerConfig.COMPRESSION_TYPE_CONFIG, profileConfig.effectiveCompressionType());
+        // Idempotence keeps retried batches from being duplicated or reordered within a partition
+        configProps.put(ProducerConfig.ENABLE_IDEMPOTENCE_CONFIG, true);
+        configProps.put(ProducerConfig.ACKS_CONFIG, "all");
+        configProps.put(ProducerConfig.MAX_IN_FLIGHT_REQUESTS_PER_CONNECTION, 5);
+        configProps.put(ProducerConfig.DELIVERY_TIMEOUT_MS_CONFIG, profileConfig.getDeliveryTimeoutMs());
+        configProps.put(ProducerConfig.MAX_BLOCK_MS_CONFIG, profileConfig.getMaxBlockMs());
+        DefaultKafkaProducerFactory<String, Object> factory = new DefaultKafkaProducerFactory<>(configProps);
+        // Exposes the client's own per-topic batch size, compression ratio and record error metrics
+        factory.addListener(new MicrometerProducerListener<>(meterRegistry));
+        return factory;
     }
 
     // @Bean
@@ -60,8 +132,8 @@ public class KafkaConfig {
     // }
 
     @Bean
-    public KafkaTemplate<String, Object> kafkaTemplate() {
-        return new KafkaTemplate<>(producerFactory());
+    public KafkaTemplate<String, Object> kafkaTemplate(ProducerFactory<String, Object> producerFactory) {
+        return new KafkaTemplate<>(producerFactory);
     }
 
     // @Bean
@@ -70,20 +142,32 @@ public class KafkaConfig {
     // }
 
     @Bean
-    public ConsumerFactory<String, Object> consumerFactory() {
+    public ConsumerFactory<String, Object> consumerFactory(MeterRegistry meterRegistry) {
         Map<String, Object> props = new HashMap<>();
         props.put(ConsumerConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers);
         props.put(ConsumerConfig.GROUP_ID_CONFIG, groupId);
         props.put(ConsumerConfig.KEY_DESERIALIZER_CLASS_CONFIG, StringDeserializer.class);
-        props.put(ConsumerConfig.VALUE_DESERIALIZER_CLASS_CONFIG, JsonDeserializer.class);
+        props.put(ConsumerConfig.VALUE_DESERIALIZER_CLASS_CONFIG, MarketDataEventDeserializer.class);
         props.put(JsonDeserializer.TRUSTED_PACKAGES, "*");
-        return new DefaultKafkaConsumerFactory<>(props);
+        // Offsets are committed by the listener container once a batch has been applied
+        props.put(ConsumerConfig.ENABLE_AUTO_COMMIT_CONFIG, false);
+        // Fetch in large batches; a whole cycle of quotes per poll is cheaper than many small polls
+        props.put(ConsumerConfig.MAX_POLL_RECORDS_CONFIG, maxPollRecords);
+        props.put(ConsumerConfig.FETCH_MIN_BYTES_CONFIG, fetchMinBytes);
+        props.put(ConsumerConfig.FETCH_MAX_WAIT_MS_CONFIG, fetchMaxWaitMs);
+        DefaultKafkaConsumerFactory<String, Object> factory = new DefaultKafkaConsumerFactory<>(props);
+        // Exposes the client's own metrics, including records-lag per partition
+        factory.addListener(new MicrometerConsumerListener<>(meterRegistry));
+        return factory;
     }
 
     @Bean
-    public ConcurrentKafkaListenerContainerFactory<String, Object> kafkaListenerContainerFactory() {
+    public ConcurrentKafkaListenerContainerFactory<String, Object> kafkaListenerContainerFactory(
+            ConsumerFactory<String, Object> consumerFactory) {
         ConcurrentKafkaListenerContainerFactory<String, Object> factory = new ConcurrentKafkaListenerContainerFactory<>();
-        factory.setConsumerFactory(consumerFactory());
+        factory.setConsumerFactory(consumerFactory);
+        factory.setBatchListener(true);
+        factory.getContainerProperties().setAckMode(ContainerProperties.AckMode.MANUAL);
         return factory;
     }
 }
@@ -0,0 +1,57 @@
+package com.am.marketdata.kafka.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+@Data
+@Configuration
+@ConfigurationProperties(prefix = "app.kafka.producer")
+public class KafkaProducerProfileConfig {
+
+    /**
+     * Named producer tunings. All of them are idempotent with acks=all, so retries never duplicate
+     * or reorder records within a partition.
+     */
+    public enum Profile {
+        LOW_LATENCY(16 * 1024, 0, "lz4"),
+        BALANCED(64 * 1024, 5, "lz4"),
+        THROUGHPUT(256 * 1024, 20, "zstd");
+
+        private final int batchSize;
+        private final int lingerMs;
+        private final String compressionType;
+
+        Profile(int batchSize, int lingerMs, String compressionType) {
+            this.batchSize = batchSize;
+            this.lingerMs = lingerMs;
+            this.compressionType = compressionType;
+        }
+    }
+
+    private Profile profile = Profile.BALANCED;
+    // Optional overrides of the profile values
+    private Integer batchSize;
+    private Integer lingerMs;
+    private String compressionType;
+
+    // Records sent but not yet acknowledged; callers block once the window is full
+    private int maxInFlightRecords = 10000;
+    // How long one send call may wait in total for room in the window; records still without a slot then fail
+    private long backpressureTimeoutMs = 30000;
+    private int deliveryTimeoutMs = 120000;
+    // Upper bound on send() blocking for metadata or buffer space while the broker is unreachable
+    private long maxBlockMs = 5000;
+
+    public int effectiveBatchSize() {
+        return batchSize != null ? batchSize : profile.batchSize;
+    }
+
+    public int effectiveLingerMs() {
+        return lingerMs != null ? lingerMs : profile.lingerMs;
+    }
+
+    public String effectiveCompressionType() {
+        return compressionType != null ? compressionType : profile.compressionType;
+    }
+}
@@ -0,0 +1,57 @@
+package com.am.marketdata.kafka.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+@Data
+@Configuration
+@ConfigurationProperties(prefix = "app.kafka.publishing")
+public class KafkaPublishingConfig {
+
+    public enum Mode {
+        // One event per cycle carrying what changed (everything on a full snapshot), keyed by event type
+        BATCH,
+        // One record per instrument keyed by ISIN or symbol on the keyed topics
+        KEYED,
+        // Both, while consumers migrate to the keyed topics
+        BOTH
+    }
+
+    private Mode mode = Mode.BATCH;
+
+    // Keyed topics; partitions bound how many consumers in a group can share the load
+    private String equityTopic = "am-stock-price-update.by-instrument";
+    private String etfTopic = "nse-etf-update.by-symbol";
+    private String indicesTopic = "nse-indices-update.by-symbol";
+    private int partitions = 12;
+    private short replicationFactor = 1;
+
+    private LastValue lastValue = new LastValue();
+
+    /**
+     * Log-compacted topics holding the latest record per instrument, written on every cycle
+     * regardless of mode. Reading one from the beginning yields a complete current snapshot.
+     */
+    @Data
+    public static class LastValue {
+        private boolean enabled = true;
+        private String equityTopic = "am-stock-price.latest";
+        private String etfTopic = "nse-etf.latest";
+        private String indicesTopic = "nse-indices.latest";
+        private int partitions = 12;
+        // Keep superseded values briefly so slow readers of the head still see them
+        private long minCompactionLagMs = 60000;
+        // Roll segments often so the cleaner can compact the active day
+        private long segmentMs = 3600000;
+        private double minCleanableDirtyRatio = 0.1;
+    }
+
+    public boolean isBatch() {
+        return mode != Mode.KEYED;
+    }
+
+    public boolean isKeyed() {
+        return mode != Mode.BATCH;
+    }
+}
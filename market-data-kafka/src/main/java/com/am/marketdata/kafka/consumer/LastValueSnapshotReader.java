@@ -0,0 +1,80 @@
+package com.am.marketdata.kafka.consumer;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.consumer.Consumer;
+import org.apache.kafka.clients.consumer.ConsumerConfig;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.common.TopicPartition;
+import org.springframework.kafka.core.ConsumerFactory;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+
+/**
+ * Materializes the current state of a compacted last-value topic by reading every partition from
+ * the beginning up to the end offsets seen at start. Partitions are assigned rather than subscribed,
+ * nothing is committed, and the consumer uses its own group id instead of inheriting
+ * {@code spring.kafka.consumer.group-id}, so a bootstrap never disturbs the live consumers' offsets.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class LastValueSnapshotReader {
+
+    static final String GROUP_ID = "last-value-snapshot";
+    private static final Duration POLL_TIMEOUT = Duration.ofMillis(500);
+
+    private final ConsumerFactory<String, Object> consumerFactory;
+
+    /**
+     * @return the latest value per key; keys whose last record is a tombstone are absent
+     */
+    public <T> Map<String, T> read(String topic, Class<T> valueType, Duration timeout) {
+        Properties overrides = new Properties();
+        overrides.put(ConsumerConfig.ENABLE_AUTO_COMMIT_CONFIG, false);
+        overrides.put(ConsumerConfig.MAX_POLL_RECORDS_CONFIG, 5000);
+
+        Map<String, T> snapshot = new HashMap<>();
+        long deadline = System.nanoTime() + timeout.toNanos();
+        try (Consumer<String, Object> consumer = consumerFactory.createConsumer(GROUP_ID, GROUP_ID, null, overrides)) {
+            List<TopicPartition> partitions = consumer.partitionsFor(topic).stream()
+                .map(info -> new TopicPartition(topic, info.partition()))
+                .toList();
+            consumer.assign(partitions);
+            consumer.seekToBeginning(partitions);
+            Map<TopicPartition, Long> endOffsets = consumer.endOffsets(partitions);
+
+            while (!reachedEnd(consumer, endOffsets)) {
+                if (System.nanoTime() > deadline) {
+                    throw new IllegalStateException("Timed out after " + timeout + " reading snapshot of " + topic
+                        + " with " + snapshot.size() + " keys loaded");
+                }
+                for (ConsumerRecord<String, Object> record : consumer.poll(POLL_TIMEOUT)) {
+                    if (record.key() == null) {
+                        continue;
+                    }
+                    if (record.value() == null) {
+                        snapshot.remove(record.key());
+                    } else if (valueType.isInstance(record.value())) {
+                        snapshot.put(record.key(), valueType.cast(record.value()));
+                    } else {
+                        log.warn("Skipping record with key {} on {}: expected {} but got {}", record.key(), topic,
+                            valueType.getSimpleName(), record.value().getClass().getSimpleName());
+                    }
+                }
+            }
+        }
+        log.info("Loaded {} keys from last-value topic {}", snapshot.size(), topic);
+        return snapshot;
+    }
+
+    private static boolean reachedEnd(Consumer<String, Object> consumer, Map<TopicPartition, Long> endOffsets) {
+        return endOffsets.entrySet().stream()
+            .allMatch(end -> consumer.position(end.getKey()) >= end.getValue());
+    }
+}
@@ -0,0 +1,70 @@
+package com.am.marketdata.kafka.consumer;
+
+import com.am.common.investment.model.equity.ETFIndies;
+import com.am.common.investment.model.equity.EquityPrice;
+import com.am.common.investment.model.equity.MarketIndexIndices;
+import com.am.marketdata.common.quote.LatestValueStore;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Latest quote per instrument as last seen on the last-value topics, kept in memory so callers
+ * such as the REST API can answer without a database round trip. Keys match the producers: ISIN
+ * (or symbol) for equities, symbol for ETFs and index symbol for indices.
+ */
+@Component
+public class LatestQuoteView {
+
+    private static final String METRIC_SIZE = "market.quote.view.size";
+    private static final String TAG_TYPE = "type";
+
+    private final LatestValueStore<EquityPrice> equities = new LatestValueStore<>();
+    private final LatestValueStore<ETFIndies> etfs = new LatestValueStore<>();
+    private final LatestValueStore<MarketIndexIndices> indices = new LatestValueStore<>();
+
+    public LatestQuoteView(MeterRegistry meterRegistry) {
+        Gauge.builder(METRIC_SIZE, equities, LatestValueStore::size).tag(TAG_TYPE, "equity").register(meterRegistry);
+        Gauge.builder(METRIC_SIZE, etfs, LatestValueStore::size).tag(TAG_TYPE, "etf").register(meterRegistry);
+        Gauge.builder(METRIC_SIZE, indices, LatestValueStore::size).tag(TAG_TYPE, "indices").register(meterRegistry);
+    }
+
+    public Optional<EquityPrice> getEquity(String isinOrSymbol) {
+        return equities.get(isinOrSymbol);
+    }
+
+    public Optional<ETFIndies> getEtf(String symbol) {
+        return etfs.get(symbol);
+    }
+
+    public Optional<MarketIndexIndices> getIndex(String indexSymbol) {
+        return indices.get(indexSymbol);
+    }
+
+    public Map<String, EquityPrice> allEquities() {
+        return equities.snapshot();
+    }
+
+    public Map<String, ETFIndies> allEtfs() {
+        return etfs.snapshot();
+    }
+
+    public Map<String, MarketIndexIndices> allIndices() {
+        return indices.snapshot();
+    }
+
+    LatestValueStore<EquityPrice> equityStore() {
+        return equities;
+    }
+
+    LatestValueStore<ETFIndies> etfStore() {
+        return etfs;
+    }
+
+    LatestValueStore<MarketIndexIndices> indicesStore() {
+        return indices;
+    }
+}
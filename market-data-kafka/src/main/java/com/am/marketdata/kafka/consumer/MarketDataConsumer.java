@@ -1,13 +1,133 @@
-// package com.am.marketdata.kafka.consumer;
-
-// import org.springframework.kafka.annotation.KafkaListener;
-// import org.springframework.stereotype.Component;
-
-// @Component
-// public class MarketDataConsumer {
-    
-//     @KafkaListener(topics = "${kafka.topic.market-data}")
-//     public void consume(String message) {
-//         // Implement message consumption logic
-//     }
-// }
+package com.am.marketdata.kafka.consumer;
+
+import com.am.common.investment.model.equity.ETFIndies;
+import com.am.common.investment.model.equity.EquityPrice;
+import com.am.common.investment.model.equity.MarketIndexIndices;
+import com.am.marketdata.common.quote.LatestValueStore;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.consumer.Consumer;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.common.TopicPartition;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.kafka.listener.ConsumerSeekAware;
+import org.springframework.kafka.support.Acknowledgment;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Map;
+import java.util.OptionalLong;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Keeps {@link LatestQuoteView} current from the compacted last-value topics. Each topic has its
+ * own batch listener with one thread per partition. The view lives in memory, so the first time a
+ * partition is assigned it is read from the beginning; compaction keeps that replay to about one
+ * record per instrument. Offsets are committed after each batch has been applied.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "app.kafka.quote-view.enabled", havingValue = "true")
+public class MarketDataConsumer implements ConsumerSeekAware {
+
+    // Metric names
+    private static final String METRIC_PREFIX = "market.quote.view.";
+    private static final String METRIC_APPLIED = METRIC_PREFIX + "applied";
+    private static final String METRIC_BATCH_TIME = METRIC_PREFIX + "batch.time";
+    private static final String METRIC_LAG = METRIC_PREFIX + "lag";
+    private static final String TAG_TYPE = "type";
+    private static final String TAG_OUTCOME = "outcome";
+    private static final String TAG_TOPIC = "topic";
+    private static final String TAG_PARTITION = "partition";
+
+    private final LatestQuoteView view;
+    private final MeterRegistry meterRegistry;
+    private final Set<TopicPartition> bootstrapped = ConcurrentHashMap.newKeySet();
+    private final Map<TopicPartition, AtomicLong> lag = new ConcurrentHashMap<>();
+
+    @Override
+    public void onPartitionsAssigned(Map<TopicPartition, Long> assignments, ConsumerSeekCallback callback) {
+        List<TopicPartition> fresh = assignments.keySet().stream()
+            .filter(bootstrapped::add)
+            .toList();
+        if (!fresh.isEmpty()) {
+            log.info("Replaying {} last-value partitions from the beginning to build the quote view", fresh.size());
+            callback.seekToBeginning(fresh);
+        }
+    }
+
+    @KafkaListener(id = "quote-view-equity", topics = "${app.kafka.publishing.last-value.equity-topic}",
+        groupId = "${app.kafka.quote-view.group-id}", concurrency = "${app.kafka.publishing.last-value.partitions:12}")
+    public void onEquities(List<ConsumerRecord<String, Object>> records, Acknowledgment ack, Consumer<?, ?> consumer) {
+        apply("equity", records, view.equityStore(), EquityPrice.class, consumer);
+        ack.acknowledge();
+    }
+
+    @KafkaListener(id = "quote-view-etf", topics = "${app.kafka.publishing.last-value.etf-topic}",
+        groupId = "${app.kafka.quote-view.group-id}", concurrency = "${app.kafka.publishing.last-value.partitions:12}")
+    public void onEtfs(List<ConsumerRecord<String, Object>> records, Acknowledgment ack, Consumer<?, ?> consumer) {
+        apply("etf", records, view.etfStore(), ETFIndies.class, consumer);
+        ack.acknowledge();
+    }
+
+    @KafkaListener(id = "quote-view-indices", topics = "${app.kafka.publishing.last-value.indices-topic}",
+        groupId = "${app.kafka.quote-view.group-id}", concurrency = "${app.kafka.publishing.last-value.partitions:12}")
+    public void onIndices(List<ConsumerRecord<String, Object>> records, Acknowledgment ack, Consumer<?, ?> consumer) {
+        apply("indices", records, view.indicesStore(), MarketIndexIndices.class, consumer);
+        ack.acknowledge();
+    }
+
+    private <T> void apply(String type, List<ConsumerRecord<String, Object>> records, LatestValueStore<T> store,
+            Class<T> valueType, Consumer<?, ?> consumer) {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        int applied = 0;
+        int stale = 0;
+        int skipped = 0;
+        for (ConsumerRecord<String, Object> record : records) {
+            Object value = record.value();
+            if (record.key() == null || (value != null && !valueType.isInstance(value))) {
+                skipped++;
+                continue;
+            }
+            if (store.apply(record.key(), valueType.cast(value), record.timestamp())) {
+                applied++;
+            } else {
+                stale++;
+            }
+        }
+        sample.stop(meterRegistry.timer(METRIC_BATCH_TIME, TAG_TYPE, type));
+        meterRegistry.counter(METRIC_APPLIED, TAG_TYPE, type, TAG_OUTCOME, "applied").increment(applied);
+        meterRegistry.counter(METRIC_APPLIED, TAG_TYPE, type, TAG_OUTCOME, "stale").increment(stale);
+        if (skipped > 0) {
+            log.warn("Skipped {} {} records without a key or with an unexpected value type", skipped, type);
+            meterRegistry.counter(METRIC_APPLIED, TAG_TYPE, type, TAG_OUTCOME, "skipped").increment(skipped);
+        }
+        updateLag(consumer);
+    }
+
+    private void updateLag(Consumer<?, ?> consumer) {
+        for (TopicPartition partition : consumer.assignment()) {
+            OptionalLong current = consumer.currentLag(partition);
+            if (current.isPresent()) {
+                lag.computeIfAbsent(partition, this::registerLagGauge).set(current.getAsLong());
+            }
+        }
+    }
+
+    private AtomicLong registerLagGauge(TopicPartition partition) {
+        AtomicLong value = new AtomicLong();
+        Gauge.builder(METRIC_LAG, value, AtomicLong::get)
+            .tag(TAG_TOPIC, partition.topic())
+            .tag(TAG_PARTITION, String.valueOf(partition.partition()))
+            .description("Records between the consumer position and the end of the partition")
+            .register(meterRegistry);
+        return value;
+    }
+}
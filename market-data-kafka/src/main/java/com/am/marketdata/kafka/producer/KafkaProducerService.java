@@ -1,10 +1,12 @@
 package com.am.marketdata.kafka.producer;
 
 import lombok.extern.slf4j.Slf4j;
+import java.time.Instant;
 import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
 import java.util.List;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.kafka.core.KafkaTemplate;
 import org.springframework.stereotype.Service;
 
 import com.am.common.investment.model.equity.ETFIndies;
@@ -13,6 +15,7 @@ import com.am.common.investment.model.equity.MarketIndexIndices;
 import com.am.common.investment.model.events.ETFIndicesPriceUpdateEvent;
 import com.am.common.investment.model.events.MarketIndexIndicesPriceUpdateEvent;
 import com.am.common.investment.model.events.EquityPriceUpdateEvent;
+import com.am.marketdata.kafka.config.KafkaPublishingConfig;
 
 @Slf4j
 @Service
@@ -21,6 +24,10 @@ public class KafkaProducerService {
     private final BaseKafkaProducer<EquityPriceUpdateEvent> equityProducer;
     private final BaseKafkaProducer<ETFIndicesPriceUpdateEvent> etfProducer;
     private final BaseKafkaProducer<MarketIndexIndicesPriceUpdateEvent> indicesProducer;
+    private final KeyedKafkaProducer<EquityPrice> keyedEquityProducer;
+    private final KeyedKafkaProducer<ETFIndies> keyedEtfProducer;
+    private final KeyedKafkaProducer<MarketIndexIndices> keyedIndicesProducer;
+    private final KafkaPublishingConfig publishingConfig;
 
     @Value("${app.kafka.topic}")
     private String topic;
@@ -31,39 +38,104 @@ public class KafkaProducerService {
     @Value("${app.kafka.nse-indices-topic}")
     private String nseIndicesTopic;
     
-    public KafkaProducerService(KafkaTemplate<String, Object> kafkaTemplate) {
-        this.equityProducer = new BaseKafkaProducer<>(kafkaTemplate) {};
-        this.etfProducer = new BaseKafkaProducer<>(kafkaTemplate) {};
-        this.indicesProducer = new BaseKafkaProducer<>(kafkaTemplate) {};
+    public KafkaProducerService(TrackedKafkaSender sender, KafkaPublishingConfig publishingConfig) {
+        this.publishingConfig = publishingConfig;
+        this.equityProducer = new BaseKafkaProducer<>(sender) {};
+        this.etfProducer = new BaseKafkaProducer<>(sender) {};
+        this.indicesProducer = new BaseKafkaProducer<>(sender) {};
+        this.keyedEquityProducer = new KeyedKafkaProducer<>(sender, "EQUITY_PRICE",
+            price -> price.getIsin() != null ? price.getIsin() : price.getSymbol(), EquityPrice::getTime);
+        this.keyedEtfProducer = new KeyedKafkaProducer<>(sender, "ETF_PRICE",
+            ETFIndies::getSymbol, etf -> toInstant(etf.getTimestamp()));
+        this.keyedIndicesProducer = new KeyedKafkaProducer<>(sender, "MARKET_INDEX_PRICE",
+            MarketIndexIndices::getIndexSymbol, index -> toInstant(index.getTimestamp()));
     }
 
-    public void sendEquityPriceUpdates(List<EquityPrice> equityPrices) {
+    /**
+     * Sends {@code equityPrices} to every enabled topic. Callers pass only the records that changed
+     * since the last cycle, or every record on a full-snapshot cycle; an empty list sends nothing.
+     */
+    public SendBatch sendEquityPriceUpdates(List<EquityPrice> equityPrices) {
+        if (equityPrices.isEmpty()) {
+            return SendBatch.empty("no changed equity prices");
+        }
+        List<SendBatch> sends = new ArrayList<>(3);
+        if (publishingConfig.isKeyed()) {
+            sends.add(keyedEquityProducer.sendAll(publishingConfig.getEquityTopic(), equityPrices));
+        }
+        if (publishingConfig.getLastValue().isEnabled()) {
+            sends.add(keyedEquityProducer.sendAll(publishingConfig.getLastValue().getEquityTopic(), equityPrices));
+        }
+        if (!publishingConfig.isBatch()) {
+            return SendBatch.combine(sends);
+        }
         var event = EquityPriceUpdateEvent.builder()
             .eventType("EQUITY_PRICE_UPDATE")
             .timestamp(LocalDateTime.now())
             .equityPrices(equityPrices)
             .build();
         
-        equityProducer.sendEvent(event, topic, event.getEventType(), event.getTimestamp());
+        sends.add(equityProducer.sendEvent(event, topic, event.getEventType(), event.getTimestamp()));
+        return SendBatch.combine(sends);
     }
 
-    public void sendETFUpdate(List<ETFIndies> etfIndies) {
+    /**
+     * Sends {@code etfIndies} to every enabled topic. Callers pass only the records that changed
+     * since the last cycle, or every record on a full-snapshot cycle; an empty list sends nothing.
+     */
+    public SendBatch sendETFUpdate(List<ETFIndies> etfIndies) {
+        if (etfIndies.isEmpty()) {
+            return SendBatch.empty("no changed ETF prices");
+        }
+        List<SendBatch> sends = new ArrayList<>(3);
+        if (publishingConfig.isKeyed()) {
+            sends.add(keyedEtfProducer.sendAll(publishingConfig.getEtfTopic(), etfIndies));
+        }
+        if (publishingConfig.getLastValue().isEnabled()) {
+            sends.add(keyedEtfProducer.sendAll(publishingConfig.getLastValue().getEtfTopic(), etfIndies));
+        }
+        if (!publishingConfig.isBatch()) {
+            return SendBatch.combine(sends);
+        }
         var event = ETFIndicesPriceUpdateEvent.builder()
             .eventType("ETF_PRICE_UPDATE")
             .timestamp(etfIndies.get(0).getTimestamp())
             .etfIndies(etfIndies)
             .build();
         
-        etfProducer.sendEvent(event, nseEtfTopic, event.getEventType(), event.getTimestamp());
+        sends.add(etfProducer.sendEvent(event, nseEtfTopic, event.getEventType(), event.getTimestamp()));
+        return SendBatch.combine(sends);
     }
 
-    public void sendIndicesUpdate(List<MarketIndexIndices> marketIndexIndices) {
+    /**
+     * Sends {@code marketIndexIndices} to every enabled topic. Callers pass only the records that changed
+     * since the last cycle, or every record on a full-snapshot cycle; an empty list sends nothing.
+     */
+    public SendBatch sendIndicesUpdate(List<MarketIndexIndices> marketIndexIndices) {
+        if (marketIndexIndices.isEmpty()) {
+            return SendBatch.empty("no changed index prices");
+        }
+        List<SendBatch> sends = new ArrayList<>(3);
+        if (publishingConfig.isKeyed()) {
+            sends.add(keyedIndicesProducer.sendAll(publishingConfig.getIndicesTopic(), marketIndexIndices));
+        }
+        if (publishingConfig.getLastValue().isEnabled()) {
+            sends.add(keyedIndicesProducer.sendAll(publishingConfig.getLastValue().getIndicesTopic(), marketIndexIndices));
+        }
+        if (!publishingConfig.isBatch()) {
+            return SendBatch.combine(sends);
+        }
         var event = MarketIndexIndicesPriceUpdateEvent.builder()
             .eventType("MARKET_INDICES_PRICE_UPDATE")  
             .timestamp(LocalDateTime.now())
             .marketIndices(marketIndexIndices)
             .build();
         
-        indicesProducer.sendEvent(event, nseIndicesTopic, event.getEventType(), event.getTimestamp());
+        sends.add(indicesProducer.sendEvent(event, nseIndicesTopic, event.getEventType(), event.getTimestamp()));
+        return SendBatch.combine(sends);
+    }
+
+    private static Instant toInstant(LocalDateTime timestamp) {
+        return timestamp != null ? timestamp.atZone(ZoneId.systemDefault()).toInstant() : null;
     }
 }
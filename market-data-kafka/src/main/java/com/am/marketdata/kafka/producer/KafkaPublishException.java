@@ -0,0 +1,11 @@
+package com.am.marketdata.kafka.producer;
+
+public class KafkaPublishException extends RuntimeException {
+    public KafkaPublishException(String message) {
+        super(message);
+    }
+
+    public KafkaPublishException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
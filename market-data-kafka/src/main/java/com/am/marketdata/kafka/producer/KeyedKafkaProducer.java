@@ -0,0 +1,38 @@
+package com.am.marketdata.kafka.producer;
+
+import lombok.RequiredArgsConstructor;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.common.header.internals.RecordHeaders;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Publishes one record per instrument, keyed so that every update for an instrument lands on the
+ * same partition and stays in order while different instruments spread across partitions.
+ */
+@RequiredArgsConstructor
+public class KeyedKafkaProducer<T> {
+
+    private final TrackedKafkaSender sender;
+    private final String eventType;
+    private final Function<T, String> keyExtractor;
+    private final Function<T, Instant> timestampExtractor;
+
+    public SendBatch sendAll(String topic, List<T> items) {
+        byte[] eventTypeHeader = eventType.getBytes(StandardCharsets.UTF_8);
+        List<ProducerRecord<String, Object>> records = items.stream()
+            .map(item -> {
+                Instant timestamp = timestampExtractor.apply(item);
+                RecordHeaders headers = new RecordHeaders();
+                headers.add("eventType", eventTypeHeader);
+                headers.add("timestamp", String.valueOf(timestamp).getBytes(StandardCharsets.UTF_8));
+                return new ProducerRecord<String, Object>(topic, null,
+                    timestamp != null ? timestamp.toEpochMilli() : null, keyExtractor.apply(item), item, headers);
+            })
+            .toList();
+        return sender.send(eventType, records);
+    }
+}
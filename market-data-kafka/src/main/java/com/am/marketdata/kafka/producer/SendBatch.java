@@ -0,0 +1,79 @@
+package com.am.marketdata.kafka.producer;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Delivery outcome of the records sent for one publish call. Completes once every record has been
+ * acknowledged or has failed; failures are counted rather than thrown from producer callbacks.
+ */
+public final class SendBatch {
+    private final String description;
+    private final int records;
+    private final AtomicInteger failed;
+    private final List<SendBatch> parts;
+    private final CompletableFuture<SendBatch> completion;
+
+    SendBatch(String description, int records, AtomicInteger failed, CompletableFuture<?> delivered) {
+        this.description = description;
+        this.records = records;
+        this.failed = failed;
+        this.parts = List.of();
+        this.completion = delivered.handle((ignored, error) -> this);
+    }
+
+    private SendBatch(List<SendBatch> parts) {
+        this.description = parts.stream().map(part -> part.description).toList().toString();
+        this.records = parts.stream().mapToInt(SendBatch::getRecords).sum();
+        this.failed = null;
+        this.parts = parts;
+        this.completion = CompletableFuture.allOf(parts.stream().map(part -> part.completion).toArray(CompletableFuture[]::new))
+            .handle((ignored, error) -> this);
+    }
+
+    public static SendBatch empty(String description) {
+        return new SendBatch(description, 0, new AtomicInteger(), CompletableFuture.completedFuture(null));
+    }
+
+    public static SendBatch combine(List<SendBatch> parts) {
+        if (parts.isEmpty()) {
+            return empty("nothing");
+        }
+        return parts.size() == 1 ? parts.get(0) : new SendBatch(List.copyOf(parts));
+    }
+
+    public int getRecords() {
+        return records;
+    }
+
+    public int getFailed() {
+        return failed != null ? failed.get() : parts.stream().mapToInt(SendBatch::getFailed).sum();
+    }
+
+    public CompletableFuture<SendBatch> completion() {
+        return completion;
+    }
+
+    /**
+     * Waits for delivery and throws if any record failed or the wait timed out.
+     */
+    public SendBatch awaitDelivery(Duration timeout) {
+        try {
+            completion.get(timeout.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new KafkaPublishException("Interrupted waiting for delivery of " + description, e);
+        } catch (ExecutionException | TimeoutException e) {
+            throw new KafkaPublishException("Delivery of " + description + " not confirmed within " + timeout, e);
+        }
+        if (getFailed() > 0) {
+            throw new KafkaPublishException(getFailed() + " of " + records + " records failed for " + description);
+        }
+        return this;
+    }
+}
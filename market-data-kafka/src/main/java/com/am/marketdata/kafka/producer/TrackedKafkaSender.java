@@ -0,0 +1,128 @@
+package com.am.marketdata.kafka.producer;
+
+import com.am.marketdata.kafka.config.KafkaProducerProfileConfig;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Sends records through the shared {@link KafkaTemplate} while holding at most
+ * {@code maxInFlightRecords} unacknowledged. Callers block once the window is full, which slows
+ * producers down to what the brokers accept instead of buffering without limit.
+ */
+@Slf4j
+@Component
+public class TrackedKafkaSender {
+
+    // Metric names
+    private static final String METRIC_PREFIX = "kafka.producer.";
+    private static final String METRIC_SEND_LATENCY = METRIC_PREFIX + "send.latency";
+    private static final String METRIC_RECORD_ERRORS = METRIC_PREFIX + "record.errors";
+    private static final String METRIC_BATCH_RECORDS = METRIC_PREFIX + "batch.records";
+    private static final String METRIC_IN_FLIGHT = METRIC_PREFIX + "inflight";
+    private static final String TAG_TOPIC = "topic";
+    private static final String TAG_ERROR_TYPE = "error_type";
+
+    private final KafkaTemplate<String, Object> kafkaTemplate;
+    private final KafkaProducerProfileConfig profileConfig;
+    private final MeterRegistry meterRegistry;
+    private final Semaphore inFlight;
+
+    public TrackedKafkaSender(KafkaTemplate<String, Object> kafkaTemplate, KafkaProducerProfileConfig profileConfig,
+            MeterRegistry meterRegistry) {
+        this.kafkaTemplate = kafkaTemplate;
+        this.profileConfig = profileConfig;
+        this.meterRegistry = meterRegistry;
+        this.inFlight = new Semaphore(profileConfig.getMaxInFlightRecords());
+        Gauge.builder(METRIC_IN_FLIGHT, inFlight, permits -> profileConfig.getMaxInFlightRecords() - permits.availablePermits())
+            .description("Kafka records sent and not yet acknowledged")
+            .register(meterRegistry);
+    }
+
+    public SendBatch send(String description, List<ProducerRecord<String, Object>> records) {
+        if (records.isEmpty()) {
+            return SendBatch.empty(description);
+        }
+        String topic = records.get(0).topic();
+        DistributionSummary.builder(METRIC_BATCH_RECORDS)
+            .tag(TAG_TOPIC, topic)
+            .description("Records per publish call")
+            .register(meterRegistry)
+            .record(records.size());
+
+        AtomicInteger failed = new AtomicInteger();
+        // One deadline for the whole call: once it passes, the remaining records fail immediately
+        // instead of each waiting out the full timeout while the broker is unreachable
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(profileConfig.getBackpressureTimeoutMs());
+        CompletableFuture<?>[] acks = records.stream()
+            .map(record -> sendOne(record, deadline, failed))
+            .toArray(CompletableFuture[]::new);
+        SendBatch batch = new SendBatch(description, records.size(), failed, CompletableFuture.allOf(acks));
+        batch.completion().thenAccept(done -> {
+            if (done.getFailed() > 0) {
+                log.error("{} of {} records failed for {} on topic {}", done.getFailed(), done.getRecords(), description, topic);
+            } else {
+                log.info("Delivered {} records for {} to topic {}", done.getRecords(), description, topic);
+            }
+        });
+        return batch;
+    }
+
+    private CompletableFuture<?> sendOne(ProducerRecord<String, Object> record, long deadline, AtomicInteger failed) {
+        if (!acquire(deadline)) {
+            recordFailure(record.topic(), "backpressure_timeout", failed);
+            return CompletableFuture.completedFuture(null);
+        }
+        long started = System.nanoTime();
+        try {
+            // Failures are counted here and surfaced through the SendBatch, never thrown from the callback
+            return kafkaTemplate.send(record).handle((result, error) -> {
+                inFlight.release();
+                Timer.builder(METRIC_SEND_LATENCY)
+                    .tag(TAG_TOPIC, record.topic())
+                    .description("Time from send to broker acknowledgement")
+                    .register(meterRegistry)
+                    .record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
+                if (error != null) {
+                    log.warn("Failed to send record with key {} to topic {}: {}", record.key(), record.topic(), error.getMessage());
+                    recordFailure(record.topic(), error.getClass().getSimpleName(), failed);
+                }
+                return null;
+            });
+        } catch (RuntimeException e) {
+            // Serialization or metadata errors are thrown by send() itself
+            inFlight.release();
+            recordFailure(record.topic(), e.getClass().getSimpleName(), failed);
+            return CompletableFuture.completedFuture(null);
+        }
+    }
+
+    private boolean acquire(long deadline) {
+        long remaining = deadline - System.nanoTime();
+        if (remaining <= 0) {
+            return false;
+        }
+        try {
+            return inFlight.tryAcquire(remaining, TimeUnit.NANOSECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    private void recordFailure(String topic, String errorType, AtomicInteger failed) {
+        failed.incrementAndGet();
+        meterRegistry.counter(METRIC_RECORD_ERRORS, TAG_TOPIC, topic, TAG_ERROR_TYPE, errorType).increment();
+    }
+}
@@ -0,0 +1,36 @@
+package com.am.marketdata.kafka.serialization;
+
+import com.am.marketdata.common.serializer.CompactBinaryCodec;
+import org.apache.kafka.common.header.Headers;
+import org.apache.kafka.common.serialization.Serializer;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Writes event values with {@link CompactBinaryCodec}. The event class and schema version also go
+ * into record headers so consumers can route or reject a record without decoding it.
+ */
+public class CompactBinarySerializer implements Serializer<Object> {
+
+    public static final String HEADER_EVENT_CLASS = "eventClass";
+    public static final String HEADER_SCHEMA_VERSION = "schemaVersion";
+
+    private final CompactBinaryCodec codec = new CompactBinaryCodec();
+
+    @Override
+    public byte[] serialize(String topic, Object data) {
+        return data == null ? null : codec.encode(data);
+    }
+
+    @Override
+    public byte[] serialize(String topic, Headers headers, Object data) {
+        if (data == null) {
+            return null;
+        }
+        headers.remove(HEADER_EVENT_CLASS);
+        headers.remove(HEADER_SCHEMA_VERSION);
+        headers.add(HEADER_EVENT_CLASS, data.getClass().getName().getBytes(StandardCharsets.UTF_8));
+        headers.add(HEADER_SCHEMA_VERSION, new byte[] { CompactBinaryCodec.SCHEMA_VERSION });
+        return codec.encode(data);
+    }
+}
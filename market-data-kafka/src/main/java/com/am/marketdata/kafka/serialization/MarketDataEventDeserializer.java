@@ -0,0 +1,85 @@
+package com.am.marketdata.kafka.serialization;
+
+import com.am.marketdata.common.serializer.CompactBinaryCodec;
+import org.apache.kafka.common.errors.SerializationException;
+import org.apache.kafka.common.header.Header;
+import org.apache.kafka.common.header.Headers;
+import org.apache.kafka.common.serialization.Deserializer;
+import org.springframework.kafka.support.serializer.JsonDeserializer;
+import org.springframework.util.ClassUtils;
+import org.springframework.util.PatternMatchUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Reads values written either by {@link CompactBinarySerializer} or by Spring's JSON serializer,
+ * so a topic can switch formats without coordinating every consumer. JSON payloads are handed to
+ * a {@link JsonDeserializer} configured from the same properties.
+ */
+public class MarketDataEventDeserializer implements Deserializer<Object> {
+
+    private final CompactBinaryCodec codec = new CompactBinaryCodec();
+    private final JsonDeserializer<Object> jsonDelegate = new JsonDeserializer<>();
+    private List<String> trustedPackages = List.of();
+
+    @Override
+    public void configure(Map<String, ?> configs, boolean isKey) {
+        jsonDelegate.configure(configs, isKey);
+        Object trusted = configs.get(JsonDeserializer.TRUSTED_PACKAGES);
+        if (trusted != null) {
+            trustedPackages = Arrays.stream(trusted.toString().split(","))
+                .map(String::trim)
+                .filter(pkg -> !pkg.isEmpty())
+                .toList();
+        }
+    }
+
+    @Override
+    public Object deserialize(String topic, byte[] data) {
+        if (CompactBinaryCodec.isBinary(data)) {
+            throw new SerializationException("Binary payload on topic " + topic + " has no " + CompactBinarySerializer.HEADER_EVENT_CLASS + " header");
+        }
+        return jsonDelegate.deserialize(topic, data);
+    }
+
+    @Override
+    public Object deserialize(String topic, Headers headers, byte[] data) {
+        if (!CompactBinaryCodec.isBinary(data)) {
+            return jsonDelegate.deserialize(topic, headers, data);
+        }
+        Header eventClass = headers.lastHeader(CompactBinarySerializer.HEADER_EVENT_CLASS);
+        if (eventClass == null) {
+            return deserialize(topic, data);
+        }
+        try {
+            return codec.decode(data, resolve(new String(eventClass.value(), StandardCharsets.UTF_8)));
+        } catch (RuntimeException e) {
+            throw new SerializationException("Failed to decode binary payload on topic " + topic, e);
+        }
+    }
+
+    private Class<?> resolve(String className) {
+        if (!isTrusted(className)) {
+            throw new SerializationException("Event class " + className + " is not in the trusted packages");
+        }
+        try {
+            return Class.forName(className, true, Thread.currentThread().getContextClassLoader());
+        } catch (ClassNotFoundException e) {
+            throw new SerializationException("Unknown event class " + className, e);
+        }
+    }
+
+    // Same matching as the JSON delegate: exact package names or simple patterns such as "com.example.*"
+    private boolean isTrusted(String className) {
+        String pkg = ClassUtils.getPackageName(className);
+        return trustedPackages.stream().anyMatch(trusted -> PatternMatchUtils.simpleMatch(trusted, pkg));
+    }
+
+    @Override
+    public void close() {
+        jsonDelegate.close();
+    }
+}
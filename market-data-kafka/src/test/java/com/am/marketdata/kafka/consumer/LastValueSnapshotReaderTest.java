@@ -0,0 +1,133 @@
+package com.am.marketdata.kafka.consumer;
+
+import org.apache.kafka.clients.consumer.Consumer;
+import org.apache.kafka.clients.consumer.ConsumerConfig;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.consumer.MockConsumer;
+import org.apache.kafka.clients.consumer.OffsetResetStrategy;
+import org.apache.kafka.common.PartitionInfo;
+import org.apache.kafka.common.TopicPartition;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.kafka.mock.MockConsumerFactory;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LastValueSnapshotReaderTest {
+
+    private static final String TOPIC = "nse-etf.latest";
+    private static final TopicPartition PARTITION_0 = new TopicPartition(TOPIC, 0);
+    private static final TopicPartition PARTITION_1 = new TopicPartition(TOPIC, 1);
+
+    private MockConsumer<String, Object> consumer;
+    private RecordingConsumerFactory consumerFactory;
+    private LastValueSnapshotReader reader;
+
+    @BeforeEach
+    void setUp() {
+        consumer = new MockConsumer<>(OffsetResetStrategy.EARLIEST);
+        consumer.updatePartitions(TOPIC, List.of(
+            new PartitionInfo(TOPIC, 0, null, null, null),
+            new PartitionInfo(TOPIC, 1, null, null, null)));
+        consumer.updateBeginningOffsets(Map.of(PARTITION_0, 0L, PARTITION_1, 0L));
+        consumerFactory = new RecordingConsumerFactory(consumer);
+        reader = new LastValueSnapshotReader(consumerFactory);
+    }
+
+    @Test
+    void shouldReadLatestValuePerKeyUpToEndOffsets() {
+        // Given two partitions with end offsets 3 and 1, and a record written after the read started
+        consumer.updateEndOffsets(Map.of(PARTITION_0, 3L, PARTITION_1, 1L));
+        consumer.schedulePollTask(() -> {
+            consumer.addRecord(record(0, 0, "NIFTYBEES", "100.0"));
+            consumer.addRecord(record(0, 1, "GOLDBEES", "50.0"));
+            consumer.addRecord(record(0, 2, "NIFTYBEES", "101.0"));
+            consumer.addRecord(record(1, 0, "BANKBEES", "400.0"));
+        });
+        consumer.schedulePollTask(() -> consumer.addRecord(record(0, 3, "NIFTYBEES", "102.0")));
+
+        // When
+        Map<String, String> snapshot = reader.read(TOPIC, String.class, Duration.ofSeconds(5));
+
+        // Then
+        assertEquals(Map.of("NIFTYBEES", "101.0", "GOLDBEES", "50.0", "BANKBEES", "400.0"), snapshot);
+        assertTrue(consumer.closed());
+    }
+
+    @Test
+    void shouldDropKeysWhoseLastRecordIsTombstone() {
+        consumer.updateEndOffsets(Map.of(PARTITION_0, 3L, PARTITION_1, 0L));
+        consumer.schedulePollTask(() -> {
+            consumer.addRecord(record(0, 0, "NIFTYBEES", "100.0"));
+            consumer.addRecord(record(0, 1, "GOLDBEES", "50.0"));
+            consumer.addRecord(record(0, 2, "NIFTYBEES", null));
+        });
+
+        Map<String, String> snapshot = reader.read(TOPIC, String.class, Duration.ofSeconds(5));
+
+        assertEquals(Map.of("GOLDBEES", "50.0"), snapshot);
+    }
+
+    @Test
+    void shouldSkipRecordsWithoutKeyOrOfAnotherType() {
+        consumer.updateEndOffsets(Map.of(PARTITION_0, 3L, PARTITION_1, 0L));
+        consumer.schedulePollTask(() -> {
+            consumer.addRecord(record(0, 0, null, "100.0"));
+            consumer.addRecord(record(0, 1, "GOLDBEES", 50));
+            consumer.addRecord(record(0, 2, "BANKBEES", "400.0"));
+        });
+
+        Map<String, String> snapshot = reader.read(TOPIC, String.class, Duration.ofSeconds(5));
+
+        assertEquals(Map.of("BANKBEES", "400.0"), snapshot);
+    }
+
+    @Test
+    void shouldFailWhenEndOffsetsAreNotReachedInTime() {
+        // Given records up to offset 5 that never arrive
+        consumer.updateEndOffsets(Map.of(PARTITION_0, 5L, PARTITION_1, 0L));
+
+        // When / Then
+        assertThrows(IllegalStateException.class, () -> reader.read(TOPIC, String.class, Duration.ofMillis(50)));
+        assertTrue(consumer.closed());
+    }
+
+    @Test
+    void shouldUseOwnGroupWithoutAutoCommit() {
+        consumer.updateEndOffsets(Map.of(PARTITION_0, 0L, PARTITION_1, 0L));
+
+        reader.read(TOPIC, String.class, Duration.ofSeconds(5));
+
+        // A null group id would inherit spring.kafka.consumer.group-id from the live consumers
+        assertEquals(LastValueSnapshotReader.GROUP_ID, consumerFactory.groupId);
+        assertEquals(Boolean.FALSE, consumerFactory.overrides.get(ConsumerConfig.ENABLE_AUTO_COMMIT_CONFIG));
+        assertEquals(Set.of(PARTITION_0, PARTITION_1), consumer.assignment());
+    }
+
+    private static ConsumerRecord<String, Object> record(int partition, long offset, String key, Object value) {
+        return new ConsumerRecord<>(TOPIC, partition, offset, key, value);
+    }
+
+    private static final class RecordingConsumerFactory extends MockConsumerFactory<String, Object> {
+        private String groupId;
+        private Properties overrides;
+
+        RecordingConsumerFactory(MockConsumer<String, Object> consumer) {
+            super(() -> consumer);
+        }
+
+        @Override
+        public Consumer<String, Object> createConsumer(String groupId, String clientIdPrefix, String clientIdSuffix,
+                Properties properties) {
+            this.groupId = groupId;
+            this.overrides = properties;
+            return super.createConsumer(groupId, clientIdPrefix, clientIdSuffix, properties);
+        }
+    }
+}
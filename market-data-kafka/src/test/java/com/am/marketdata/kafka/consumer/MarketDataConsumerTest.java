@@ -0,0 +1,106 @@
+package com.am.marketdata.kafka.consumer;
+
+import com.am.common.investment.model.equity.ETFIndies;
+import com.am.common.investment.model.equity.EquityPrice;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.consumer.MockConsumer;
+import org.apache.kafka.clients.consumer.OffsetResetStrategy;
+import org.apache.kafka.common.header.internals.RecordHeaders;
+import org.apache.kafka.common.record.TimestampType;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MarketDataConsumerTest {
+
+    private static final String TOPIC = "am-stock-price.latest";
+    private static final String ISIN = "INE002A01018";
+
+    private SimpleMeterRegistry meterRegistry;
+    private LatestQuoteView view;
+    private MarketDataConsumer listener;
+    private MockConsumer<String, Object> consumer;
+    private AtomicInteger acks;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        view = new LatestQuoteView(meterRegistry);
+        listener = new MarketDataConsumer(view, meterRegistry);
+        consumer = new MockConsumer<>(OffsetResetStrategy.EARLIEST);
+        acks = new AtomicInteger();
+    }
+
+    @Test
+    void shouldApplyNewerRecordsAndKeepStaleOnesOut() {
+        // Given a batch where an older update for the same instrument arrives last
+        EquityPrice first = equity(100.0);
+        EquityPrice latest = equity(101.0);
+        EquityPrice late = equity(99.0);
+
+        // When
+        listener.onEquities(List.of(record(0, ISIN, first, 1000), record(1, ISIN, latest, 2000),
+            record(2, ISIN, late, 1500)), acks::incrementAndGet, consumer);
+
+        // Then
+        assertSame(latest, view.getEquity(ISIN).orElseThrow());
+        assertEquals(2.0, outcome("equity", "applied"));
+        assertEquals(1.0, outcome("equity", "stale"));
+        assertEquals(1, acks.get());
+    }
+
+    @Test
+    void shouldKeepNewerValueAcrossBatches() {
+        EquityPrice latest = equity(101.0);
+        listener.onEquities(List.of(record(0, ISIN, latest, 2000)), acks::incrementAndGet, consumer);
+
+        // A replay from the beginning of the partition redelivers an older value
+        listener.onEquities(List.of(record(0, ISIN, equity(100.0), 1000)), acks::incrementAndGet, consumer);
+
+        assertSame(latest, view.getEquity(ISIN).orElseThrow());
+        assertEquals(2, acks.get());
+    }
+
+    @Test
+    void shouldRemoveInstrumentOnTombstone() {
+        listener.onEquities(List.of(record(0, ISIN, equity(100.0), 1000), record(1, ISIN, null, 2000)),
+            acks::incrementAndGet, consumer);
+
+        assertEquals(Optional.empty(), view.getEquity(ISIN));
+    }
+
+    @Test
+    void shouldSkipRecordsWithoutKeyOrOfAnotherType() {
+        // Given
+        ETFIndies etf = ETFIndies.builder().symbol("NIFTYBEES").build();
+
+        // When
+        listener.onEquities(List.of(record(0, null, equity(100.0), 1000), record(1, "NIFTYBEES", etf, 1000)),
+            acks::incrementAndGet, consumer);
+
+        // Then the batch is still acknowledged so the listener does not stall on bad records
+        assertTrue(view.allEquities().isEmpty());
+        assertEquals(2.0, outcome("equity", "skipped"));
+        assertEquals(0.0, outcome("equity", "applied"));
+        assertEquals(1, acks.get());
+    }
+
+    private double outcome(String type, String outcome) {
+        return meterRegistry.counter("market.quote.view.applied", "type", type, "outcome", outcome).count();
+    }
+
+    private static EquityPrice equity(double close) {
+        return EquityPrice.builder().isin(ISIN).symbol("RELIANCE").close(close).build();
+    }
+
+    private static ConsumerRecord<String, Object> record(long offset, String key, Object value, long timestamp) {
+        return new ConsumerRecord<>(TOPIC, 0, offset, timestamp, TimestampType.CREATE_TIME, -1, -1, key, value,
+            new RecordHeaders(), Optional.empty());
+    }
+}
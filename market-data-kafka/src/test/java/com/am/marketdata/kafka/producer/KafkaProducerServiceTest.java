@@ -0,0 +1,174 @@
+package com.am.marketdata.kafka.producer;
+
+import com.am.common.investment.model.equity.ETFIndies;
+import com.am.common.investment.model.equity.EquityPrice;
+import com.am.common.investment.model.equity.MarketIndexIndices;
+import com.am.common.investment.model.events.EquityPriceUpdateEvent;
+import com.am.marketdata.kafka.config.KafkaProducerProfileConfig;
+import com.am.marketdata.kafka.config.KafkaPublishingConfig;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.kafka.clients.producer.MockProducer;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.common.serialization.Serializer;
+import org.apache.kafka.common.serialization.StringSerializer;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class KafkaProducerServiceTest {
+
+    private static final Instant TRADE_TIME = Instant.parse("2026-10-05T04:00:00Z");
+    private static final LocalDateTime EXCHANGE_TIME = LocalDateTime.of(2026, 10, 5, 9, 30);
+
+    private KafkaPublishingConfig publishingConfig;
+    private ReusableMockProducer producer;
+    private KafkaProducerService service;
+
+    @BeforeEach
+    void setUp() {
+        publishingConfig = new KafkaPublishingConfig();
+        publishingConfig.setMode(KafkaPublishingConfig.Mode.KEYED);
+        publishingConfig.getLastValue().setEnabled(false);
+        producer = new ReusableMockProducer();
+        TrackedKafkaSender sender = new TrackedKafkaSender(new KafkaTemplate<>(() -> producer),
+            new KafkaProducerProfileConfig(), new SimpleMeterRegistry());
+        service = new KafkaProducerService(sender, publishingConfig);
+    }
+
+    @Test
+    void shouldKeyEquitiesByIsinFallingBackToSymbol() {
+        // Given
+        EquityPrice withIsin = EquityPrice.builder().isin("INE002A01018").symbol("RELIANCE").time(TRADE_TIME).build();
+        EquityPrice symbolOnly = EquityPrice.builder().symbol("TCS").time(TRADE_TIME.plusSeconds(1)).build();
+
+        // When
+        service.sendEquityPriceUpdates(List.of(withIsin, symbolOnly)).awaitDelivery(Duration.ofSeconds(5));
+
+        // Then every record goes to the keyed topic with the event time as record timestamp
+        List<ProducerRecord<String, Object>> sent = producer.history();
+        assertEquals(2, sent.size());
+        assertRecord(sent.get(0), "am-stock-price-update.by-instrument", "INE002A01018", TRADE_TIME, withIsin);
+        assertRecord(sent.get(1), "am-stock-price-update.by-instrument", "TCS", TRADE_TIME.plusSeconds(1), symbolOnly);
+        assertEquals("EQUITY_PRICE", header(sent.get(0), "eventType"));
+        assertEquals(TRADE_TIME.toString(), header(sent.get(0), "timestamp"));
+    }
+
+    @Test
+    void shouldKeyEtfsBySymbolWithExchangeTimestamp() {
+        ETFIndies etf = ETFIndies.builder().symbol("NIFTYBEES").timestamp(EXCHANGE_TIME).build();
+
+        service.sendETFUpdate(List.of(etf)).awaitDelivery(Duration.ofSeconds(5));
+
+        ProducerRecord<String, Object> record = producer.history().get(0);
+        assertRecord(record, "nse-etf-update.by-symbol", "NIFTYBEES",
+            EXCHANGE_TIME.atZone(ZoneId.systemDefault()).toInstant(), etf);
+        assertEquals("ETF_PRICE", header(record, "eventType"));
+    }
+
+    @Test
+    void shouldKeyIndicesByIndexSymbolAndLeaveMissingTimestampToProducer() {
+        // Given an index without an exchange timestamp
+        MarketIndexIndices index = MarketIndexIndices.builder().indexSymbol("NIFTY 50").build();
+
+        // When
+        service.sendIndicesUpdate(List.of(index)).awaitDelivery(Duration.ofSeconds(5));
+
+        // Then the record timestamp is left for the producer to assign
+        ProducerRecord<String, Object> record = producer.history().get(0);
+        assertEquals("nse-indices-update.by-symbol", record.topic());
+        assertEquals("NIFTY 50", record.key());
+        assertNull(record.timestamp());
+        assertEquals("null", header(record, "timestamp"));
+    }
+
+    @Test
+    void shouldWriteRecordsToLastValueTopicToo() {
+        // Given
+        publishingConfig.getLastValue().setEnabled(true);
+        EquityPrice changed = EquityPrice.builder().isin("INE467B01029").time(TRADE_TIME).build();
+
+        // When
+        service.sendEquityPriceUpdates(List.of(changed)).awaitDelivery(Duration.ofSeconds(5));
+
+        // Then the record is sent once per topic, with the same key
+        List<ProducerRecord<String, Object>> sent = producer.history();
+        assertEquals(List.of("am-stock-price-update.by-instrument", "am-stock-price.latest"),
+            sent.stream().map(ProducerRecord::topic).toList());
+        assertTrue(sent.stream().allMatch(record -> "INE467B01029".equals(record.key())));
+    }
+
+    @Test
+    void shouldBuildBatchEventFromGivenRecordsOnly() {
+        // Given the default batch mode with last values on
+        publishingConfig.setMode(KafkaPublishingConfig.Mode.BATCH);
+        publishingConfig.getLastValue().setEnabled(true);
+        ReflectionTestUtils.setField(service, "topic", "am-stock-price-update");
+        EquityPrice changed = EquityPrice.builder().isin("INE467B01029").time(TRADE_TIME).build();
+
+        // When
+        service.sendEquityPriceUpdates(List.of(changed)).awaitDelivery(Duration.ofSeconds(5));
+
+        // Then the batch event carries just that record
+        List<ProducerRecord<String, Object>> sent = producer.history();
+        assertEquals(List.of("am-stock-price.latest", "am-stock-price-update"),
+            sent.stream().map(ProducerRecord::topic).toList());
+        EquityPriceUpdateEvent event = assertInstanceOf(EquityPriceUpdateEvent.class, sent.get(1).value());
+        assertEquals(List.of(changed), event.getEquityPrices());
+    }
+
+    @Test
+    void shouldSendNothingForQuietCycle() {
+        publishingConfig.setMode(KafkaPublishingConfig.Mode.BOTH);
+        publishingConfig.getLastValue().setEnabled(true);
+
+        SendBatch batch = service.sendEquityPriceUpdates(List.of());
+        batch.awaitDelivery(Duration.ofSeconds(5));
+        service.sendETFUpdate(List.of()).awaitDelivery(Duration.ofSeconds(5));
+        service.sendIndicesUpdate(List.of()).awaitDelivery(Duration.ofSeconds(5));
+
+        assertEquals(0, batch.getRecords());
+        assertTrue(producer.history().isEmpty());
+    }
+
+    private static void assertRecord(ProducerRecord<String, Object> record, String topic, String key, Instant timestamp,
+            Object value) {
+        assertEquals(topic, record.topic());
+        assertEquals(key, record.key());
+        assertEquals(timestamp.toEpochMilli(), record.timestamp());
+        assertSame(value, record.value());
+    }
+
+    private static String header(ProducerRecord<String, Object> record, String name) {
+        return new String(record.headers().lastHeader(name).value(), StandardCharsets.UTF_8);
+    }
+
+    /**
+     * The template closes its producer after every send, which would make a plain MockProducer
+     * reject the next one.
+     */
+    private static final class ReusableMockProducer extends MockProducer<String, Object> {
+        private static final Serializer<Object> VALUES = (topic, value) -> new byte[0];
+
+        ReusableMockProducer() {
+            super(true, new StringSerializer(), VALUES);
+        }
+
+        @Override
+        public void close() {
+        }
+
+        @Override
+        public void close(Duration timeout) {
+        }
+    }
+}
@@ -0,0 +1,187 @@
+package com.am.marketdata.kafka.serialization;
+
+import com.am.common.investment.model.equity.ETFIndies;
+import com.am.common.investment.model.equity.EquityPrice;
+import com.am.common.investment.model.equity.MarketData;
+import com.am.common.investment.model.equity.MarketIndexIndices;
+import com.am.common.investment.model.equity.MetaData;
+import com.am.common.investment.model.events.ETFIndicesPriceUpdateEvent;
+import com.am.common.investment.model.events.EquityPriceUpdateEvent;
+import com.am.common.investment.model.events.MarketIndexIndicesPriceUpdateEvent;
+import com.am.marketdata.common.serializer.CompactBinaryCodec;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.apache.kafka.common.errors.SerializationException;
+import org.apache.kafka.common.header.Headers;
+import org.apache.kafka.common.header.internals.RecordHeaders;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.kafka.support.serializer.JsonDeserializer;
+import org.springframework.kafka.support.serializer.JsonSerializer;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MarketDataEventDeserializerTest {
+
+    private static final String TOPIC = "market-data";
+    private static final String EVENT_PACKAGE = "com.am.common.investment.model.events";
+    private static final LocalDateTime EXCHANGE_TIME = LocalDateTime.of(2026, 10, 5, 9, 30, 15);
+
+    private final CompactBinarySerializer serializer = new CompactBinarySerializer();
+    private final ObjectMapper json = new ObjectMapper().registerModule(new JavaTimeModule());
+    private MarketDataEventDeserializer deserializer;
+
+    @BeforeEach
+    void setUp() {
+        deserializer = deserializerTrusting(EVENT_PACKAGE);
+    }
+
+    @Test
+    void shouldRoundTripEquityPriceUpdateEvent() {
+        EquityPriceUpdateEvent event = EquityPriceUpdateEvent.builder()
+            .eventType("EQUITY_PRICE_UPDATE")
+            .timestamp(EXCHANGE_TIME)
+            .equityPrices(List.of(
+                equity("INE002A01018", "RELIANCE", 2950.5),
+                equity("INE467B01029", "TCS", 4120.25)))
+            .build();
+
+        assertRoundTrip(event);
+    }
+
+    @Test
+    void shouldRoundTripEtfPriceUpdateEvent() {
+        ETFIndicesPriceUpdateEvent event = ETFIndicesPriceUpdateEvent.builder()
+            .eventType("ETF_PRICE_UPDATE")
+            .timestamp(EXCHANGE_TIME)
+            .etfIndies(List.of(ETFIndies.builder()
+                .symbol("NIFTYBEES")
+                .assets("Nifty 50 Index")
+                .timestamp(EXCHANGE_TIME)
+                .marketData(MarketData.builder().open(268.1).high(270.4).low(267.9).last(269.85)
+                    .previousClose(268.0).percentChange(0.69).build())
+                .metaData(MetaData.builder().symbol("NIFTYBEES").companyName("Nippon India ETF Nifty 50 BeES").build())
+                .build()))
+            .build();
+
+        assertRoundTrip(event);
+    }
+
+    @Test
+    void shouldRoundTripMarketIndexPriceUpdateEvent() {
+        MarketIndexIndicesPriceUpdateEvent event = MarketIndexIndicesPriceUpdateEvent.builder()
+            .eventType("MARKET_INDICES_PRICE_UPDATE")
+            .timestamp(EXCHANGE_TIME)
+            .marketIndices(List.of(MarketIndexIndices.builder()
+                .key("BROAD MARKET INDICES")
+                .index("NIFTY 50")
+                .indexSymbol("NIFTY 50")
+                .timestamp(EXCHANGE_TIME)
+                .marketData(MarketData.builder().open(25010.3).high(25102.75).low(24987.6).last(25066.1)
+                    .previousClose(24996.2).percentChange(0.28).build())
+                .build()))
+            .build();
+
+        assertRoundTrip(event);
+    }
+
+    @Test
+    void shouldRejectEventClassOutsideTrustedPackages() {
+        Headers headers = new RecordHeaders();
+        byte[] payload = serializer.serialize(TOPIC, headers, EquityPriceUpdateEvent.builder().eventType("EQUITY_PRICE_UPDATE").build());
+
+        // A prefix or a parent package is not enough, matching how the JSON deserializer treats trusted packages
+        for (String trusted : List.of("com.am.marketdata", "com.am.common.invest", "com.am.common.investment.model")) {
+            MarketDataEventDeserializer strict = deserializerTrusting(trusted);
+
+            SerializationException thrown = assertThrows(SerializationException.class,
+                () -> strict.deserialize(TOPIC, headers, payload));
+            assertTrue(thrown.getMessage().contains("not in the trusted packages"), thrown.getMessage());
+        }
+    }
+
+    @Test
+    void shouldAcceptTrustedPackagePattern() {
+        Headers headers = new RecordHeaders();
+        EquityPriceUpdateEvent event = EquityPriceUpdateEvent.builder().eventType("EQUITY_PRICE_UPDATE").build();
+        byte[] payload = serializer.serialize(TOPIC, headers, event);
+
+        Object decoded = deserializerTrusting("com.am.marketdata.*,com.am.common.investment.model.*")
+            .deserialize(TOPIC, headers, payload);
+
+        assertEquals(tree(event), tree(decoded));
+    }
+
+    @Test
+    void shouldRejectBinaryPayloadWithoutEventClassHeader() {
+        byte[] payload = serializer.serialize(TOPIC, new RecordHeaders(), EquityPriceUpdateEvent.builder().eventType("EQUITY_PRICE_UPDATE").build());
+
+        assertThrows(SerializationException.class, () -> deserializer.deserialize(TOPIC, new RecordHeaders(), payload));
+    }
+
+    @Test
+    void shouldStillReadJsonWrittenBySpringSerializer() {
+        // Given a record from a producer that has not switched to the binary format yet
+        EquityPriceUpdateEvent event = EquityPriceUpdateEvent.builder()
+            .eventType("EQUITY_PRICE_UPDATE")
+            .timestamp(EXCHANGE_TIME)
+            .equityPrices(List.of(equity("INE002A01018", "RELIANCE", 2950.5)))
+            .build();
+        Headers headers = new RecordHeaders();
+        byte[] payload;
+        try (JsonSerializer<Object> jsonSerializer = new JsonSerializer<>()) {
+            payload = jsonSerializer.serialize(TOPIC, headers, event);
+        }
+
+        // When
+        Object decoded = deserializer.deserialize(TOPIC, headers, payload);
+
+        // Then
+        assertFalse(CompactBinaryCodec.isBinary(payload));
+        assertEquals(tree(event), tree(decoded));
+    }
+
+    private void assertRoundTrip(Object event) {
+        // When
+        Headers headers = new RecordHeaders();
+        byte[] payload = serializer.serialize(TOPIC, headers, event);
+        Object decoded = deserializer.deserialize(TOPIC, headers, payload);
+
+        // Then
+        assertTrue(CompactBinaryCodec.isBinary(payload));
+        assertEquals(event.getClass().getName(), new String(
+            headers.lastHeader(CompactBinarySerializer.HEADER_EVENT_CLASS).value(), StandardCharsets.UTF_8));
+        assertEquals(event.getClass(), decoded.getClass());
+        assertEquals(tree(event), tree(decoded));
+    }
+
+    // Compares through Jackson so the check does not depend on the model classes implementing equals
+    private JsonNode tree(Object value) {
+        return json.valueToTree(value);
+    }
+
+    private static EquityPrice equity(String isin, String symbol, double close) {
+        return EquityPrice.builder()
+            .isin(isin)
+            .symbol(symbol)
+            .open(close - 10)
+            .high(close + 5)
+            .low(close - 12)
+            .close(close)
+            .time(Instant.parse("2026-10-05T04:00:15Z"))
+            .build();
+    }
+
+    private static MarketDataEventDeserializer deserializerTrusting(String packages) {
+        MarketDataEventDeserializer deserializer = new MarketDataEventDeserializer();
+        deserializer.configure(Map.of(JsonDeserializer.TRUSTED_PACKAGES, packages), false);
+        return deserializer;
+    }
+}
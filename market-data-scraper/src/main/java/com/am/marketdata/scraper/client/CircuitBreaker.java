@@ -0,0 +1,110 @@
+package com.am.marketdata.scraper.client;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+
+/**
+ * Circuit breaker for one NSE endpoint. After {@code failureThreshold} consecutive failures it
+ * opens and rejects calls; once {@code openDuration} has passed a single probe is let through,
+ * which closes the circuit on success or reopens it on failure.
+ */
+@Slf4j
+public class CircuitBreaker {
+    public enum State {
+        CLOSED,
+        OPEN,
+        HALF_OPEN
+    }
+
+    // Metric names
+    private static final String METRIC_PREFIX = "nse.circuit.";
+    private static final String METRIC_STATE = METRIC_PREFIX + "state";
+    private static final String METRIC_TRANSITION = METRIC_PREFIX + "transition";
+    private static final String METRIC_REJECTED = METRIC_PREFIX + "rejected";
+    private static final String TAG_ENDPOINT = "endpoint";
+
+    private final String endpoint;
+    private final int failureThreshold;
+    private final Duration openDuration;
+    private final MeterRegistry meterRegistry;
+    private final Clock clock;
+
+    private State state = State.CLOSED;
+    private int consecutiveFailures;
+    private Instant openedAt;
+    private boolean probeInFlight;
+
+    public CircuitBreaker(String endpoint, int failureThreshold, Duration openDuration, MeterRegistry meterRegistry) {
+        this(endpoint, failureThreshold, openDuration, meterRegistry, Clock.systemUTC());
+    }
+
+    public CircuitBreaker(String endpoint, int failureThreshold, Duration openDuration, MeterRegistry meterRegistry,
+                          Clock clock) {
+        this.endpoint = endpoint;
+        this.failureThreshold = failureThreshold;
+        this.openDuration = openDuration;
+        this.meterRegistry = meterRegistry;
+        this.clock = clock;
+        Gauge.builder(METRIC_STATE, this, breaker -> breaker.getState().ordinal())
+            .tag(TAG_ENDPOINT, endpoint)
+            .description("Circuit state: 0 closed, 1 open, 2 half open")
+            .register(meterRegistry);
+    }
+
+    /**
+     * Returns whether a call may go ahead; every permitted call must be followed by exactly one of
+     * {@link #onSuccess()}, {@link #onFailure()} or {@link #onIgnored()}.
+     */
+    public synchronized boolean tryAcquire() {
+        if (state == State.OPEN && !clock.instant().isBefore(openedAt.plus(openDuration))) {
+            transition(State.HALF_OPEN);
+        }
+        if (state == State.CLOSED) {
+            return true;
+        }
+        if (state == State.HALF_OPEN && !probeInFlight) {
+            probeInFlight = true;
+            return true;
+        }
+        meterRegistry.counter(METRIC_REJECTED, TAG_ENDPOINT, endpoint).increment();
+        return false;
+    }
+
+    public synchronized void onSuccess() {
+        consecutiveFailures = 0;
+        probeInFlight = false;
+        if (state != State.CLOSED) {
+            transition(State.CLOSED);
+        }
+    }
+
+    public synchronized void onFailure() {
+        probeInFlight = false;
+        consecutiveFailures++;
+        if (state == State.HALF_OPEN || (state == State.CLOSED && consecutiveFailures >= failureThreshold)) {
+            openedAt = clock.instant();
+            transition(State.OPEN);
+        }
+    }
+
+    // The call failed for a reason that says nothing about NSE's health, e.g. a 404
+    public synchronized void onIgnored() {
+        probeInFlight = false;
+    }
+
+    public synchronized State getState() {
+        return state;
+    }
+
+    private void transition(State next) {
+        log.warn("Circuit for NSE endpoint {} moved from {} to {} after {} consecutive failures",
+            endpoint, state, next, consecutiveFailures);
+        meterRegistry.counter(METRIC_TRANSITION, TAG_ENDPOINT, endpoint, "from", state.name(), "to", next.name()).increment();
+        state = next;
+    }
+}
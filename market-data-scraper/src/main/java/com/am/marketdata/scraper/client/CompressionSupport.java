@@ -0,0 +1,34 @@
+package com.am.marketdata.scraper.client;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.InflaterInputStream;
+
+/**
+ * Content-encoding handling shared by the blocking and non-blocking NSE transports. Only codings
+ * the JDK can decode are advertised, so NSE never answers with one we cannot read.
+ */
+public final class CompressionSupport {
+    public static final String ACCEPT_ENCODING = "gzip, deflate";
+    public static final String METRIC_RESPONSE_BYTES = "nse.http.response.bytes";
+    public static final String TAG_ENCODING = "encoding";
+
+    private CompressionSupport() {
+    }
+
+    public static InputStream decode(InputStream body, String contentEncoding) throws IOException {
+        if (contentEncoding == null) {
+            return body;
+        }
+        return switch (contentEncoding.trim().toLowerCase()) {
+            case "gzip", "x-gzip" -> new GZIPInputStream(body);
+            case "deflate" -> new InflaterInputStream(body);
+            default -> body;
+        };
+    }
+
+    public static String encodingTag(String contentEncoding) {
+        return contentEncoding == null ? "identity" : contentEncoding.trim().toLowerCase();
+    }
+}
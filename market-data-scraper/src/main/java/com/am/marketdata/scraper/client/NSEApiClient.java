@@ -2,10 +2,17 @@ package com.am.marketdata.scraper.client;
 
 import com.am.marketdata.common.model.NSEIndicesResponse;
 import com.am.marketdata.common.model.NseETFResponse;
+import com.am.marketdata.common.trace.PayloadTracer;
+import com.am.marketdata.scraper.config.NseHttpClientConfig;
+import com.am.marketdata.scraper.model.ContentVersion;
+import com.am.marketdata.scraper.model.CookieInfo;
+import com.am.marketdata.scraper.model.NseFetchResult;
 import com.am.marketdata.scraper.service.CookieCacheService;
+import com.am.marketdata.scraper.service.TieredCookieProvider;
 import com.am.marketdata.scraper.exception.NSEApiException;
 import com.am.marketdata.scraper.exception.CookieException;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Gauge;
 import io.micrometer.core.instrument.MeterRegistry;
 import io.micrometer.core.instrument.Timer;
 import lombok.RequiredArgsConstructor;
@@ -20,7 +27,27 @@ import org.springframework.web.client.HttpServerErrorException;
 import org.springframework.web.client.ResourceAccessException;
 
 import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
 import java.util.Collections;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
@@ -31,8 +58,12 @@ public class NSEApiClient {
     @Qualifier("nseApiRestTemplate")
     private final RestTemplate restTemplate;
     private final CookieCacheService cookieCacheService;
+    private final TieredCookieProvider cookieProvider;
     private final ObjectMapper objectMapper;
     private final MeterRegistry meterRegistry;
+    private final PayloadTracer payloadTracer;
+    private final HttpClient nseHttpClient;
+    private final NseHttpClientConfig clientConfig;
 
     @Value("${nse.api.base-url:https://www.nseindia.com}")
     private String baseUrl;
@@ -44,14 +75,33 @@ public class NSEApiClient {
     private static final String METRIC_REQUEST_TIME = METRIC_PREFIX + "request.time";
     private static final String METRIC_ERROR_COUNT = METRIC_PREFIX + "error.count";
     private static final String METRIC_REQUEST_COUNT = METRIC_PREFIX + "request.count";
+    private static final String METRIC_NOT_MODIFIED_COUNT = METRIC_PREFIX + "not.modified.count";
+    private static final String METRIC_IN_FLIGHT = METRIC_PREFIX + "requests.inflight";
+    private static final String METRIC_SESSION_RETRY_COUNT = METRIC_PREFIX + "session.retry.count";
+    private static final String METRIC_COOKIE_REFRESH_COUNT = METRIC_PREFIX + "cookie.refresh.count";
     private static final String TAG_ENDPOINT = "endpoint";
     private static final String TAG_ERROR_TYPE = "error_type";
 
     private Timer etfRequestTimer;
     private Timer indicesRequestTimer;
+    private final AtomicInteger inFlightRequests = new AtomicInteger();
+    // The cookie refresh currently running, if any; concurrent callers wait on it instead of starting their own
+    private final AtomicReference<CompletableFuture<String>> cookieRefresh = new AtomicReference<>();
+    // Cookie refreshes block on a handshake or a browser, so async callers run them here
+    private ExecutorService cookieRefreshExecutor;
 
     @PostConstruct
     public void initialize() {
+        cookieRefreshExecutor = Executors.newFixedThreadPool(2, runnable -> {
+            Thread thread = new Thread(runnable, "nse-cookie-refresh");
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        Gauge.builder(METRIC_IN_FLIGHT, inFlightRequests, AtomicInteger::get)
+            .description("NSE API requests currently in flight")
+            .register(meterRegistry);
+
         // Initialize timers for each endpoint
         etfRequestTimer = Timer.builder(METRIC_REQUEST_TIME)
             .tag(TAG_ENDPOINT, "etf")
@@ -64,70 +114,167 @@ public class NSEApiClient {
             .register(meterRegistry);
     }
 
+    @PreDestroy
+    public void shutdown() {
+        cookieRefreshExecutor.shutdownNow();
+    }
+
     public NseETFResponse getETFs() {
-        return etfRequestTimer.record(() -> executeApiCall("/api/etf", NseETFResponse.class, this::logETFResponse));
+        return getETFs(null).getBody();
+    }
+
+    /**
+     * Fetches ETFs unless they are unchanged since {@code lastVersion}; pass null to always parse.
+     */
+    public NseFetchResult<NseETFResponse> getETFs(ContentVersion lastVersion) {
+        return etfRequestTimer.record(() -> executeWithSessionRetry("/api/etf", NseETFResponse.class, lastVersion, this::logETFResponse));
+    }
+
+    /**
+     * Non-blocking variant of {@link #getETFs(ContentVersion)}; no thread is held while the request is in flight.
+     */
+    public CompletableFuture<NseFetchResult<NseETFResponse>> getETFsAsync(ContentVersion lastVersion) {
+        return executeWithSessionRetryAsync("/api/etf", NseETFResponse.class, lastVersion, etfRequestTimer, this::logETFResponse);
     }
 
     public NSEIndicesResponse getAllIndices() {
-        return indicesRequestTimer.record(() -> executeApiCall("/api/allIndices", NSEIndicesResponse.class, this::logIndicesResponse));
+        return getAllIndices(null).getBody();
     }
 
-    public HttpHeaders fetchCookies() {
+    /**
+     * Fetches indices unless they are unchanged since {@code lastVersion}; pass null to always parse.
+     */
+    public NseFetchResult<NSEIndicesResponse> getAllIndices(ContentVersion lastVersion) {
+        return indicesRequestTimer.record(() -> executeWithSessionRetry("/api/allIndices", NSEIndicesResponse.class, lastVersion, this::logIndicesResponse));
+    }
+
+    /**
+     * Non-blocking variant of {@link #getAllIndices(ContentVersion)}; no thread is held while the request is in flight.
+     */
+    public CompletableFuture<NseFetchResult<NSEIndicesResponse>> getAllIndicesAsync(ContentVersion lastVersion) {
+        return executeWithSessionRetryAsync("/api/allIndices", NSEIndicesResponse.class, lastVersion, indicesRequestTimer, this::logIndicesResponse);
+    }
+
+    /**
+     * Acquires a new NSE session through the {@link TieredCookieProvider} and caches it until the
+     * earliest cookie expiry NSE sent. Only one refresh runs at a time; callers arriving while it
+     * is in flight wait for its result.
+     */
+    public String refreshCookies() {
+        CompletableFuture<String> refresh = new CompletableFuture<>();
+        CompletableFuture<String> inFlight = cookieRefresh.compareAndExchange(null, refresh);
+        if (inFlight != null) {
+            log.info("Cookie refresh already in progress, waiting for it");
+            return awaitRefresh(inFlight);
+        }
+
         try {
-            log.info("Fetching fresh cookies from NSE API");
-            HttpEntity<String> entity = new HttpEntity<>(createBasicHeaders());
-            ResponseEntity<String> response = restTemplate.exchange(
-                baseUrl, HttpMethod.GET, entity, String.class);
-            
-            HttpHeaders headers = response.getHeaders();
-            if (headers != null && headers.containsKey(HttpHeaders.SET_COOKIE)) {
-                log.info("Successfully fetched cookies: {}", 
-                    maskCookieValues(String.join("; ", headers.get(HttpHeaders.SET_COOKIE))));
-            } else {
-                log.warn("No cookies found in response headers");
+            List<CookieInfo> cookieInfos = cookieProvider.acquire();
+            cookieCacheService.storeCookies(cookieInfos);
+            meterRegistry.counter(METRIC_COOKIE_REFRESH_COUNT, "outcome", "success").increment();
+            String cookies = cookieCacheService.getCookies();
+            refresh.complete(cookies);
+            return cookies;
+        } catch (RuntimeException e) {
+            meterRegistry.counter(METRIC_COOKIE_REFRESH_COUNT, "outcome", "failure").increment();
+            refresh.completeExceptionally(e);
+            throw e;
+        } finally {
+            cookieRefresh.set(null);
+        }
+    }
+
+    /**
+     * Refreshes only if the cache still holds the cookies NSE just rejected; if another caller has
+     * already replaced them, those are used as they are.
+     */
+    private String refreshCookiesIfStale(String rejectedCookies) {
+        cookieCacheService.invalidateCookies(rejectedCookies);
+        String current = cookieCacheService.getCookies();
+        return current != null ? current : refreshCookies();
+    }
+
+    private String awaitRefresh(CompletableFuture<String> refresh) {
+        try {
+            return refresh.join();
+        } catch (CompletionException e) {
+            throw e.getCause() instanceof CookieException cookieException
+                ? cookieException
+                : new CookieException("Failed to refresh cookies: " + e.getCause().getMessage(), e.getCause());
+        }
+    }
+
+    /**
+     * A 401 means the NSE session expired: refresh it once (shared with concurrent callers) and retry.
+     */
+    private <T> NseFetchResult<T> executeWithSessionRetry(String endpoint, Class<T> responseType, ContentVersion lastVersion,
+            ResponseLogger<T> responseLogger) {
+        String cookies = getCookiesOrRefresh();
+        try {
+            return executeApiCall(endpoint, cookies, responseType, lastVersion, responseLogger);
+        } catch (NSEApiException e) {
+            if (!isUnauthorized(e)) {
+                throw e;
             }
-            return headers;
-        } catch (Exception e) {
-            log.error("Failed to fetch cookies from NSE API: {}", e.getMessage(), e);
-            throw new CookieException("Failed to fetch cookies from NSE API: " + e.getMessage(), e);
+            log.warn("NSE session rejected for {}, refreshing cookies and retrying once", endpoint);
+            meterRegistry.counter(METRIC_SESSION_RETRY_COUNT, TAG_ENDPOINT, endpoint).increment();
+            return executeApiCall(endpoint, refreshCookiesIfStale(cookies), responseType, lastVersion, responseLogger);
         }
     }
 
-    private HttpHeaders createBasicHeaders() {
-        HttpHeaders headers = new HttpHeaders();
-        headers.set(HttpHeaders.USER_AGENT, USER_AGENT);
-        headers.set(HttpHeaders.ACCEPT, MediaType.APPLICATION_JSON_VALUE);
-        return headers;
+    private <T> CompletableFuture<NseFetchResult<T>> executeWithSessionRetryAsync(String endpoint, Class<T> responseType,
+            ContentVersion lastVersion, Timer requestTimer, ResponseLogger<T> responseLogger) {
+        return getCookiesOrRefreshAsync()
+            .thenCompose(cookies -> executeWithCookiesAsync(endpoint, cookies, responseType, lastVersion, requestTimer, responseLogger));
+    }
+
+    private <T> CompletableFuture<NseFetchResult<T>> executeWithCookiesAsync(String endpoint, String cookies, Class<T> responseType,
+            ContentVersion lastVersion, Timer requestTimer, ResponseLogger<T> responseLogger) {
+        return executeApiCallAsync(endpoint, cookies, responseType, lastVersion, requestTimer, responseLogger)
+            .exceptionallyCompose(ex -> {
+                Throwable cause = ex instanceof CompletionException && ex.getCause() != null ? ex.getCause() : ex;
+                if (!isUnauthorized(cause)) {
+                    return CompletableFuture.failedFuture(cause);
+                }
+                log.warn("NSE session rejected for {}, refreshing cookies and retrying once", endpoint);
+                meterRegistry.counter(METRIC_SESSION_RETRY_COUNT, TAG_ENDPOINT, endpoint).increment();
+                // The refresh is a blocking call, so keep it off the HTTP client's I/O threads
+                return CompletableFuture.supplyAsync(() -> refreshCookiesIfStale(cookies), cookieRefreshExecutor)
+                    .thenCompose(fresh -> executeApiCallAsync(endpoint, fresh, responseType, lastVersion, requestTimer, responseLogger));
+            });
     }
 
-    private <T> T executeApiCall(String endpoint, Class<T> responseType, ResponseLogger<T> responseLogger) {
-        String cookies = getCookiesOrThrow();
+    private static boolean isUnauthorized(Throwable error) {
+        return error instanceof NSEApiException apiException
+            && apiException.getStatusCode() != null
+            && apiException.getStatusCode().value() == HttpStatus.UNAUTHORIZED.value();
+    }
+
+    private <T> NseFetchResult<T> executeApiCall(String endpoint, String cookies, Class<T> responseType,
+            ContentVersion lastVersion, ResponseLogger<T> responseLogger) {
         String url = baseUrl + endpoint;
-        HttpEntity<String> entity = createHttpEntity(cookies);
+        HttpEntity<String> entity = createHttpEntity(cookies, lastVersion);
 
         // Record request count
         meterRegistry.counter(METRIC_REQUEST_COUNT, TAG_ENDPOINT, endpoint).increment();
 
+        PayloadTracer.Sample trace = payloadTracer.sample(endpoint);
+        inFlightRequests.incrementAndGet();
         try {
-            log.info("Calling NSE API - Endpoint: {}, Cookies: {}, Headers: {}", 
-                endpoint, 
-                maskCookieValues(cookies),
-                maskSensitiveHeaders(entity.getHeaders()));
-            ResponseEntity<T> response = restTemplate.exchange(url, HttpMethod.GET, entity, responseType);
-            
-            if (response.getBody() == null) {
-                recordError(endpoint, "empty_response");
-                throw new NSEApiException(endpoint, response.getStatusCode(), "null", "Empty response from NSE API");
-            }
-
-            logApiResponse(endpoint, response, responseLogger);
-            return response.getBody();
+            log.debug("Calling NSE API - Endpoint: {}", endpoint);
+            trace.log("request", () -> String.format("Cookies: %s, Headers: %s",
+                maskCookieValues(cookies), maskSensitiveHeaders(entity.getHeaders())));
+            ResponseEntity<byte[]> response = restTemplate.exchange(url, HttpMethod.GET, entity, byte[].class);
+            return toFetchResult(endpoint, response.getStatusCode(), response.getHeaders(), response.getBody(),
+                responseType, lastVersion, trace, responseLogger);
 
+        } catch (NSEApiException e) {
+            throw e;
         } catch (HttpClientErrorException.Unauthorized e) {
             String responseBody = e.getResponseBodyAsString();
             log.error("Unauthorized access to NSE API - Endpoint: {}, Response: {}, Headers: {}", 
                 endpoint, responseBody, maskSensitiveHeaders(e.getResponseHeaders()));
-            cookieCacheService.invalidateCookies();
+            cookieCacheService.invalidateCookies(cookies);
             recordError(endpoint, "unauthorized");
             throw new NSEApiException(endpoint, HttpStatus.UNAUTHORIZED, responseBody, "Unauthorized access, cookies might be expired", e);
         
@@ -154,9 +301,129 @@ public class NSEApiClient {
             log.error("Unexpected error calling NSE API - Endpoint: {}, Error: {}", endpoint, e.getMessage(), e);
             recordError(endpoint, "unexpected_error");
             throw new NSEApiException(endpoint, HttpStatus.INTERNAL_SERVER_ERROR, "N/A", "Unexpected error calling NSE API", e);
+        } finally {
+            inFlightRequests.decrementAndGet();
         }
     }
 
+    private <T> CompletableFuture<NseFetchResult<T>> executeApiCallAsync(String endpoint, String cookies, Class<T> responseType,
+            ContentVersion lastVersion, Timer requestTimer, ResponseLogger<T> responseLogger) {
+        HttpHeaders headers = createHttpEntity(cookies, lastVersion).getHeaders();
+        HttpRequest.Builder builder = HttpRequest.newBuilder(URI.create(baseUrl + endpoint))
+            .timeout(Duration.ofMillis(clientConfig.getReadTimeoutMs()))
+            .GET();
+        headers.forEach((name, values) -> values.forEach(value -> builder.header(name, value)));
+        if (clientConfig.isCompressionEnabled()) {
+            builder.header(HttpHeaders.ACCEPT_ENCODING, CompressionSupport.ACCEPT_ENCODING);
+        }
+
+        meterRegistry.counter(METRIC_REQUEST_COUNT, TAG_ENDPOINT, endpoint).increment();
+        PayloadTracer.Sample trace = payloadTracer.sample(endpoint);
+        trace.log("request", () -> String.format("Cookies: %s, Headers: %s",
+            maskCookieValues(cookies), maskSensitiveHeaders(headers)));
+        inFlightRequests.incrementAndGet();
+        Timer.Sample sample = Timer.start(meterRegistry);
+        log.debug("Calling NSE API asynchronously - Endpoint: {}", endpoint);
+
+        return nseHttpClient.sendAsync(builder.build(), HttpResponse.BodyHandlers.ofByteArray())
+            .thenApply(response -> {
+                HttpHeaders responseHeaders = new HttpHeaders();
+                response.headers().map().forEach(responseHeaders::addAll);
+                byte[] body = readBody(response.body(), responseHeaders.getFirst(HttpHeaders.CONTENT_ENCODING));
+                HttpStatusCode status = HttpStatusCode.valueOf(response.statusCode());
+                if (status.isError()) {
+                    throw toApiException(endpoint, cookies, status, new String(body, StandardCharsets.UTF_8), responseHeaders);
+                }
+                return toFetchResult(endpoint, status, responseHeaders, body, responseType, lastVersion, trace, responseLogger);
+            })
+            .whenComplete((result, ex) -> {
+                inFlightRequests.decrementAndGet();
+                sample.stop(requestTimer);
+            })
+            .exceptionally(ex -> {
+                Throwable cause = ex instanceof CompletionException && ex.getCause() != null ? ex.getCause() : ex;
+                if (cause instanceof NSEApiException apiException) {
+                    throw apiException;
+                }
+                if (cause instanceof IOException) {
+                    log.error("Network error calling NSE API - Endpoint: {}, Error: {}", endpoint, cause.getMessage());
+                    recordError(endpoint, "network_error");
+                    throw new NSEApiException(endpoint, HttpStatus.SERVICE_UNAVAILABLE, "N/A", "Network error accessing NSE API", cause);
+                }
+                log.error("Unexpected error calling NSE API - Endpoint: {}, Error: {}", endpoint, cause.getMessage(), cause);
+                recordError(endpoint, "unexpected_error");
+                throw new NSEApiException(endpoint, HttpStatus.INTERNAL_SERVER_ERROR, "N/A", "Unexpected error calling NSE API", cause);
+            });
+    }
+
+    // The client has already buffered the body, so only the in-memory inflate runs here
+    private byte[] readBody(byte[] wire, String contentEncoding) {
+        meterRegistry.summary(CompressionSupport.METRIC_RESPONSE_BYTES,
+            CompressionSupport.TAG_ENCODING, CompressionSupport.encodingTag(contentEncoding)).record(wire.length);
+        try (InputStream decoded = CompressionSupport.decode(new ByteArrayInputStream(wire), contentEncoding)) {
+            return decoded.readAllBytes();
+        } catch (IOException e) {
+            throw new CompletionException(e);
+        }
+    }
+
+    private NSEApiException toApiException(String endpoint, String cookies, HttpStatusCode status, String responseBody,
+            HttpHeaders headers) {
+        if (status.value() == HttpStatus.UNAUTHORIZED.value()) {
+            log.error("Unauthorized access to NSE API - Endpoint: {}, Response: {}, Headers: {}",
+                endpoint, responseBody, maskSensitiveHeaders(headers));
+            cookieCacheService.invalidateCookies(cookies);
+            recordError(endpoint, "unauthorized");
+            return new NSEApiException(endpoint, HttpStatus.UNAUTHORIZED, responseBody, "Unauthorized access, cookies might be expired");
+        }
+        if (status.is4xxClientError()) {
+            log.error("Client error from NSE API - Endpoint: {}, Status: {}, Response: {}, Headers: {}",
+                endpoint, status, responseBody, maskSensitiveHeaders(headers));
+            recordError(endpoint, "client_error");
+            return new NSEApiException(endpoint, status, responseBody, "Client error from NSE API");
+        }
+        log.error("Server error from NSE API - Endpoint: {}, Status: {}, Response: {}, Headers: {}",
+            endpoint, status, responseBody, maskSensitiveHeaders(headers));
+        recordError(endpoint, "server_error");
+        return new NSEApiException(endpoint, status, responseBody, "Server error from NSE API");
+    }
+
+    private <T> NseFetchResult<T> toFetchResult(String endpoint, HttpStatusCode status, HttpHeaders headers, byte[] body,
+            Class<T> responseType, ContentVersion lastVersion, PayloadTracer.Sample trace, ResponseLogger<T> responseLogger) {
+        if (status.value() == HttpStatus.NOT_MODIFIED.value() && lastVersion != null) {
+            log.info("NSE API content not modified - Endpoint: {}", endpoint);
+            meterRegistry.counter(METRIC_NOT_MODIFIED_COUNT, TAG_ENDPOINT, endpoint).increment();
+            return NseFetchResult.unchanged(lastVersion);
+        }
+
+        if (body == null || body.length == 0) {
+            recordError(endpoint, "empty_response");
+            throw new NSEApiException(endpoint, status, "null", "Empty response from NSE API");
+        }
+
+        // Identical bytes mean identical data, so skip parsing entirely
+        ContentVersion version = ContentVersion.builder()
+            .etag(headers.getETag())
+            .lastModified(headers.getFirst(HttpHeaders.LAST_MODIFIED))
+            .contentHash(sha256(body))
+            .build();
+        if (lastVersion != null && version.getContentHash().equals(lastVersion.getContentHash())) {
+            log.info("NSE API content unchanged - Endpoint: {}, Bytes: {}", endpoint, body.length);
+            meterRegistry.counter(METRIC_NOT_MODIFIED_COUNT, TAG_ENDPOINT, endpoint).increment();
+            return NseFetchResult.unchanged(version);
+        }
+
+        T parsed;
+        try {
+            parsed = objectMapper.readValue(body, responseType);
+        } catch (IOException e) {
+            recordError(endpoint, "parse_error");
+            throw new NSEApiException(endpoint, status, "N/A", "Failed to parse NSE API response", e);
+        }
+        logApiResponse(endpoint, status, headers, body, parsed, trace, responseLogger);
+        return NseFetchResult.changed(parsed, version);
+    }
+
     private void recordError(String endpoint, String errorType) {
         meterRegistry.counter(METRIC_ERROR_COUNT,
             TAG_ENDPOINT, endpoint,
@@ -164,22 +431,48 @@ public class NSEApiClient {
         ).increment();
     }
 
-    private String getCookiesOrThrow() {
+    private String getCookiesOrRefresh() {
+        String cookies = cookieCacheService.getCookies();
+        return cookies != null ? cookies : refreshCookies();
+    }
+
+    /**
+     * Cached cookies when present; otherwise a refresh that runs on the cookie refresh executor,
+     * never on the caller's thread, because it can block on the HTTP handshake or a browser. The
+     * cache is checked again on the executor, since a refresh queued behind another one finds the
+     * cookies that one stored.
+     */
+    private CompletableFuture<String> getCookiesOrRefreshAsync() {
         String cookies = cookieCacheService.getCookies();
-        if (cookies == null) {
-            throw new CookieException("No valid cookies found in cache");
+        if (cookies != null) {
+            return CompletableFuture.completedFuture(cookies);
         }
-        return cookies;
+        CompletableFuture<String> inFlight = cookieRefresh.get();
+        return inFlight != null ? inFlight : CompletableFuture.supplyAsync(this::getCookiesOrRefresh, cookieRefreshExecutor);
     }
 
-    private HttpEntity<String> createHttpEntity(String cookies) {
+    private HttpEntity<String> createHttpEntity(String cookies, ContentVersion lastVersion) {
         HttpHeaders headers = new HttpHeaders();
         headers.set(HttpHeaders.COOKIE, cookies);
         headers.set(HttpHeaders.USER_AGENT, USER_AGENT);
         headers.set(HttpHeaders.ACCEPT, MediaType.APPLICATION_JSON_VALUE);
+        if (lastVersion != null && lastVersion.getEtag() != null) {
+            headers.set(HttpHeaders.IF_NONE_MATCH, lastVersion.getEtag());
+        }
+        if (lastVersion != null && lastVersion.getLastModified() != null) {
+            headers.set(HttpHeaders.IF_MODIFIED_SINCE, lastVersion.getLastModified());
+        }
         return new HttpEntity<>(headers);
     }
 
+    private static String sha256(byte[] body) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(body));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
     private HttpHeaders maskSensitiveHeaders(HttpHeaders headers) {
         if (headers == null) return null;
         HttpHeaders masked = new HttpHeaders();
@@ -206,13 +499,16 @@ public class NSEApiClient {
             .collect(Collectors.joining("; "));
     }
 
-    private <T> void logApiResponse(String endpoint, ResponseEntity<T> response, ResponseLogger<T> responseLogger) {
+    private <T> void logApiResponse(String endpoint, HttpStatusCode status, HttpHeaders headers, byte[] body, T parsed,
+            PayloadTracer.Sample trace, ResponseLogger<T> responseLogger) {
         try {
-            log.info("NSE API Response - Endpoint: {}, Status: {}, Headers: {}", 
-                endpoint, response.getStatusCode(), maskSensitiveHeaders(response.getHeaders()));
-            
-            if (response.getBody() != null) {
-                responseLogger.log(response.getBody());
+            log.info("NSE API Response - Endpoint: {}, Status: {}", endpoint, status);
+            trace.log("response headers", () -> String.valueOf(maskSensitiveHeaders(headers)));
+
+            if (parsed != null) {
+                responseLogger.log(parsed);
+                // The raw body is only decoded into a String for sampled requests
+                trace.capture(() -> new String(body, StandardCharsets.UTF_8));
             }
         } catch (Exception e) {
             log.warn("Failed to log API response details - Endpoint: {}", endpoint, e);
@@ -224,9 +520,8 @@ public class NSEApiClient {
         void log(T response) throws Exception;
     }
 
-    private void logETFResponse(NseETFResponse etfs) throws Exception {
-        log.info("ETF Response - Raw: {}", objectMapper.writeValueAsString(etfs));
-        if (etfs.getData() != null) {
+    private void logETFResponse(NseETFResponse etfs) {
+        if (etfs.getData() != null && log.isInfoEnabled()) {
             log.info("ETF Summary - Count: {}, First ETF: {}", 
                 etfs.getData().size(),
                 etfs.getData().isEmpty() ? "none" : 
@@ -239,9 +534,8 @@ public class NSEApiClient {
         }
     }
 
-    private void logIndicesResponse(NSEIndicesResponse indices) throws Exception {
-        log.info("Indices Response - Raw: {}", objectMapper.writeValueAsString(indices));
-        if (indices.getData() != null) {
+    private void logIndicesResponse(NSEIndicesResponse indices) {
+        if (indices.getData() != null && log.isInfoEnabled()) {
             log.info("Indices Summary - Count: {}, First Index: {}", 
                 indices.getData().size(),
                 indices.getData().isEmpty() ? "none" : 
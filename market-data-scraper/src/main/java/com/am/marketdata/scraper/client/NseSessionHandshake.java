@@ -0,0 +1,194 @@
+package com.am.marketdata.scraper.client;
+
+import com.am.marketdata.scraper.config.CookieProviderConfig;
+import com.am.marketdata.scraper.config.NseHttpClientConfig;
+import com.am.marketdata.scraper.exception.CookieException;
+import com.am.marketdata.scraper.model.CookieInfo;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.net.HttpCookie;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.stream.Collectors;
+
+/**
+ * Obtains an NSE session without a browser by replaying the page requests a visitor would make,
+ * carrying cookies and referer from one step to the next, and then checking the session against
+ * an API endpoint.
+ *
+ * <p>The handshake has its own client that does not follow redirects: the shared transport
+ * follows them without a cookie handler, which would drop cookies NSE sets on a redirect
+ * response. Redirects are followed here instead, with every hop's cookies added to the jar.
+ */
+@Slf4j
+@Component
+public class NseSessionHandshake {
+    private final HttpClient httpClient;
+    private final CookieProviderConfig providerConfig;
+    private final String baseUrl;
+
+    private static final int MAX_REDIRECTS = 5;
+    private static final String USER_AGENT = "Mozilla/5.0 (Windows NT 10.0; Win64; x64) AppleWebKit/537.36 (KHTML, like Gecko) Chrome/120.0.0.0 Safari/537.36";
+    private static final String ACCEPT_HTML = "text/html,application/xhtml+xml,application/xml;q=0.9,*/*;q=0.8";
+    private static final String ACCEPT_LANGUAGE = "en-US,en;q=0.9";
+
+    @Autowired
+    public NseSessionHandshake(CookieProviderConfig providerConfig, NseHttpClientConfig clientConfig,
+            @Value("${nse.api.base-url:https://www.nseindia.com}") String baseUrl) {
+        this(HttpClient.newBuilder()
+                .version(clientConfig.isHttp2Enabled() ? HttpClient.Version.HTTP_2 : HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofMillis(clientConfig.getConnectTimeoutMs()))
+                .followRedirects(HttpClient.Redirect.NEVER)
+                .build(),
+            providerConfig, baseUrl);
+    }
+
+    NseSessionHandshake(HttpClient httpClient, CookieProviderConfig providerConfig, String baseUrl) {
+        this.httpClient = httpClient;
+        this.providerConfig = providerConfig;
+        this.baseUrl = baseUrl;
+    }
+
+    /**
+     * Runs the handshake and returns the session cookies, or throws {@link CookieException} if a
+     * step fails, a required cookie is missing, or the session is rejected by the API.
+     */
+    public List<CookieInfo> perform() {
+        Map<String, CookieInfo> jar = new LinkedHashMap<>();
+        String referer = null;
+        for (String path : providerConfig.getHandshakePaths()) {
+            HttpResponse<Void> response = visit(URI.create(baseUrl + path), referer, jar);
+            if (response.statusCode() >= 400) {
+                throw new CookieException("Handshake step " + path + " returned status " + response.statusCode());
+            }
+            referer = response.uri().toString();
+        }
+
+        List<String> missing = providerConfig.getRequiredCookies().stream()
+            .filter(name -> !jar.containsKey(name))
+            .toList();
+        if (!missing.isEmpty()) {
+            throw new CookieException("Handshake did not yield required cookies " + missing + ", got " + jar.keySet());
+        }
+
+        List<CookieInfo> cookies = List.copyOf(jar.values());
+        validate(toCookieHeader(cookies));
+        log.info("HTTP handshake obtained cookies: {}", jar.keySet());
+        return cookies;
+    }
+
+    /**
+     * Checks that NSE accepts {@code cookieHeader} for an API call.
+     */
+    public void validate(String cookieHeader) {
+        URI uri = URI.create(baseUrl + providerConfig.getValidationPath());
+        HttpResponse<Void> response = send(request(uri, MediaType.APPLICATION_JSON_VALUE, cookieHeader).build());
+        if (response.statusCode() != 200) {
+            throw new CookieException("Session validation against " + providerConfig.getValidationPath()
+                + " returned status " + response.statusCode());
+        }
+    }
+
+    public static String toCookieHeader(Iterable<CookieInfo> cookies) {
+        StringBuilder header = new StringBuilder();
+        for (CookieInfo cookie : cookies) {
+            if (header.length() > 0) {
+                header.append("; ");
+            }
+            header.append(cookie.getName()).append('=').append(cookie.getValue());
+        }
+        return header.toString();
+    }
+
+    /**
+     * Requests a page as a browser would, following redirects so that cookies set on each hop
+     * are stored and sent on the next one.
+     */
+    private HttpResponse<Void> visit(URI uri, String referer, Map<String, CookieInfo> jar) {
+        for (int redirects = 0; ; redirects++) {
+            HttpRequest.Builder request = request(uri, ACCEPT_HTML, toCookieHeader(jar.values()));
+            if (referer != null) {
+                request.header(HttpHeaders.REFERER, referer);
+            }
+            HttpResponse<Void> response = send(request.build());
+            toCookieInfos(response.headers().allValues(HttpHeaders.SET_COOKIE))
+                .forEach(cookie -> jar.put(cookie.getName(), cookie));
+
+            Optional<String> location = response.headers().firstValue(HttpHeaders.LOCATION);
+            if (!isRedirect(response.statusCode()) || location.isEmpty()) {
+                return response;
+            }
+            if (redirects == MAX_REDIRECTS) {
+                throw new CookieException("Handshake step " + uri + " redirected more than " + MAX_REDIRECTS + " times");
+            }
+            uri = uri.resolve(location.get());
+        }
+    }
+
+    private static boolean isRedirect(int statusCode) {
+        return statusCode == 301 || statusCode == 302 || statusCode == 303 || statusCode == 307 || statusCode == 308;
+    }
+
+    private HttpRequest.Builder request(URI uri, String accept, String cookieHeader) {
+        HttpRequest.Builder request = HttpRequest.newBuilder(uri)
+            .timeout(Duration.ofMillis(providerConfig.getRequestTimeoutMs()))
+            .header(HttpHeaders.USER_AGENT, USER_AGENT)
+            .header(HttpHeaders.ACCEPT, accept)
+            .header(HttpHeaders.ACCEPT_LANGUAGE, ACCEPT_LANGUAGE)
+            .GET();
+        if (!cookieHeader.isEmpty()) {
+            request.header(HttpHeaders.COOKIE, cookieHeader);
+        }
+        return request;
+    }
+
+    private HttpResponse<Void> send(HttpRequest request) {
+        try {
+            return httpClient.send(request, HttpResponse.BodyHandlers.discarding());
+        } catch (IOException e) {
+            throw new CookieException("Handshake request to " + request.uri() + " failed: " + e.getMessage(), e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new CookieException("Interrupted during handshake request to " + request.uri(), e);
+        }
+    }
+
+    private static List<CookieInfo> toCookieInfos(List<String> setCookies) {
+        long now = System.currentTimeMillis();
+        return setCookies.stream()
+            .flatMap(header -> parseSetCookie(header).stream())
+            .map(cookie -> CookieInfo.builder()
+                .name(cookie.getName())
+                .value(cookie.getValue())
+                .domain(cookie.getDomain())
+                .path(cookie.getPath())
+                .secure(cookie.getSecure())
+                .httpOnly(cookie.isHttpOnly())
+                // Max-Age/Expires are normalised to max age; -1 marks a session cookie
+                .expiry(cookie.getMaxAge() >= 0 ? now + cookie.getMaxAge() * 1000 : null)
+                .build())
+            .collect(Collectors.toList());
+    }
+
+    private static List<HttpCookie> parseSetCookie(String header) {
+        try {
+            return HttpCookie.parse(header);
+        } catch (IllegalArgumentException e) {
+            log.warn("Ignoring malformed Set-Cookie header: {}", e.getMessage());
+            return List.of();
+        }
+    }
+}
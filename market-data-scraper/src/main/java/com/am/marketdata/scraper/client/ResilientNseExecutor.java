@@ -0,0 +1,246 @@
+package com.am.marketdata.scraper.client;
+
+import com.am.marketdata.scraper.config.NseResilienceConfig;
+import com.am.marketdata.scraper.exception.CircuitOpenException;
+import com.am.marketdata.scraper.exception.NSEApiException;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Runs non-blocking NSE calls with retries, optional hedging and a per-endpoint circuit breaker.
+ * Backoff delays and hedge triggers are timer tasks on one scheduler thread, so no worker thread
+ * waits while NSE is slow or down.
+ */
+@Slf4j
+@Component
+public class ResilientNseExecutor {
+    private final NseResilienceConfig config;
+    private final MeterRegistry meterRegistry;
+    private final Clock clock;
+    private final ScheduledExecutorService scheduler;
+
+    // Metric names
+    private static final String METRIC_PREFIX = "nse.api.";
+    private static final String METRIC_RETRY_COUNT = METRIC_PREFIX + "retry.count";
+    private static final String METRIC_HEDGE_COUNT = METRIC_PREFIX + "hedge.count";
+    private static final String TAG_ENDPOINT = "endpoint";
+    private static final String TAG_OUTCOME = "outcome";
+
+    private final Map<String, CircuitBreaker> breakers = new ConcurrentHashMap<>();
+    private final Map<String, LatencyWindow> latencies = new ConcurrentHashMap<>();
+
+    @Autowired
+    public ResilientNseExecutor(NseResilienceConfig config, MeterRegistry meterRegistry) {
+        this(config, meterRegistry, Clock.systemUTC(), Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "nse-resilience");
+            thread.setDaemon(true);
+            return thread;
+        }));
+    }
+
+    // Tests pass a fixed clock for the breakers and a scheduler they run by hand
+    ResilientNseExecutor(NseResilienceConfig config, MeterRegistry meterRegistry, Clock clock,
+                         ScheduledExecutorService scheduler) {
+        this.config = config;
+        this.meterRegistry = meterRegistry;
+        this.clock = clock;
+        this.scheduler = scheduler;
+    }
+
+    @PostConstruct
+    public void initialize() {
+        log.info("Initialized NSE resilience with max attempts: {}, hedging: {}, breaker threshold: {}, open for: {}ms",
+            config.getMaxAttempts(), config.isHedgeEnabled(), config.getBreakerFailureThreshold(), config.getBreakerOpenMs());
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        scheduler.shutdownNow();
+    }
+
+    /**
+     * Runs {@code call} against {@code endpoint}, invoking it again for retries and hedges. Fails
+     * with {@link CircuitOpenException} without calling NSE while the endpoint's circuit is open.
+     */
+    public <T> CompletableFuture<T> execute(String endpoint, Supplier<CompletableFuture<T>> call) {
+        CompletableFuture<T> result = new CompletableFuture<>();
+        attempt(endpoint, call, 1, result);
+        return result;
+    }
+
+    public CircuitBreaker.State getState(String endpoint) {
+        return breaker(endpoint).getState();
+    }
+
+    private <T> void attempt(String endpoint, Supplier<CompletableFuture<T>> call, int attempt, CompletableFuture<T> result) {
+        CircuitBreaker breaker = breaker(endpoint);
+        if (!breaker.tryAcquire()) {
+            result.completeExceptionally(new CircuitOpenException(endpoint));
+            return;
+        }
+
+        long started = System.nanoTime();
+        hedged(endpoint, call, breaker).whenComplete((value, error) -> {
+            if (error == null) {
+                breaker.onSuccess();
+                latency(endpoint).record(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started));
+                result.complete(value);
+                return;
+            }
+            Throwable cause = unwrap(error);
+            if (!isRetryable(cause)) {
+                breaker.onIgnored();
+                result.completeExceptionally(cause);
+                return;
+            }
+            breaker.onFailure();
+            if (attempt >= config.getMaxAttempts()) {
+                log.error("NSE {} failed after {} attempts: {}", endpoint, attempt, cause.getMessage());
+                result.completeExceptionally(cause);
+                return;
+            }
+            long delay = backoffMs(attempt);
+            log.warn("NSE {} attempt {} failed, retrying in {} ms: {}", endpoint, attempt, delay, cause.getMessage());
+            meterRegistry.counter(METRIC_RETRY_COUNT, TAG_ENDPOINT, endpoint).increment();
+            scheduler.schedule(() -> attempt(endpoint, call, attempt + 1, result), delay, TimeUnit.MILLISECONDS);
+        });
+    }
+
+    /**
+     * Sends the call and, if it has not finished within the hedge delay, a duplicate; the first
+     * success wins and the call only fails once every request sent has failed.
+     */
+    private <T> CompletableFuture<T> hedged(String endpoint, Supplier<CompletableFuture<T>> call, CircuitBreaker breaker) {
+        long hedgeDelay = hedgeDelayMs(endpoint, breaker);
+        if (hedgeDelay < 0) {
+            return invoke(call);
+        }
+
+        CompletableFuture<T> result = new CompletableFuture<>();
+        AtomicInteger outstanding = new AtomicInteger(1);
+        invoke(call).whenComplete((value, error) -> settle(result, outstanding, value, error, endpoint, false));
+        ScheduledFuture<?> hedge = scheduler.schedule(() -> {
+            // Nothing to hedge once the primary has failed and settled the result
+            if (outstanding.getAndUpdate(count -> count == 0 ? 0 : count + 1) == 0) {
+                return;
+            }
+            if (result.isDone()) {
+                outstanding.decrementAndGet();
+                return;
+            }
+            meterRegistry.counter(METRIC_HEDGE_COUNT, TAG_ENDPOINT, endpoint, TAG_OUTCOME, "sent").increment();
+            invoke(call).whenComplete((value, error) -> settle(result, outstanding, value, error, endpoint, true));
+        }, hedgeDelay, TimeUnit.MILLISECONDS);
+        result.whenComplete((value, error) -> hedge.cancel(false));
+        return result;
+    }
+
+    private <T> void settle(CompletableFuture<T> result, AtomicInteger outstanding, T value, Throwable error,
+            String endpoint, boolean hedge) {
+        if (error == null) {
+            if (result.complete(value) && hedge) {
+                meterRegistry.counter(METRIC_HEDGE_COUNT, TAG_ENDPOINT, endpoint, TAG_OUTCOME, "won").increment();
+            }
+        } else if (outstanding.decrementAndGet() == 0) {
+            result.completeExceptionally(error);
+        }
+    }
+
+    // Negative when the call should not be hedged
+    private long hedgeDelayMs(String endpoint, CircuitBreaker breaker) {
+        if (!config.isHedgeEnabled() || breaker.getState() != CircuitBreaker.State.CLOSED) {
+            return -1;
+        }
+        LatencyWindow window = latency(endpoint);
+        if (window.size() < config.getHedgeMinSamples()) {
+            return -1;
+        }
+        return Math.max(config.getHedgeMinDelayMs(), window.percentile(config.getHedgePercentile()));
+    }
+
+    // Exponential backoff with jitter over the upper half of the interval
+    private long backoffMs(int attempt) {
+        long ceiling = Math.min(config.getMaxBackoffMs(), config.getInitialBackoffMs() << Math.min(attempt - 1, 20));
+        return ceiling / 2 + ThreadLocalRandom.current().nextLong(ceiling / 2 + 1);
+    }
+
+    // Client errors other than an expired session, timeout or throttling will not succeed on retry
+    private static boolean isRetryable(Throwable error) {
+        if (error instanceof NSEApiException apiException && apiException.getStatusCode() != null) {
+            int status = apiException.getStatusCode().value();
+            return !(status >= 400 && status < 500) || status == 401 || status == 408 || status == 429;
+        }
+        return true;
+    }
+
+    // Session setup can fail before the async request is even created
+    private static <T> CompletableFuture<T> invoke(Supplier<CompletableFuture<T>> call) {
+        try {
+            return call.get();
+        } catch (RuntimeException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+
+    private static Throwable unwrap(Throwable error) {
+        return error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+    }
+
+    private CircuitBreaker breaker(String endpoint) {
+        return breakers.computeIfAbsent(endpoint, key -> new CircuitBreaker(key, config.getBreakerFailureThreshold(),
+            Duration.ofMillis(config.getBreakerOpenMs()), meterRegistry, clock));
+    }
+
+    private LatencyWindow latency(String endpoint) {
+        return latencies.computeIfAbsent(endpoint, key -> new LatencyWindow(config.getLatencyWindow()));
+    }
+
+    /**
+     * The most recent successful call latencies for one endpoint.
+     */
+    private static final class LatencyWindow {
+        private final long[] samples;
+        private int next;
+        private int size;
+
+        private LatencyWindow(int capacity) {
+            this.samples = new long[Math.max(1, capacity)];
+        }
+
+        private synchronized void record(long millis) {
+            samples[next] = millis;
+            next = (next + 1) % samples.length;
+            size = Math.min(size + 1, samples.length);
+        }
+
+        private synchronized int size() {
+            return size;
+        }
+
+        private synchronized long percentile(double percentile) {
+            long[] sorted = Arrays.copyOf(samples, size);
+            Arrays.sort(sorted);
+            int index = (int) Math.ceil(percentile * size) - 1;
+            return sorted[Math.max(0, Math.min(index, size - 1))];
+        }
+    }
+}
@@ -0,0 +1,23 @@
+package com.am.marketdata.scraper.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+@Data
+@Configuration
+@ConfigurationProperties(prefix = "scraper.browser")
+public class BrowserPoolConfig {
+    private int poolSize = 2;
+    // Launch the whole pool in the background at startup so the first scrape does not pay for it.
+    // Off by default: browsers are only a fallback for the HTTP cookie handshake.
+    private boolean prewarm = false;
+    // Idle browsers are shut down after this long unless the pool is prewarmed
+    private long idleTimeoutMs = 300000;
+    private long borrowTimeoutMs = 60000;
+    private long healthCheckIntervalMs = 60000;
+
+    // A browser is recycled after this many scrapes or once its JS heap grows past the limit
+    private int maxUsesPerBrowser = 50;
+    private long maxHeapMb = 512;
+}
@@ -0,0 +1,84 @@
+package com.am.marketdata.scraper.config;
+
+import com.am.marketdata.scraper.client.CompressionSupport;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpRequest;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.client.ClientHttpRequestExecution;
+import org.springframework.http.client.ClientHttpRequestInterceptor;
+import org.springframework.http.client.ClientHttpResponse;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Advertises gzip/deflate on NSE requests and transparently decodes the response, since the JDK
+ * request factory leaves content decoding to the caller. Wire sizes are recorded per encoding.
+ */
+@RequiredArgsConstructor
+class CompressionInterceptor implements ClientHttpRequestInterceptor {
+    private final MeterRegistry meterRegistry;
+
+    @Override
+    public ClientHttpResponse intercept(HttpRequest request, byte[] body, ClientHttpRequestExecution execution)
+            throws IOException {
+        request.getHeaders().set(HttpHeaders.ACCEPT_ENCODING, CompressionSupport.ACCEPT_ENCODING);
+        ClientHttpResponse response = execution.execute(request, body);
+
+        String encoding = response.getHeaders().getFirst(HttpHeaders.CONTENT_ENCODING);
+        byte[] wire = response.getBody().readAllBytes();
+        meterRegistry.summary(CompressionSupport.METRIC_RESPONSE_BYTES,
+            CompressionSupport.TAG_ENCODING, CompressionSupport.encodingTag(encoding)).record(wire.length);
+
+        byte[] decoded;
+        try (InputStream in = CompressionSupport.decode(new ByteArrayInputStream(wire), encoding)) {
+            decoded = in.readAllBytes();
+        }
+        return new DecodedResponse(response, decoded);
+    }
+
+    private static final class DecodedResponse implements ClientHttpResponse {
+        private final ClientHttpResponse delegate;
+        private final byte[] body;
+        private final HttpHeaders headers;
+
+        DecodedResponse(ClientHttpResponse delegate, byte[] body) {
+            this.delegate = delegate;
+            this.body = body;
+            this.headers = new HttpHeaders();
+            this.headers.putAll(delegate.getHeaders());
+            // The body handed on is plain, so drop headers describing the encoded form
+            this.headers.remove(HttpHeaders.CONTENT_ENCODING);
+            this.headers.setContentLength(body.length);
+        }
+
+        @Override
+        public HttpStatusCode getStatusCode() throws IOException {
+            return delegate.getStatusCode();
+        }
+
+        @Override
+        public String getStatusText() throws IOException {
+            return delegate.getStatusText();
+        }
+
+        @Override
+        public HttpHeaders getHeaders() {
+            return headers;
+        }
+
+        @Override
+        public InputStream getBody() {
+            return new ByteArrayInputStream(body);
+        }
+
+        @Override
+        public void close() {
+            delegate.close();
+        }
+    }
+}
@@ -0,0 +1,22 @@
+package com.am.marketdata.scraper.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.List;
+
+@Data
+@Configuration
+@ConfigurationProperties(prefix = "nse.cookie.provider")
+public class CookieProviderConfig {
+    // Pages requested in order, each with the cookies and referer of the previous step
+    private List<String> handshakePaths = List.of("/", "/market-data/live-equity-market");
+    // Cheap API call that must succeed with the acquired cookies before they are accepted
+    private String validationPath = "/api/marketStatus";
+    private List<String> requiredCookies = List.of("nsit", "nseappid");
+    private long requestTimeoutMs = 10000;
+
+    // The browser pool is only used when the HTTP handshake fails validation
+    private boolean browserFallbackEnabled = true;
+}
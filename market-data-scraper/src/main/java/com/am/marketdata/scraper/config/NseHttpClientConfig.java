@@ -0,0 +1,16 @@
+package com.am.marketdata.scraper.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+@Data
+@Configuration
+@ConfigurationProperties(prefix = "nse.http")
+public class NseHttpClientConfig {
+    private int ioThreads = 4;
+    private int connectTimeoutMs = 10000;
+    private int readTimeoutMs = 10000;
+    private boolean http2Enabled = true;
+    private boolean compressionEnabled = true;
+}
@@ -0,0 +1,26 @@
+package com.am.marketdata.scraper.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+@Data
+@Configuration
+@ConfigurationProperties(prefix = "nse.resilience")
+public class NseResilienceConfig {
+    // Retries are scheduled on a timer; no thread sleeps between attempts
+    private int maxAttempts = 3;
+    private long initialBackoffMs = 1000;
+    private long maxBackoffMs = 10000;
+
+    // A second identical request is sent once the first is slower than this latency percentile
+    private boolean hedgeEnabled = false;
+    private double hedgePercentile = 0.95;
+    private long hedgeMinDelayMs = 200;
+    private int latencyWindow = 100;
+    private int hedgeMinSamples = 20;
+
+    // Consecutive failures that open an endpoint's circuit, and how long it stays open before a probe
+    private int breakerFailureThreshold = 5;
+    private long breakerOpenMs = 30000;
+}
@@ -0,0 +1,30 @@
+package com.am.marketdata.scraper.config;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Stages after the fetch in the NSE processing pipeline. The fetch itself is non-blocking and
+ * needs no workers of its own; see {@code nse.resilience}.
+ */
+@Data
+@Configuration
+@ConfigurationProperties(prefix = "market.data.pipeline")
+public class PipelineConfig {
+    private Stage map = new Stage(2, 10);
+    // Single-threaded by default so snapshots reach the database and Kafka in fetch order
+    private Stage persist = new Stage(1, 10);
+    private Stage publish = new Stage(1, 10);
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Stage {
+        private int concurrency;
+        // When the queue is full the submitting stage runs the task itself, slowing ingestion down
+        private int queueCapacity;
+    }
+}
@@ -1,15 +1,10 @@
 package com.am.marketdata.scraper.config;
 
-import io.github.bonigarcia.wdm.WebDriverManager;
-import org.openqa.selenium.chrome.ChromeDriver;
+import org.openqa.selenium.PageLoadStrategy;
 import org.openqa.selenium.chrome.ChromeOptions;
 import org.springframework.boot.context.properties.ConfigurationProperties;
-import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
-import org.springframework.context.annotation.Scope;
-import org.springframework.context.annotation.ScopedProxyMode;
 import lombok.Data;
-import jakarta.annotation.PreDestroy;
 import java.util.List;
 
 @Configuration
@@ -17,25 +12,36 @@ import java.util.List;
 @Data
 public class ScraperConfig {
     private List<String> urls;
-    private ChromeDriver webDriver;
+    private Lean lean = new Lean();
 
-    @Bean
-    @Scope(value = "prototype", proxyMode = ScopedProxyMode.TARGET_CLASS)
-    public ChromeDriver webDriver() {
-        if (webDriver != null && isSessionValid(webDriver)) {
-            return webDriver;
-        }
+    /**
+     * Lean scrape mode: non-essential resources are blocked through DevTools and the scrape returns
+     * as soon as the required cookies are set instead of waiting for the full page load.
+     */
+    @Data
+    public static class Lean {
+        private boolean enabled = true;
+        // CDP network resource types, e.g. IMAGE, MEDIA, FONT, STYLESHEET
+        private List<String> blockedResourceTypes = List.of("IMAGE", "MEDIA", "FONT", "STYLESHEET");
+        private List<String> blockedUrlPatterns = List.of(
+            "*google-analytics.com*", "*googletagmanager.com*", "*doubleclick.net*", "*facebook.net*");
+        // Cookies that make up a usable NSE session; the scrape completes once all are present
+        private List<String> requiredCookies = List.of("nsit", "nseappid");
+        private long cookieWaitMs = 15000;
 
-        // Clean up old driver if it exists
-        if (webDriver != null) {
-            try {
-                webDriver.quit();
-            } catch (Exception e) {
-                // Ignore cleanup errors
-            }
+        /**
+         * Lean loads stop once the required cookies are set, so without any there is nothing to
+         * wait for and pages load normally. Browser options and page loads both follow this.
+         */
+        public boolean isActive() {
+            return enabled && requiredCookies != null && !requiredCookies.isEmpty();
         }
+    }
 
-        WebDriverManager.chromedriver().setup();
+    /**
+     * Options for each browser in the {@link com.am.marketdata.scraper.service.BrowserPool}.
+     */
+    public ChromeOptions chromeOptions() {
         ChromeOptions options = new ChromeOptions();
         
         // Basic headless configuration
@@ -54,29 +60,12 @@ public class ScraperConfig {
         
         // Set user agent to look more like a real browser
         options.addArguments("--user-agent=Mozilla/5.0 (Windows NT 10.0; Win64; x64) AppleWebKit/537.36 (KHTML, like Gecko) Chrome/120.0.0.0 Safari/537.36");
-        
-        webDriver = new ChromeDriver(options);
-        return webDriver;
-    }
-
-    private boolean isSessionValid(ChromeDriver driver) {
-        try {
-            // Try to get the current URL as a simple session check
-            driver.getCurrentUrl();
-            return true;
-        } catch (Exception e) {
-            return false;
-        }
-    }
 
-    @PreDestroy
-    public void cleanUp() {
-        if (webDriver != null) {
-            try {
-                webDriver.quit();
-            } catch (Exception e) {
-                // Ignore cleanup errors
-            }
+        if (lean.isActive()) {
+            // get() returns immediately; the scraper waits for cookies rather than the load event
+            options.setPageLoadStrategy(PageLoadStrategy.NONE);
+            options.addArguments("--blink-settings=imagesEnabled=false");
         }
+        return options;
     }
 }
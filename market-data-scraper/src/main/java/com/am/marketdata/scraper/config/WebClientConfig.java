@@ -1,19 +1,62 @@
 package com.am.marketdata.scraper.config;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.client.JdkClientHttpRequestFactory;
 import org.springframework.web.client.RestTemplate;
 import org.springframework.boot.web.client.RestTemplateBuilder;
+
+import java.net.http.HttpClient;
 import java.time.Duration;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
 
+@Slf4j
 @Configuration
 public class WebClientConfig {
-    
-    @Bean(name = "nseApiRestTemplate")
-    public RestTemplate nseApiRestTemplate(RestTemplateBuilder builder) {
-        return builder
-            .setConnectTimeout(Duration.ofSeconds(10))
-            .setReadTimeout(Duration.ofSeconds(10))
+
+    /**
+     * Shared keep-alive transport for nseindia.com: connections (and their TLS sessions) are pooled
+     * and reused across polls, HTTP/2 multiplexes concurrent endpoint calls over one connection, and
+     * the small I/O pool is instrumented so its saturation is visible. It has no cookie handler,
+     * since API calls send the cached session explicitly; {@code NseSessionHandshake} therefore
+     * uses its own client and follows redirects itself to keep cookies set along the way.
+     */
+    @Bean(name = "nseHttpClient")
+    public HttpClient nseHttpClient(NseHttpClientConfig clientConfig, MeterRegistry meterRegistry) {
+        AtomicInteger threadCount = new AtomicInteger();
+        ExecutorService executor = ExecutorServiceMetrics.monitor(meterRegistry,
+            Executors.newFixedThreadPool(clientConfig.getIoThreads(), runnable -> {
+                Thread thread = new Thread(runnable, "nse-http-" + threadCount.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            }),
+            "nse.http");
+
+        log.info("Initialized NSE HTTP transport with {} io threads, HTTP/2: {}, compression: {}",
+            clientConfig.getIoThreads(), clientConfig.isHttp2Enabled(), clientConfig.isCompressionEnabled());
+        return HttpClient.newBuilder()
+            .version(clientConfig.isHttp2Enabled() ? HttpClient.Version.HTTP_2 : HttpClient.Version.HTTP_1_1)
+            .connectTimeout(Duration.ofMillis(clientConfig.getConnectTimeoutMs()))
+            .followRedirects(HttpClient.Redirect.NORMAL)
+            .executor(executor)
             .build();
     }
+
+    @Bean(name = "nseApiRestTemplate")
+    public RestTemplate nseApiRestTemplate(RestTemplateBuilder builder, HttpClient nseHttpClient,
+            NseHttpClientConfig clientConfig, MeterRegistry meterRegistry) {
+        JdkClientHttpRequestFactory requestFactory = new JdkClientHttpRequestFactory(nseHttpClient);
+        requestFactory.setReadTimeout(Duration.ofMillis(clientConfig.getReadTimeoutMs()));
+
+        RestTemplateBuilder configured = builder.requestFactory(() -> requestFactory);
+        if (clientConfig.isCompressionEnabled()) {
+            configured = configured.additionalInterceptors(new CompressionInterceptor(meterRegistry));
+        }
+        return configured.build();
+    }
 }
@@ -9,7 +9,6 @@ import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 
 import java.util.List;
-import java.util.stream.Collectors;
 
 @RestController
 @RequestMapping("/api/scraper")
@@ -20,8 +19,6 @@ public class CookieScraperController {
 
     @GetMapping("/cookies")
     public List<WebsiteCookies> scrapeCookies() {
-        return scraperConfig.getUrls().stream()
-                .map(scraperService::scrapeCookies)
-                .collect(Collectors.toList());
+        return scraperService.scrapeAll(scraperConfig.getUrls());
     }
 }
@@ -0,0 +1,14 @@
+package com.am.marketdata.scraper.exception;
+
+public class CircuitOpenException extends MarketDataException {
+    private final String endpoint;
+
+    public CircuitOpenException(String endpoint) {
+        super("Circuit open for NSE endpoint " + endpoint + ", failing fast");
+        this.endpoint = endpoint;
+    }
+
+    public String getEndpoint() {
+        return endpoint;
+    }
+}
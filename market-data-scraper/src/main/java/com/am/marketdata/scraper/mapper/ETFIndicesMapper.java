@@ -4,11 +4,13 @@ import com.am.common.investment.model.equity.ETFIndies;
 import com.am.common.investment.model.equity.MarketData;
 import com.am.common.investment.model.equity.MetaData;
 import com.am.marketdata.common.model.NseETF;
+import com.am.marketdata.common.timeseries.TimeSeriesPoint;
 
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Component;
 
 import java.time.LocalDateTime;
+import java.time.ZoneId;
 import java.util.List;
 import java.util.stream.Collectors;
 
@@ -17,16 +19,24 @@ import java.util.stream.Collectors;
 public class ETFIndicesMapper {
 
     public static List<ETFIndies> convertToETFIndices(List<NseETF> data) {
+        return convertToETFIndices(data, LocalDateTime.now());
+    }
+
+    public static List<ETFIndies> convertToETFIndices(List<NseETF> data, LocalDateTime exchangeTime) {
         return data.stream()
-            .map(ETFIndicesMapper::convertToMarketIndices)
+            .map(etf -> convertToMarketIndices(etf, exchangeTime))
             .collect(Collectors.toList());
     }
     
     public static ETFIndies convertToMarketIndices(NseETF data) {
+        return convertToMarketIndices(data, LocalDateTime.now());
+    }
+
+    public static ETFIndies convertToMarketIndices(NseETF data, LocalDateTime exchangeTime) {
         return ETFIndies.builder()
             .assets(data.getAssets())
             .symbol(data.getSymbol())
-            .timestamp(LocalDateTime.now()) // Using current time instead of fixed timestamp
+            .timestamp(exchangeTime)
             .marketData(MarketData.builder()
                 .open(data.getOpen())
                 .high(data.getHigh())
@@ -42,4 +52,24 @@ public class ETFIndicesMapper {
                 .build())
             .build();
     }
+
+    public static List<TimeSeriesPoint> convertToTimeSeriesPoints(List<ETFIndies> etfIndies) {
+        return etfIndies.stream()
+            .map(ETFIndicesMapper::convertToTimeSeriesPoint)
+            .collect(Collectors.toList());
+    }
+
+    public static TimeSeriesPoint convertToTimeSeriesPoint(ETFIndies etf) {
+        var marketData = etf.getMarketData();
+        return TimeSeriesPoint.measurement("etf_price")
+            .tag("symbol", etf.getSymbol())
+            .tag("isin", etf.getMetaData() != null ? etf.getMetaData().getIsin() : null)
+            .field("open", marketData.getOpen())
+            .field("high", marketData.getHigh())
+            .field("low", marketData.getLow())
+            .field("last", marketData.getLast())
+            .field("previousClose", marketData.getPreviousClose())
+            .field("percentChange", marketData.getPercentChange())
+            .time(etf.getTimestamp().atZone(ZoneId.systemDefault()).toInstant());
+    }
 }
@@ -6,12 +6,14 @@ import com.am.common.investment.model.equity.MarketBreadth;
 import com.am.common.investment.model.equity.MarketData;
 import com.am.common.investment.model.equity.MarketIndexIndices;
 import com.am.marketdata.common.model.NSEIndex;
+import com.am.marketdata.common.timeseries.TimeSeriesPoint;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Component;
 
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.LocalTime;
+import java.time.ZoneId;
 import java.time.format.DateTimeFormatter;
 import java.util.List;
 import java.util.stream.Collectors;
@@ -23,17 +25,25 @@ public class NSEMarketIndexIndicesMapper {
     private static final DateTimeFormatter DATE_FORMATTER = DateTimeFormatter.ofPattern("dd-MMM-yyyy");
 
     public static List<MarketIndexIndices> convertToMarketIndexIndices(List<NSEIndex> data) {
+        return convertToMarketIndexIndices(data, LocalDateTime.now());
+    }
+
+    public static List<MarketIndexIndices> convertToMarketIndexIndices(List<NSEIndex> data, LocalDateTime exchangeTime) {
         return data.stream()
-            .map(NSEMarketIndexIndicesMapper::convertToMarketIndices)
+            .map(index -> convertToMarketIndices(index, exchangeTime))
             .collect(Collectors.toList());
     }
     
     public static MarketIndexIndices convertToMarketIndices(NSEIndex data) {
+        return convertToMarketIndices(data, LocalDateTime.now());
+    }
+
+    public static MarketIndexIndices convertToMarketIndices(NSEIndex data, LocalDateTime exchangeTime) {
         return MarketIndexIndices.builder()
             .key(data.getKey())
             .index(data.getIndex())
             .indexSymbol(data.getIndexSymbol())
-            .timestamp(LocalDateTime.now()) // Using current time instead of fixed timestamp
+            .timestamp(exchangeTime)
             .marketData(MarketData.builder()
                 .open(data.getOpen())
                 .high(data.getHigh())
@@ -69,6 +79,27 @@ public class NSEMarketIndexIndicesMapper {
             .build();
     }
 
+    public static List<TimeSeriesPoint> convertToTimeSeriesPoints(List<MarketIndexIndices> indices) {
+        return indices.stream()
+            .map(NSEMarketIndexIndicesMapper::convertToTimeSeriesPoint)
+            .collect(Collectors.toList());
+    }
+
+    public static TimeSeriesPoint convertToTimeSeriesPoint(MarketIndexIndices index) {
+        var marketData = index.getMarketData();
+        return TimeSeriesPoint.measurement("index_price")
+            .tag("key", index.getKey())
+            .tag("indexSymbol", index.getIndexSymbol())
+            .field("open", marketData.getOpen())
+            .field("high", marketData.getHigh())
+            .field("low", marketData.getLow())
+            .field("last", marketData.getLast())
+            .field("previousClose", marketData.getPreviousClose())
+            .field("percentChange", marketData.getPercentChange())
+            .field("variation", marketData.getVariation())
+            .time(index.getTimestamp().atZone(ZoneId.systemDefault()).toInstant());
+    }
+
     private static LocalDateTime parseDate(String date) {
         if (date == null || date.equals("-")) {
             return LocalDateTime.now().minusDays(30); // Default fallback
@@ -0,0 +1,15 @@
+package com.am.marketdata.scraper.model;
+
+import lombok.Builder;
+import lombok.Value;
+
+/**
+ * Identifies one version of an NSE payload: the validators NSE sent, if any, and a hash of the raw body.
+ */
+@Value
+@Builder
+public class ContentVersion {
+    String etag;
+    String lastModified;
+    String contentHash;
+}
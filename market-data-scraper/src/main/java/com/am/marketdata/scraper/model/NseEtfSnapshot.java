@@ -0,0 +1,59 @@
+package com.am.marketdata.scraper.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+
+/**
+ * Latest NSE quote per ETF symbol. Declared as an entity so the schema is managed with the rest
+ * of the application's tables; rows are written by the batched upsert in
+ * {@code SnapshotPersistenceService}, not through a repository.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@Entity
+@Table(name = "nse_etf_snapshot")
+public class NseEtfSnapshot {
+    @Id
+    @Column(length = 64)
+    private String symbol;
+
+    @Column(length = 32)
+    private String isin;
+
+    @Column(name = "company_name")
+    private String companyName;
+
+    private String assets;
+
+    @Column(name = "open_price")
+    private Double openPrice;
+
+    @Column(name = "high_price")
+    private Double highPrice;
+
+    @Column(name = "low_price")
+    private Double lowPrice;
+
+    @Column(name = "last_price")
+    private Double lastPrice;
+
+    @Column(name = "previous_close")
+    private Double previousClose;
+
+    @Column(name = "percent_change")
+    private Double percentChange;
+
+    @Column(name = "exchange_time")
+    private LocalDateTime exchangeTime;
+
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+}
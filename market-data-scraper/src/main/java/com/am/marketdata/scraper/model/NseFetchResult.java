@@ -0,0 +1,22 @@
+package com.am.marketdata.scraper.model;
+
+import lombok.Value;
+
+/**
+ * Outcome of a conditional NSE fetch. When {@code unchanged} is set the body was not parsed and
+ * {@code body} is null; {@code version} always describes the content the caller now holds.
+ */
+@Value
+public class NseFetchResult<T> {
+    T body;
+    ContentVersion version;
+    boolean unchanged;
+
+    public static <T> NseFetchResult<T> changed(T body, ContentVersion version) {
+        return new NseFetchResult<>(body, version, false);
+    }
+
+    public static <T> NseFetchResult<T> unchanged(ContentVersion version) {
+        return new NseFetchResult<>(null, version, true);
+    }
+}
@@ -0,0 +1,251 @@
+package com.am.marketdata.scraper.service;
+
+import com.am.marketdata.scraper.config.BrowserPoolConfig;
+import com.am.marketdata.scraper.config.ScraperConfig;
+import com.am.marketdata.scraper.exception.CookieException;
+
+import io.github.bonigarcia.wdm.WebDriverManager;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.openqa.selenium.chrome.ChromeDriver;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.LinkedBlockingDeque;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Fixed-size pool of headless Chrome instances. Each browser is used by one thread at a time;
+ * it is replaced when it fails, after {@code maxUsesPerBrowser} scrapes, or once its JS heap
+ * passes {@code maxHeapMb}, and idle browsers are health-checked in the background.
+ */
+@Slf4j
+@Component
+public class BrowserPool {
+    private final BrowserPoolConfig poolConfig;
+    private final MeterRegistry meterRegistry;
+    private final Supplier<ChromeDriver> launcher;
+
+    // Metric names
+    private static final String METRIC_PREFIX = "scraper.browser.";
+    private static final String METRIC_BORROW_TIME = METRIC_PREFIX + "borrow.time";
+    private static final String METRIC_RECYCLED = METRIC_PREFIX + "recycled";
+    private static final String TAG_REASON = "reason";
+
+    private static final String HEAP_SCRIPT =
+        "return window.performance && performance.memory ? performance.memory.usedJSHeapSize : 0";
+
+    private final LinkedBlockingDeque<PooledBrowser> idle = new LinkedBlockingDeque<>();
+    private final AtomicInteger total = new AtomicInteger();
+    private volatile boolean closed;
+    private static boolean driverReady;
+
+    @Autowired
+    public BrowserPool(BrowserPoolConfig poolConfig, ScraperConfig scraperConfig, MeterRegistry meterRegistry) {
+        this(poolConfig, meterRegistry, () -> launchChrome(scraperConfig));
+    }
+
+    // Tests pass a launcher for stand-in browsers so the pool runs without Chrome
+    BrowserPool(BrowserPoolConfig poolConfig, MeterRegistry meterRegistry, Supplier<ChromeDriver> launcher) {
+        this.poolConfig = poolConfig;
+        this.meterRegistry = meterRegistry;
+        this.launcher = launcher;
+    }
+
+    @PostConstruct
+    public void initialize() {
+        Gauge.builder(METRIC_PREFIX + "pool.idle", idle, LinkedBlockingDeque::size)
+            .description("Browsers waiting in the pool")
+            .register(meterRegistry);
+        Gauge.builder(METRIC_PREFIX + "pool.total", total, AtomicInteger::get)
+            .description("Browsers currently launched")
+            .register(meterRegistry);
+
+        if (poolConfig.isPrewarm()) {
+            CompletableFuture.runAsync(this::prewarm);
+        }
+        log.info("Initialized browser pool with size: {}, max uses: {}, max heap: {}MB, prewarm: {}",
+            poolConfig.getPoolSize(), poolConfig.getMaxUsesPerBrowser(), poolConfig.getMaxHeapMb(), poolConfig.isPrewarm());
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        closed = true;
+        List<PooledBrowser> browsers = new ArrayList<>();
+        idle.drainTo(browsers);
+        browsers.forEach(browser -> quit(browser, "shutdown"));
+        log.info("Shut down browser pool");
+    }
+
+    /**
+     * Runs {@code work} on a pooled browser. A browser that throws is discarded rather than returned.
+     */
+    public <T> T execute(Function<ChromeDriver, T> work) {
+        PooledBrowser browser = borrow();
+        boolean healthy = false;
+        try {
+            T result = work.apply(browser.driver);
+            healthy = true;
+            return result;
+        } finally {
+            release(browser, healthy);
+        }
+    }
+
+    public int getPoolSize() {
+        return poolConfig.getPoolSize();
+    }
+
+    // Replace dead idle browsers before a scrape discovers them, and shut down unused ones
+    @Scheduled(fixedDelayString = "${scraper.browser.health-check-interval-ms:60000}")
+    public void healthCheck() {
+        int checks = idle.size();
+        long now = System.currentTimeMillis();
+        for (int i = 0; i < checks && !closed; i++) {
+            PooledBrowser browser = idle.pollFirst();
+            if (browser == null) {
+                return;
+            }
+            if (!poolConfig.isPrewarm() && now - browser.lastUsedAt > poolConfig.getIdleTimeoutMs()) {
+                quit(browser, "idle");
+            } else if (isAlive(browser)) {
+                idle.offerLast(browser);
+            } else {
+                quit(browser, "unhealthy");
+            }
+        }
+        if (poolConfig.isPrewarm()) {
+            prewarm();
+        }
+    }
+
+    private void prewarm() {
+        while (!closed && total.get() < poolConfig.getPoolSize()) {
+            PooledBrowser browser = tryLaunch();
+            if (browser == null) {
+                return;
+            }
+            idle.offerLast(browser);
+        }
+    }
+
+    private PooledBrowser borrow() {
+        Timer.Sample borrowTimer = Timer.start(meterRegistry);
+        try {
+            PooledBrowser browser = idle.pollFirst();
+            if (browser == null) {
+                browser = tryLaunch();
+            }
+            if (browser == null) {
+                browser = idle.pollFirst(poolConfig.getBorrowTimeoutMs(), TimeUnit.MILLISECONDS);
+            }
+            if (browser == null) {
+                throw new CookieException("No browser available within " + poolConfig.getBorrowTimeoutMs() + "ms");
+            }
+            return browser;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new CookieException("Interrupted while waiting for a browser", e);
+        } finally {
+            borrowTimer.stop(meterRegistry.timer(METRIC_BORROW_TIME));
+        }
+    }
+
+    private void release(PooledBrowser browser, boolean healthy) {
+        browser.uses++;
+        browser.lastUsedAt = System.currentTimeMillis();
+        String recycleReason = !healthy ? "failed"
+            : browser.uses >= poolConfig.getMaxUsesPerBrowser() ? "max_uses"
+            : heapMb(browser) > poolConfig.getMaxHeapMb() ? "memory"
+            : null;
+        if (recycleReason != null || closed) {
+            quit(browser, closed ? "shutdown" : recycleReason);
+            return;
+        }
+        idle.offerFirst(browser);
+    }
+
+    /**
+     * Launches a browser if the pool is below its size, or returns null when it is full.
+     */
+    private PooledBrowser tryLaunch() {
+        int launched = total.incrementAndGet();
+        if (launched > poolConfig.getPoolSize() || closed) {
+            total.decrementAndGet();
+            return null;
+        }
+        try {
+            log.info("Launching browser {}/{}", launched, poolConfig.getPoolSize());
+            return new PooledBrowser(launcher.get());
+        } catch (RuntimeException e) {
+            total.decrementAndGet();
+            log.error("Failed to launch browser: {}", e.getMessage(), e);
+            throw e;
+        }
+    }
+
+    private static ChromeDriver launchChrome(ScraperConfig scraperConfig) {
+        setupDriver();
+        return new ChromeDriver(scraperConfig.chromeOptions());
+    }
+
+    // Resolves the chromedriver binary on first launch rather than at startup
+    private static synchronized void setupDriver() {
+        if (!driverReady) {
+            WebDriverManager.chromedriver().setup();
+            driverReady = true;
+        }
+    }
+
+    private void quit(PooledBrowser browser, String reason) {
+        total.decrementAndGet();
+        meterRegistry.counter(METRIC_RECYCLED, TAG_REASON, reason).increment();
+        log.info("Recycling browser after {} uses, reason: {}", browser.uses, reason);
+        try {
+            browser.driver.quit();
+        } catch (Exception e) {
+            // Ignore cleanup errors
+        }
+    }
+
+    private boolean isAlive(PooledBrowser browser) {
+        try {
+            // Try to get the current URL as a simple session check
+            browser.driver.getCurrentUrl();
+            return true;
+        } catch (Exception e) {
+            return false;
+        }
+    }
+
+    private long heapMb(PooledBrowser browser) {
+        try {
+            Object used = browser.driver.executeScript(HEAP_SCRIPT);
+            return used instanceof Number number ? number.longValue() / (1024 * 1024) : 0;
+        } catch (Exception e) {
+            return 0;
+        }
+    }
+
+    private static final class PooledBrowser {
+        private final ChromeDriver driver;
+        private int uses;
+        private long lastUsedAt;
+
+        private PooledBrowser(ChromeDriver driver) {
+            this.driver = driver;
+            this.lastUsedAt = System.currentTimeMillis();
+        }
+    }
+}
@@ -1,10 +1,19 @@
 package com.am.marketdata.scraper.service;
 
+import com.am.marketdata.scraper.model.CookieInfo;
 import com.github.benmanes.caffeine.cache.Cache;
 import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
+import java.time.Clock;
 import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
@@ -12,35 +21,105 @@ import java.util.stream.Stream;
 @Slf4j
 public class CookieCacheService {
     private static final String NSE_COOKIE_KEY = "nse_cookies";
-    private final Cache<String, String> cookieCache;
+    private final Cache<String, CookieEntry> cookieCache;
+    private final Duration defaultTtl;
+    private final Clock clock;
 
-    public CookieCacheService() {
+    @Autowired
+    public CookieCacheService(@Value("${nse.cookie.default-ttl-minutes:60}") long defaultTtlMinutes) {
+        this(defaultTtlMinutes, Clock.systemUTC());
+    }
+
+    CookieCacheService(long defaultTtlMinutes, Clock clock) {
+        this.defaultTtl = Duration.ofMinutes(defaultTtlMinutes);
+        this.clock = clock;
+        // Each entry lives exactly as long as the cookies NSE issued, not a fixed TTL
         this.cookieCache = Caffeine.newBuilder()
-            .expireAfterWrite(Duration.ofHours(1))
+            .ticker(() -> TimeUnit.MILLISECONDS.toNanos(clock.millis()))
+            .expireAfter(new Expiry<String, CookieEntry>() {
+                @Override
+                public long expireAfterCreate(String key, CookieEntry entry, long currentTime) {
+                    return Math.max(0, Duration.between(clock.instant(), entry.expiresAt()).toNanos());
+                }
+
+                @Override
+                public long expireAfterUpdate(String key, CookieEntry entry, long currentTime, long currentDuration) {
+                    return expireAfterCreate(key, entry, currentTime);
+                }
+
+                @Override
+                public long expireAfterRead(String key, CookieEntry entry, long currentTime, long currentDuration) {
+                    return currentDuration;
+                }
+            })
             .build();
     }
 
     public void storeCookies(String cookies) {
-        cookieCache.put(NSE_COOKIE_KEY, cookies);
-        log.info("Updated cookies in cache: {}", maskCookieValues(cookies));
+        storeCookies(cookies, clock.instant().plus(defaultTtl));
+    }
+
+    /**
+     * Stores the cookies as a Cookie header, expiring with the earliest-expiring cookie. Cookies
+     * without an expiry (session cookies) fall back to the default TTL.
+     */
+    public void storeCookies(List<CookieInfo> cookies) {
+        String header = cookies.stream()
+            .map(cookie -> cookie.getName() + "=" + cookie.getValue())
+            .collect(Collectors.joining("; "));
+        Instant expiresAt = cookies.stream()
+            .map(CookieInfo::getExpiry)
+            .filter(Objects::nonNull)
+            .min(Long::compare)
+            .map(Instant::ofEpochMilli)
+            .orElse(clock.instant().plus(defaultTtl));
+        storeCookies(header, expiresAt);
+    }
+
+    public void storeCookies(String cookies, Instant expiresAt) {
+        cookieCache.put(NSE_COOKIE_KEY, new CookieEntry(cookies, expiresAt));
+        log.info("Updated cookies in cache, expiring at {}: {}", expiresAt, maskCookieValues(cookies));
     }
 
     public String getCookies() {
-        String cookies = cookieCache.getIfPresent(NSE_COOKIE_KEY);
-        if (cookies != null) {
-            log.debug("Retrieved cookies from cache: {}", maskCookieValues(cookies));
+        CookieEntry entry = cookieCache.getIfPresent(NSE_COOKIE_KEY);
+        if (entry != null) {
+            log.debug("Retrieved cookies from cache: {}", maskCookieValues(entry.cookies()));
+            return entry.cookies();
         }
-        return cookies;
+        return null;
+    }
+
+    /**
+     * When the cached cookies expire, or null if none are cached.
+     */
+    public Instant getExpiresAt() {
+        CookieEntry entry = cookieCache.getIfPresent(NSE_COOKIE_KEY);
+        return entry != null ? entry.expiresAt() : null;
     }
 
     public void invalidateCookies() {
-        String cookies = cookieCache.getIfPresent(NSE_COOKIE_KEY);
-        if (cookies != null) {
-            log.info("Invalidating cached cookies: {}", maskCookieValues(cookies));
+        CookieEntry entry = cookieCache.getIfPresent(NSE_COOKIE_KEY);
+        if (entry != null) {
+            log.info("Invalidating cached cookies: {}", maskCookieValues(entry.cookies()));
             cookieCache.invalidate(NSE_COOKIE_KEY);
         }
     }
 
+    /**
+     * Invalidates only if the cache still holds {@code rejectedCookies}, so a caller holding stale
+     * cookies cannot evict ones another caller has just refreshed.
+     */
+    public void invalidateCookies(String rejectedCookies) {
+        cookieCache.asMap().computeIfPresent(NSE_COOKIE_KEY, (key, entry) -> {
+            if (!entry.cookies().equals(rejectedCookies)) {
+                return entry;
+            }
+            log.info("Invalidating rejected cookies: {}", maskCookieValues(entry.cookies()));
+            return null;
+        });
+    }
+
     private String maskCookieValues(String cookies) {
         if (cookies == null) return null;
         // Split cookies and mask values while preserving names
@@ -53,4 +132,7 @@ public class CookieCacheService {
             })
             .collect(Collectors.joining("; "));
     }
+
+    private record CookieEntry(String cookies, Instant expiresAt) {
+    }
 }
@@ -2,30 +2,72 @@ package com.am.marketdata.scraper.service;
 
 import com.am.marketdata.scraper.model.CookieInfo;
 import com.am.marketdata.scraper.model.WebsiteCookies;
-import com.am.marketdata.scraper.config.ScraperConfig;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.openqa.selenium.*;
 import org.openqa.selenium.chrome.ChromeDriver;
 import org.openqa.selenium.support.ui.WebDriverWait;
 import org.openqa.selenium.support.ui.ExpectedCondition;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 import org.springframework.stereotype.Service;
 import org.springframework.retry.annotation.Retryable;
 import org.springframework.retry.annotation.Backoff;
 
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
 import java.time.Duration;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
 import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
 @Slf4j
 public class CookieScraperService {
-    private final ScraperConfig scraperConfig;
+    private final BrowserPool browserPool;
+    private final LeanPageLoader leanPageLoader;
+    private final MeterRegistry meterRegistry;
+    // Self reference through the proxy so parallel scrapes keep @Retryable
+    private final ObjectProvider<CookieScraperService> self;
     private static final Duration PAGE_LOAD_TIMEOUT = Duration.ofSeconds(30);
     private static final Duration WAIT_TIMEOUT = Duration.ofSeconds(10);
+    private static final String THREAD_PREFIX = "cookie-scraper-";
+    private static final String METRIC_PAGE_LOAD_TIME = "scraper.page.load.time";
+
+    private ThreadPoolTaskExecutor executor;
+
+    @PostConstruct
+    public void initialize() {
+        // One scraping thread per pooled browser; more would only queue on the pool
+        executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(browserPool.getPoolSize());
+        executor.setMaxPoolSize(browserPool.getPoolSize());
+        executor.setThreadNamePrefix(THREAD_PREFIX);
+        executor.initialize();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (executor != null) {
+            executor.shutdown();
+        }
+    }
+
+    /**
+     * Scrapes all URLs in parallel on the browser pool, so the whole run takes about as long as
+     * the slowest page. Results keep the order of {@code urls}.
+     */
+    public List<WebsiteCookies> scrapeAll(List<String> urls) {
+        List<CompletableFuture<WebsiteCookies>> scrapes = urls.stream()
+            .map(url -> CompletableFuture.supplyAsync(() -> self.getObject().scrapeCookies(url), executor))
+            .collect(Collectors.toList());
+        return scrapes.stream().map(CompletableFuture::join).collect(Collectors.toList());
+    }
 
     @Retryable(
         value = {NoSuchSessionException.class, WebDriverException.class},
@@ -34,53 +76,8 @@ public class CookieScraperService {
     )
     public WebsiteCookies scrapeCookies(String url) {
         log.info("Starting to scrape cookies from URL: {}", url);
-        ChromeDriver webDriver = null;
         try {
-            webDriver = scraperConfig.webDriver();
-            
-            // Set page load timeout
-            webDriver.manage().timeouts().pageLoadTimeout(PAGE_LOAD_TIMEOUT);
-            
-            // Clear existing cookies before navigating
-            webDriver.manage().deleteAllCookies();
-            log.debug("Cleared existing cookies");
-
-            // Navigate to the URL
-            log.debug("Navigating to URL: {}", url);
-            webDriver.get(url);
-
-            // Wait for page to be in ready state
-            waitForPageLoad(webDriver);
-            log.debug("Page loaded successfully");
-
-            // Get cookies after page load
-            Set<Cookie> cookieSet = webDriver.manage().getCookies();
-            List<Cookie> seleniumCookies = new ArrayList<>(cookieSet);
-            log.info("Found {} cookies for URL: {}", seleniumCookies.size(), url);
-
-            if (seleniumCookies.isEmpty()) {
-                log.warn("No cookies found for URL: {}. This might indicate blocking or incorrect page load.", url);
-            }
-
-            List<CookieInfo> cookies = seleniumCookies.stream()
-                    .map(this::mapToCookieInfo)
-                    .collect(Collectors.toList());
-
-            String title = webDriver.getTitle();
-            log.debug("Page title: {}", title);
-
-            // Create WebsiteCookies object with raw cookie string
-            WebsiteCookies websiteCookies = WebsiteCookies.builder()
-                    .websiteUrl(url)
-                    .websiteName(title)
-                    .cookies(cookies)
-                    .build();
-            
-            // Generate and set the formatted cookie string
-            websiteCookies.setCookiesString(websiteCookies.generateCookiesString());
-            
-            return websiteCookies;
-                    
+            return browserPool.execute(webDriver -> scrapeWith(webDriver, url));
         } catch (TimeoutException e) {
             log.error("Timeout while loading URL: " + url, e);
             throw new RuntimeException("Page load timeout for URL: " + url, e);
@@ -96,6 +93,57 @@ public class CookieScraperService {
         }
     }
 
+    private WebsiteCookies scrapeWith(ChromeDriver webDriver, String url) {
+        // Set page load timeout
+        webDriver.manage().timeouts().pageLoadTimeout(PAGE_LOAD_TIMEOUT);
+        
+        // Clear existing cookies before navigating
+        webDriver.manage().deleteAllCookies();
+        log.debug("Cleared existing cookies");
+
+        // Navigate to the URL
+        log.debug("Navigating to URL: {}", url);
+        boolean lean = leanPageLoader.isEnabled();
+        Timer.Sample sample = Timer.start(meterRegistry);
+        Set<Cookie> cookieSet;
+        if (lean) {
+            // Returns as soon as the session cookies are set, without waiting for the page
+            cookieSet = leanPageLoader.loadUntilCookies(webDriver, url);
+        } else {
+            webDriver.get(url);
+            waitForPageLoad(webDriver);
+            cookieSet = webDriver.manage().getCookies();
+        }
+        sample.stop(meterRegistry.timer(METRIC_PAGE_LOAD_TIME, "mode", lean ? "lean" : "full"));
+        log.debug("Page loaded successfully");
+
+        List<Cookie> seleniumCookies = new ArrayList<>(cookieSet);
+        log.info("Found {} cookies for URL: {}", seleniumCookies.size(), url);
+
+        if (seleniumCookies.isEmpty()) {
+            log.warn("No cookies found for URL: {}. This might indicate blocking or incorrect page load.", url);
+        }
+
+        List<CookieInfo> cookies = seleniumCookies.stream()
+                .map(this::mapToCookieInfo)
+                .collect(Collectors.toList());
+
+        String title = webDriver.getTitle();
+        log.debug("Page title: {}", title);
+
+        // Create WebsiteCookies object with raw cookie string
+        WebsiteCookies websiteCookies = WebsiteCookies.builder()
+                .websiteUrl(url)
+                .websiteName(title)
+                .cookies(cookies)
+                .build();
+        
+        // Generate and set the formatted cookie string
+        websiteCookies.setCookiesString(websiteCookies.generateCookiesString());
+        
+        return websiteCookies;
+    }
+
     private void waitForPageLoad(ChromeDriver driver) {
         WebDriverWait wait = new WebDriverWait(driver, WAIT_TIMEOUT);
         ExpectedCondition<Boolean> pageLoadCondition = new ExpectedCondition<Boolean>() {
@@ -0,0 +1,108 @@
+package com.am.marketdata.scraper.service;
+
+import com.am.marketdata.scraper.config.ScraperConfig;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.openqa.selenium.Cookie;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.chrome.ChromeDriver;
+import org.openqa.selenium.devtools.DevTools;
+import org.openqa.selenium.devtools.v120.fetch.Fetch;
+import org.openqa.selenium.devtools.v120.fetch.model.RequestPattern;
+import org.openqa.selenium.devtools.v120.fetch.model.RequestStage;
+import org.openqa.selenium.devtools.v120.network.Network;
+import org.openqa.selenium.devtools.v120.network.model.ErrorReason;
+import org.openqa.selenium.devtools.v120.network.model.ResourceType;
+import org.openqa.selenium.support.ui.WebDriverWait;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.WeakHashMap;
+import java.util.stream.Collectors;
+
+/**
+ * Loads a page only as far as needed to collect its session cookies. On first use of a browser,
+ * DevTools is told to fail requests for blocked resource types and URL patterns; each load then
+ * polls the cookie jar and stops the page as soon as every required cookie is present.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class LeanPageLoader {
+    private final ScraperConfig scraperConfig;
+    private final MeterRegistry meterRegistry;
+
+    private static final String METRIC_BLOCKED_REQUESTS = "scraper.browser.blocked.requests";
+    private static final Duration COOKIE_POLL_INTERVAL = Duration.ofMillis(100);
+
+    // Browsers whose DevTools interception is already installed; pooled browsers are reused
+    private final Set<ChromeDriver> prepared = Collections.synchronizedSet(Collections.newSetFromMap(new WeakHashMap<>()));
+
+    public boolean isEnabled() {
+        return scraperConfig.getLean().isActive();
+    }
+
+    /**
+     * Navigates to {@code url} and returns once all required cookies are set, or throws
+     * {@link org.openqa.selenium.TimeoutException} after {@code cookieWaitMs}.
+     */
+    public Set<Cookie> loadUntilCookies(ChromeDriver driver, String url) {
+        prepare(driver);
+        return awaitCookies(driver, url);
+    }
+
+    // Everything after DevTools setup, which tests drive with a stand-in browser
+    Set<Cookie> awaitCookies(WebDriver driver, String url) {
+        ScraperConfig.Lean lean = scraperConfig.getLean();
+
+        driver.get(url);
+        WebDriverWait wait = new WebDriverWait(driver, Duration.ofMillis(lean.getCookieWaitMs()), COOKIE_POLL_INTERVAL);
+        Set<Cookie> cookies = wait.until(webDriver -> {
+            Set<Cookie> current = webDriver.manage().getCookies();
+            Set<String> names = current.stream().map(Cookie::getName).collect(Collectors.toSet());
+            return names.containsAll(lean.getRequiredCookies()) ? current : null;
+        });
+
+        // Nothing else on the page is needed; stop it so the browser goes idle straight away
+        ((JavascriptExecutor) driver).executeScript("window.stop();");
+        return cookies;
+    }
+
+    private void prepare(ChromeDriver driver) {
+        if (prepared.contains(driver)) {
+            return;
+        }
+        ScraperConfig.Lean lean = scraperConfig.getLean();
+        DevTools devTools = driver.getDevTools();
+        devTools.createSessionIfThereIsNotOne();
+
+        devTools.send(Network.enable(Optional.empty(), Optional.empty(), Optional.empty()));
+        if (!lean.getBlockedUrlPatterns().isEmpty()) {
+            devTools.send(Network.setBlockedURLs(lean.getBlockedUrlPatterns()));
+        }
+
+        // Only blocked resource types are paused, everything else flows without a round trip
+        List<RequestPattern> patterns = lean.getBlockedResourceTypes().stream()
+            .map(type -> new RequestPattern(Optional.of("*"), Optional.of(ResourceType.valueOf(type.toUpperCase())),
+                Optional.of(RequestStage.REQUEST)))
+            .toList();
+        if (!patterns.isEmpty()) {
+            devTools.addListener(Fetch.requestPaused(), paused -> {
+                meterRegistry.counter(METRIC_BLOCKED_REQUESTS, "type", paused.getResourceType().toString()).increment();
+                devTools.send(Fetch.failRequest(paused.getRequestId(), ErrorReason.BLOCKEDBYCLIENT));
+            });
+            devTools.send(Fetch.enable(Optional.of(patterns), Optional.of(false)));
+        }
+
+        prepared.add(driver);
+        log.info("Enabled lean page loads, blocking resource types {} and URL patterns {}",
+            lean.getBlockedResourceTypes(), lean.getBlockedUrlPatterns());
+    }
+}
@@ -2,48 +2,57 @@ package com.am.marketdata.scraper.service;
 
 import com.am.common.investment.model.equity.ETFIndies;
 import com.am.common.investment.model.equity.MarketIndexIndices;
-import com.am.common.investment.service.MarketIndexIndicesService;
 import com.am.marketdata.common.model.NSEIndicesResponse;
 import com.am.marketdata.common.model.NseETFResponse;
+import com.am.marketdata.common.cache.ChangeDetector;
 import com.am.marketdata.common.model.NseETF;
+import com.am.marketdata.common.schedule.MarketSessionCalendar;
+import com.am.marketdata.common.timeseries.TimeSeriesSink;
 import com.am.marketdata.kafka.producer.KafkaProducerService;
 import com.am.marketdata.scraper.client.NSEApiClient;
+import com.am.marketdata.scraper.client.ResilientNseExecutor;
+import com.am.marketdata.scraper.config.PipelineConfig;
 import com.am.marketdata.scraper.mapper.ETFIndicesMapper;
 import com.am.marketdata.scraper.mapper.NSEMarketIndexIndicesMapper;
-import com.am.marketdata.scraper.exception.DataFetchException;
+import com.am.marketdata.scraper.exception.CircuitOpenException;
 import com.am.marketdata.scraper.exception.DataValidationException;
 import com.am.marketdata.scraper.exception.MarketDataException;
+import com.am.marketdata.scraper.model.ContentVersion;
+import com.am.marketdata.scraper.model.NseFetchResult;
 
 import io.micrometer.core.instrument.MeterRegistry;
 import io.micrometer.core.instrument.Timer;
-import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 import jakarta.annotation.PostConstruct;
 import jakarta.annotation.PreDestroy;
 
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
 import java.time.LocalDateTime;
-import java.time.ZoneId;
 import java.time.format.DateTimeFormatter;
+import java.util.Arrays;
 import java.util.List;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import java.util.concurrent.ExecutionException;
-import java.util.concurrent.TimeUnit;
-import java.util.function.Supplier;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
 
 @Service
-@RequiredArgsConstructor
 @Slf4j
 public class MarketDataProcessingService {
-    private static final String CONFIG_THREAD_POOL_SIZE = "${market.data.thread.pool.size:5}";
-    private static final String CONFIG_THREAD_QUEUE_CAPACITY = "${market.data.thread.queue.capacity:10}";
-    private static final String CONFIG_MAX_RETRIES = "${market.data.max.retries:3}";
-    private static final String CONFIG_RETRY_DELAY_MS = "${market.data.retry.delay.ms:1000}";
     private static final String CONFIG_MAX_DATA_AGE_MINUTES = "${market.data.max.age.minutes:15}";
-    private static final String THREAD_PREFIX = "market-data-";
+    private static final String CONFIG_CHANGE_DETECTION_ENABLED = "${market.data.change.detection.enabled:true}";
+    private static final String CONFIG_FULL_SNAPSHOT_INTERVAL_MINUTES = "${market.data.full.snapshot.interval.minutes:15}";
+    private static final String CONFIG_CONTENT_SKIP_ENABLED = "${market.data.content.skip.enabled:true}";
+    private static final String CONFIG_PUBLISH_DELIVERY_TIMEOUT_MS = "${market.data.publish.delivery.timeout.ms:30000}";
     private static final DateTimeFormatter MARKET_STATUS_DATE_FORMAT = DateTimeFormatter.ofPattern("dd-MMM-yyyy HH:mm");
+    private static final DateTimeFormatter NSE_TIMESTAMP_FORMAT = DateTimeFormatter.ofPattern("dd-MMM-yyyy HH:mm:ss");
 
     // Metric names
     private static final String METRIC_PREFIX = "market.data.";
@@ -51,45 +60,88 @@ public class MarketDataProcessingService {
     private static final String METRIC_PROCESS_TIME = METRIC_PREFIX + "process.time";
     private static final String METRIC_SUCCESS_COUNT = METRIC_PREFIX + "success.count";
     private static final String METRIC_FAILURE_COUNT = METRIC_PREFIX + "failure.count";
-    private static final String METRIC_RETRY_COUNT = METRIC_PREFIX + "retry.count";
+    private static final String METRIC_UNCHANGED_COUNT = METRIC_PREFIX + "unchanged.count";
+    private static final String METRIC_SKIPPED_CYCLE_COUNT = METRIC_PREFIX + "skipped.cycle.count";
     private static final String TAG_DATA_TYPE = "data.type";
 
     private final NSEApiClient nseApiClient;
+    private final ResilientNseExecutor resilientExecutor;
     private final KafkaProducerService kafkaProducer;
-    private final MarketIndexIndicesService indexIndicesService;
+    private final SnapshotPersistenceService snapshotPersistence;
+    private final PipelineConfig pipelineConfig;
     private final MeterRegistry meterRegistry;
+    private final ObjectProvider<TimeSeriesSink> timeSeriesSink;
+    private final MarketSessionCalendar sessionCalendar;
+    private final Clock clock;
 
-    @Value(CONFIG_THREAD_POOL_SIZE)
-    private int threadPoolSize;
+    @Value(CONFIG_MAX_DATA_AGE_MINUTES)
+    private long maxDataAgeMinutes;
 
-    @Value(CONFIG_THREAD_QUEUE_CAPACITY)
-    private int queueCapacity;
+    @Value(CONFIG_CHANGE_DETECTION_ENABLED)
+    private boolean changeDetectionEnabled;
 
-    @Value(CONFIG_MAX_RETRIES)
-    private int maxRetries;
+    @Value(CONFIG_FULL_SNAPSHOT_INTERVAL_MINUTES)
+    private long fullSnapshotIntervalMinutes;
 
-    @Value(CONFIG_RETRY_DELAY_MS)
-    private long retryDelayMs;
+    @Value(CONFIG_CONTENT_SKIP_ENABLED)
+    private boolean contentSkipEnabled;
 
-    @Value(CONFIG_MAX_DATA_AGE_MINUTES)
-    private long maxDataAgeMinutes;
+    @Value(CONFIG_PUBLISH_DELIVERY_TIMEOUT_MS)
+    private long publishDeliveryTimeoutMs;
 
-    private ThreadPoolTaskExecutor executor;
+    private PipelineStage mapStage;
+    private PipelineStage persistStage;
+    private PipelineStage publishStage;
     private Timer indicesFetchTimer;
     private Timer etfFetchTimer;
     private Timer indicesProcessTimer;
     private Timer etfProcessTimer;
+    private ChangeDetector<ETFIndies> etfChangeDetector;
+    private ChangeDetector<MarketIndexIndices> indicesChangeDetector;
+    // Last payload version that made it all the way through processing, per data type
+    private final AtomicReference<ProcessedVersion> lastIndicesVersion = new AtomicReference<>();
+    private final AtomicReference<ProcessedVersion> lastEtfVersion = new AtomicReference<>();
+
+    @Autowired
+    public MarketDataProcessingService(NSEApiClient nseApiClient, ResilientNseExecutor resilientExecutor,
+            KafkaProducerService kafkaProducer, SnapshotPersistenceService snapshotPersistence,
+            PipelineConfig pipelineConfig, MeterRegistry meterRegistry, ObjectProvider<TimeSeriesSink> timeSeriesSink,
+            MarketSessionCalendar sessionCalendar) {
+        this(nseApiClient, resilientExecutor, kafkaProducer, snapshotPersistence, pipelineConfig, meterRegistry,
+            timeSeriesSink, sessionCalendar, Clock.systemUTC());
+    }
+
+    // Tests pass a clock they move by hand to age out baselines and fingerprints
+    MarketDataProcessingService(NSEApiClient nseApiClient, ResilientNseExecutor resilientExecutor,
+            KafkaProducerService kafkaProducer, SnapshotPersistenceService snapshotPersistence,
+            PipelineConfig pipelineConfig, MeterRegistry meterRegistry, ObjectProvider<TimeSeriesSink> timeSeriesSink,
+            MarketSessionCalendar sessionCalendar, Clock clock) {
+        this.nseApiClient = nseApiClient;
+        this.resilientExecutor = resilientExecutor;
+        this.kafkaProducer = kafkaProducer;
+        this.snapshotPersistence = snapshotPersistence;
+        this.pipelineConfig = pipelineConfig;
+        this.meterRegistry = meterRegistry;
+        this.timeSeriesSink = timeSeriesSink;
+        this.sessionCalendar = sessionCalendar;
+        this.clock = clock;
+    }
 
     @PostConstruct
     public void initialize() {
-        executor = new ThreadPoolTaskExecutor();
-        executor.setCorePoolSize(threadPoolSize);
-        executor.setMaxPoolSize(threadPoolSize);
-        executor.setQueueCapacity(queueCapacity);
-        executor.setThreadNamePrefix(THREAD_PREFIX);
-        executor.initialize();
-        log.info("Initialized market data thread pool with size: {}, queue capacity: {}, max retries: {}, retry delay: {}ms",
-            threadPoolSize, queueCapacity, maxRetries, retryDelayMs);
+        Duration fullSnapshotInterval = Duration.ofMinutes(fullSnapshotIntervalMinutes);
+        etfChangeDetector = new ChangeDetector<>(ETFIndies::getSymbol, etf -> Arrays.asList(
+            etf.getMarketData().getOpen(), etf.getMarketData().getHigh(), etf.getMarketData().getLow(),
+            etf.getMarketData().getLast(), etf.getMarketData().getPreviousClose(), etf.getMarketData().getPercentChange()),
+            fullSnapshotInterval, clock);
+        indicesChangeDetector = new ChangeDetector<>(MarketIndexIndices::getIndexSymbol, index -> Arrays.asList(
+            index.getMarketData().getOpen(), index.getMarketData().getHigh(), index.getMarketData().getLow(),
+            index.getMarketData().getLast(), index.getMarketData().getPreviousClose(), index.getMarketData().getPercentChange()),
+            fullSnapshotInterval, clock);
+
+        mapStage = stage("map", pipelineConfig.getMap());
+        persistStage = stage("persist", pipelineConfig.getPersist());
+        publishStage = stage("publish", pipelineConfig.getPublish());
 
         // Initialize metrics
         indicesFetchTimer = Timer.builder(METRIC_FETCH_TIME)
@@ -115,12 +167,17 @@ public class MarketDataProcessingService {
 
     @PreDestroy
     public void shutdown() {
-        if (executor != null) {
-            executor.shutdown();
-            log.info("Shutting down market data thread pool");
+        for (PipelineStage stage : Arrays.asList(mapStage, persistStage, publishStage)) {
+            if (stage != null) {
+                stage.shutdown();
+            }
         }
     }
 
+    private PipelineStage stage(String name, PipelineConfig.Stage settings) {
+        return new PipelineStage(name, settings.getConcurrency(), settings.getQueueCapacity(), meterRegistry);
+    }
+
     public void fetchAndProcessMarketData() {
         CompletableFuture<Boolean> indicesFuture = fetchAndProcessIndices();
         CompletableFuture<Boolean> etfFuture = fetchAndProcessETFs();
@@ -140,116 +197,157 @@ public class MarketDataProcessingService {
         }
     }
 
+    /**
+     * Runs the fetch, map, persist and publish stages for indices. Persist and publish run
+     * concurrently, and the returned future completes once both have finished, so the cycle
+     * is not done until the data has been written and acknowledged.
+     */
     private CompletableFuture<Boolean> fetchAndProcessIndices() {
-        return CompletableFuture.supplyAsync(() -> {
-            Timer.Sample fetchSample = Timer.start();
-            NSEIndicesResponse response = fetchIndicesWithRetry();
-            fetchSample.stop(indicesFetchTimer);
-
-            if (response != null) {
-                try {
-                    if (validateIndicesData(response)) {
-                        Timer.Sample processSample = Timer.start();
-                        log.info("Successfully fetched NSE indices data");
-                        var indices = saveIndicesAndGetData(response);
-                        kafkaProducer.sendIndicesUpdate(indices);
-                        processSample.stop(indicesProcessTimer);
-
-                        log.info("Successfully processed and sent indices data to Kafka");
-                        meterRegistry.counter(METRIC_SUCCESS_COUNT, TAG_DATA_TYPE, "indices").increment();
-                        return true;
-                    } else {
-                        log.warn("Skipping invalid or stale indices data");
-                        throw new DataValidationException("indices", "Invalid or stale data");
-                    }
-                } catch (DataValidationException e) {
-                    throw e;
-                } catch (Exception e) {
-                    log.error("Failed to process indices data", e);
-                    meterRegistry.counter(METRIC_FAILURE_COUNT, TAG_DATA_TYPE, "indices").increment();
-                    throw new MarketDataException("Failed to process indices data", e);
+        return fetchIndices()
+            .thenCompose(result -> {
+                if (result.isUnchanged()) {
+                    recordSkippedCycle("indices");
+                    return CompletableFuture.completedFuture(true);
                 }
-            }
-            return false;
-        }, executor);
+                NSEIndicesResponse response = result.getBody();
+                if (response == null) {
+                    return CompletableFuture.completedFuture(false);
+                }
+                if (!validateIndicesData(response)) {
+                    log.warn("Skipping invalid or stale indices data");
+                    throw new DataValidationException("indices", "Invalid or stale data");
+                }
+                log.info("Successfully fetched NSE indices data");
+                return mapStage.submit(() -> mapIndices(response))
+                    .thenCompose(snapshot ->
+                        dispatch("indices", snapshot, result.getVersion(), lastIndicesVersion, indicesProcessTimer,
+                            changed -> {
+                                snapshotPersistence.saveIndices(changed);
+                                timeSeriesSink.ifAvailable(sink -> sink.write(NSEMarketIndexIndicesMapper.convertToTimeSeriesPoints(changed)));
+                            },
+                            changed -> kafkaProducer.sendIndicesUpdate(changed)
+                                .awaitDelivery(Duration.ofMillis(publishDeliveryTimeoutMs))));
+            })
+            .whenComplete((processed, error) -> recordStageFailure("indices", error));
     }
 
     private CompletableFuture<Boolean> fetchAndProcessETFs() {
-        return CompletableFuture.supplyAsync(() -> {
-            Timer.Sample fetchSample = Timer.start();
-            NseETFResponse response = fetchETFsWithRetry();
-            fetchSample.stop(etfFetchTimer);
-
-            if (response != null) {
-                try {
-                    if (validateETFData(response)) {
-                        Timer.Sample processSample = Timer.start();
-                        processAndSendETFData(response);
-                        processSample.stop(etfProcessTimer);
-
-                        meterRegistry.counter(METRIC_SUCCESS_COUNT, TAG_DATA_TYPE, "etf").increment();
-                        return true;
-                    } else {
-                        log.warn("Skipping invalid or stale ETF data");
-                        throw new DataValidationException("etf", "Invalid or stale data");
-                    }
-                } catch (DataValidationException e) {
-                    throw e;
-                } catch (Exception e) {
-                    log.error("Failed to process ETF data", e);
-                    meterRegistry.counter(METRIC_FAILURE_COUNT, TAG_DATA_TYPE, "etf").increment();
-                    throw new MarketDataException("Failed to process ETF data", e);
+        return fetchETFs()
+            .thenCompose(result -> {
+                if (result.isUnchanged()) {
+                    recordSkippedCycle("etf");
+                    return CompletableFuture.completedFuture(true);
                 }
-            }
-            return false;
-        }, executor);
+                NseETFResponse response = result.getBody();
+                if (response == null) {
+                    return CompletableFuture.completedFuture(false);
+                }
+                if (!validateETFData(response)) {
+                    log.warn("Skipping invalid or stale ETF data");
+                    throw new DataValidationException("etf", "Invalid or stale data");
+                }
+                return mapStage.submit(() -> mapETFs(response))
+                    .thenCompose(snapshot ->
+                        dispatch("etf", snapshot, result.getVersion(), lastEtfVersion, etfProcessTimer,
+                            changed -> {
+                                snapshotPersistence.saveETFs(changed);
+                                timeSeriesSink.ifAvailable(sink -> sink.write(ETFIndicesMapper.convertToTimeSeriesPoints(changed)));
+                            },
+                            changed -> kafkaProducer.sendETFUpdate(changed)
+                                .awaitDelivery(Duration.ofMillis(publishDeliveryTimeoutMs))));
+            })
+            .whenComplete((processed, error) -> recordStageFailure("etf", error));
     }
 
-    private NSEIndicesResponse fetchIndicesWithRetry() {
-        return retryOnFailure(() -> {
-            try {
-                log.info("Fetching NSE indices data...");
-                return nseApiClient.getAllIndices();
-            } catch (Exception e) {
-                throw new DataFetchException("indices", maxRetries, "Failed to fetch indices data", e);
+    /**
+     * Hands a mapped snapshot to the persist and publish stages. Neither waits for the other; the
+     * payload version is only remembered, the changed fingerprints committed, and success counted
+     * once both have finished. Both stages only get the changed records, which on a full-snapshot
+     * cycle is the whole snapshot; when nothing changed neither stage runs.
+     *
+     * @return completes with whether both stages succeeded
+     */
+    private <T> CompletableFuture<Boolean> dispatch(String dataType, MappedSnapshot<T> snapshot, ContentVersion version,
+            AtomicReference<ProcessedVersion> lastVersion, Timer processTimer,
+            Consumer<List<T>> persist, Consumer<List<T>> publish) {
+        if (snapshot.changed().isEmpty()) {
+            log.info("No changed {} records in the snapshot, nothing to persist or publish", dataType);
+            snapshot.finish(true);
+            rememberVersion(lastVersion, version);
+            meterRegistry.counter(METRIC_SUCCESS_COUNT, TAG_DATA_TYPE, dataType).increment();
+            return CompletableFuture.completedFuture(true);
+        }
+        Timer.Sample processSample = Timer.start();
+        CompletableFuture<Void> persisted = persistStage.run(() -> persist.accept(snapshot.changed()));
+        CompletableFuture<Void> published = publishStage.run(() -> publish.accept(snapshot.changed()));
+        return CompletableFuture.allOf(persisted, published).handle((ignored, error) -> {
+            processSample.stop(processTimer);
+            if (error != null) {
+                log.error("Failed to persist or publish {} data", dataType, error);
+                snapshot.finish(false);
+                meterRegistry.counter(METRIC_FAILURE_COUNT, TAG_DATA_TYPE, dataType).increment();
+                return false;
             }
-        }, maxRetries, retryDelayMs);
+            snapshot.commit();
+            snapshot.finish(true);
+            rememberVersion(lastVersion, version);
+            log.info("Successfully persisted and published {} of {} {} records", snapshot.changed().size(),
+                snapshot.all().size(), dataType);
+            meterRegistry.counter(METRIC_SUCCESS_COUNT, TAG_DATA_TYPE, dataType).increment();
+            return true;
+        });
     }
 
-    private NseETFResponse fetchETFsWithRetry() {
-        return retryOnFailure(() -> {
-            try {
-                log.info("Fetching NSE ETF data...");
-                return nseApiClient.getETFs();
-            } catch (Exception e) {
-                throw new DataFetchException("etf", maxRetries, "Failed to fetch ETF data", e);
-            }
-        }, maxRetries, retryDelayMs);
+    private void recordStageFailure(String dataType, Throwable error) {
+        Throwable cause = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+        if (cause instanceof CircuitOpenException) {
+            log.warn("Skipping {} cycle: {}", dataType, cause.getMessage());
+            meterRegistry.counter(METRIC_FAILURE_COUNT, TAG_DATA_TYPE, dataType).increment();
+        } else if (cause != null && !(cause instanceof DataValidationException)) {
+            log.error("Failed to process {} data", dataType, cause);
+            meterRegistry.counter(METRIC_FAILURE_COUNT, TAG_DATA_TYPE, dataType).increment();
+        }
     }
 
-    private <T> T retryOnFailure(Supplier<T> operation, int maxRetries, long retryDelayMs) {
-        Exception lastException = null;
-        for (int attempt = 1; attempt <= maxRetries; attempt++) {
-            try {
-                return operation.get();
-            } catch (Exception e) {
-                lastException = e;
-                meterRegistry.counter(METRIC_RETRY_COUNT, TAG_DATA_TYPE, 
-                    e instanceof DataFetchException ? ((DataFetchException) e).getDataType() : "unknown").increment();
-                
-                if (attempt < maxRetries) {
-                    long delay = retryDelayMs * (long) Math.pow(2, attempt - 1);
-                    log.warn("Attempt {} failed, retrying in {} ms", attempt, delay, e);
-                    try {
-                        TimeUnit.MILLISECONDS.sleep(delay);
-                    } catch (InterruptedException ie) {
-                        Thread.currentThread().interrupt();
-                        throw new MarketDataException("Retry interrupted", ie);
-                    }
-                }
-            }
+    // Retries, hedging and the circuit breaker all happen without holding a thread
+    private CompletableFuture<NseFetchResult<NSEIndicesResponse>> fetchIndices() {
+        ContentVersion knownVersion = knownVersion(lastIndicesVersion);
+        Timer.Sample fetchSample = Timer.start();
+        log.info("Fetching NSE indices data...");
+        return resilientExecutor.execute("/api/allIndices", () -> nseApiClient.getAllIndicesAsync(knownVersion))
+            .whenComplete((result, error) -> fetchSample.stop(indicesFetchTimer));
+    }
+
+    private CompletableFuture<NseFetchResult<NseETFResponse>> fetchETFs() {
+        ContentVersion knownVersion = knownVersion(lastEtfVersion);
+        Timer.Sample fetchSample = Timer.start();
+        log.info("Fetching NSE ETF data...");
+        return resilientExecutor.execute("/api/etf", () -> nseApiClient.getETFsAsync(knownVersion))
+            .whenComplete((result, error) -> fetchSample.stop(etfFetchTimer));
+    }
+
+    /**
+     * Version to send as the conditional baseline, or null to force a full parse. The baseline
+     * expires with the full-snapshot interval so downstream still gets a periodic full refresh.
+     */
+    private ContentVersion knownVersion(AtomicReference<ProcessedVersion> lastVersion) {
+        ProcessedVersion processed = lastVersion.get();
+        if (!contentSkipEnabled || processed == null
+                || processed.processedAt().isBefore(clock.instant().minus(Duration.ofMinutes(fullSnapshotIntervalMinutes)))) {
+            return null;
+        }
+        return processed.version();
+    }
+
+    private void rememberVersion(AtomicReference<ProcessedVersion> lastVersion, ContentVersion version) {
+        if (contentSkipEnabled && version != null) {
+            lastVersion.set(new ProcessedVersion(version, clock.instant()));
         }
-        throw new MarketDataException("Operation failed after " + maxRetries + " retries", lastException);
+    }
+
+    private void recordSkippedCycle(String dataType) {
+        log.info("NSE {} payload unchanged since the last processed cycle, skipping", dataType);
+        meterRegistry.counter(METRIC_SKIPPED_CYCLE_COUNT, TAG_DATA_TYPE, dataType).increment();
     }
 
     private void logProcessingStatus(boolean indicesProcessed, boolean etfProcessed) {
@@ -291,9 +389,12 @@ public class MarketDataProcessingService {
                 return false;
             }
 
-            LocalDateTime marketTime = LocalDateTime.parse(tradeDate, MARKET_STATUS_DATE_FORMAT);
-            LocalDateTime now = LocalDateTime.now(ZoneId.systemDefault());
-            long minutesOld = java.time.Duration.between(marketTime, now).toMinutes();
+            // Age is measured from the last moment prices could move, so the previous close
+            // is still current in pre-open and the day's close stays current after the bell
+            Instant marketTime = LocalDateTime.parse(tradeDate, MARKET_STATUS_DATE_FORMAT)
+                .atZone(sessionCalendar.getZone())
+                .toInstant();
+            long minutesOld = Duration.between(marketTime, sessionCalendar.lastTradingMoment(clock.instant())).toMinutes();
 
             if (minutesOld > maxDataAgeMinutes) {
                 log.warn("ETF data is too old: {} minutes", minutesOld);
@@ -307,40 +408,74 @@ public class MarketDataProcessingService {
         return true;
     }
 
-    private void processAndSendETFData(NseETFResponse etfResponse) {
-        if (etfResponse == null || etfResponse.getData() == null) {
-            log.warn("Received null or empty ETF response");
-            return;
-        }
-
+    private MappedSnapshot<ETFIndies> mapETFs(NseETFResponse etfResponse) {
         List<NseETF> etfs = etfResponse.getData();
-        log.info("Processing {} ETFs", etfs.size());
+        log.info("Processing {} ETFs. Market Status: {}, Advances: {}, Declines: {}", etfs.size(),
+            etfResponse.getMarketStatus() != null ? etfResponse.getMarketStatus().getMarketStatus() : "N/A",
+            etfResponse.getAdvances(),
+            etfResponse.getDeclines());
+        return filterChanged("etf", etfChangeDetector,
+            ETFIndicesMapper.convertToETFIndices(etfs, resolveExchangeTime(etfResponse)));
+    }
 
-        try {
-            List<ETFIndies> etfIndies = ETFIndicesMapper.convertToETFIndices(etfs);
-            kafkaProducer.sendETFUpdate(etfIndies);
-            log.info("Successfully processed ETF data. Market Status: {}, Advances: {}, Declines: {}", 
-                etfResponse.getMarketStatus() != null ? etfResponse.getMarketStatus().getMarketStatus() : "N/A",
-                etfResponse.getAdvances(),
-                etfResponse.getDeclines()
-            );
+    private MappedSnapshot<MarketIndexIndices> mapIndices(NSEIndicesResponse indicesResponse) {
+        return filterChanged("indices", indicesChangeDetector,
+            NSEMarketIndexIndicesMapper.convertToMarketIndexIndices(indicesResponse.getData(),
+                parseExchangeTime(indicesResponse.getTimestamp())));
+    }
 
-        } catch (Exception e) {
-            log.error("Failed to process ETF data", e);
-            throw new RuntimeException("Error processing ETF data", e);
+    private <T> MappedSnapshot<T> filterChanged(String dataType, ChangeDetector<T> changeDetector, List<T> records) {
+        if (!changeDetectionEnabled) {
+            return new MappedSnapshot<>(records, records, null);
         }
+        ChangeDetector<T>.Cycle cycle = changeDetector.startCycle();
+        List<T> changed = cycle.filterChanged(records);
+        meterRegistry.counter(METRIC_UNCHANGED_COUNT, TAG_DATA_TYPE, dataType).increment(records.size() - changed.size());
+        log.info("{} of {} {} records changed since the last cycle", changed.size(), records.size(), dataType);
+        return new MappedSnapshot<>(records, changed, cycle);
     }
 
-    private List<MarketIndexIndices> saveIndicesAndGetData(NSEIndicesResponse indicesResponse) {
-        log.info("Saving indices data to database...");
-        try {
-            List<MarketIndexIndices> indices = NSEMarketIndexIndicesMapper.convertToMarketIndexIndices(indicesResponse.getData());
-            indices.forEach(indexIndicesService::save);
-            log.info("Successfully saved indices data to database");
-            return indices;
-        } catch (Exception e) {
-            log.error("Error saving indices data to database: {}", e.getMessage(), e);
-            throw new RuntimeException("Failed to save indices data", e);
+    private LocalDateTime resolveExchangeTime(NseETFResponse response) {
+        if (response.getTimestamp() != null) {
+            return parseExchangeTime(response.getTimestamp());
+        }
+        return parseExchangeTime(response.getMarketStatus() != null ? response.getMarketStatus().getTradeDate() : null);
+    }
+
+    // NSE stamps payloads either to the second or to the minute; fall back to local time if neither parses
+    private LocalDateTime parseExchangeTime(String timestamp) {
+        if (timestamp != null) {
+            for (DateTimeFormatter format : List.of(NSE_TIMESTAMP_FORMAT, MARKET_STATUS_DATE_FORMAT)) {
+                try {
+                    return LocalDateTime.parse(timestamp, format);
+                } catch (Exception e) {
+                    // try the next format
+                }
+            }
+            log.debug("Unrecognised NSE timestamp: {}", timestamp);
+        }
+        return LocalDateTime.now();
+    }
+
+    private record ProcessedVersion(ContentVersion version, Instant processedAt) {
+    }
+
+    /**
+     * A mapped payload and the subset that changed. The change-detection cycle, absent when
+     * detection is off, is only committed once the snapshot has been persisted and published.
+     */
+    private record MappedSnapshot<T>(List<T> all, List<T> changed, ChangeDetector<T>.Cycle cycle) {
+
+        void commit() {
+            if (cycle != null) {
+                cycle.commit(changed);
+            }
+        }
+
+        void finish(boolean succeeded) {
+            if (cycle != null) {
+                cycle.finish(succeeded);
+            }
         }
     }
 }
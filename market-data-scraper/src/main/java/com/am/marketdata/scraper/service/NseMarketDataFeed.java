@@ -0,0 +1,28 @@
+package com.am.marketdata.scraper.service;
+
+import com.am.marketdata.common.schedule.MarketSession;
+import com.am.marketdata.common.schedule.ScheduledFeed;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+/**
+ * NSE indices and ETF polling, run by the feed scheduler according to the market session.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class NseMarketDataFeed implements ScheduledFeed {
+    private final MarketDataProcessingService marketDataProcessingService;
+
+    @Override
+    public String getName() {
+        return "nse-market-data";
+    }
+
+    @Override
+    public void run(MarketSession session) {
+        log.info("Starting scheduled market data processing during {}", session);
+        marketDataProcessingService.fetchAndProcessMarketData();
+    }
+}
@@ -0,0 +1,63 @@
+package com.am.marketdata.scraper.service;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.function.Supplier;
+
+/**
+ * One step of the market data pipeline: a fixed number of workers behind a bounded queue. A full
+ * queue makes the submitting thread run the task, so a slow stage pushes back on the stage
+ * before it rather than buffering without limit.
+ */
+@Slf4j
+public class PipelineStage {
+    // Metric names
+    private static final String METRIC_PREFIX = "market.data.pipeline.";
+    private static final String METRIC_QUEUE_DEPTH = METRIC_PREFIX + "queue.depth";
+    private static final String METRIC_STAGE_TIME = METRIC_PREFIX + "stage.time";
+    private static final String TAG_STAGE = "stage";
+
+    private final String name;
+    private final ThreadPoolTaskExecutor executor;
+    private final Timer stageTimer;
+
+    public PipelineStage(String name, int concurrency, int queueCapacity, MeterRegistry meterRegistry) {
+        this.name = name;
+        this.executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(concurrency);
+        executor.setMaxPoolSize(concurrency);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("market-data-" + name + "-");
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy());
+        executor.initialize();
+
+        Gauge.builder(METRIC_QUEUE_DEPTH, executor, e -> e.getThreadPoolExecutor().getQueue().size())
+            .tag(TAG_STAGE, name)
+            .description("Tasks waiting for a pipeline stage worker")
+            .register(meterRegistry);
+        stageTimer = Timer.builder(METRIC_STAGE_TIME)
+            .tag(TAG_STAGE, name)
+            .description("Time spent running a pipeline stage task")
+            .register(meterRegistry);
+        log.info("Initialized pipeline stage {} with concurrency: {}, queue capacity: {}", name, concurrency, queueCapacity);
+    }
+
+    public <T> CompletableFuture<T> submit(Supplier<T> task) {
+        return CompletableFuture.supplyAsync(() -> stageTimer.record(task), executor);
+    }
+
+    public CompletableFuture<Void> run(Runnable task) {
+        return CompletableFuture.runAsync(() -> stageTimer.record(task), executor);
+    }
+
+    public void shutdown() {
+        log.info("Shutting down pipeline stage {}", name);
+        executor.shutdown();
+    }
+}
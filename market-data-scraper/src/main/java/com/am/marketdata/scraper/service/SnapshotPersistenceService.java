@@ -0,0 +1,117 @@
+package com.am.marketdata.scraper.service;
+
+import com.am.common.investment.model.equity.ETFIndies;
+import com.am.common.investment.model.equity.MarketData;
+import com.am.common.investment.model.equity.MarketIndexIndices;
+import com.am.common.investment.service.MarketIndexIndicesService;
+import com.am.marketdata.scraper.model.NseEtfSnapshot;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import jakarta.annotation.PostConstruct;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.util.List;
+
+/**
+ * Writes each NSE snapshot as one unit. ETFs are upserted into {@code nse_etf_snapshot} (see
+ * {@link NseEtfSnapshot}) with one batched statement. Indices live in a table owned by
+ * {@code MarketIndexIndicesService}, which only offers a per-record {@code save}; they are saved
+ * in one transaction, so there is a single commit per snapshot, but not a single statement.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class SnapshotPersistenceService {
+    private static final String CONFIG_BATCH_SIZE = "${market.data.persistence.batch.size:500}";
+
+    // Metric names
+    private static final String METRIC_PERSIST_TIME = "market.data.persist.time";
+    private static final String METRIC_PERSIST_ROWS = "market.data.persist.rows";
+    private static final String TAG_DATA_TYPE = "data.type";
+
+    // Older snapshots never overwrite newer ones
+    private static final String UPSERT_ETF = """
+        INSERT INTO nse_etf_snapshot (symbol, isin, company_name, assets, open_price, high_price, low_price,
+            last_price, previous_close, percent_change, exchange_time, updated_at)
+        VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, now())
+        ON CONFLICT (symbol) DO UPDATE SET
+            isin = EXCLUDED.isin,
+            company_name = EXCLUDED.company_name,
+            assets = EXCLUDED.assets,
+            open_price = EXCLUDED.open_price,
+            high_price = EXCLUDED.high_price,
+            low_price = EXCLUDED.low_price,
+            last_price = EXCLUDED.last_price,
+            previous_close = EXCLUDED.previous_close,
+            percent_change = EXCLUDED.percent_change,
+            exchange_time = EXCLUDED.exchange_time,
+            updated_at = EXCLUDED.updated_at
+        WHERE nse_etf_snapshot.exchange_time IS NULL OR nse_etf_snapshot.exchange_time <= EXCLUDED.exchange_time""";
+
+    private final MarketIndexIndicesService indexIndicesService;
+    private final JdbcTemplate jdbcTemplate;
+    private final PlatformTransactionManager transactionManager;
+    private final MeterRegistry meterRegistry;
+
+    @Value(CONFIG_BATCH_SIZE)
+    private int batchSize;
+
+    private TransactionTemplate transactionTemplate;
+
+    @PostConstruct
+    public void initialize() {
+        transactionTemplate = new TransactionTemplate(transactionManager);
+        log.info("Initialized snapshot persistence with batch size: {}", batchSize);
+    }
+
+    public void saveIndices(List<MarketIndexIndices> indices) {
+        record("indices", indices.size(), () ->
+            transactionTemplate.executeWithoutResult(status -> indices.forEach(indexIndicesService::save)));
+    }
+
+    public void saveETFs(List<ETFIndies> etfs) {
+        record("etf", etfs.size(), () ->
+            jdbcTemplate.batchUpdate(UPSERT_ETF, etfs, batchSize, SnapshotPersistenceService::bindETF));
+    }
+
+    private void record(String dataType, int rows, Runnable write) {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        write.run();
+        sample.stop(meterRegistry.timer(METRIC_PERSIST_TIME, TAG_DATA_TYPE, dataType));
+        meterRegistry.counter(METRIC_PERSIST_ROWS, TAG_DATA_TYPE, dataType).increment(rows);
+        log.info("Persisted {} {} records", rows, dataType);
+    }
+
+    private static void bindETF(PreparedStatement statement, ETFIndies etf) throws SQLException {
+        MarketData marketData = etf.getMarketData();
+        statement.setString(1, etf.getSymbol());
+        statement.setString(2, etf.getMetaData() != null ? etf.getMetaData().getIsin() : null);
+        statement.setString(3, etf.getMetaData() != null ? etf.getMetaData().getCompanyName() : null);
+        statement.setString(4, etf.getAssets());
+        setDouble(statement, 5, marketData.getOpen());
+        setDouble(statement, 6, marketData.getHigh());
+        setDouble(statement, 7, marketData.getLow());
+        setDouble(statement, 8, marketData.getLast());
+        setDouble(statement, 9, marketData.getPreviousClose());
+        setDouble(statement, 10, marketData.getPercentChange());
+        statement.setTimestamp(11, etf.getTimestamp() != null ? Timestamp.valueOf(etf.getTimestamp()) : null);
+    }
+
+    private static void setDouble(PreparedStatement statement, int index, Number value) throws SQLException {
+        if (value != null) {
+            statement.setDouble(index, value.doubleValue());
+        } else {
+            statement.setNull(index, Types.DOUBLE);
+        }
+    }
+}
@@ -0,0 +1,85 @@
+package com.am.marketdata.scraper.service;
+
+import com.am.marketdata.scraper.client.NseSessionHandshake;
+import com.am.marketdata.scraper.config.CookieProviderConfig;
+import com.am.marketdata.scraper.exception.CookieException;
+import com.am.marketdata.scraper.model.CookieInfo;
+import com.am.marketdata.scraper.model.WebsiteCookies;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+import java.util.function.Supplier;
+
+/**
+ * Acquires NSE session cookies from the cheapest tier that works: a plain HTTP handshake first,
+ * and a browser from the pool only when that handshake fails validation. Browsers are launched
+ * on demand, so deployments where the handshake succeeds never start one.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class TieredCookieProvider {
+    private final NseSessionHandshake handshake;
+    // Resolved lazily so the browser tier is only touched on fallback
+    private final ObjectProvider<CookieScraperService> cookieScraperService;
+    private final CookieProviderConfig providerConfig;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${nse.api.base-url:https://www.nseindia.com}")
+    private String baseUrl;
+
+    // Metric names
+    private static final String METRIC_PREFIX = "nse.cookie.";
+    private static final String METRIC_ACQUIRE_TIME = METRIC_PREFIX + "acquire.time";
+    private static final String METRIC_ACQUIRE_COUNT = METRIC_PREFIX + "acquire.count";
+    private static final String TAG_TIER = "tier";
+    private static final String TAG_OUTCOME = "outcome";
+    private static final String TIER_HTTP = "http";
+    private static final String TIER_BROWSER = "browser";
+
+    public List<CookieInfo> acquire() {
+        try {
+            return attempt(TIER_HTTP, handshake::perform);
+        } catch (CookieException e) {
+            if (!providerConfig.isBrowserFallbackEnabled()) {
+                throw e;
+            }
+            log.warn("HTTP cookie handshake failed, falling back to browser: {}", e.getMessage());
+        }
+        return attempt(TIER_BROWSER, this::scrapeWithBrowser);
+    }
+
+    private List<CookieInfo> scrapeWithBrowser() {
+        WebsiteCookies scraped;
+        try {
+            scraped = cookieScraperService.getObject().scrapeCookies(baseUrl + "/");
+        } catch (RuntimeException e) {
+            throw new CookieException("Browser cookie scrape failed: " + e.getMessage(), e);
+        }
+        List<CookieInfo> cookies = scraped.getCookies();
+        if (cookies == null || cookies.isEmpty()) {
+            throw new CookieException("Browser scrape returned no cookies");
+        }
+        handshake.validate(NseSessionHandshake.toCookieHeader(cookies));
+        return cookies;
+    }
+
+    private List<CookieInfo> attempt(String tier, Supplier<List<CookieInfo>> acquisition) {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        String outcome = "failure";
+        try {
+            List<CookieInfo> cookies = acquisition.get();
+            outcome = "success";
+            return cookies;
+        } finally {
+            sample.stop(meterRegistry.timer(METRIC_ACQUIRE_TIME, TAG_TIER, tier, TAG_OUTCOME, outcome));
+            meterRegistry.counter(METRIC_ACQUIRE_COUNT, TAG_TIER, tier, TAG_OUTCOME, outcome).increment();
+        }
+    }
+}
@@ -0,0 +1,125 @@
+package com.am.marketdata.scraper.client;
+
+import com.am.marketdata.common.testing.MutableClock;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.Instant;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CircuitBreakerTest {
+
+    private static final Duration OPEN_DURATION = Duration.ofSeconds(30);
+
+    private MutableClock clock;
+    private SimpleMeterRegistry meterRegistry;
+    private CircuitBreaker breaker;
+
+    @BeforeEach
+    void setUp() {
+        clock = new MutableClock(Instant.parse("2026-10-05T04:00:00Z"));
+        meterRegistry = new SimpleMeterRegistry();
+        breaker = new CircuitBreaker("etf", 3, OPEN_DURATION, meterRegistry, clock);
+    }
+
+    @Test
+    void shouldOpenAfterConsecutiveFailures() {
+        // Given two failures followed by a success, which resets the count
+        fail(2);
+        succeed();
+
+        // When
+        fail(3);
+
+        // Then
+        assertEquals(CircuitBreaker.State.OPEN, breaker.getState());
+        assertFalse(breaker.tryAcquire());
+        assertEquals(1.0, meterRegistry.counter("nse.circuit.rejected", "endpoint", "etf").count());
+    }
+
+    @Test
+    void shouldStayOpenUntilOpenDurationHasPassed() {
+        fail(3);
+
+        clock.advance(OPEN_DURATION.minusMillis(1));
+
+        assertFalse(breaker.tryAcquire());
+        assertEquals(CircuitBreaker.State.OPEN, breaker.getState());
+    }
+
+    @Test
+    void shouldLetSingleProbeThroughWhenHalfOpen() {
+        // Given
+        fail(3);
+        clock.advance(OPEN_DURATION);
+
+        // When
+        boolean probe = breaker.tryAcquire();
+        boolean concurrent = breaker.tryAcquire();
+
+        // Then
+        assertTrue(probe);
+        assertFalse(concurrent);
+        assertEquals(CircuitBreaker.State.HALF_OPEN, breaker.getState());
+    }
+
+    @Test
+    void shouldCloseWhenProbeSucceeds() {
+        fail(3);
+        clock.advance(OPEN_DURATION);
+        assertTrue(breaker.tryAcquire());
+
+        breaker.onSuccess();
+
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.getState());
+        assertTrue(breaker.tryAcquire());
+        assertTrue(breaker.tryAcquire());
+    }
+
+    @Test
+    void shouldReopenForAnotherFullPeriodWhenProbeFails() {
+        // Given
+        fail(3);
+        clock.advance(OPEN_DURATION);
+        assertTrue(breaker.tryAcquire());
+
+        // When the single probe fails
+        breaker.onFailure();
+
+        // Then the circuit opens again and the open period restarts from now
+        assertEquals(CircuitBreaker.State.OPEN, breaker.getState());
+        clock.advance(OPEN_DURATION.minusMillis(1));
+        assertFalse(breaker.tryAcquire());
+        clock.advance(Duration.ofMillis(1));
+        assertTrue(breaker.tryAcquire());
+    }
+
+    @Test
+    void shouldReleaseProbeWhenOutcomeIsIgnored() {
+        fail(3);
+        clock.advance(OPEN_DURATION);
+        assertTrue(breaker.tryAcquire());
+
+        // A 404 says nothing about NSE's health
+        breaker.onIgnored();
+
+        assertEquals(CircuitBreaker.State.HALF_OPEN, breaker.getState());
+        assertTrue(breaker.tryAcquire());
+    }
+
+    private void fail(int times) {
+        for (int i = 0; i < times; i++) {
+            assertTrue(breaker.tryAcquire());
+            breaker.onFailure();
+        }
+    }
+
+    private void succeed() {
+        assertTrue(breaker.tryAcquire());
+        breaker.onSuccess();
+    }
+}
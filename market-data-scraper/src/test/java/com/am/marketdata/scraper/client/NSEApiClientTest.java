@@ -0,0 +1,342 @@
+package com.am.marketdata.scraper.client;
+
+import com.am.marketdata.common.model.NseETFResponse;
+import com.am.marketdata.common.trace.PayloadTraceConfig;
+import com.am.marketdata.common.trace.PayloadTracer;
+import com.am.marketdata.scraper.config.NseHttpClientConfig;
+import com.am.marketdata.scraper.exception.NSEApiException;
+import com.am.marketdata.scraper.model.CookieInfo;
+import com.am.marketdata.scraper.model.NseFetchResult;
+import com.am.marketdata.scraper.service.CookieCacheService;
+import com.am.marketdata.scraper.service.TieredCookieProvider;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpServer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.client.JdkClientHttpRequestFactory;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.client.RestTemplate;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.http.HttpClient;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class NSEApiClientTest {
+
+    private static final String ETF_ENDPOINT = "/api/etf";
+    private static final int CALLERS = 8;
+
+    private HttpServer server;
+    private ExecutorService serverExecutor;
+    // Cookie header of every ETF request, in arrival order
+    private final List<String> cookiesSent = new CopyOnWriteArrayList<>();
+    private SimpleMeterRegistry meterRegistry;
+    private CountingObjectMapper objectMapper;
+    private CookieCacheService cookieCache;
+    private StubCookieProvider cookieProvider;
+    private NSEApiClient client;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+        serverExecutor = Executors.newCachedThreadPool();
+        server.setExecutor(serverExecutor);
+        server.start();
+
+        NseHttpClientConfig clientConfig = new NseHttpClientConfig();
+        clientConfig.setHttp2Enabled(false);
+        clientConfig.setCompressionEnabled(false);
+        PayloadTraceConfig traceConfig = new PayloadTraceConfig();
+        traceConfig.setEnabled(false);
+        HttpClient httpClient = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+        meterRegistry = new SimpleMeterRegistry();
+        objectMapper = new CountingObjectMapper();
+        cookieCache = new CookieCacheService(60);
+        cookieProvider = new StubCookieProvider();
+
+        client = new NSEApiClient(new RestTemplate(new JdkClientHttpRequestFactory(httpClient)), cookieCache,
+            cookieProvider, objectMapper, meterRegistry, new PayloadTracer(traceConfig), httpClient, clientConfig);
+        ReflectionTestUtils.setField(client, "baseUrl", "http://localhost:" + server.getAddress().getPort());
+        client.initialize();
+    }
+
+    @AfterEach
+    void tearDown() {
+        client.shutdown();
+        server.stop(0);
+        serverExecutor.shutdownNow();
+    }
+
+    @Test
+    void shouldAcquireCookiesOnceForConcurrentCallers() throws InterruptedException {
+        // Given an empty cache and a provider that holds its session until every caller is waiting
+        acceptOnly("nsit=fresh");
+        cookieProvider.cookies = List.of(cookie("nsit", "fresh"));
+        cookieProvider.gate = new CountDownLatch(1);
+        List<Throwable> failures = new CopyOnWriteArrayList<>();
+        List<Thread> callers = new ArrayList<>();
+        for (int i = 0; i < CALLERS; i++) {
+            Thread caller = new Thread(() -> {
+                try {
+                    client.getETFs();
+                } catch (Throwable e) {
+                    failures.add(e);
+                }
+            });
+            callers.add(caller);
+            caller.start();
+        }
+
+        // When
+        awaitWaiting(callers);
+        cookieProvider.gate.countDown();
+        for (Thread caller : callers) {
+            caller.join(TimeUnit.SECONDS.toMillis(10));
+        }
+
+        // Then one caller acquired the session and the rest reused it
+        assertTrue(failures.isEmpty(), () -> "Callers failed: " + failures);
+        assertEquals(1, cookieProvider.calls.get());
+        assertEquals(CALLERS, cookiesSent.size());
+        assertTrue(cookiesSent.stream().allMatch("nsit=fresh"::equals));
+    }
+
+    @Test
+    void shouldAcquireCookiesOnceForConcurrentAsyncCallers() throws Exception {
+        // Given more callers than cookie refresh threads, so some refreshes queue behind the first
+        acceptOnly("nsit=fresh");
+        cookieProvider.cookies = List.of(cookie("nsit", "fresh"));
+        cookieProvider.gate = new CountDownLatch(1);
+
+        // When
+        List<CompletableFuture<?>> results = new ArrayList<>();
+        for (int i = 0; i < CALLERS; i++) {
+            results.add(client.getETFsAsync(null));
+        }
+        awaitWaiting(refreshThreads());
+        cookieProvider.gate.countDown();
+        CompletableFuture.allOf(results.toArray(CompletableFuture[]::new)).get(10, TimeUnit.SECONDS);
+
+        // Then
+        assertEquals(1, cookieProvider.calls.get());
+        assertEquals(CALLERS, cookiesSent.size());
+    }
+
+    @Test
+    void shouldRefreshOnceAndRetryWhenSessionIsRejected() {
+        // Given cached cookies NSE no longer accepts
+        cookieCache.storeCookies("nsit=expired");
+        acceptOnly("nsit=fresh");
+        cookieProvider.cookies = List.of(cookie("nsit", "fresh"));
+
+        // When
+        NseETFResponse response = client.getETFs();
+
+        // Then
+        assertNotNull(response);
+        assertEquals(1, cookieProvider.calls.get());
+        assertEquals(List.of("nsit=expired", "nsit=fresh"), cookiesSent);
+        assertEquals(1.0, sessionRetries());
+        assertEquals("nsit=fresh", cookieCache.getCookies());
+    }
+
+    @Test
+    void shouldRefreshOnceAndRetryWhenSessionIsRejectedAsync() throws Exception {
+        cookieCache.storeCookies("nsit=expired");
+        acceptOnly("nsit=fresh");
+        cookieProvider.cookies = List.of(cookie("nsit", "fresh"));
+
+        NseETFResponse response = client.getETFsAsync(null).get(10, TimeUnit.SECONDS).getBody();
+
+        assertNotNull(response);
+        assertEquals(1, cookieProvider.calls.get());
+        assertEquals(List.of("nsit=expired", "nsit=fresh"), cookiesSent);
+        assertEquals(1.0, sessionRetries());
+    }
+
+    @Test
+    void shouldNotRetryMoreThanOnce() {
+        // Given NSE rejects even the refreshed session
+        cookieCache.storeCookies("nsit=expired");
+        acceptOnly("nsit=never");
+        cookieProvider.cookies = List.of(cookie("nsit", "fresh"));
+
+        // When
+        NSEApiException thrown = assertThrows(NSEApiException.class, client::getETFs);
+
+        // Then
+        assertEquals(401, thrown.getStatusCode().value());
+        assertEquals(1, cookieProvider.calls.get());
+        assertEquals(2, cookiesSent.size());
+    }
+
+    @Test
+    void shouldRetryWithCookiesAnotherCallerAlreadyRefreshed() {
+        // Given another caller replaces the session while this request is being rejected
+        cookieCache.storeCookies("nsit=old");
+        etfs(exchangeCookie -> {
+            if ("nsit=old".equals(exchangeCookie)) {
+                cookieCache.storeCookies("nsit=replaced");
+            }
+        }, "nsit=replaced");
+
+        // When
+        NseETFResponse response = client.getETFs();
+
+        // Then the replacement is used as it is and no new session is acquired
+        assertNotNull(response);
+        assertEquals(0, cookieProvider.calls.get());
+        assertEquals(List.of("nsit=old", "nsit=replaced"), cookiesSent);
+        assertEquals("nsit=replaced", cookieCache.getCookies());
+    }
+
+    @Test
+    void shouldSkipParsingIdenticalBytes() {
+        // Given a payload already fetched once
+        cookieCache.storeCookies("nsit=fresh");
+        acceptOnly("nsit=fresh");
+        NseFetchResult<NseETFResponse> first = client.getETFs(null);
+
+        // When the same bytes come back
+        NseFetchResult<NseETFResponse> second = client.getETFs(first.getVersion());
+
+        // Then they are recognised by hash and not parsed again
+        assertFalse(first.isUnchanged());
+        assertTrue(second.isUnchanged());
+        assertNull(second.getBody());
+        assertEquals(first.getVersion().getContentHash(), second.getVersion().getContentHash());
+        assertEquals(1, objectMapper.reads.get());
+        assertEquals(1.0, notModified());
+    }
+
+    @Test
+    void shouldShortCircuitNotModified() throws Exception {
+        // Given NSE answers a matching If-None-Match with 304
+        cookieCache.storeCookies("nsit=fresh");
+        List<String> conditions = new CopyOnWriteArrayList<>();
+        server.createContext(ETF_ENDPOINT, exchange -> {
+            String ifNoneMatch = exchange.getRequestHeaders().getFirst("If-None-Match");
+            conditions.add(String.valueOf(ifNoneMatch));
+            if ("\"v1\"".equals(ifNoneMatch)) {
+                exchange.sendResponseHeaders(304, -1);
+            } else {
+                byte[] body = "{\"data\":[]}".getBytes(StandardCharsets.UTF_8);
+                exchange.getResponseHeaders().add("ETag", "\"v1\"");
+                exchange.sendResponseHeaders(200, body.length);
+                exchange.getResponseBody().write(body);
+            }
+            exchange.close();
+        });
+        NseFetchResult<NseETFResponse> first = client.getETFsAsync(null).get(10, TimeUnit.SECONDS);
+
+        // When
+        NseFetchResult<NseETFResponse> second = client.getETFsAsync(first.getVersion()).get(10, TimeUnit.SECONDS);
+
+        // Then
+        assertEquals(List.of("null", "\"v1\""), conditions);
+        assertTrue(second.isUnchanged());
+        assertSame(first.getVersion(), second.getVersion());
+        assertEquals(1, objectMapper.reads.get());
+        assertEquals(1.0, notModified());
+    }
+
+    private double notModified() {
+        return meterRegistry.counter("nse.api.not.modified.count", "endpoint", ETF_ENDPOINT).count();
+    }
+
+    private double sessionRetries() {
+        return meterRegistry.counter("nse.api.session.retry.count", "endpoint", ETF_ENDPOINT).count();
+    }
+
+    private void acceptOnly(String cookieHeader) {
+        etfs(cookie -> { }, cookieHeader);
+    }
+
+    /**
+     * Serves ETFs to requests carrying {@code acceptedCookies} and a 401 to any other session,
+     * calling {@code onRequest} with the request's cookies before replying.
+     */
+    private void etfs(Consumer<String> onRequest, String acceptedCookies) {
+        server.createContext(ETF_ENDPOINT, exchange -> {
+            String cookies = exchange.getRequestHeaders().getFirst("Cookie");
+            cookiesSent.add(cookies);
+            onRequest.accept(cookies);
+            if (acceptedCookies.equals(cookies)) {
+                byte[] body = "{\"data\":[]}".getBytes(StandardCharsets.UTF_8);
+                exchange.getResponseHeaders().add("Content-Type", "application/json");
+                exchange.sendResponseHeaders(200, body.length);
+                exchange.getResponseBody().write(body);
+            } else {
+                exchange.sendResponseHeaders(401, -1);
+            }
+            exchange.close();
+        });
+    }
+
+    // Every caller is parked either in the provider or on the refresh it found in flight
+    private void awaitWaiting(List<Thread> threads) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (cookieProvider.calls.get() == 0
+                || !threads.stream().allMatch(thread -> thread.getState() == Thread.State.WAITING)) {
+            assertTrue(System.nanoTime() < deadline, "Callers never all waited on the cookie refresh");
+            Thread.sleep(5);
+        }
+    }
+
+    private static List<Thread> refreshThreads() {
+        return Thread.getAllStackTraces().keySet().stream()
+            .filter(thread -> thread.getName().equals("nse-cookie-refresh"))
+            .toList();
+    }
+
+    private static CookieInfo cookie(String name, String value) {
+        return CookieInfo.builder().name(name).value(value).build();
+    }
+
+    private static final class CountingObjectMapper extends ObjectMapper {
+        private final AtomicInteger reads = new AtomicInteger();
+
+        @Override
+        public <T> T readValue(byte[] src, Class<T> valueType) throws IOException {
+            reads.incrementAndGet();
+            return super.readValue(src, valueType);
+        }
+    }
+
+    private static final class StubCookieProvider extends TieredCookieProvider {
+        private final AtomicInteger calls = new AtomicInteger();
+        private volatile List<CookieInfo> cookies = List.of();
+        private volatile CountDownLatch gate = new CountDownLatch(0);
+
+        StubCookieProvider() {
+            super(null, null, null, null);
+        }
+
+        @Override
+        public List<CookieInfo> acquire() {
+            calls.incrementAndGet();
+            try {
+                gate.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return cookies;
+        }
+    }
+}
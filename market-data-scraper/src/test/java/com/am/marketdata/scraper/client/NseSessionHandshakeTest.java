@@ -0,0 +1,148 @@
+package com.am.marketdata.scraper.client;
+
+import com.am.marketdata.scraper.config.CookieProviderConfig;
+import com.am.marketdata.scraper.config.NseHttpClientConfig;
+import com.am.marketdata.scraper.exception.CookieException;
+import com.am.marketdata.scraper.model.CookieInfo;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class NseSessionHandshakeTest {
+
+    private HttpServer server;
+    private String baseUrl;
+    // Cookie and Referer headers each path was last requested with
+    private final Map<String, String> cookiesSeen = new ConcurrentHashMap<>();
+    private final Map<String, String> referersSeen = new ConcurrentHashMap<>();
+    private CookieProviderConfig providerConfig;
+    private NseSessionHandshake handshake;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+        server.start();
+        baseUrl = "http://localhost:" + server.getAddress().getPort();
+
+        providerConfig = new CookieProviderConfig();
+        providerConfig.setRequestTimeoutMs(5000);
+        NseHttpClientConfig clientConfig = new NseHttpClientConfig();
+        clientConfig.setHttp2Enabled(false);
+        handshake = new NseSessionHandshake(providerConfig, clientConfig, baseUrl);
+    }
+
+    @AfterEach
+    void tearDown() {
+        server.stop(0);
+    }
+
+    @Test
+    void shouldKeepCookiesSetOnRedirects() {
+        // Given a home page that sets the first cookie on its redirect
+        respond("/", 302, "Location", "/home", "Set-Cookie", "nsit=abc; Path=/; HttpOnly");
+        respond("/home", 200, "Set-Cookie", "nseappid=xyz; Path=/; Max-Age=600");
+        respond("/market-data/live-equity-market", 200);
+        validateRequiring("nsit=abc; nseappid=xyz");
+
+        // When
+        List<CookieInfo> cookies = handshake.perform();
+
+        // Then both cookies are kept and replayed on the next step
+        assertEquals(List.of("nsit", "nseappid"), cookies.stream().map(CookieInfo::getName).toList());
+        assertEquals("nsit=abc", cookiesSeen.get("/home"));
+        assertEquals("nsit=abc; nseappid=xyz", cookiesSeen.get("/market-data/live-equity-market"));
+        assertEquals(baseUrl + "/home", referersSeen.get("/market-data/live-equity-market"));
+        assertNotNull(cookies.get(1).getExpiry());
+        assertNull(cookies.get(0).getExpiry());
+    }
+
+    @Test
+    void shouldFailWhenRequiredCookieIsMissing() {
+        respond("/", 200, "Set-Cookie", "nsit=abc");
+        respond("/market-data/live-equity-market", 200);
+        validateRequiring("");
+
+        CookieException thrown = assertThrows(CookieException.class, handshake::perform);
+
+        assertTrue(thrown.getMessage().contains("nseappid"));
+        assertFalse(cookiesSeen.containsKey("/api/marketStatus"), "Incomplete session should not be validated");
+    }
+
+    @Test
+    void shouldFailWhenApiRejectsSession() {
+        respond("/", 200, "Set-Cookie", "nsit=abc", "Set-Cookie", "nseappid=stale");
+        respond("/market-data/live-equity-market", 200);
+        validateRequiring("nsit=abc; nseappid=fresh");
+
+        CookieException thrown = assertThrows(CookieException.class, handshake::perform);
+
+        assertTrue(thrown.getMessage().contains("401"));
+    }
+
+    @Test
+    void shouldFailOnErrorStatus() {
+        respond("/", 403);
+
+        CookieException thrown = assertThrows(CookieException.class, handshake::perform);
+
+        assertTrue(thrown.getMessage().contains("403"));
+    }
+
+    @Test
+    void shouldStopFollowingRedirectLoop() {
+        respond("/", 302, "Location", "/again");
+        respond("/again", 302, "Location", "/");
+
+        CookieException thrown = assertThrows(CookieException.class, handshake::perform);
+
+        assertTrue(thrown.getMessage().contains("redirected"));
+    }
+
+    private void validateRequiring(String cookieHeader) {
+        server.createContext("/api/marketStatus", exchange -> {
+            record(exchange);
+            reply(exchange, cookieHeader.equals(exchange.getRequestHeaders().getFirst("Cookie")) ? 200 : 401);
+        });
+    }
+
+    private void respond(String path, int status, String... headers) {
+        server.createContext(path, exchange -> {
+            // Contexts match by prefix; paths not registered here are not found
+            if (!exchange.getRequestURI().getPath().equals(path)) {
+                reply(exchange, 404);
+                return;
+            }
+            record(exchange);
+            for (int i = 0; i < headers.length; i += 2) {
+                exchange.getResponseHeaders().add(headers[i], headers[i + 1]);
+            }
+            reply(exchange, status);
+        });
+    }
+
+    private void record(HttpExchange exchange) {
+        String path = exchange.getRequestURI().getPath();
+        String cookie = exchange.getRequestHeaders().getFirst("Cookie");
+        String referer = exchange.getRequestHeaders().getFirst("Referer");
+        cookiesSeen.put(path, cookie != null ? cookie : "");
+        if (referer != null) {
+            referersSeen.put(path, referer);
+        }
+    }
+
+    private static void reply(HttpExchange exchange, int status) throws IOException {
+        exchange.sendResponseHeaders(status, -1);
+        exchange.close();
+    }
+}
@@ -0,0 +1,236 @@
+package com.am.marketdata.scraper.client;
+
+import com.am.marketdata.common.testing.ManualScheduler;
+import com.am.marketdata.common.testing.MutableClock;
+import com.am.marketdata.common.testing.ScriptedCall;
+import com.am.marketdata.scraper.config.NseResilienceConfig;
+import com.am.marketdata.scraper.exception.CircuitOpenException;
+import com.am.marketdata.scraper.exception.NSEApiException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatusCode;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ResilientNseExecutorTest {
+
+    private static final String ENDPOINT = "etf";
+
+    private NseResilienceConfig config;
+    private SimpleMeterRegistry meterRegistry;
+    private MutableClock clock;
+    private ManualScheduler scheduler;
+    private ScriptedCall<String> call;
+    private ResilientNseExecutor executor;
+
+    @BeforeEach
+    void setUp() {
+        config = new NseResilienceConfig();
+        config.setMaxAttempts(3);
+        config.setBreakerFailureThreshold(2);
+        config.setBreakerOpenMs(30000);
+        meterRegistry = new SimpleMeterRegistry();
+        clock = new MutableClock(Instant.parse("2026-10-05T04:00:00Z"));
+        scheduler = new ManualScheduler();
+        call = new ScriptedCall<>();
+        executor = new ResilientNseExecutor(config, meterRegistry, clock, scheduler);
+    }
+
+    @Test
+    void shouldRetryServerErrorOnSchedulerInsteadOfBlocking() {
+        // Given
+        CompletableFuture<String> result = executor.execute(ENDPOINT, call);
+
+        // When the first attempt fails
+        call.request(0).completeExceptionally(status(503));
+
+        // Then the retry waits on the scheduler rather than on the calling thread
+        assertFalse(result.isDone());
+        assertEquals(1, call.count());
+        assertEquals(1, scheduler.pending());
+
+        scheduler.runNext();
+        call.request(1).complete("ok");
+
+        assertEquals("ok", result.join());
+        assertEquals(1.0, meterRegistry.counter("nse.api.retry.count", "endpoint", ENDPOINT).count());
+    }
+
+    @Test
+    void shouldNotRetryClientErrors() {
+        // Given more 404s than the breaker threshold
+        for (int i = 0; i < 3; i++) {
+            CompletableFuture<String> result = executor.execute(ENDPOINT, call);
+
+            // When
+            call.request(i).completeExceptionally(status(404));
+
+            // Then each fails at once and says nothing about NSE's health
+            CompletionException thrown = assertThrows(CompletionException.class, result::join);
+            assertEquals(404, ((NSEApiException) thrown.getCause()).getStatusCode().value());
+        }
+        assertEquals(3, call.count());
+        assertEquals(0, scheduler.pending());
+        assertEquals(CircuitBreaker.State.CLOSED, executor.getState(ENDPOINT));
+    }
+
+    @Test
+    void shouldRetryExpiredSessionTimeoutAndThrottling() {
+        for (int status : new int[] {401, 408, 429}) {
+            ScriptedCall<String> scripted = new ScriptedCall<>();
+            CompletableFuture<String> result = executor.execute(ENDPOINT, scripted);
+
+            scripted.request(0).completeExceptionally(status(status));
+            assertEquals(1, scheduler.pending(), "HTTP " + status + " should be retried");
+            scheduler.runNext();
+            scripted.request(1).complete("ok");
+
+            assertEquals("ok", result.join());
+        }
+    }
+
+    @Test
+    void shouldGiveUpAfterMaxAttempts() {
+        // Given a breaker that will not open first
+        config.setBreakerFailureThreshold(10);
+        CompletableFuture<String> result = executor.execute(ENDPOINT, call);
+
+        // When every attempt fails
+        call.request(0).completeExceptionally(status(503));
+        scheduler.runNext();
+        call.request(1).completeExceptionally(status(503));
+        scheduler.runNext();
+        call.request(2).completeExceptionally(status(502));
+
+        // Then the last error is reported and nothing more is scheduled
+        CompletionException thrown = assertThrows(CompletionException.class, result::join);
+        assertEquals(502, ((NSEApiException) thrown.getCause()).getStatusCode().value());
+        assertEquals(3, call.count());
+        assertEquals(0, scheduler.pending());
+    }
+
+    @Test
+    void shouldFailFastWithoutCallingNseWhileCircuitOpen() {
+        // Given
+        config.setMaxAttempts(1);
+        openCircuit();
+
+        // When
+        CompletableFuture<String> result = executor.execute(ENDPOINT, call);
+
+        // Then
+        CompletionException thrown = assertThrows(CompletionException.class, result::join);
+        assertInstanceOf(CircuitOpenException.class, thrown.getCause());
+        assertEquals(2, call.count());
+    }
+
+    @Test
+    void shouldSendSingleProbeOnceCircuitHalfOpens() {
+        // Given
+        config.setMaxAttempts(1);
+        openCircuit();
+        clock.advance(Duration.ofMillis(config.getBreakerOpenMs()));
+
+        // When two calls arrive while the probe is still in flight
+        CompletableFuture<String> probe = executor.execute(ENDPOINT, call);
+        CompletableFuture<String> concurrent = executor.execute(ENDPOINT, call);
+
+        // Then only the probe reaches NSE, and its success closes the circuit
+        assertEquals(3, call.count());
+        CompletionException thrown = assertThrows(CompletionException.class, concurrent::join);
+        assertInstanceOf(CircuitOpenException.class, thrown.getCause());
+        call.request(2).complete("ok");
+        assertEquals("ok", probe.join());
+        assertEquals(CircuitBreaker.State.CLOSED, executor.getState(ENDPOINT));
+    }
+
+    @Test
+    void shouldReturnFirstSuccessfulResponseWhenHedging() {
+        // Given a primary that is still outstanding after the hedge delay
+        enableHedging();
+        CompletableFuture<String> result = executor.execute(ENDPOINT, call);
+        assertEquals(50, scheduler.nextDelayMs());
+
+        // When the hedge is sent and answers first
+        scheduler.runNext();
+        call.request(2).complete("hedge");
+        call.request(1).complete("primary");
+
+        // Then
+        assertEquals("hedge", result.join());
+        assertEquals(1.0, meterRegistry.counter("nse.api.hedge.count", "endpoint", ENDPOINT, "outcome", "sent").count());
+        assertEquals(1.0, meterRegistry.counter("nse.api.hedge.count", "endpoint", ENDPOINT, "outcome", "won").count());
+    }
+
+    @Test
+    void shouldSucceedWhenHedgeSucceedsAfterPrimaryFails() {
+        enableHedging();
+        CompletableFuture<String> result = executor.execute(ENDPOINT, call);
+        scheduler.runNext();
+
+        call.request(1).completeExceptionally(status(503));
+        assertFalse(result.isDone());
+        call.request(2).complete("hedge");
+
+        assertEquals("hedge", result.join());
+        assertEquals(0, scheduler.pending());
+    }
+
+    @Test
+    void shouldFailOnlyOnceEveryHedgedRequestHasFailed() {
+        enableHedging();
+        CompletableFuture<String> result = executor.execute(ENDPOINT, call);
+        scheduler.runNext();
+
+        call.request(2).completeExceptionally(status(404));
+        assertFalse(result.isDone());
+        call.request(1).completeExceptionally(status(404));
+
+        assertThrows(CompletionException.class, result::join);
+    }
+
+    @Test
+    void shouldNotHedgeWhenPrimaryAnswersInTime() {
+        // Given
+        enableHedging();
+        CompletableFuture<String> result = executor.execute(ENDPOINT, call);
+
+        // When
+        call.request(1).complete("primary");
+
+        // Then the hedge timer is cancelled and never fires
+        assertEquals("primary", result.join());
+        assertEquals(0, scheduler.pending());
+        assertEquals(2, call.count());
+        assertEquals(0.0, meterRegistry.counter("nse.api.hedge.count", "endpoint", ENDPOINT, "outcome", "sent").count());
+    }
+
+    private void openCircuit() {
+        for (int i = 0; i < config.getBreakerFailureThreshold(); i++) {
+            executor.execute(ENDPOINT, call);
+            call.request(call.count() - 1).completeExceptionally(status(503));
+        }
+        assertEquals(CircuitBreaker.State.OPEN, executor.getState(ENDPOINT));
+    }
+
+    // One fast call gives the latency window its sample, so the next call is hedged after the minimum delay
+    private void enableHedging() {
+        config.setHedgeEnabled(true);
+        config.setHedgeMinSamples(1);
+        config.setHedgeMinDelayMs(50);
+        CompletableFuture<String> warmUp = executor.execute(ENDPOINT, call);
+        call.request(0).complete("warm");
+        assertEquals("warm", warmUp.join());
+        assertEquals(0, scheduler.pending());
+    }
+
+    private static NSEApiException status(int status) {
+        return new NSEApiException(ENDPOINT, HttpStatusCode.valueOf(status), "", "HTTP " + status);
+    }
+}
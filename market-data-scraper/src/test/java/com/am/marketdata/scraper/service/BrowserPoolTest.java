@@ -0,0 +1,190 @@
+package com.am.marketdata.scraper.service;
+
+import com.am.marketdata.scraper.config.BrowserPoolConfig;
+import com.am.marketdata.scraper.exception.CookieException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Pool bookkeeping only. Launched browsers are null stand-ins: the pool's own driver calls
+ * (heap check, health check, quit) all tolerate a dead browser, so no Chrome is needed.
+ */
+class BrowserPoolTest {
+
+    private BrowserPoolConfig poolConfig;
+    private SimpleMeterRegistry meterRegistry;
+    private AtomicInteger launches;
+    private volatile RuntimeException launchFailure;
+    private BrowserPool pool;
+
+    @BeforeEach
+    void setUp() {
+        poolConfig = new BrowserPoolConfig();
+        poolConfig.setPoolSize(1);
+        poolConfig.setBorrowTimeoutMs(5000);
+        meterRegistry = new SimpleMeterRegistry();
+        launches = new AtomicInteger();
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (pool != null) {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    void shouldLaunchOnFirstUseAndReuseIdleBrowser() {
+        // Given
+        start();
+        assertEquals(0.0, gauge("scraper.browser.pool.total"));
+
+        // When
+        for (int i = 0; i < 3; i++) {
+            assertEquals("done", pool.execute(driver -> "done"));
+        }
+
+        // Then
+        assertEquals(1, launches.get());
+        assertEquals(1.0, gauge("scraper.browser.pool.total"));
+        assertEquals(1.0, gauge("scraper.browser.pool.idle"));
+        assertEquals(3, meterRegistry.timer("scraper.browser.borrow.time").count());
+    }
+
+    @Test
+    void shouldRecycleBrowserAfterMaxUses() {
+        poolConfig.setMaxUsesPerBrowser(2);
+        start();
+
+        for (int i = 0; i < 3; i++) {
+            pool.execute(driver -> null);
+        }
+
+        assertEquals(2, launches.get());
+        assertEquals(1.0, recycled("max_uses"));
+        assertEquals(1.0, gauge("scraper.browser.pool.total"));
+    }
+
+    @Test
+    void shouldDiscardBrowserWhoseWorkFailed() {
+        // Given a scrape that throws
+        start();
+        assertThrows(IllegalStateException.class, () -> pool.execute(driver -> {
+            throw new IllegalStateException("page crashed");
+        }));
+
+        // When
+        pool.execute(driver -> null);
+
+        // Then the failed browser was not handed out again
+        assertEquals(1.0, recycled("failed"));
+        assertEquals(2, launches.get());
+        assertEquals(1.0, gauge("scraper.browser.pool.total"));
+    }
+
+    @Test
+    void shouldHandReleasedBrowserToWaitingCaller() throws Exception {
+        // Given the only browser is busy
+        start();
+        CountDownLatch busy = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        CompletableFuture<Void> first = CompletableFuture.runAsync(() -> pool.execute(driver -> {
+            busy.countDown();
+            await(release);
+            return null;
+        }));
+        assertTrue(busy.await(5, TimeUnit.SECONDS));
+
+        // When a second caller borrows and the first then finishes
+        CompletableFuture<String> second = CompletableFuture.supplyAsync(() -> pool.execute(driver -> "second"));
+        release.countDown();
+
+        // Then the second caller ran on the same browser rather than a new one
+        first.get(5, TimeUnit.SECONDS);
+        assertEquals("second", second.get(5, TimeUnit.SECONDS));
+        assertEquals(1, launches.get());
+    }
+
+    @Test
+    void shouldFailBorrowWhenPoolStaysExhausted() throws Exception {
+        poolConfig.setBorrowTimeoutMs(50);
+        start();
+        CountDownLatch busy = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        CompletableFuture<Void> holder = CompletableFuture.runAsync(() -> pool.execute(driver -> {
+            busy.countDown();
+            await(release);
+            return null;
+        }));
+        assertTrue(busy.await(5, TimeUnit.SECONDS));
+
+        assertThrows(CookieException.class, () -> pool.execute(driver -> null));
+
+        release.countDown();
+        holder.get(5, TimeUnit.SECONDS);
+        assertEquals(1, launches.get());
+    }
+
+    @Test
+    void shouldFreeSlotWhenLaunchFails() {
+        // Given Chrome fails to start once
+        start();
+        launchFailure = new IllegalStateException("chrome not reachable");
+        assertThrows(IllegalStateException.class, () -> pool.execute(driver -> null));
+        launchFailure = null;
+
+        // When / Then the slot is free for the next launch
+        assertEquals("done", pool.execute(driver -> "done"));
+        assertEquals(1.0, gauge("scraper.browser.pool.total"));
+    }
+
+    @Test
+    void shouldQuitIdleBrowsersOnShutdown() {
+        poolConfig.setBorrowTimeoutMs(50);
+        start();
+        pool.execute(driver -> null);
+
+        pool.shutdown();
+
+        assertEquals(1.0, recycled("shutdown"));
+        assertEquals(0.0, gauge("scraper.browser.pool.total"));
+        assertThrows(CookieException.class, () -> pool.execute(driver -> null));
+    }
+
+    private void start() {
+        poolConfig.setPrewarm(false);
+        pool = new BrowserPool(poolConfig, meterRegistry, () -> {
+            if (launchFailure != null) {
+                throw launchFailure;
+            }
+            launches.incrementAndGet();
+            return null;
+        });
+        pool.initialize();
+    }
+
+    private double gauge(String name) {
+        return meterRegistry.get(name).gauge().value();
+    }
+
+    private double recycled(String reason) {
+        return meterRegistry.counter("scraper.browser.recycled", "reason", reason).count();
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            assertTrue(latch.await(5, TimeUnit.SECONDS));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,83 @@
+package com.am.marketdata.scraper.service;
+
+import com.am.marketdata.common.testing.MutableClock;
+import com.am.marketdata.scraper.model.CookieInfo;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CookieCacheServiceTest {
+
+    private static final Instant NOW = Instant.parse("2026-10-05T04:00:00Z");
+
+    private MutableClock clock;
+    private CookieCacheService cache;
+
+    @BeforeEach
+    void setUp() {
+        clock = new MutableClock(NOW);
+        cache = new CookieCacheService(60, clock);
+    }
+
+    @Test
+    void shouldExpireWithEarliestCookie() {
+        // Given one cookie expiring in 10 minutes, one in 30 and a session cookie
+        cache.storeCookies(List.of(
+            cookie("nseappid", NOW.plus(Duration.ofMinutes(30))),
+            cookie("nsit", NOW.plus(Duration.ofMinutes(10))),
+            cookie("bm_sv", null)));
+
+        // When / Then the header stays cached until the first expiry and no longer
+        assertEquals(NOW.plus(Duration.ofMinutes(10)), cache.getExpiresAt());
+        clock.advance(Duration.ofMinutes(9));
+        assertEquals("nseappid=v; nsit=v; bm_sv=v", cache.getCookies());
+        clock.advance(Duration.ofMinutes(1));
+        assertNull(cache.getCookies());
+        assertNull(cache.getExpiresAt());
+    }
+
+    @Test
+    void shouldFallBackToDefaultTtlForSessionCookies() {
+        cache.storeCookies(List.of(cookie("nsit", null), cookie("nseappid", null)));
+
+        assertEquals(NOW.plus(Duration.ofMinutes(60)), cache.getExpiresAt());
+        clock.advance(Duration.ofMinutes(59));
+        assertNotNull(cache.getCookies());
+        clock.advance(Duration.ofMinutes(1));
+        assertNull(cache.getCookies());
+    }
+
+    @Test
+    void shouldKeepCookiesThatReplacedRejectedOnes() {
+        // Given another caller has already replaced the cookies NSE rejected
+        cache.storeCookies("nsit=fresh");
+
+        // When
+        cache.invalidateCookies("nsit=stale");
+
+        // Then
+        assertEquals("nsit=fresh", cache.getCookies());
+    }
+
+    @Test
+    void shouldInvalidateRejectedCookies() {
+        cache.storeCookies("nsit=stale");
+
+        cache.invalidateCookies("nsit=stale");
+
+        assertNull(cache.getCookies());
+    }
+
+    private static CookieInfo cookie(String name, Instant expiry) {
+        return CookieInfo.builder()
+            .name(name)
+            .value("v")
+            .expiry(expiry != null ? expiry.toEpochMilli() : null)
+            .build();
+    }
+}
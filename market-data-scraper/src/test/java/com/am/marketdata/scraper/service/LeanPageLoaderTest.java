@@ -0,0 +1,140 @@
+package com.am.marketdata.scraper.service;
+
+import com.am.marketdata.scraper.config.ScraperConfig;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.openqa.selenium.Cookie;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.TimeoutException;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.chrome.ChromeOptions;
+import org.openqa.selenium.remote.CapabilityType;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LeanPageLoaderTest {
+
+    private static final String URL = "https://www.nseindia.com/";
+
+    private ScraperConfig scraperConfig;
+    private LeanPageLoader loader;
+
+    @BeforeEach
+    void setUp() {
+        scraperConfig = new ScraperConfig();
+        loader = new LeanPageLoader(scraperConfig, new SimpleMeterRegistry());
+    }
+
+    @Test
+    void shouldReturnOnceRequiredCookiesAreSetAndStopPage() {
+        // Given a session whose cookies arrive over three polls
+        FakeBrowser browser = new FakeBrowser(List.of(
+            Set.of(),
+            Set.of(new Cookie("nsit", "v")),
+            Set.of(new Cookie("nsit", "v"), new Cookie("nseappid", "v"), new Cookie("bm_sv", "v"))));
+
+        // When
+        Set<Cookie> cookies = loader.awaitCookies(browser.driver(), URL);
+
+        // Then
+        assertEquals(Set.of("nsit", "nseappid", "bm_sv"), cookies.stream().map(Cookie::getName).collect(Collectors.toSet()));
+        assertEquals(List.of(URL), browser.visited);
+        assertEquals(3, browser.polls.get());
+        assertEquals(List.of("window.stop();"), browser.scripts);
+    }
+
+    @Test
+    void shouldTimeOutWhenRequiredCookieNeverArrives() {
+        scraperConfig.getLean().setCookieWaitMs(300);
+        FakeBrowser browser = new FakeBrowser(List.of(Set.of(new Cookie("nsit", "v"))));
+
+        assertThrows(TimeoutException.class, () -> loader.awaitCookies(browser.driver(), URL));
+
+        assertTrue(browser.scripts.isEmpty());
+    }
+
+    @Test
+    void shouldUseLeanLoadsAndBrowserOptionsTogether() {
+        ChromeOptions options = scraperConfig.chromeOptions();
+
+        assertTrue(loader.isEnabled());
+        assertEquals("none", String.valueOf(options.getCapability(CapabilityType.PAGE_LOAD_STRATEGY)));
+        assertTrue(options.asMap().toString().contains("--blink-settings=imagesEnabled=false"));
+    }
+
+    @Test
+    void shouldLoadPagesNormallyWithoutRequiredCookies() {
+        // Given lean mode on, but nothing to wait for
+        scraperConfig.getLean().setRequiredCookies(List.of());
+
+        // When
+        ChromeOptions options = scraperConfig.chromeOptions();
+
+        // Then neither the loader nor the browser options run lean
+        assertFalse(loader.isEnabled());
+        assertNull(options.getCapability(CapabilityType.PAGE_LOAD_STRATEGY));
+        assertFalse(options.asMap().toString().contains("imagesEnabled=false"));
+    }
+
+    @Test
+    void shouldLoadPagesNormallyWhenDisabled() {
+        scraperConfig.getLean().setEnabled(false);
+
+        assertFalse(loader.isEnabled());
+        assertNull(scraperConfig.chromeOptions().getCapability(CapabilityType.PAGE_LOAD_STRATEGY));
+    }
+
+    /**
+     * Stand-in browser answering only the calls a lean load makes. Each cookie poll returns the
+     * next scripted jar, and the last one from then on.
+     */
+    private static final class FakeBrowser implements InvocationHandler {
+        private final List<Set<Cookie>> jars;
+        private final List<String> visited = new CopyOnWriteArrayList<>();
+        private final List<String> scripts = new CopyOnWriteArrayList<>();
+        private final AtomicInteger polls = new AtomicInteger();
+
+        FakeBrowser(List<Set<Cookie>> jars) {
+            this.jars = jars;
+        }
+
+        WebDriver driver() {
+            return (WebDriver) Proxy.newProxyInstance(getClass().getClassLoader(),
+                new Class<?>[] {WebDriver.class, JavascriptExecutor.class}, this);
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) {
+            switch (method.getName()) {
+                case "get":
+                    visited.add((String) args[0]);
+                    return null;
+                case "manage":
+                    return Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[] {WebDriver.Options.class}, this);
+                case "getCookies":
+                    return jars.get(Math.min(polls.getAndIncrement(), jars.size() - 1));
+                case "executeScript":
+                    scripts.add((String) args[0]);
+                    return null;
+                case "toString":
+                    return "FakeBrowser";
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "equals":
+                    return proxy == args[0];
+                default:
+                    throw new UnsupportedOperationException(method.getName());
+            }
+        }
+    }
+}
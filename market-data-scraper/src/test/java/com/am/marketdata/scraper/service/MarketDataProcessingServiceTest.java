@@ -0,0 +1,325 @@
+package com.am.marketdata.scraper.service;
+
+import com.am.common.investment.model.equity.MarketIndexIndices;
+import com.am.marketdata.common.model.NSEIndex;
+import com.am.marketdata.common.model.NSEIndicesResponse;
+import com.am.marketdata.common.model.NseETFResponse;
+import com.am.marketdata.common.schedule.MarketScheduleConfig;
+import com.am.marketdata.common.schedule.MarketSessionCalendar;
+import com.am.marketdata.common.testing.MutableClock;
+import com.am.marketdata.common.timeseries.TimeSeriesSink;
+import com.am.marketdata.kafka.config.KafkaPublishingConfig;
+import com.am.marketdata.kafka.producer.KafkaProducerService;
+import com.am.marketdata.kafka.producer.SendBatch;
+import com.am.marketdata.scraper.client.NSEApiClient;
+import com.am.marketdata.scraper.client.ResilientNseExecutor;
+import com.am.marketdata.scraper.config.NseResilienceConfig;
+import com.am.marketdata.scraper.config.PipelineConfig;
+import com.am.marketdata.scraper.model.ContentVersion;
+import com.am.marketdata.scraper.model.NseFetchResult;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MarketDataProcessingServiceTest {
+
+    private static final ContentVersion ETF_VERSION = ContentVersion.builder().contentHash("etf").build();
+
+    private MutableClock clock;
+    private SimpleMeterRegistry meterRegistry;
+    private PipelineConfig pipelineConfig;
+    private StubNseApiClient nseApiClient;
+    private RecordingPersistence persistence;
+    private RecordingKafkaProducer kafkaProducer;
+    private MarketDataProcessingService service;
+
+    @BeforeEach
+    void setUp() {
+        clock = new MutableClock(Instant.parse("2026-10-05T05:00:00Z"));
+        meterRegistry = new SimpleMeterRegistry();
+        pipelineConfig = new PipelineConfig();
+        // One worker per stage, so persist and publish can only overlap if dispatch runs them side by side
+        pipelineConfig.setMap(new PipelineConfig.Stage(1, 1));
+        pipelineConfig.setPersist(new PipelineConfig.Stage(1, 1));
+        pipelineConfig.setPublish(new PipelineConfig.Stage(1, 1));
+        nseApiClient = new StubNseApiClient();
+        persistence = new RecordingPersistence();
+        kafkaProducer = new RecordingKafkaProducer();
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (service != null) {
+            service.shutdown();
+        }
+    }
+
+    @Test
+    void shouldSkipAllDownstreamWorkWhenPayloadIsUnchanged() {
+        // Given one processed payload and then the same content again
+        start();
+        nseApiClient.indices.add(indices("v1", 22000.0));
+        nseApiClient.indices.add(NseFetchResult.unchanged(version("v1")));
+
+        // When
+        service.fetchAndProcessMarketData();
+        service.fetchAndProcessMarketData();
+
+        // Then the second cycle sent the processed version as baseline and did nothing else
+        assertEquals(Arrays.asList(null, version("v1")), nseApiClient.indicesBaselines);
+        assertEquals(1, persistence.indices.size());
+        assertEquals(1, kafkaProducer.indices.size());
+        assertEquals(1.0, skippedCycles("indices"));
+        assertEquals(1.0, successes("indices"));
+    }
+
+    @Test
+    void shouldDropBaselineAfterFullSnapshotInterval() {
+        // Given a processed payload older than the full-snapshot interval
+        start();
+        nseApiClient.indices.add(indices("v1", 22000.0));
+        nseApiClient.indices.add(indices("v1", 22000.0));
+        service.fetchAndProcessMarketData();
+        clock.advance(Duration.ofMinutes(15));
+
+        // When
+        service.fetchAndProcessMarketData();
+
+        // Then no baseline is sent, so the payload is parsed and forwarded in full
+        assertEquals(Arrays.asList(null, null), nseApiClient.indicesBaselines);
+        assertEquals(0.0, skippedCycles("indices"));
+        assertEquals(2, persistence.indices.size());
+        assertEquals(2, kafkaProducer.indices.size());
+    }
+
+    @Test
+    void shouldKeepBaselineWithinFullSnapshotInterval() {
+        start();
+        nseApiClient.indices.add(indices("v1", 22000.0));
+        nseApiClient.indices.add(NseFetchResult.unchanged(version("v1")));
+        service.fetchAndProcessMarketData();
+        clock.advance(Duration.ofMinutes(14));
+
+        service.fetchAndProcessMarketData();
+
+        assertEquals(Arrays.asList(null, version("v1")), nseApiClient.indicesBaselines);
+    }
+
+    @Test
+    void shouldNotRememberVersionOfFailedCycle() {
+        // Given a payload that could not be persisted
+        start();
+        persistence.failure = new IllegalStateException("database unavailable");
+        nseApiClient.indices.add(indices("v1", 22000.0));
+        nseApiClient.indices.add(indices("v1", 22000.0));
+        service.fetchAndProcessMarketData();
+        persistence.failure = null;
+
+        // When
+        service.fetchAndProcessMarketData();
+
+        // Then the next cycle parses it again instead of skipping it as unchanged
+        assertEquals(Arrays.asList(null, null), nseApiClient.indicesBaselines);
+        assertEquals(1, persistence.indices.size());
+        assertEquals(1.0, failures("indices"));
+    }
+
+    @Test
+    void shouldPersistAndPublishConcurrently() {
+        // Given persist and publish that each wait until the other has started
+        CountDownLatch persistStarted = new CountDownLatch(1);
+        CountDownLatch publishStarted = new CountDownLatch(1);
+        List<Boolean> overlapped = new CopyOnWriteArrayList<>();
+        persistence.onSave = () -> {
+            persistStarted.countDown();
+            overlapped.add(await(publishStarted));
+        };
+        kafkaProducer.onSend = () -> {
+            publishStarted.countDown();
+            overlapped.add(await(persistStarted));
+        };
+        start();
+        nseApiClient.indices.add(indices("v1", 22000.0));
+
+        // When
+        service.fetchAndProcessMarketData();
+
+        // Then
+        assertEquals(List.of(true, true), overlapped);
+        assertEquals(1.0, successes("indices"));
+    }
+
+    @Test
+    void shouldCommitFingerprintsAndVersionOnlyWhenPersistAndPublishBothSucceed() {
+        // Given a baseline cycle and then a price move whose publish fails
+        start();
+        nseApiClient.indices.add(indices("v1", 22000.0));
+        nseApiClient.indices.add(indices("v2", 22100.0));
+        nseApiClient.indices.add(indices("v3", 22100.0));
+        service.fetchAndProcessMarketData();
+        kafkaProducer.failure = new IllegalStateException("broker unavailable");
+        service.fetchAndProcessMarketData();
+        kafkaProducer.failure = null;
+
+        // When the same prices arrive again
+        service.fetchAndProcessMarketData();
+
+        // Then they still count as changed, and the failed cycle's version was never used as baseline
+        assertEquals(Arrays.asList(null, version("v1"), version("v1")), nseApiClient.indicesBaselines);
+        assertEquals(3, persistence.indices.size());
+        assertEquals(2, kafkaProducer.indices.size());
+        assertEquals(22100.0, kafkaProducer.indices.get(1).get(0).getMarketData().getLast());
+        assertEquals(1.0, failures("indices"));
+    }
+
+    @Test
+    void shouldForwardOnlyChangedRecordsOnceCommitted() {
+        // Given a committed cycle
+        start();
+        nseApiClient.indices.add(indices("v1", 22000.0));
+        nseApiClient.indices.add(indices("v2", 22000.0));
+        service.fetchAndProcessMarketData();
+
+        // When the payload differs but no tracked price moved
+        service.fetchAndProcessMarketData();
+
+        // Then neither stage runs and the new version becomes the baseline
+        assertEquals(1, persistence.indices.size());
+        assertEquals(1, kafkaProducer.indices.size());
+        assertEquals(2.0, successes("indices"));
+    }
+
+    private void start() {
+        service = new MarketDataProcessingService(nseApiClient,
+            new ResilientNseExecutor(new NseResilienceConfig(), meterRegistry), kafkaProducer, persistence,
+            pipelineConfig, meterRegistry, new StaticListableBeanFactory().getBeanProvider(TimeSeriesSink.class),
+            new MarketSessionCalendar(new MarketScheduleConfig()), clock);
+        ReflectionTestUtils.setField(service, "maxDataAgeMinutes", 15L);
+        ReflectionTestUtils.setField(service, "changeDetectionEnabled", true);
+        ReflectionTestUtils.setField(service, "fullSnapshotIntervalMinutes", 15L);
+        ReflectionTestUtils.setField(service, "contentSkipEnabled", true);
+        ReflectionTestUtils.setField(service, "publishDeliveryTimeoutMs", 5000L);
+        service.initialize();
+    }
+
+    private double skippedCycles(String dataType) {
+        return meterRegistry.counter("market.data.skipped.cycle.count", "data.type", dataType).count();
+    }
+
+    private double successes(String dataType) {
+        return meterRegistry.counter("market.data.success.count", "data.type", dataType).count();
+    }
+
+    private double failures(String dataType) {
+        return meterRegistry.counter("market.data.failure.count", "data.type", dataType).count();
+    }
+
+    private static boolean await(CountDownLatch latch) {
+        try {
+            return latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    private static ContentVersion version(String hash) {
+        return ContentVersion.builder().contentHash(hash).build();
+    }
+
+    private static NseFetchResult<NSEIndicesResponse> indices(String hash, double last) {
+        NSEIndex index = new NSEIndex();
+        index.setKey("BROAD MARKET INDICES");
+        index.setIndex("NIFTY 50");
+        index.setIndexSymbol("NIFTY 50");
+        index.setOpen(21900.0);
+        index.setHigh(22050.0);
+        index.setLow(21850.0);
+        index.setLast(last);
+        index.setPreviousClose(21950.0);
+        NSEIndicesResponse response = new NSEIndicesResponse();
+        response.setData(List.of(index));
+        response.setTimestamp("05-Oct-2026 10:30:00");
+        return NseFetchResult.changed(response, version(hash));
+    }
+
+    /**
+     * Serves queued index results and records the baseline each fetch was made with; ETFs are
+     * always unchanged.
+     */
+    private static final class StubNseApiClient extends NSEApiClient {
+        private final Queue<NseFetchResult<NSEIndicesResponse>> indices = new ConcurrentLinkedQueue<>();
+        private final List<ContentVersion> indicesBaselines = new CopyOnWriteArrayList<>();
+
+        StubNseApiClient() {
+            super(null, null, null, null, null, null, null, null);
+        }
+
+        @Override
+        public CompletableFuture<NseFetchResult<NSEIndicesResponse>> getAllIndicesAsync(ContentVersion lastVersion) {
+            indicesBaselines.add(lastVersion);
+            return CompletableFuture.completedFuture(indices.remove());
+        }
+
+        @Override
+        public CompletableFuture<NseFetchResult<NseETFResponse>> getETFsAsync(ContentVersion lastVersion) {
+            return CompletableFuture.completedFuture(NseFetchResult.unchanged(ETF_VERSION));
+        }
+    }
+
+    private static final class RecordingPersistence extends SnapshotPersistenceService {
+        private final List<List<MarketIndexIndices>> indices = new CopyOnWriteArrayList<>();
+        private volatile RuntimeException failure;
+        private volatile Runnable onSave = () -> { };
+
+        RecordingPersistence() {
+            super(null, null, null, null);
+        }
+
+        @Override
+        public void saveIndices(List<MarketIndexIndices> batch) {
+            onSave.run();
+            if (failure != null) {
+                throw failure;
+            }
+            indices.add(new ArrayList<>(batch));
+        }
+    }
+
+    private static final class RecordingKafkaProducer extends KafkaProducerService {
+        private final List<List<MarketIndexIndices>> indices = new CopyOnWriteArrayList<>();
+        private volatile RuntimeException failure;
+        private volatile Runnable onSend = () -> { };
+
+        RecordingKafkaProducer() {
+            super(null, new KafkaPublishingConfig());
+        }
+
+        @Override
+        public SendBatch sendIndicesUpdate(List<MarketIndexIndices> batch) {
+            onSend.run();
+            if (failure != null) {
+                throw failure;
+            }
+            indices.add(new ArrayList<>(batch));
+            return SendBatch.empty("recorded");
+        }
+    }
+}
@@ -0,0 +1,86 @@
+package com.am.marketdata.scraper.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PipelineStageTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private PipelineStage stage;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        stage = new PipelineStage("persist", 1, 1, meterRegistry);
+    }
+
+    @AfterEach
+    void tearDown() {
+        stage.shutdown();
+    }
+
+    @Test
+    void shouldRunTaskOnCallerWhenQueueIsFull() throws Exception {
+        // Given the only worker is busy and the one queue slot is taken
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch started = new CountDownLatch(1);
+        CompletableFuture<Void> running = stage.run(() -> {
+            started.countDown();
+            await(release);
+        });
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        AtomicReference<Thread> queuedOn = new AtomicReference<>();
+        CompletableFuture<Void> queued = stage.run(() -> queuedOn.set(Thread.currentThread()));
+        assertEquals(1.0, queueDepth());
+
+        // When
+        AtomicReference<Thread> overflowOn = new AtomicReference<>();
+        CompletableFuture<Void> overflow = stage.run(() -> overflowOn.set(Thread.currentThread()));
+
+        // Then the submitter ran the overflow itself, before the queued task got a worker
+        assertTrue(overflow.isDone());
+        assertSame(Thread.currentThread(), overflowOn.get());
+        assertFalse(queued.isDone());
+        release.countDown();
+        CompletableFuture.allOf(running, queued).get(5, TimeUnit.SECONDS);
+        assertTrue(queuedOn.get().getName().startsWith("market-data-persist-"));
+        assertEquals(0.0, queueDepth());
+    }
+
+    @Test
+    void shouldCompleteWithTaskResult() throws Exception {
+        assertEquals("mapped", stage.submit(() -> "mapped").get(5, TimeUnit.SECONDS));
+        assertEquals(1, meterRegistry.get("market.data.pipeline.stage.time").tag("stage", "persist").timer().count());
+    }
+
+    @Test
+    void shouldCompleteExceptionallyWhenTaskFails() {
+        CompletableFuture<Void> failed = stage.run(() -> {
+            throw new IllegalStateException("database unavailable");
+        });
+
+        Exception thrown = assertThrows(Exception.class, () -> failed.get(5, TimeUnit.SECONDS));
+        assertInstanceOf(IllegalStateException.class, thrown.getCause());
+    }
+
+    private double queueDepth() {
+        return meterRegistry.get("market.data.pipeline.queue.depth").tag("stage", "persist").gauge().value();
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            assertTrue(latch.await(5, TimeUnit.SECONDS));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
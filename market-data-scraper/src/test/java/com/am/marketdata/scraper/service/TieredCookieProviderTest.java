@@ -0,0 +1,153 @@
+package com.am.marketdata.scraper.service;
+
+import com.am.marketdata.scraper.client.NseSessionHandshake;
+import com.am.marketdata.scraper.config.CookieProviderConfig;
+import com.am.marketdata.scraper.config.NseHttpClientConfig;
+import com.am.marketdata.scraper.exception.CookieException;
+import com.am.marketdata.scraper.model.CookieInfo;
+import com.am.marketdata.scraper.model.WebsiteCookies;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TieredCookieProviderTest {
+
+    private HttpServer server;
+    private String baseUrl;
+    private CookieProviderConfig providerConfig;
+    private SimpleMeterRegistry meterRegistry;
+    private StubBrowser browser;
+    private TieredCookieProvider provider;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+        server.start();
+        baseUrl = "http://localhost:" + server.getAddress().getPort();
+
+        providerConfig = new CookieProviderConfig();
+        providerConfig.setHandshakePaths(List.of("/"));
+        providerConfig.setRequestTimeoutMs(5000);
+        NseHttpClientConfig clientConfig = new NseHttpClientConfig();
+        clientConfig.setHttp2Enabled(false);
+        meterRegistry = new SimpleMeterRegistry();
+        browser = new StubBrowser();
+
+        provider = new TieredCookieProvider(new NseSessionHandshake(providerConfig, clientConfig, baseUrl),
+            new StaticListableBeanFactory(Map.of("cookieScraperService", browser)).getBeanProvider(CookieScraperService.class),
+            providerConfig, meterRegistry);
+        ReflectionTestUtils.setField(provider, "baseUrl", baseUrl);
+    }
+
+    @AfterEach
+    void tearDown() {
+        server.stop(0);
+    }
+
+    @Test
+    void shouldUseHandshakeWithoutTouchingBrowser() {
+        // Given
+        homePage(200, "nsit=abc", "nseappid=xyz");
+        validateRequiring("nsit=abc; nseappid=xyz");
+
+        // When
+        List<CookieInfo> cookies = provider.acquire();
+
+        // Then
+        assertEquals(2, cookies.size());
+        assertTrue(browser.urls.isEmpty());
+        assertEquals(1.0, count("http", "success"));
+    }
+
+    @Test
+    void shouldFallBackToBrowserWhenHandshakeFails() {
+        // Given a home page that refuses plain HTTP clients and a browser that gets through
+        homePage(403);
+        validateRequiring("nsit=browser; nseappid=browser");
+        browser.cookies = List.of(cookie("nsit", "browser"), cookie("nseappid", "browser"));
+
+        // When
+        List<CookieInfo> cookies = provider.acquire();
+
+        // Then
+        assertEquals(browser.cookies, cookies);
+        assertEquals(List.of(baseUrl + "/"), browser.urls);
+        assertEquals(1.0, count("http", "failure"));
+        assertEquals(1.0, count("browser", "success"));
+    }
+
+    @Test
+    void shouldRejectBrowserCookiesThatFailValidation() {
+        homePage(403);
+        validateRequiring("nsit=fresh; nseappid=fresh");
+        browser.cookies = List.of(cookie("nsit", "stale"), cookie("nseappid", "stale"));
+
+        assertThrows(CookieException.class, provider::acquire);
+        assertEquals(1.0, count("browser", "failure"));
+    }
+
+    @Test
+    void shouldNotFallBackWhenBrowserTierIsDisabled() {
+        providerConfig.setBrowserFallbackEnabled(false);
+        homePage(403);
+
+        assertThrows(CookieException.class, provider::acquire);
+        assertTrue(browser.urls.isEmpty());
+    }
+
+    private double count(String tier, String outcome) {
+        return meterRegistry.counter("nse.cookie.acquire.count", "tier", tier, "outcome", outcome).count();
+    }
+
+    private void homePage(int status, String... setCookies) {
+        server.createContext("/", exchange -> {
+            for (String setCookie : setCookies) {
+                exchange.getResponseHeaders().add("Set-Cookie", setCookie);
+            }
+            reply(exchange, status);
+        });
+    }
+
+    private void validateRequiring(String cookieHeader) {
+        server.createContext("/api/marketStatus", exchange ->
+            reply(exchange, cookieHeader.equals(exchange.getRequestHeaders().getFirst("Cookie")) ? 200 : 401));
+    }
+
+    private static void reply(HttpExchange exchange, int status) throws IOException {
+        exchange.sendResponseHeaders(status, -1);
+        exchange.close();
+    }
+
+    private static CookieInfo cookie(String name, String value) {
+        return CookieInfo.builder().name(name).value(value).build();
+    }
+
+    private static final class StubBrowser extends CookieScraperService {
+        private final List<String> urls = new ArrayList<>();
+        private List<CookieInfo> cookies = List.of();
+
+        StubBrowser() {
+            super(null, null, null, null);
+        }
+
+        @Override
+        public WebsiteCookies scrapeCookies(String url) {
+            urls.add(url);
+            return WebsiteCookies.builder().websiteUrl(url).cookies(cookies).build();
+        }
+    }
+}
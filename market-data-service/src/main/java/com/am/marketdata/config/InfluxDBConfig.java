@@ -21,8 +21,15 @@ public class InfluxDBConfig {
     @Value("${spring.influx.bucket}")
     private String bucket;
 
+    @Value("${spring.influx.gzip:true}")
+    private boolean gzip;
+
     @Bean
     public InfluxDBClient influxDBClient() {
-        return InfluxDBClientFactory.create(url, token.toCharArray(), org, bucket);
+        InfluxDBClient client = InfluxDBClientFactory.create(url, token.toCharArray(), org, bucket);
+        if (gzip) {
+            client.enableGzip();
+        }
+        return client;
     }
 }
@@ -2,33 +2,125 @@ package com.am.marketdata.service;
 
 import com.am.common.investment.model.equity.EquityPrice;
 import com.am.common.investment.service.EquityService;
+import com.am.marketdata.common.cache.ChangeDetector;
+import com.am.marketdata.common.timeseries.TimeSeriesSink;
 import com.am.marketdata.kafka.producer.KafkaProducerService;
 import com.am.marketdata.upstock.adapter.UpStockAdapter;
+import com.am.marketdata.upstock.mapper.EquityStockMapper;
 import io.micrometer.core.instrument.MeterRegistry;
 import io.micrometer.core.instrument.Timer;
-import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 import org.springframework.stereotype.Service;
-import jakarta.transaction.Transactional;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
 
+import java.time.Duration;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Semaphore;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
 
 @Slf4j
 @Service
-@RequiredArgsConstructor
 public class EquityPriceProcessingService {
     private final UpStockAdapter upStockAdapter;
-    private final EquityService equityService;
+    private final Consumer<List<EquityPrice>> priceStore;
     private final KafkaProducerService kafkaProducerService;
     private final MeterRegistry meterRegistry;
+    private final PlatformTransactionManager transactionManager;
+    private final TimeSeriesSink timeSeriesSink;
+    private final EquityStockMapper equityStockMapper;
 
-    private static final int BATCH_SIZE = 50;
     private static final String NSE_PREFIX = "NSE_EQ|";
+    private static final String THREAD_PREFIX = "equity-price-";
+    private static final String TAG_MODE = "mode";
 
-    @Transactional
+    @Value("${market.data.equity.concurrent.enabled:true}")
+    private boolean concurrentEnabled;
+
+    @Value("${market.data.equity.parallelism:4}")
+    private int parallelism;
+
+    @Value("${market.data.equity.max.inflight.chunks:8}")
+    private int maxInFlightChunks;
+
+    @Value("${market.data.change.detection.enabled:true}")
+    private boolean changeDetectionEnabled;
+
+    @Value("${market.data.full.snapshot.interval.minutes:15}")
+    private long fullSnapshotIntervalMinutes;
+
+    @Value("${market.data.publish.delivery.timeout.ms:30000}")
+    private long publishDeliveryTimeoutMs;
+
+    private ThreadPoolTaskExecutor executor;
+    private TransactionTemplate transactionTemplate;
+    private ChangeDetector<EquityPrice> changeDetector;
+
+    @Autowired
+    public EquityPriceProcessingService(UpStockAdapter upStockAdapter, EquityService equityService,
+                                        KafkaProducerService kafkaProducerService, MeterRegistry meterRegistry,
+                                        PlatformTransactionManager transactionManager, TimeSeriesSink timeSeriesSink,
+                                        EquityStockMapper equityStockMapper) {
+        this(upStockAdapter, equityService::saveAllPrices, kafkaProducerService,
+            meterRegistry, transactionManager, timeSeriesSink, equityStockMapper);
+    }
+
+    // Tests pass a store for saved prices in place of the shared equity service
+    EquityPriceProcessingService(UpStockAdapter upStockAdapter, Consumer<List<EquityPrice>> priceStore,
+                                 KafkaProducerService kafkaProducerService, MeterRegistry meterRegistry,
+                                 PlatformTransactionManager transactionManager, TimeSeriesSink timeSeriesSink,
+                                 EquityStockMapper equityStockMapper) {
+        this.upStockAdapter = upStockAdapter;
+        this.priceStore = priceStore;
+        this.kafkaProducerService = kafkaProducerService;
+        this.meterRegistry = meterRegistry;
+        this.transactionManager = transactionManager;
+        this.timeSeriesSink = timeSeriesSink;
+        this.equityStockMapper = equityStockMapper;
+    }
+
+    @PostConstruct
+    public void initialize() {
+        transactionTemplate = new TransactionTemplate(transactionManager);
+        changeDetector = new ChangeDetector<>(
+            price -> price.getIsin() != null ? price.getIsin() : price.getSymbol(),
+            price -> Arrays.asList(price.getOpen(), price.getHigh(), price.getLow(), price.getClose(), price.getVolume()),
+            Duration.ofMinutes(fullSnapshotIntervalMinutes));
+        if (!concurrentEnabled || parallelism <= 1) {
+            log.info("Equity price processing running in sequential mode");
+            return;
+        }
+        executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(parallelism);
+        executor.setMaxPoolSize(parallelism);
+        executor.setThreadNamePrefix(THREAD_PREFIX);
+        executor.initialize();
+        log.info("Equity price processing running in concurrent mode with parallelism: {}", parallelism);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (executor != null) {
+            executor.shutdown();
+            log.info("Shutting down equity price thread pool");
+        }
+    }
+
+    /**
+     * Fetches, persists and publishes the whole universe as one cycle. Each batch is saved in its
+     * own transaction as it arrives; Kafka events go out only once every batch has succeeded.
+     */
     public boolean processEquityPrices(List<String> isins) {
         if (isins.isEmpty()) {
             log.warn("No stocks found to process");
@@ -36,51 +128,40 @@ public class EquityPriceProcessingService {
         }
 
         Timer.Sample processingTimer = Timer.start(meterRegistry);
-        
+        Timer.Sample cycleTimer = Timer.start(meterRegistry);
+        ChangeDetector<EquityPrice>.Cycle cycle = changeDetector.startCycle();
+        boolean processed = false;
+
         try {
             // Format ISINs with NSE prefix
             Set<String> formattedIsins = formatIsins(isins);
             
             // Process in batches
-            List<List<String>> batches = partition(formattedIsins.stream().toList(), BATCH_SIZE);
+            List<List<String>> batches = partition(formattedIsins.stream().toList(), upStockAdapter.getBatchSize());
             log.info("Processing {} stocks in {} batches", isins.size(), batches.size());
 
-            List<EquityPrice> allUpdatedStocks = new ArrayList<>();
-            boolean hasErrors = false;
-
             // Track metrics for batch processing
             meterRegistry.counter("equity.price.batch.total").increment(batches.size());
 
-            for (List<String> batch : batches) {
-                try {
-                    Timer.Sample batchTimer = Timer.start(meterRegistry);
-                    var equityPrices = upStockAdapter.getStocksOHLC(batch);
-                    
-                    if (!equityPrices.isEmpty()) {
-                        equityService.saveAllPrices(equityPrices);
-                        allUpdatedStocks.addAll(equityPrices);
-                        meterRegistry.counter("equity.price.batch.success").increment();
-                    } else {
-                        log.warn("Received empty response for batch. Skipping Kafka event.");
-                        meterRegistry.counter("equity.price.batch.empty").increment();
-                        hasErrors = true;
-                    }
-                    
-                    batchTimer.stop(meterRegistry.timer("equity.price.batch.processing.time"));
-                } catch (Exception e) {
-                    log.error("Error processing batch: {}", e.getMessage(), e);
-                    meterRegistry.counter("equity.price.batch.error").increment();
-                    hasErrors = true;
-                }
+            List<BatchResult> results = executor != null
+                ? processBatchesConcurrently(batches, cycle)
+                : batches.stream().map(batch -> processBatch(batch, cycle)).toList();
+
+            List<EquityPrice> allStocks = new ArrayList<>();
+            List<EquityPrice> changedStocks = new ArrayList<>();
+            boolean hasErrors = false;
+            for (BatchResult result : results) {
+                allStocks.addAll(result.prices());
+                changedStocks.addAll(result.changed());
+                hasErrors |= result.failed();
             }
 
             // Send Kafka events if we have data and no errors occurred
-            if (!allUpdatedStocks.isEmpty() && !hasErrors) {
-                log.info("Sending Kafka events for {} updated stocks", allUpdatedStocks.size());
-                kafkaProducerService.sendEquityPriceUpdates(allUpdatedStocks);
-                meterRegistry.counter("equity.price.kafka.events.sent").increment();
-                processingTimer.stop(meterRegistry.timer("equity.price.total.processing.time"));
-                return true;
+            if (!allStocks.isEmpty() && !hasErrors) {
+                log.info("Sending Kafka events for {} stocks, {} changed", allStocks.size(), changedStocks.size());
+                publish(changedStocks);
+                cycle.commit(changedStocks);
+                processed = true;
             } else {
                 log.warn("Skipping Kafka events due to errors or no data");
                 meterRegistry.counter("equity.price.kafka.events.skipped").increment();
@@ -91,8 +172,178 @@ public class EquityPriceProcessingService {
             meterRegistry.counter("equity.price.processing.error").increment();
         }
         
+        cycle.finish(processed);
         processingTimer.stop(meterRegistry.timer("equity.price.total.processing.time"));
-        return false;
+        cycleTimer.stop(meterRegistry.timer("equity.price.cycle.time",
+            TAG_MODE, executor != null ? "concurrent" : "sequential"));
+        return processed;
+    }
+
+    /**
+     * Streams the ISIN universe through fetch, persist and publish one chunk at a time.
+     * Each chunk is saved in its own short transaction and published as soon as it is
+     * persisted, and at most {@code maxInFlightChunks} chunks are held in memory at once.
+     * All chunks share one change-detection cycle, so a due full snapshot covers every chunk.
+     */
+    public boolean processEquityPricesStreaming(List<String> isins) {
+        if (isins.isEmpty()) {
+            log.warn("No stocks found to process");
+            return false;
+        }
+
+        Timer.Sample cycleTimer = Timer.start(meterRegistry);
+        ChangeDetector<EquityPrice>.Cycle cycle = changeDetector.startCycle();
+        log.info("Streaming {} stocks, starting chunk size {}, full snapshot: {}",
+            isins.size(), upStockAdapter.getBatchSize(), cycle.isFullSnapshot());
+
+        Semaphore window = new Semaphore(Math.max(1, maxInFlightChunks));
+        List<CompletableFuture<Boolean>> chunkResults = new ArrayList<>();
+        int streamed = 0;
+        try {
+            // The chunk size is re-read per chunk so it follows the governor as it adapts
+            for (int from = 0; from < isins.size(); from = streamed) {
+                streamed = Math.min(from + upStockAdapter.getBatchSize(), isins.size());
+                meterRegistry.counter("equity.price.batch.total").increment();
+                List<String> chunk = formatChunk(isins.subList(from, streamed));
+                if (executor == null) {
+                    chunkResults.add(CompletableFuture.completedFuture(processChunk(chunk, cycle)));
+                    continue;
+                }
+                window.acquire();
+                chunkResults.add(CompletableFuture.supplyAsync(() -> processChunk(chunk, cycle), executor)
+                    .whenComplete((result, ex) -> window.release()));
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            log.warn("Interrupted while streaming equity price chunks");
+        }
+
+        long failedChunks = chunkResults.stream()
+            .map(CompletableFuture::join)
+            .filter(success -> !success)
+            .count();
+
+        boolean succeeded = failedChunks == 0 && streamed == isins.size();
+        cycle.finish(succeeded);
+        cycleTimer.stop(meterRegistry.timer("equity.price.cycle.time", TAG_MODE, "streaming"));
+        log.info("Streamed {} chunks, {} failed", chunkResults.size(), failedChunks);
+        return succeeded;
+    }
+
+    private boolean processChunk(List<String> chunk, ChangeDetector<EquityPrice>.Cycle cycle) {
+        try {
+            Timer.Sample batchTimer = Timer.start(meterRegistry);
+            List<EquityPrice> equityPrices = upStockAdapter.getStocksOHLC(chunk);
+
+            if (equityPrices.isEmpty()) {
+                log.warn("Received empty response for chunk. Skipping Kafka event.");
+                meterRegistry.counter("equity.price.batch.empty").increment();
+                return false;
+            }
+
+            List<EquityPrice> changed = filterChanged(equityPrices, cycle);
+            if (!changed.isEmpty()) {
+                transactionTemplate.executeWithoutResult(status -> priceStore.accept(changed));
+                timeSeriesSink.write(equityStockMapper.getTimeSeriesPoints(changed));
+            }
+            meterRegistry.counter("equity.price.batch.success").increment();
+
+            publish(changed);
+            // Only now that the chunk is persisted and acknowledged are its prices remembered
+            cycle.commit(changed);
+
+            batchTimer.stop(meterRegistry.timer("equity.price.batch.processing.time"));
+            return true;
+        } catch (Exception e) {
+            log.error("Error processing chunk: {}", e.getMessage(), e);
+            meterRegistry.counter("equity.price.batch.error").increment();
+            return false;
+        }
+    }
+
+    /**
+     * Publishes and waits for the broker to acknowledge every record, so a failed send fails
+     * the chunk or cycle instead of being lost after the method returns. Only changed prices are
+     * sent, which on a full-snapshot cycle is every fetched price; a quiet cycle sends nothing.
+     */
+    private void publish(List<EquityPrice> changed) {
+        if (changed.isEmpty()) {
+            meterRegistry.counter("equity.price.kafka.events.unchanged").increment();
+            return;
+        }
+        kafkaProducerService.sendEquityPriceUpdates(changed)
+            .awaitDelivery(Duration.ofMillis(publishDeliveryTimeoutMs));
+        meterRegistry.counter("equity.price.kafka.events.sent").increment();
+    }
+
+    private List<EquityPrice> filterChanged(List<EquityPrice> equityPrices, ChangeDetector<EquityPrice>.Cycle cycle) {
+        if (!changeDetectionEnabled) {
+            return equityPrices;
+        }
+        List<EquityPrice> changed = cycle.filterChanged(equityPrices);
+        meterRegistry.counter("equity.price.unchanged.suppressed").increment(equityPrices.size() - changed.size());
+        return changed;
+    }
+
+    private List<String> formatChunk(List<String> isins) {
+        return isins.stream()
+            .map(isin -> NSE_PREFIX + isin)
+            .toList();
+    }
+
+    private List<BatchResult> processBatchesConcurrently(List<List<String>> batches, ChangeDetector<EquityPrice>.Cycle cycle) {
+        // Fetches go out through the async client without holding a thread; the pool size bounds
+        // how many batches are persisted at once and the rest wait in the executor queue
+        List<CompletableFuture<BatchResult>> futures = batches.stream()
+            .map(batch -> processBatchAsync(batch, cycle))
+            .toList();
+
+        CompletableFuture.allOf(futures.toArray(new CompletableFuture[0])).join();
+        return futures.stream().map(CompletableFuture::join).toList();
+    }
+
+    private CompletableFuture<BatchResult> processBatchAsync(List<String> batch, ChangeDetector<EquityPrice>.Cycle cycle) {
+        Timer.Sample batchTimer = Timer.start(meterRegistry);
+        return upStockAdapter.getStocksOHLCAsync(batch)
+            .thenApplyAsync(equityPrices -> storeBatch(equityPrices, cycle, batchTimer), executor)
+            .exceptionally(this::batchFailed);
+    }
+
+    private BatchResult processBatch(List<String> batch, ChangeDetector<EquityPrice>.Cycle cycle) {
+        Timer.Sample batchTimer = Timer.start(meterRegistry);
+        try {
+            return storeBatch(upStockAdapter.getStocksOHLC(batch), cycle, batchTimer);
+        } catch (Exception e) {
+            return batchFailed(e);
+        }
+    }
+
+    private BatchResult storeBatch(List<EquityPrice> equityPrices, ChangeDetector<EquityPrice>.Cycle cycle,
+            Timer.Sample batchTimer) {
+        BatchResult result;
+        if (!equityPrices.isEmpty()) {
+            var changedPrices = filterChanged(equityPrices, cycle);
+            if (!changedPrices.isEmpty()) {
+                transactionTemplate.executeWithoutResult(status -> priceStore.accept(changedPrices));
+                timeSeriesSink.write(equityStockMapper.getTimeSeriesPoints(changedPrices));
+            }
+            meterRegistry.counter("equity.price.batch.success").increment();
+            result = new BatchResult(equityPrices, changedPrices, false);
+        } else {
+            log.warn("Received empty response for batch. Skipping Kafka event.");
+            meterRegistry.counter("equity.price.batch.empty").increment();
+            result = new BatchResult(List.of(), List.of(), true);
+        }
+
+        batchTimer.stop(meterRegistry.timer("equity.price.batch.processing.time"));
+        return result;
+    }
+
+    private BatchResult batchFailed(Throwable e) {
+        Throwable cause = e instanceof CompletionException && e.getCause() != null ? e.getCause() : e;
+        log.error("Error processing batch: {}", cause.getMessage(), cause);
+        meterRegistry.counter("equity.price.batch.error").increment();
+        return new BatchResult(List.of(), List.of(), true);
     }
 
     private Set<String> formatIsins(List<String> isins) {
@@ -102,10 +353,13 @@ public class EquityPriceProcessingService {
     }
 
     private <T> List<List<T>> partition(List<T> list, int size) {
-        return list.stream()
-            .collect(Collectors.groupingBy(item -> list.indexOf(item) / size))
-            .values()
-            .stream()
-            .toList();
+        List<List<T>> batches = new ArrayList<>((list.size() + size - 1) / size);
+        for (int from = 0; from < list.size(); from += size) {
+            batches.add(list.subList(from, Math.min(from + size, list.size())));
+        }
+        return batches;
+    }
+
+    private record BatchResult(List<EquityPrice> prices, List<EquityPrice> changed, boolean failed) {
     }
 }
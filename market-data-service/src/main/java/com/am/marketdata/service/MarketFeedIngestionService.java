@@ -0,0 +1,216 @@
+package com.am.marketdata.service;
+
+import com.am.common.amcommondata.service.AssetService;
+import com.am.common.investment.model.equity.EquityPrice;
+import com.am.common.investment.service.EquityService;
+import com.am.marketdata.common.cache.ChangeDetector;
+import com.am.marketdata.common.timeseries.TimeSeriesSink;
+import com.am.marketdata.kafka.producer.KafkaProducerService;
+import com.am.marketdata.upstock.adapter.UpStockAdapter;
+import com.am.marketdata.upstock.config.UpstoxFeedConfig;
+import com.am.marketdata.upstock.feed.UpstoxMarketFeedClient;
+import com.am.marketdata.upstock.mapper.EquityStockMapper;
+import com.am.marketdata.upstock.model.MarketFeedTick;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Streaming alternative to OHLC polling. Subscribes the ISIN universe on the Upstox market
+ * feed, keeps only the latest tick per instrument and flushes them to the database and Kafka
+ * on a short interval, so writes stay batched however fast ticks arrive. Ticks that leave an
+ * instrument's prices as they were last flushed are dropped, as on the polling path.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class MarketFeedIngestionService {
+    private final UpstoxFeedConfig feedConfig;
+    private final UpstoxMarketFeedClient feedClient;
+    private final UpStockAdapter upStockAdapter;
+    private final AssetService assetService;
+    private final EquityStockMapper equityStockMapper;
+    private final EquityService equityService;
+    private final KafkaProducerService kafkaProducerService;
+    private final TimeSeriesSink timeSeriesSink;
+    private final MeterRegistry meterRegistry;
+
+    private static final String NSE_PREFIX = "NSE_EQ|";
+
+    @Value("${market.data.publish.delivery.timeout.ms:30000}")
+    private long publishDeliveryTimeoutMs;
+
+    @Value("${market.data.change.detection.enabled:true}")
+    private boolean changeDetectionEnabled;
+
+    @Value("${market.data.full.snapshot.interval.minutes:15}")
+    private long fullSnapshotIntervalMinutes;
+
+    private final Map<String, MarketFeedTick> pendingTicks = new ConcurrentHashMap<>();
+    private ScheduledExecutorService flushScheduler;
+    private ChangeDetector<EquityPrice> changeDetector;
+
+    @PostConstruct
+    public void initialize() {
+        if (!feedConfig.isEnabled()) {
+            log.info("Upstox market feed ingestion disabled, equity prices are polled");
+            return;
+        }
+        changeDetector = new ChangeDetector<>(
+            price -> price.getIsin() != null ? price.getIsin() : price.getSymbol(),
+            price -> Arrays.asList(price.getOpen(), price.getHigh(), price.getLow(), price.getClose(), price.getVolume()),
+            Duration.ofMinutes(fullSnapshotIntervalMinutes));
+        try {
+            flushScheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "upstox-feed-flush");
+                thread.setDaemon(true);
+                return thread;
+            });
+            List<String> isins = assetService.findDistinctIsins();
+            // Runs ahead of the first flush on the same thread, so flushed prices carry their symbol
+            flushScheduler.execute(() -> resolveSymbols(isins));
+            flushScheduler.scheduleWithFixedDelay(this::flush,
+                feedConfig.getFlushIntervalMs(), feedConfig.getFlushIntervalMs(), TimeUnit.MILLISECONDS);
+            flushScheduler.scheduleWithFixedDelay(this::refreshSubscriptions, feedConfig.getSubscriptionRefreshIntervalMs(),
+                feedConfig.getSubscriptionRefreshIntervalMs(), TimeUnit.MILLISECONDS);
+
+            feedClient.subscribe(toInstrumentKeys(isins));
+            feedClient.start(this::onTicks);
+        } catch (Exception e) {
+            log.error("Failed to start market feed ingestion: {}", e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Stops the feed, waits for a flush already under way, then flushes what is left, so the
+     * last ticks are written once and in order.
+     */
+    @PreDestroy
+    public void shutdown() {
+        if (flushScheduler == null) {
+            return;
+        }
+        log.info("Shutting down market feed ingestion");
+        feedClient.stop();
+        flushScheduler.shutdown();
+        try {
+            if (!flushScheduler.awaitTermination(feedConfig.getFlushIntervalMs() + publishDeliveryTimeoutMs, TimeUnit.MILLISECONDS)) {
+                log.warn("Market feed flush still running at shutdown, {} pending prices are dropped", pendingTicks.size());
+                return;
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return;
+        }
+        flush();
+    }
+
+    /**
+     * True while the feed is connected, in which case polling the OHLC endpoint is redundant.
+     */
+    public boolean isStreaming() {
+        return feedConfig.isEnabled() && feedClient.isConnected();
+    }
+
+    private void resolveSymbols(List<String> isins) {
+        try {
+            upStockAdapter.resolveSymbols(isins);
+        } catch (Exception e) {
+            log.warn("Failed to resolve trading symbols, feed prices are published without them: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Brings the subscriptions in line with the asset store, so instruments added or removed
+     * since startup are picked up without a restart.
+     */
+    private void refreshSubscriptions() {
+        try {
+            List<String> isins = assetService.findDistinctIsins();
+            // Only instruments without a known symbol are looked up
+            resolveSymbols(isins);
+            feedClient.syncSubscriptions(toInstrumentKeys(isins));
+        } catch (Exception e) {
+            log.warn("Failed to refresh market feed subscriptions: {}", e.getMessage());
+        }
+    }
+
+    private static List<String> toInstrumentKeys(List<String> isins) {
+        return isins.stream()
+            .map(isin -> NSE_PREFIX + isin)
+            .toList();
+    }
+
+    private void onTicks(List<MarketFeedTick> ticks) {
+        meterRegistry.counter("upstox.feed.ticks").increment(ticks.size());
+        for (MarketFeedTick tick : ticks) {
+            pendingTicks.put(tick.getInstrumentKey(), tick);
+        }
+    }
+
+    private void flush() {
+        if (pendingTicks.isEmpty()) {
+            return;
+        }
+        List<MarketFeedTick> drained = new ArrayList<>(pendingTicks.size());
+        List<EquityPrice> prices = new ArrayList<>(pendingTicks.size());
+        for (String instrumentKey : pendingTicks.keySet()) {
+            MarketFeedTick tick = pendingTicks.remove(instrumentKey);
+            if (tick != null && tick.getLastPrice() != null) {
+                drained.add(tick);
+                prices.add(equityStockMapper.getEquityPriceByTick(tick));
+            }
+        }
+        ChangeDetector<EquityPrice>.Cycle cycle = changeDetector.startCycle();
+        List<EquityPrice> changed = changeDetectionEnabled ? cycle.filterChanged(prices) : prices;
+        meterRegistry.counter("upstox.feed.unchanged.suppressed").increment(prices.size() - changed.size());
+        if (changed.isEmpty()) {
+            cycle.finish(true);
+            return;
+        }
+        // Ticks go to the time-series store first; it buffers without blocking this thread
+        timeSeriesSink.write(equityStockMapper.getTimeSeriesPoints(changed));
+
+        Timer.Sample flushTimer = Timer.start(meterRegistry);
+        boolean flushed = false;
+        try {
+            equityService.saveAllPrices(changed);
+            kafkaProducerService.sendEquityPriceUpdates(changed)
+                .awaitDelivery(Duration.ofMillis(publishDeliveryTimeoutMs));
+            cycle.commit(changed);
+            flushed = true;
+            meterRegistry.counter("upstox.feed.flushed").increment(changed.size());
+        } catch (Exception e) {
+            log.error("Failed to flush {} market feed prices: {}", changed.size(), e.getMessage(), e);
+            meterRegistry.counter("upstox.feed.flush.error").increment();
+            requeue(drained);
+        }
+        cycle.finish(flushed);
+        flushTimer.stop(meterRegistry.timer("upstox.feed.flush.time"));
+    }
+
+    /**
+     * Puts ticks from a failed flush back so the next flush retries them, unless a newer tick for
+     * the same instrument has arrived in the meantime.
+     */
+    private void requeue(List<MarketFeedTick> ticks) {
+        for (MarketFeedTick tick : ticks) {
+            pendingTicks.putIfAbsent(tick.getInstrumentKey(), tick);
+        }
+    }
+}
@@ -1,29 +1,51 @@
 package com.am.marketdata.service;
 
-import jakarta.transaction.Transactional;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import java.util.List;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
 import com.am.common.amcommondata.service.AssetService;
+import com.am.marketdata.common.schedule.MarketSession;
+import com.am.marketdata.common.schedule.ScheduledFeed;
 
 @Slf4j
 @Service
 @RequiredArgsConstructor
-public class StockDataSchedulerService {
+public class StockDataSchedulerService implements ScheduledFeed {
     private final AssetService assetService;
     private final EquityPriceProcessingService equityPriceProcessingService;
+    private final MarketFeedIngestionService marketFeedIngestionService;
 
-    @Transactional
+    @Value("${market.data.equity.streaming.enabled:true}")
+    private boolean streamingEnabled;
+
+    @Override
+    public String getName() {
+        return "equity-prices";
+    }
+
+    @Override
+    public void run(MarketSession session) {
+        fetchAndPersistStockData();
+    }
+
+    // No surrounding transaction: the streaming path commits each chunk on its own
     public void fetchAndPersistStockData() {
+        if (marketFeedIngestionService.isStreaming()) {
+            log.debug("Market feed is streaming prices, skipping OHLC poll");
+            return;
+        }
         log.info("=== Starting scheduled stock data fetch and persist job ===");
         try {
             List<String> isins = assetService.findDistinctIsins();
-            boolean success = equityPriceProcessingService.processEquityPrices(isins);
+            boolean success = streamingEnabled
+                ? equityPriceProcessingService.processEquityPricesStreaming(isins)
+                : equityPriceProcessingService.processEquityPrices(isins);
             log.info("=== Completed scheduled stock data fetch and persist job. Success: {} ===", success);
         } catch (Exception e) {
             log.error("Error in stock data scheduler: {}", e.getMessage(), e);
         }
     }
-}
\ No newline at end of file
+}
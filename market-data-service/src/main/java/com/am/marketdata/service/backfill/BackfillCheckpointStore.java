@@ -0,0 +1,59 @@
+package com.am.marketdata.service.backfill;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Append-only record of completed backfill chunks. A line is written only after the chunk's
+ * candles are stored, so after a crash at most the chunks that were in flight are fetched again.
+ */
+@Slf4j
+public class BackfillCheckpointStore {
+    private final Path file;
+    private final Set<String> completed = ConcurrentHashMap.newKeySet();
+
+    public BackfillCheckpointStore(Path file) {
+        this.file = file;
+        load();
+    }
+
+    public boolean isCompleted(String chunkKey) {
+        return completed.contains(chunkKey);
+    }
+
+    public synchronized void markCompleted(String chunkKey) {
+        try {
+            Files.writeString(file, chunkKey + System.lineSeparator(), StandardCharsets.UTF_8,
+                StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+            completed.add(chunkKey);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to write backfill checkpoint " + file, e);
+        }
+    }
+
+    public int size() {
+        return completed.size();
+    }
+
+    private void load() {
+        if (!Files.exists(file)) {
+            return;
+        }
+        try (var lines = Files.lines(file, StandardCharsets.UTF_8)) {
+            lines.map(String::trim)
+                .filter(line -> !line.isEmpty())
+                .forEach(completed::add);
+            log.info("Loaded {} completed backfill chunks from {}", completed.size(), file);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to read backfill checkpoint " + file, e);
+        }
+    }
+}
@@ -0,0 +1,219 @@
+package com.am.marketdata.service.backfill;
+
+import com.am.common.amcommondata.service.AssetService;
+import com.am.common.investment.model.equity.EquityPrice;
+import com.am.common.investment.service.EquityService;
+import com.am.marketdata.upstock.adapter.UpStockAdapter;
+import com.am.marketdata.upstock.client.UpStockAsyncClient;
+import com.am.marketdata.upstock.governor.UpstoxRateGovernor;
+import com.am.marketdata.upstock.config.UpstoxBackfillConfig;
+import com.am.marketdata.upstock.mapper.EquityStockMapper;
+import com.am.marketdata.upstock.model.HistoricalDataResponse;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * Seeds historical candles for the ISIN universe. Work is split per ISIN, interval and date
+ * range, fetched in parallel under the shared Upstox rate governor, saved in bulk batches and
+ * checkpointed per chunk so an interrupted run resumes where it stopped.
+ */
+@Slf4j
+@Service
+public class HistoricalBackfillService {
+    private final UpstoxBackfillConfig backfillConfig;
+    private final UpStockAsyncClient upStockAsyncClient;
+    private final UpStockAdapter upStockAdapter;
+    private final UpstoxRateGovernor rateGovernor;
+    private final Supplier<List<String>> isinSource;
+    private final Consumer<List<EquityPrice>> priceStore;
+    private final EquityStockMapper equityStockMapper;
+    private final MeterRegistry meterRegistry;
+
+    private static final String NSE_PREFIX = "NSE_EQ|";
+    private static final Set<String> INTRADAY_INTERVALS = Set.of("1minute", "30minute");
+
+    // Metric names
+    private static final String METRIC_PREFIX = "upstox.backfill.";
+    private static final String METRIC_REQUEST_TIME = METRIC_PREFIX + "request.time";
+    private static final String METRIC_CHUNKS = METRIC_PREFIX + "chunks";
+    private static final String METRIC_CANDLES_SAVED = METRIC_PREFIX + "candles.saved";
+    private static final String TAG_OUTCOME = "outcome";
+
+    private ExecutorService startupRunner;
+
+    @Autowired
+    public HistoricalBackfillService(UpstoxBackfillConfig backfillConfig, UpStockAsyncClient upStockAsyncClient,
+                                     UpStockAdapter upStockAdapter, UpstoxRateGovernor rateGovernor,
+                                     AssetService assetService, EquityService equityService,
+                                     EquityStockMapper equityStockMapper, MeterRegistry meterRegistry) {
+        this(backfillConfig, upStockAsyncClient, upStockAdapter, rateGovernor, assetService::findDistinctIsins,
+            equityService::saveAllPrices, equityStockMapper, meterRegistry);
+    }
+
+    // Tests pass the ISIN universe and a store for saved prices in place of the shared services
+    HistoricalBackfillService(UpstoxBackfillConfig backfillConfig, UpStockAsyncClient upStockAsyncClient,
+                              UpStockAdapter upStockAdapter, UpstoxRateGovernor rateGovernor,
+                              Supplier<List<String>> isinSource, Consumer<List<EquityPrice>> priceStore,
+                              EquityStockMapper equityStockMapper, MeterRegistry meterRegistry) {
+        this.backfillConfig = backfillConfig;
+        this.upStockAsyncClient = upStockAsyncClient;
+        this.upStockAdapter = upStockAdapter;
+        this.rateGovernor = rateGovernor;
+        this.isinSource = isinSource;
+        this.priceStore = priceStore;
+        this.equityStockMapper = equityStockMapper;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @PostConstruct
+    public void initialize() {
+        if (backfillConfig.isRunOnStartup() && backfillConfig.getFromDate() != null) {
+            LocalDate from = LocalDate.parse(backfillConfig.getFromDate());
+            log.info("Starting historical backfill from {} for intervals {}", from, backfillConfig.getIntervals());
+            // A run blocks for its whole duration, so it gets its own thread rather than the common pool
+            startupRunner = Executors.newSingleThreadExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "historical-backfill");
+                thread.setDaemon(true);
+                return thread;
+            });
+            startupRunner.execute(() -> backfill(from, LocalDate.now(), backfillConfig.getIntervals()));
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (startupRunner != null) {
+            startupRunner.shutdownNow();
+        }
+    }
+
+    /**
+     * Backfills every distinct ISIN for the given intervals over [from, to]. Blocks until all
+     * chunks are done and returns the number of chunks that failed and will be retried on the
+     * next run.
+     */
+    public int backfill(LocalDate from, LocalDate to, List<String> intervals) {
+        BackfillCheckpointStore checkpoints = new BackfillCheckpointStore(Path.of(backfillConfig.getCheckpointFile()));
+        List<String> isins = isinSource.get();
+        // Candles carry no trading symbol, so look them up before any are mapped
+        upStockAdapter.resolveSymbols(isins);
+
+        int parallelism = Math.max(1, backfillConfig.getParallelism());
+        ExecutorService workers = Executors.newFixedThreadPool(parallelism);
+        Semaphore window = new Semaphore(parallelism * 2);
+        AtomicInteger failed = new AtomicInteger();
+        AtomicLong candles = new AtomicLong();
+        List<CompletableFuture<Void>> pending = new ArrayList<>();
+        Timer.Sample runTimer = Timer.start(meterRegistry);
+
+        try {
+            for (String isin : isins) {
+                for (String interval : intervals) {
+                    for (LocalDate chunkStart = from; !chunkStart.isAfter(to); chunkStart = chunkStart.plusDays(chunkDays(interval))) {
+                        LocalDate chunkEnd = min(chunkStart.plusDays(chunkDays(interval) - 1L), to);
+                        String chunkKey = String.join("|", isin, interval, chunkStart.toString(), chunkEnd.toString());
+                        if (checkpoints.isCompleted(chunkKey)) {
+                            meterRegistry.counter(METRIC_CHUNKS, TAG_OUTCOME, "skipped").increment();
+                            continue;
+                        }
+
+                        LocalDate start = chunkStart;
+                        window.acquire();
+                        pending.add(CompletableFuture.runAsync(() -> {
+                            try {
+                                candles.addAndGet(backfillChunk(isin, interval, start, chunkEnd));
+                                checkpoints.markCompleted(chunkKey);
+                                meterRegistry.counter(METRIC_CHUNKS, TAG_OUTCOME, "completed").increment();
+                            } catch (Exception e) {
+                                failed.incrementAndGet();
+                                meterRegistry.counter(METRIC_CHUNKS, TAG_OUTCOME, "failed").increment();
+                                log.error("Backfill failed for {} {} {}..{}: {}", isin, interval, start, chunkEnd, e.getMessage());
+                            } finally {
+                                window.release();
+                            }
+                        }, workers));
+                        pending.removeIf(CompletableFuture::isDone);
+                    }
+                }
+            }
+            CompletableFuture.allOf(pending.toArray(new CompletableFuture[0])).join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            // Queued chunks are dropped rather than run after the caller has given up on them
+            workers.shutdownNow();
+            log.warn("Historical backfill interrupted; completed chunks are checkpointed");
+        } finally {
+            workers.shutdown();
+        }
+
+        runTimer.stop(meterRegistry.timer(METRIC_PREFIX + "run.time"));
+        log.info("Historical backfill finished. ISINs: {}, candles saved: {}, failed chunks: {}, checkpointed chunks: {}",
+            isins.size(), candles.get(), failed.get(), checkpoints.size());
+        return failed.get();
+    }
+
+    private int backfillChunk(String isin, String interval, LocalDate from, LocalDate to) {
+        String instrumentKey = NSE_PREFIX + isin;
+
+        Timer.Sample requestTimer = Timer.start(meterRegistry);
+        // The async client URL-encodes the instrument key in the path; workers simply wait on it
+        HistoricalDataResponse response = rateGovernor
+            .executeAsync("historical", () -> upStockAsyncClient
+                .getHistoricalData(instrumentKey, interval, from.toString(), to.toString()))
+            .join();
+        requestTimer.stop(meterRegistry.timer(METRIC_REQUEST_TIME, "interval", interval));
+
+        List<HistoricalDataResponse.Candle> candles = response != null ? response.getCandles() : List.of();
+        if (candles.isEmpty()) {
+            return 0;
+        }
+
+        int batchSize = Math.max(1, backfillConfig.getSaveBatchSize());
+        List<EquityPrice> batch = new ArrayList<>(Math.min(batchSize, candles.size()));
+        for (HistoricalDataResponse.Candle candle : candles) {
+            batch.add(equityStockMapper.getEquityPriceByCandle(instrumentKey, candle));
+            if (batch.size() == batchSize) {
+                saveBatch(batch);
+                batch = new ArrayList<>(batchSize);
+            }
+        }
+        if (!batch.isEmpty()) {
+            saveBatch(batch);
+        }
+        return candles.size();
+    }
+
+    private void saveBatch(List<EquityPrice> batch) {
+        priceStore.accept(batch);
+        meterRegistry.counter(METRIC_CANDLES_SAVED).increment(batch.size());
+    }
+
+    private int chunkDays(String interval) {
+        return INTRADAY_INTERVALS.contains(interval)
+            ? backfillConfig.getIntradayChunkDays()
+            : backfillConfig.getDailyChunkDays();
+    }
+
+    private static LocalDate min(LocalDate a, LocalDate b) {
+        return a.isBefore(b) ? a : b;
+    }
+}
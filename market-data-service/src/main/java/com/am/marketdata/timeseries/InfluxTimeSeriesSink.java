@@ -0,0 +1,140 @@
+package com.am.marketdata.timeseries;
+
+import com.am.marketdata.common.timeseries.TimeSeriesPoint;
+import com.am.marketdata.common.timeseries.TimeSeriesSink;
+import com.influxdb.client.InfluxDBClient;
+import com.influxdb.client.WriteApi;
+import com.influxdb.client.WriteOptions;
+import com.influxdb.client.domain.WritePrecision;
+import com.influxdb.client.write.Point;
+import com.influxdb.client.write.events.BackpressureEvent;
+import com.influxdb.client.write.events.WriteErrorEvent;
+import com.influxdb.client.write.events.WriteRetriableErrorEvent;
+import com.influxdb.client.write.events.WriteSuccessEvent;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.reactivex.rxjava3.core.BackpressureOverflowStrategy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+
+/**
+ * Writes price points to the market_data bucket through Influx's batching, non-blocking
+ * {@link WriteApi}. Callers only enqueue; batching, retries and overflow handling happen on
+ * the client's own threads.
+ *
+ * <p>The client reports retries, failures and buffer overflows per batch without saying how
+ * many points they held, so those are counted as events. Points are counted when enqueued and
+ * again when Influx acknowledges them; the gap between the two is what was dropped or failed.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class InfluxTimeSeriesSink implements TimeSeriesSink {
+    private final InfluxDBClient influxDBClient;
+    private final MeterRegistry meterRegistry;
+
+    // Metric names
+    private static final String METRIC_PREFIX = "influx.sink.";
+    private static final String METRIC_POINTS = METRIC_PREFIX + "points";
+    private static final String METRIC_POINTS_WRITTEN = METRIC_PREFIX + "points.written";
+    private static final String METRIC_BACKPRESSURE = METRIC_PREFIX + "backpressure";
+    private static final String METRIC_BATCHES_RETRIED = METRIC_PREFIX + "batches.retried";
+    private static final String METRIC_BATCHES_FAILED = METRIC_PREFIX + "batches.failed";
+    private static final String TAG_STRATEGY = "strategy";
+
+    @Value("${spring.influx.sink.enabled:true}")
+    private boolean enabled;
+
+    @Value("${spring.influx.sink.batch-size:5000}")
+    private int batchSize;
+
+    @Value("${spring.influx.sink.flush-interval-ms:1000}")
+    private int flushIntervalMs;
+
+    @Value("${spring.influx.sink.buffer-limit:50000}")
+    private int bufferLimit;
+
+    @Value("${spring.influx.sink.max-retries:5}")
+    private int maxRetries;
+
+    @Value("${spring.influx.sink.retry-interval-ms:5000}")
+    private int retryIntervalMs;
+
+    // DROP_OLDEST, DROP_LATEST or ERROR once buffer-limit points are waiting
+    @Value("${spring.influx.sink.overflow-strategy:DROP_OLDEST}")
+    private BackpressureOverflowStrategy overflowStrategy;
+
+    private volatile WriteApi writeApi;
+
+    @PostConstruct
+    public void initialize() {
+        if (!enabled) {
+            log.info("Influx time-series sink disabled");
+            return;
+        }
+        writeApi = influxDBClient.makeWriteApi(WriteOptions.builder()
+            .batchSize(batchSize)
+            .flushInterval(flushIntervalMs)
+            .bufferLimit(bufferLimit)
+            .maxRetries(maxRetries)
+            .retryInterval(retryIntervalMs)
+            .backpressureStrategy(overflowStrategy)
+            .build());
+
+        // Under DROP_OLDEST and DROP_LATEST each overflow discards one buffered batch
+        writeApi.listenEvents(BackpressureEvent.class, event -> {
+            log.warn("Influx write buffer full, applying {}", overflowStrategy);
+            meterRegistry.counter(METRIC_BACKPRESSURE, TAG_STRATEGY, overflowStrategy.name()).increment();
+        });
+        writeApi.listenEvents(WriteRetriableErrorEvent.class, event -> {
+            log.warn("Retrying Influx write: {}", event.getThrowable().getMessage());
+            meterRegistry.counter(METRIC_BATCHES_RETRIED).increment();
+        });
+        writeApi.listenEvents(WriteErrorEvent.class, event -> {
+            log.error("Influx write failed: {}", event.getThrowable().getMessage());
+            meterRegistry.counter(METRIC_BATCHES_FAILED).increment();
+        });
+        writeApi.listenEvents(WriteSuccessEvent.class, event ->
+            meterRegistry.counter(METRIC_POINTS_WRITTEN).increment(event.getLineProtocol().lines().count()));
+
+        log.info("Initialized Influx time-series sink with batch size: {}, flush interval: {}ms, buffer limit: {}, overflow: {}, retries: {} every {}ms",
+            batchSize, flushIntervalMs, bufferLimit, overflowStrategy, maxRetries, retryIntervalMs);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (writeApi != null) {
+            // Flushes whatever is still buffered
+            writeApi.close();
+            writeApi = null;
+            log.info("Closed Influx time-series sink");
+        }
+    }
+
+    @Override
+    public void write(List<TimeSeriesPoint> points) {
+        WriteApi api = writeApi;
+        if (api == null || points.isEmpty()) {
+            return;
+        }
+        List<Point> influxPoints = new ArrayList<>(points.size());
+        for (TimeSeriesPoint point : points) {
+            if (point.getFields().isEmpty() || point.getTime() == null) {
+                continue;
+            }
+            influxPoints.add(Point.measurement(point.getMeasurement())
+                .addTags(point.getTags())
+                .addFields(new HashMap<>(point.getFields()))
+                .time(point.getTime(), WritePrecision.MS));
+        }
+        api.writePoints(influxPoints);
+        meterRegistry.counter(METRIC_POINTS).increment(influxPoints.size());
+    }
+}
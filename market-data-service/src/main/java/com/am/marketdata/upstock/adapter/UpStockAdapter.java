@@ -1,10 +1,11 @@
 package com.am.marketdata.upstock.adapter;
 
 import com.am.common.investment.model.equity.EquityPrice;
+import com.am.marketdata.upstock.client.UpStockAsyncClient;
 import com.am.marketdata.upstock.client.UpStockClient;
+import com.am.marketdata.upstock.governor.UpstoxRateGovernor;
 import com.am.marketdata.upstock.mapper.EquityStockMapper;
 import com.am.marketdata.upstock.model.MarketQuoteResponse;
-import com.am.marketdata.upstock.model.OHLCResponse;
 
 import lombok.RequiredArgsConstructor;
 
@@ -14,6 +15,7 @@ import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 import java.util.stream.Collectors;
 
 @Component
@@ -21,7 +23,11 @@ import java.util.stream.Collectors;
 public class UpStockAdapter {
     private static final Logger log = LoggerFactory.getLogger(UpStockAdapter.class);
     private final UpStockClient upStockClient;
+    private final UpStockAsyncClient upStockAsyncClient;
     private final EquityStockMapper equityStockMapper;
+    private final UpstoxRateGovernor rateGovernor;
+
+    private static final String NSE_PREFIX = "NSE_EQ|";
 
     @Value("${upstox.interval}")
     private String interval;
@@ -30,7 +36,7 @@ public class UpStockAdapter {
     public List<EquityPrice> getStocks(List<String> symbols) {
         log.info("Fetching market quotes for {} symbols", symbols.size());
         
-        MarketQuoteResponse response = upStockClient.getMarketQuotes(symbols);
+        MarketQuoteResponse response = rateGovernor.execute("quotes", () -> upStockClient.getMarketQuotes(symbols));
         log.info("Successfully received market quotes. Processing response...");
         if (response == null || response.getData() == null) {
             log.warn("Received null response or null data from Upstox API");
@@ -45,14 +51,44 @@ public class UpStockAdapter {
 
     public List<EquityPrice> getStocksOHLC(List<String> symbols) {
         log.info("Fetching market quotes for {} symbols", symbols.size());
-        
-        OHLCResponse response = upStockClient.getOHLCData(symbols, interval);
-        log.info("Successfully received market quotes. Processing response...");
-        if (response == null || response.getData() == null) {
-            log.warn("Received null response or null data from Upstox API");
-            return List.of();
+
+        // Parsed straight from the response stream; see OHLCStreamParser
+        List<EquityPrice> equityPrices = rateGovernor.execute("ohlc", () -> upStockClient.getOHLCPrices(symbols, interval));
+        log.info("Successfully received market quotes for {} symbols", equityPrices.size());
+        equityStockMapper.rememberSymbols(equityPrices);
+        return equityPrices;
+    }
+
+    public CompletableFuture<List<EquityPrice>> getStocksOHLCAsync(List<String> symbols) {
+        log.debug("Fetching market quotes asynchronously for {} symbols", symbols.size());
+
+        return rateGovernor.executeAsync("ohlc", () -> upStockAsyncClient.getOHLCPrices(symbols, interval))
+            .thenApply(equityPrices -> {
+                equityStockMapper.rememberSymbols(equityPrices);
+                return equityPrices;
+            });
+    }
+
+    /**
+     * Looks up the trading symbol of every ISIN the mapper does not know yet. Feed ticks and
+     * historical candles are keyed by ISIN only, so this runs once before either is mapped.
+     */
+    public void resolveSymbols(List<String> isins) {
+        List<String> unknown = isins.stream()
+            .filter(isin -> !equityStockMapper.hasSymbol(isin))
+            .map(isin -> NSE_PREFIX + isin)
+            .toList();
+        log.info("Resolving trading symbols for {} instruments", unknown.size());
+        for (int from = 0, to; from < unknown.size(); from = to) {
+            to = Math.min(from + getBatchSize(), unknown.size());
+            getStocksOHLC(unknown.subList(from, to));
         }
+    }
 
-        return equityStockMapper.getEquityPricesByOHLC(response.getData());
+    /**
+     * Number of symbols to request per quote call, as currently tuned by the rate governor.
+     */
+    public int getBatchSize() {
+        return rateGovernor.currentBatchSize();
     }
-}
\ No newline at end of file
+}
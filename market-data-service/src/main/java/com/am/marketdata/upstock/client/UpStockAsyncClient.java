@@ -0,0 +1,291 @@
+package com.am.marketdata.upstock.client;
+
+import com.am.common.investment.model.equity.EquityPrice;
+import com.am.marketdata.upstock.config.UpstoxClientConfig;
+import com.am.marketdata.upstock.config.UpstoxConfig;
+import com.am.marketdata.upstock.exception.UpStockApiException;
+import com.am.marketdata.upstock.mapper.OHLCStreamParser;
+import com.am.marketdata.upstock.model.HistoricalDataResponse;
+import com.am.marketdata.upstock.model.MarketQuoteResponse;
+import com.am.marketdata.upstock.model.OHLCResponse;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import kong.unirest.Unirest;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * Non-blocking counterpart of {@link UpStockClient}. Requests run on a dedicated JDK HTTP
+ * client (HTTP/2 with gzip) serviced by a small fixed thread pool, so callers get a
+ * {@link CompletableFuture} back immediately instead of holding a thread per round trip.
+ *
+ * <p>The JDK client only tunes its connection pool through JVM-wide system properties, so the
+ * pool is bounded here instead: at most {@code maxConnections} requests are on the wire at once
+ * and the rest wait in a queue, and a client left idle for {@code keepAliveSeconds} is replaced,
+ * taking its idle connections with it.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class UpStockAsyncClient {
+    private final UpstoxConfig upstoxConfig;
+    private final UpstoxClientConfig clientConfig;
+    private final MeterRegistry meterRegistry;
+    private final OHLCStreamParser ohlcStreamParser;
+
+    private static final String THREAD_PREFIX = "upstox-http-";
+
+    // Metric names
+    private static final String METRIC_PREFIX = "upstox.api.";
+    private static final String METRIC_REQUEST_TIME = METRIC_PREFIX + "request.time";
+    private static final String METRIC_IN_FLIGHT = METRIC_PREFIX + "requests.inflight";
+    private static final String METRIC_QUEUED = METRIC_PREFIX + "requests.queued";
+    private static final String METRIC_ERROR_COUNT = METRIC_PREFIX + "error.count";
+    private static final String TAG_ENDPOINT = "endpoint";
+    private static final String TAG_OUTCOME = "outcome";
+
+    private final Map<String, AtomicInteger> inFlightRequests = new ConcurrentHashMap<>();
+    // Requests waiting for a connection permit, started in arrival order as permits free up
+    private final Queue<Runnable> queuedRequests = new ConcurrentLinkedQueue<>();
+    private ExecutorService executor;
+    private Semaphore connectionPermits;
+    private HttpClient httpClient;
+    private long lastUsedNanos;
+
+    @PostConstruct
+    public void initialize() {
+        AtomicInteger threadCount = new AtomicInteger();
+        executor = Executors.newFixedThreadPool(clientConfig.getIoThreads(), runnable -> {
+            Thread thread = new Thread(runnable, THREAD_PREFIX + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        connectionPermits = new Semaphore(clientConfig.getMaxConnections());
+        Gauge.builder(METRIC_QUEUED, queuedRequests, Queue::size)
+            .description("Upstox API requests waiting for a connection")
+            .register(meterRegistry);
+        httpClient = newHttpClient();
+        lastUsedNanos = System.nanoTime();
+
+        log.info("Initialized async Upstox client with {} io threads, HTTP/2: {}, gzip: {}, max connections: {}, keep-alive: {}s",
+            clientConfig.getIoThreads(), clientConfig.isHttp2Enabled(), clientConfig.isGzipEnabled(),
+            clientConfig.getMaxConnections(), clientConfig.getKeepAliveSeconds());
+    }
+
+    private HttpClient newHttpClient() {
+        return HttpClient.newBuilder()
+            .version(clientConfig.isHttp2Enabled() ? HttpClient.Version.HTTP_2 : HttpClient.Version.HTTP_1_1)
+            .connectTimeout(Duration.ofMillis(clientConfig.getConnectTimeoutMs()))
+            .executor(executor)
+            .build();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (executor != null) {
+            executor.shutdown();
+            log.info("Shutting down async Upstox client");
+        }
+    }
+
+    // Market Data APIs
+    public CompletableFuture<MarketQuoteResponse> getMarketQuotes(List<String> symbols) {
+        String url = clientConfig.getBaseUrl() + "/market-quote/quotes";
+        return executeGetAsync("quotes", url, MarketQuoteResponse.class, "symbol", UpStockClient.formatSymbols(symbols));
+    }
+
+    public CompletableFuture<MarketQuoteResponse> getFullMarketQuotes(List<String> symbols) {
+        String url = clientConfig.getBaseUrl() + "/market-quote/full";
+        return executeGetAsync("full", url, MarketQuoteResponse.class, "symbol", UpStockClient.formatSymbols(symbols));
+    }
+
+    public CompletableFuture<OHLCResponse> getOHLCData(List<String> symbols, String interval) {
+        String url = clientConfig.getBaseUrl() + "/market-quote/ohlc";
+        return executeGetAsync("ohlc", url, OHLCResponse.class, "symbol", UpStockClient.formatSymbols(symbols), "interval", interval);
+    }
+
+    /**
+     * Same request as {@link #getOHLCData}, but the body is streamed straight into prices.
+     */
+    public CompletableFuture<List<EquityPrice>> getOHLCPrices(List<String> symbols, String interval) {
+        String url = clientConfig.getBaseUrl() + "/market-quote/ohlc";
+        return executeGetAsync("ohlc", url, ohlcStreamParser::parse,
+            "symbol", UpStockClient.formatSymbols(symbols), "interval", interval);
+    }
+
+    // Historical Data APIs
+    public CompletableFuture<HistoricalDataResponse> getHistoricalData(String symbol, String interval, String from, String to) {
+        return executeGetAsync("historical", UpStockClient.historicalDataUrl(clientConfig.getBaseUrl(), symbol, interval, from, to),
+            HistoricalDataResponse.class);
+    }
+
+    private <T> CompletableFuture<T> executeGetAsync(String endpoint, String url, Class<T> responseType, String... queryParams) {
+        // Reuse Unirest's mapper so async responses bind exactly like the blocking client's
+        return executeGetAsync(endpoint, url,
+            body -> Unirest.config().getObjectMapper().readValue(new String(body.readAllBytes(), StandardCharsets.UTF_8), responseType),
+            queryParams);
+    }
+
+    private <T> CompletableFuture<T> executeGetAsync(String endpoint, String url, BodyReader<T> bodyReader, String... queryParams) {
+        HttpRequest.Builder builder = HttpRequest.newBuilder(URI.create(url + buildQuery(queryParams)))
+            .timeout(Duration.ofMillis(clientConfig.getRequestTimeoutMs()))
+            .header("Authorization", "Bearer " + upstoxConfig.getAccessToken())
+            .header("Api-Version", "2.0")
+            .header("Accept", "application/json")
+            .GET();
+        if (clientConfig.isGzipEnabled()) {
+            builder.header("Accept-Encoding", "gzip");
+        }
+
+        HttpRequest request = builder.build();
+        CompletableFuture<T> result = new CompletableFuture<>();
+        queuedRequests.add(() -> {
+            CompletableFuture<T> exchange;
+            try {
+                exchange = send(endpoint, request, bodyReader);
+            } catch (RuntimeException e) {
+                exchange = CompletableFuture.failedFuture(e);
+            }
+            exchange.whenComplete((value, ex) -> {
+                connectionPermits.release();
+                startQueuedRequests();
+                if (ex != null) {
+                    result.completeExceptionally(ex);
+                } else {
+                    result.complete(value);
+                }
+            });
+        });
+        startQueuedRequests();
+        return result;
+    }
+
+    private void startQueuedRequests() {
+        // Re-checked after every release, so a request queued while the last permit was briefly held still starts
+        while (!queuedRequests.isEmpty() && connectionPermits.tryAcquire()) {
+            Runnable next = queuedRequests.poll();
+            if (next == null) {
+                connectionPermits.release();
+            } else {
+                next.run();
+            }
+        }
+    }
+
+    private <T> CompletableFuture<T> send(String endpoint, HttpRequest request, BodyReader<T> bodyReader) {
+        AtomicInteger inFlight = inFlightCounter(endpoint);
+        inFlight.incrementAndGet();
+        Timer.Sample sample = Timer.start(meterRegistry);
+        log.debug("Executing async GET request to Upstox API - Endpoint: {}", endpoint);
+
+        // The client buffers the whole body before completing, so decoding never waits on the network
+        return currentHttpClient().sendAsync(request, HttpResponse.BodyHandlers.ofByteArray())
+            .thenApply(response -> readResponse(endpoint, response, bodyReader))
+            .whenComplete((result, ex) -> {
+                inFlight.decrementAndGet();
+                sample.stop(meterRegistry.timer(METRIC_REQUEST_TIME,
+                    TAG_ENDPOINT, endpoint,
+                    TAG_OUTCOME, ex == null ? "success" : "error"));
+                if (ex != null) {
+                    log.error("Async request to Upstox API failed - Endpoint: {}, Error: {}", endpoint, ex.getMessage());
+                    meterRegistry.counter(METRIC_ERROR_COUNT, TAG_ENDPOINT, endpoint).increment();
+                }
+            });
+    }
+
+    /**
+     * JDK 17's client cannot evict idle connections on its own schedule, so once it has sat idle
+     * past the keep-alive it is dropped for a fresh one; its pooled connections close with it.
+     */
+    private synchronized HttpClient currentHttpClient() {
+        long now = System.nanoTime();
+        if (now - lastUsedNanos >= TimeUnit.SECONDS.toNanos(clientConfig.getKeepAliveSeconds())) {
+            log.debug("Async Upstox client idle past keep-alive, reconnecting");
+            httpClient = newHttpClient();
+        }
+        lastUsedNanos = now;
+        return httpClient;
+    }
+
+    private <T> T readResponse(String endpoint, HttpResponse<byte[]> response, BodyReader<T> bodyReader) {
+        try (InputStream in = decodedBody(response)) {
+            if (response.statusCode() >= 400) {
+                String body = new String(in.readAllBytes(), StandardCharsets.UTF_8);
+                throw new UpStockApiException(endpoint, response.statusCode(), body, "Unsuccessful response from Upstox API");
+            }
+            return bodyReader.read(in);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to read Upstox API response body", e);
+        }
+    }
+
+    private InputStream decodedBody(HttpResponse<byte[]> response) throws IOException {
+        boolean gzipped = response.headers().firstValue("Content-Encoding")
+            .map(encoding -> encoding.equalsIgnoreCase("gzip"))
+            .orElse(false);
+        InputStream body = new ByteArrayInputStream(response.body());
+        return gzipped ? new GZIPInputStream(body) : body;
+    }
+
+    private AtomicInteger inFlightCounter(String endpoint) {
+        return inFlightRequests.computeIfAbsent(endpoint, key -> {
+            AtomicInteger counter = new AtomicInteger();
+            Gauge.builder(METRIC_IN_FLIGHT, counter, AtomicInteger::get)
+                .tag(TAG_ENDPOINT, key)
+                .description("Upstox API requests currently in flight")
+                .register(meterRegistry);
+            return counter;
+        });
+    }
+
+    private static String buildQuery(String... queryParams) {
+        if (queryParams.length == 0) {
+            return "";
+        }
+        StringBuilder query = new StringBuilder("?");
+        for (int i = 0; i < queryParams.length; i += 2) {
+            if (i > 0) query.append("&");
+            query.append(queryParams[i]).append("=").append(encode(queryParams[i + 1]));
+        }
+        return query.toString();
+    }
+
+    private static String encode(String value) {
+        return URLEncoder.encode(value, StandardCharsets.UTF_8);
+    }
+
+    @FunctionalInterface
+    private interface BodyReader<T> {
+        T read(InputStream body) throws IOException;
+    }
+}
@@ -1,15 +1,27 @@
 package com.am.marketdata.upstock.client;
 
+import com.am.common.investment.model.equity.EquityPrice;
+import com.am.marketdata.common.trace.PayloadTracer;
 import com.am.marketdata.upstock.config.UpstoxConfig;
+import com.am.marketdata.upstock.exception.UpStockApiException;
+import com.am.marketdata.upstock.mapper.OHLCStreamParser;
 import com.am.marketdata.upstock.model.*;
 
 import kong.unirest.HttpResponse;
+import kong.unirest.RawResponse;
 import kong.unirest.Unirest;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Component;
 
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
 import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
 import java.util.stream.Collectors;
 
 @Slf4j
@@ -17,33 +29,60 @@ import java.util.stream.Collectors;
 @RequiredArgsConstructor
 public class UpStockClient {
     private final UpstoxConfig upstoxConfig;
-    private static final String BASE_URL = "https://api-v2.upstox.com/v2";
+    private final OHLCStreamParser ohlcStreamParser;
+    private final PayloadTracer payloadTracer;
+    static final String BASE_URL = "https://api-v2.upstox.com/v2";
 
     // Market Data APIs
     public MarketQuoteResponse getMarketQuotes(List<String> symbols) {
         String url = BASE_URL + "/market-quote/quotes";
-        return executeGet(url, MarketQuoteResponse.class, "symbol", formatSymbols(symbols));
+        return executeGet("quotes", url, MarketQuoteResponse.class, "symbol", formatSymbols(symbols));
     }
 
     public MarketQuoteResponse getFullMarketQuotes(List<String> symbols) {
         String url = BASE_URL + "/market-quote/full";
-        return executeGet(url, MarketQuoteResponse.class, "symbol", formatSymbols(symbols));
+        return executeGet("full", url, MarketQuoteResponse.class, "symbol", formatSymbols(symbols));
     }
 
     public OHLCResponse getOHLCData(List<String> symbols, String interval) {
         String url = BASE_URL + "/market-quote/ohlc";
-        return executeGet(url, OHLCResponse.class, "symbol", formatSymbols(symbols), "interval", interval);
+        return executeGet("ohlc", url, OHLCResponse.class, "symbol", formatSymbols(symbols), "interval", interval);
+    }
+
+    /**
+     * Same request as {@link #getOHLCData}, but the body is streamed straight into prices.
+     */
+    public List<EquityPrice> getOHLCPrices(List<String> symbols, String interval) {
+        String url = BASE_URL + "/market-quote/ohlc";
+        HttpResponse<List<EquityPrice>> response = send("ohlc", url, ohlcStreamParser::parse,
+            "symbol", formatSymbols(symbols), "interval", interval);
+        log.info("Request successful. Status: {}, prices: {}", response.getStatus(), response.getBody().size());
+        return response.getBody();
     }
 
     // Historical Data APIs
     public HistoricalDataResponse getHistoricalData(String symbol, String interval, String from, String to) {
-        String url = BASE_URL + "/historical-data/" + symbol + "/" + interval;
-        return executeGet(url, HistoricalDataResponse.class, "from", from, "to", to);
+        return executeGet("historical", historicalDataUrl(symbol, interval, from, to), HistoricalDataResponse.class);
+    }
+
+    // Market Data Feed APIs
+    public MarketFeedAuthorizeResponse getMarketDataFeedAuthorization() {
+        String url = BASE_URL + "/feed/market-data-feed/authorize";
+        return executeGet("feed-authorize", url, MarketFeedAuthorizeResponse.class);
+    }
+
+    private <T> T executeGet(String endpoint, String url, Class<T> responseType, String... queryParams) {
+        HttpResponse<T> response = send(endpoint, url,
+            body -> Unirest.config().getObjectMapper().readValue(new String(body.readAllBytes(), StandardCharsets.UTF_8), responseType),
+            queryParams);
+        log.info("Request successful. Status: {}", response.getStatus());
+        return response.getBody();
     }
 
-    private <T> T executeGet(String url, Class<T> responseType, String... queryParams) {
-        log.info("=== Executing GET request to Upstox API ===");
-        logRequest("GET", url, queryParams);
+    private <T> HttpResponse<T> send(String endpoint, String url, BodyReader<T> bodyReader, String... queryParams) {
+        PayloadTracer.Sample trace = payloadTracer.sample(endpoint);
+        log.debug("Executing GET request to Upstox API - Endpoint: {}", endpoint);
+        trace.log("request", () -> toCurl("GET", url, queryParams));
 
         try {
             var request = Unirest.get(url)
@@ -56,60 +95,74 @@ public class UpStockClient {
                 request.queryString(queryParams[i], queryParams[i + 1]);
             }
 
-            HttpResponse<T> response = request.asObject(responseType);
-            log.info("Request successful. Status: {}", response.getStatus());
-            logResponse(response);
-            return response.getBody();
+            AtomicReference<String> errorBody = new AtomicReference<>("N/A");
+            HttpResponse<T> response = request.asObject(raw -> readBody(raw, bodyReader, trace, errorBody));
+            if (!response.isSuccess()) {
+                throw new UpStockApiException(url, response.getStatus(), errorBody.get(),
+                    "Unsuccessful response from Upstox API");
+            }
+            trace.log("response", () -> "Status: " + response.getStatus() + ", Headers: " + response.getHeaders());
+            return response;
         } catch (Exception e) {
             log.error("Failed to execute GET request. URL: {}, Error: {}", url, e.getMessage(), e);
             throw e;
         }
     }
 
-    private String formatSymbols(List<String> symbols) {
+    private <T> T readBody(RawResponse raw, BodyReader<T> bodyReader, PayloadTracer.Sample trace,
+            AtomicReference<String> errorBody) {
+        try {
+            if (raw.getStatus() >= 400) {
+                errorBody.set(raw.getContentAsString());
+                return null;
+            }
+            if (!trace.isSampled()) {
+                return bodyReader.read(raw.getContent());
+            }
+            // Sampled bodies are buffered so the capture holds exactly the bytes Upstox sent
+            byte[] body = raw.getContentAsBytes();
+            trace.capture(() -> new String(body, StandardCharsets.UTF_8));
+            return bodyReader.read(new ByteArrayInputStream(body));
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to read Upstox API response body", e);
+        }
+    }
+
+    // The v2 endpoint takes both dates as path segments, newest first: /{instrument_key}/{interval}/{to_date}/{from_date}
+    static String historicalDataUrl(String instrumentKey, String interval, String from, String to) {
+        return historicalDataUrl(BASE_URL, instrumentKey, interval, from, to);
+    }
+
+    static String historicalDataUrl(String baseUrl, String instrumentKey, String interval, String from, String to) {
+        return baseUrl + "/historical-data/" + URLEncoder.encode(instrumentKey, StandardCharsets.UTF_8)
+            + "/" + interval + "/" + to + "/" + from;
+    }
+
+    static String formatSymbols(List<String> symbols) {
         return symbols.stream()
             .map(symbol -> symbol.replace(":", "|"))
             .collect(Collectors.joining(","));
     }
 
-    private void logRequest(String method, String url, Object params) {
+    private String toCurl(String method, String url, String... queryParams) {
         StringBuilder curl = new StringBuilder()
             .append("curl -X ").append(method)
             .append(" '").append(url);
 
-        if (params != null) {
-            if (params instanceof String[]) {
-                String[] queryParams = (String[]) params;
-                curl.append("?");
-                for (int i = 0; i < queryParams.length; i += 2) {
-                    if (i > 0) curl.append("&");
-                    curl.append(queryParams[i]).append("=").append(queryParams[i + 1]);
-                }
-            } else {
-                curl.append("' -d '").append(params);
-            }
+        for (int i = 0; i < queryParams.length; i += 2) {
+            curl.append(i == 0 ? "?" : "&").append(queryParams[i]).append("=").append(queryParams[i + 1]);
         }
-        
-        curl.append("'")
-            .append(" -H 'Authorization: Bearer ").append(upstoxConfig.getAccessToken()).append("'")
-            .append(" -H 'Api-Version: 2.0'")
-            .append(" -H 'Content-Type: application/json'");
 
-        log.info("API Request: {}", curl.toString());
+        // The access token never leaves the process
+        return curl.append("'")
+            .append(" -H 'Authorization: Bearer *****'")
+            .append(" -H 'Api-Version: 2.0'")
+            .append(" -H 'Content-Type: application/json'")
+            .toString();
     }
 
-    private <T> void logResponse(HttpResponse<T> response) {
-        log.info("Response Status: {}", response.getStatus());
-        log.info("Response Headers: {}", response.getHeaders());
-        //log.info("Raw Response Body: {}", response.getRawBody());
-        log.info("Parsed Response Body: {}", response.getBody());
-        if (response.getBody() instanceof OHLCResponse) {
-            OHLCResponse ohlcResponse = (OHLCResponse) response.getBody();
-            if (ohlcResponse.getData() != null) {
-                ohlcResponse.getData().forEach((key, value) -> {
-                    log.info("Key: {}, Value: {}", key, value);
-                });
-            }
-        }
+    @FunctionalInterface
+    private interface BodyReader<T> {
+        T read(InputStream body) throws IOException;
     }
-} 
\ No newline at end of file
+}
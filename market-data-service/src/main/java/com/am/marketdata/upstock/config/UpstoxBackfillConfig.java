@@ -0,0 +1,23 @@
+package com.am.marketdata.upstock.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.List;
+
+@Data
+@Configuration
+@ConfigurationProperties(prefix = "upstox.backfill")
+public class UpstoxBackfillConfig {
+    private boolean runOnStartup = false;
+    // Inclusive start of the range seeded on startup, yyyy-MM-dd; the range ends today
+    private String fromDate;
+    private List<String> intervals = List.of("day");
+    private int parallelism = 8;
+    private int saveBatchSize = 1000;
+    // Upstox caps the span of a single historical request by interval
+    private int intradayChunkDays = 30;
+    private int dailyChunkDays = 365;
+    private String checkpointFile = "backfill-checkpoint.log";
+}
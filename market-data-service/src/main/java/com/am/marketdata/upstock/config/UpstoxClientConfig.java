@@ -0,0 +1,22 @@
+package com.am.marketdata.upstock.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+@Data
+@Configuration
+@ConfigurationProperties(prefix = "upstox.client")
+public class UpstoxClientConfig {
+    // Threads servicing the async client; responses are handled on these, not on callers
+    private int ioThreads = 4;
+    private String baseUrl = "https://api-v2.upstox.com/v2";
+    private int connectTimeoutMs = 5000;
+    private int requestTimeoutMs = 10000;
+    private boolean http2Enabled = true;
+    private boolean gzipEnabled = true;
+    // Requests the client has on the wire at once; further requests queue without holding a thread
+    private int maxConnections = 20;
+    // Idle time after which the client's connections are dropped and the next request reconnects
+    private int keepAliveSeconds = 300;
+}
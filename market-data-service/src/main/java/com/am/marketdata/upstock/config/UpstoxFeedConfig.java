@@ -0,0 +1,23 @@
+package com.am.marketdata.upstock.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+@Data
+@Configuration
+@ConfigurationProperties(prefix = "upstox.feed")
+public class UpstoxFeedConfig {
+    private boolean enabled = false;
+    // When set, connects straight to this ws:// or wss:// endpoint instead of asking Upstox
+    // for an authorized feed URI (e.g. a local server replaying recorded frames)
+    private String url;
+    // "ltpc" for last price only, "full" to also receive day OHLC and volume
+    private String mode = "full";
+    private int subscriptionBatchSize = 100;
+    private long reconnectDelayMs = 1000;
+    private long maxReconnectDelayMs = 30000;
+    private long flushIntervalMs = 1000;
+    // How often the subscription set is re-read from the asset store
+    private long subscriptionRefreshIntervalMs = 900000;
+}
@@ -0,0 +1,27 @@
+package com.am.marketdata.upstock.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+@Data
+@Configuration
+@ConfigurationProperties(prefix = "upstox.governor")
+public class UpstoxGovernorConfig {
+    // Documented Upstox limits for standard APIs
+    private int requestsPerSecond = 50;
+    private int requestsPerMinute = 500;
+    private int requestsPerThirtyMinutes = 2000;
+
+    // Latency-gradient concurrency limit bounds
+    private int initialConcurrency = 4;
+    private int minConcurrency = 1;
+    private int maxConcurrency = 32;
+
+    // Instruments per quote request
+    private int initialBatchSize = 50;
+    private int minBatchSize = 10;
+    private int maxBatchSize = 500;
+    private int batchGrowthStep = 50;
+    private int maxUrlLength = 8000;
+}
@@ -0,0 +1,33 @@
+package com.am.marketdata.upstock.exception;
+
+public class UpStockApiException extends RuntimeException {
+    private final String endpoint;
+    private final int statusCode;
+    private final String responseBody;
+
+    public UpStockApiException(String endpoint, int statusCode, String responseBody, String message) {
+        super(String.format("Upstox API error [%s] %d - %s: %s", endpoint, statusCode, message, responseBody));
+        this.endpoint = endpoint;
+        this.statusCode = statusCode;
+        this.responseBody = responseBody;
+    }
+
+    public UpStockApiException(String endpoint, int statusCode, String responseBody, String message, Throwable cause) {
+        super(String.format("Upstox API error [%s] %d - %s: %s", endpoint, statusCode, message, responseBody), cause);
+        this.endpoint = endpoint;
+        this.statusCode = statusCode;
+        this.responseBody = responseBody;
+    }
+
+    public String getEndpoint() {
+        return endpoint;
+    }
+
+    public int getStatusCode() {
+        return statusCode;
+    }
+
+    public String getResponseBody() {
+        return responseBody;
+    }
+}
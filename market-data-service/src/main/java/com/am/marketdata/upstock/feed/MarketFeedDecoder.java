@@ -0,0 +1,272 @@
+package com.am.marketdata.upstock.feed;
+
+import com.am.marketdata.upstock.model.MarketFeedTick;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Decodes Upstox market-data-feed frames (protobuf {@code FeedResponse} messages) into
+ * {@link MarketFeedTick}s. Only the fields we ingest are read; everything else is skipped
+ * on the wire, so no generated protobuf classes are needed.
+ */
+@Slf4j
+@Component
+public class MarketFeedDecoder {
+    private static final String DAY_INTERVAL = "1d";
+
+    // FeedResponse
+    private static final int FEED_RESPONSE_FEEDS = 2;
+    // map<string, Feed> entry
+    private static final int MAP_KEY = 1;
+    private static final int MAP_VALUE = 2;
+    // Feed
+    private static final int FEED_LTPC = 1;
+    private static final int FEED_FULL = 2;
+    // FullFeed
+    private static final int FULL_FEED_MARKET = 1;
+    private static final int FULL_FEED_INDEX = 2;
+    // MarketFullFeed / IndexFullFeed
+    private static final int MARKET_FF_LTPC = 1;
+    private static final int MARKET_FF_OHLC = 4;
+    private static final int INDEX_FF_LTPC = 1;
+    private static final int INDEX_FF_OHLC = 2;
+    // LTPC
+    private static final int LTPC_LTP = 1;
+    private static final int LTPC_LTT = 2;
+    private static final int LTPC_CP = 4;
+    // MarketOHLC / OHLC
+    private static final int MARKET_OHLC_OHLC = 1;
+    private static final int OHLC_INTERVAL = 1;
+    private static final int OHLC_OPEN = 2;
+    private static final int OHLC_HIGH = 3;
+    private static final int OHLC_LOW = 4;
+    private static final int OHLC_VOLUME = 6;
+
+    public List<MarketFeedTick> decode(byte[] frame) {
+        List<MarketFeedTick> ticks = new ArrayList<>();
+        ProtoReader reader = new ProtoReader(frame, 0, frame.length);
+        while (reader.hasRemaining()) {
+            int tag = reader.readTag();
+            if (ProtoReader.fieldNumber(tag) == FEED_RESPONSE_FEEDS) {
+                MarketFeedTick tick = decodeFeedEntry(reader.readMessage());
+                if (tick != null) {
+                    ticks.add(tick);
+                }
+            } else {
+                reader.skip(tag);
+            }
+        }
+        return ticks;
+    }
+
+    private MarketFeedTick decodeFeedEntry(ProtoReader entry) {
+        MarketFeedTick.MarketFeedTickBuilder tick = MarketFeedTick.builder();
+        String instrumentKey = null;
+        while (entry.hasRemaining()) {
+            int tag = entry.readTag();
+            switch (ProtoReader.fieldNumber(tag)) {
+                case MAP_KEY -> instrumentKey = entry.readString();
+                case MAP_VALUE -> decodeFeed(entry.readMessage(), tick);
+                default -> entry.skip(tag);
+            }
+        }
+        if (instrumentKey == null) {
+            log.debug("Skipping feed entry without instrument key");
+            return null;
+        }
+        return tick.instrumentKey(instrumentKey).build();
+    }
+
+    private void decodeFeed(ProtoReader feed, MarketFeedTick.MarketFeedTickBuilder tick) {
+        while (feed.hasRemaining()) {
+            int tag = feed.readTag();
+            switch (ProtoReader.fieldNumber(tag)) {
+                case FEED_LTPC -> decodeLtpc(feed.readMessage(), tick);
+                case FEED_FULL -> decodeFullFeed(feed.readMessage(), tick);
+                default -> feed.skip(tag);
+            }
+        }
+    }
+
+    private void decodeFullFeed(ProtoReader fullFeed, MarketFeedTick.MarketFeedTickBuilder tick) {
+        while (fullFeed.hasRemaining()) {
+            int tag = fullFeed.readTag();
+            int field = ProtoReader.fieldNumber(tag);
+            if (field == FULL_FEED_MARKET) {
+                decodeMarketOrIndexFeed(fullFeed.readMessage(), tick, MARKET_FF_LTPC, MARKET_FF_OHLC);
+            } else if (field == FULL_FEED_INDEX) {
+                decodeMarketOrIndexFeed(fullFeed.readMessage(), tick, INDEX_FF_LTPC, INDEX_FF_OHLC);
+            } else {
+                fullFeed.skip(tag);
+            }
+        }
+    }
+
+    private void decodeMarketOrIndexFeed(ProtoReader feed, MarketFeedTick.MarketFeedTickBuilder tick,
+                                         int ltpcField, int ohlcField) {
+        while (feed.hasRemaining()) {
+            int tag = feed.readTag();
+            int field = ProtoReader.fieldNumber(tag);
+            if (field == ltpcField) {
+                decodeLtpc(feed.readMessage(), tick);
+            } else if (field == ohlcField) {
+                decodeMarketOhlc(feed.readMessage(), tick);
+            } else {
+                feed.skip(tag);
+            }
+        }
+    }
+
+    private void decodeLtpc(ProtoReader ltpc, MarketFeedTick.MarketFeedTickBuilder tick) {
+        while (ltpc.hasRemaining()) {
+            int tag = ltpc.readTag();
+            switch (ProtoReader.fieldNumber(tag)) {
+                case LTPC_LTP -> tick.lastPrice(ltpc.readDouble());
+                case LTPC_LTT -> tick.lastTradeTime(ltpc.readVarint());
+                case LTPC_CP -> tick.previousClose(ltpc.readDouble());
+                default -> ltpc.skip(tag);
+            }
+        }
+    }
+
+    private void decodeMarketOhlc(ProtoReader marketOhlc, MarketFeedTick.MarketFeedTickBuilder tick) {
+        while (marketOhlc.hasRemaining()) {
+            int tag = marketOhlc.readTag();
+            if (ProtoReader.fieldNumber(tag) == MARKET_OHLC_OHLC) {
+                decodeOhlc(marketOhlc.readMessage(), tick);
+            } else {
+                marketOhlc.skip(tag);
+            }
+        }
+    }
+
+    private void decodeOhlc(ProtoReader ohlc, MarketFeedTick.MarketFeedTickBuilder tick) {
+        String interval = null;
+        Double open = null, high = null, low = null;
+        Long volume = null;
+        while (ohlc.hasRemaining()) {
+            int tag = ohlc.readTag();
+            switch (ProtoReader.fieldNumber(tag)) {
+                case OHLC_INTERVAL -> interval = ohlc.readString();
+                case OHLC_OPEN -> open = ohlc.readDouble();
+                case OHLC_HIGH -> high = ohlc.readDouble();
+                case OHLC_LOW -> low = ohlc.readDouble();
+                case OHLC_VOLUME -> volume = ohlc.readVarint();
+                default -> ohlc.skip(tag);
+            }
+        }
+        // Intraday candles are also sent; only the day candle describes the session
+        if (DAY_INTERVAL.equals(interval)) {
+            tick.open(open).high(high).low(low).volume(volume);
+        }
+    }
+
+    /**
+     * Minimal protobuf wire-format reader over a slice of a byte array.
+     */
+    static final class ProtoReader {
+        private static final int WIRE_VARINT = 0;
+        private static final int WIRE_FIXED64 = 1;
+        private static final int WIRE_LENGTH_DELIMITED = 2;
+        private static final int WIRE_FIXED32 = 5;
+
+        private final byte[] buffer;
+        private int position;
+        private final int limit;
+
+        ProtoReader(byte[] buffer, int offset, int limit) {
+            this.buffer = buffer;
+            this.position = offset;
+            this.limit = limit;
+        }
+
+        static int fieldNumber(int tag) {
+            return tag >>> 3;
+        }
+
+        boolean hasRemaining() {
+            return position < limit;
+        }
+
+        int readTag() {
+            return (int) readVarint();
+        }
+
+        long readVarint() {
+            long result = 0;
+            for (int shift = 0; shift < 64; shift += 7) {
+                byte b = readByte();
+                result |= (long) (b & 0x7F) << shift;
+                if ((b & 0x80) == 0) {
+                    return result;
+                }
+            }
+            throw new IllegalArgumentException("Malformed varint in feed frame");
+        }
+
+        double readDouble() {
+            return Double.longBitsToDouble(readFixed64());
+        }
+
+        String readString() {
+            int length = readLength();
+            String value = new String(buffer, position, length, StandardCharsets.UTF_8);
+            position += length;
+            return value;
+        }
+
+        ProtoReader readMessage() {
+            int length = readLength();
+            ProtoReader message = new ProtoReader(buffer, position, position + length);
+            position += length;
+            return message;
+        }
+
+        void skip(int tag) {
+            switch (tag & 0x7) {
+                case WIRE_VARINT -> readVarint();
+                case WIRE_FIXED64 -> advance(8);
+                case WIRE_LENGTH_DELIMITED -> advance(readLength());
+                case WIRE_FIXED32 -> advance(4);
+                default -> throw new IllegalArgumentException("Unsupported wire type in feed frame: " + (tag & 0x7));
+            }
+        }
+
+        private long readFixed64() {
+            ensureAvailable(8);
+            long value = 0;
+            for (int i = 0; i < 8; i++) {
+                value |= (buffer[position + i] & 0xFFL) << (8 * i);
+            }
+            position += 8;
+            return value;
+        }
+
+        private int readLength() {
+            int length = (int) readVarint();
+            ensureAvailable(length);
+            return length;
+        }
+
+        private byte readByte() {
+            ensureAvailable(1);
+            return buffer[position++];
+        }
+
+        private void advance(int count) {
+            ensureAvailable(count);
+            position += count;
+        }
+
+        private void ensureAvailable(int count) {
+            if (count < 0 || position + count > limit) {
+                throw new IllegalArgumentException("Truncated feed frame");
+            }
+        }
+    }
+}
@@ -0,0 +1,268 @@
+package com.am.marketdata.upstock.feed;
+
+import com.am.marketdata.upstock.client.UpStockClient;
+import com.am.marketdata.upstock.config.UpstoxFeedConfig;
+import com.am.marketdata.upstock.model.MarketFeedAuthorizeResponse;
+import com.am.marketdata.upstock.model.MarketFeedTick;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import jakarta.annotation.PreDestroy;
+import java.io.ByteArrayOutputStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.WebSocket;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * WebSocket client for the Upstox market-data feed. Keeps the set of subscribed instrument
+ * keys and replays it after every reconnect, so callers subscribe once and keep receiving ticks.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class UpstoxMarketFeedClient {
+    private final UpstoxFeedConfig feedConfig;
+    private final UpStockClient upStockClient;
+    private final MarketFeedDecoder decoder;
+    private final ObjectMapper objectMapper;
+    private final MeterRegistry meterRegistry;
+
+    // Metric names
+    private static final String METRIC_PREFIX = "upstox.feed.";
+    private static final String METRIC_FRAMES = METRIC_PREFIX + "frames";
+    private static final String METRIC_DECODE_ERRORS = METRIC_PREFIX + "decode.errors";
+    private static final String METRIC_RECONNECTS = METRIC_PREFIX + "reconnects";
+
+    private final Set<String> subscriptions = ConcurrentHashMap.newKeySet();
+    // One client for every connect; a fresh one per reconnect would each start their own selector thread
+    private final HttpClient httpClient = HttpClient.newHttpClient();
+    private final ScheduledExecutorService reconnectScheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "upstox-feed-reconnect");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private volatile Consumer<List<MarketFeedTick>> tickConsumer = ticks -> { };
+    private volatile WebSocket webSocket;
+    private volatile boolean running;
+    private CompletableFuture<WebSocket> lastSend = CompletableFuture.completedFuture(null);
+    // Reset on the WebSocket thread, doubled on the reconnect thread
+    private volatile long currentReconnectDelayMs;
+
+    public void start(Consumer<List<MarketFeedTick>> consumer) {
+        this.tickConsumer = consumer;
+        this.running = true;
+        this.currentReconnectDelayMs = feedConfig.getReconnectDelayMs();
+        connect();
+    }
+
+    /**
+     * Stops delivering ticks and closes the connection. Safe to call more than once.
+     */
+    @PreDestroy
+    public void stop() {
+        running = false;
+        tickConsumer = ticks -> { };
+        reconnectScheduler.shutdownNow();
+        WebSocket socket = webSocket;
+        webSocket = null;
+        if (socket != null) {
+            socket.sendClose(WebSocket.NORMAL_CLOSURE, "shutdown");
+        }
+    }
+
+    public boolean isConnected() {
+        WebSocket socket = webSocket;
+        return socket != null && !socket.isInputClosed() && !socket.isOutputClosed();
+    }
+
+    public void subscribe(Collection<String> instrumentKeys) {
+        List<String> added = instrumentKeys.stream().filter(subscriptions::add).toList();
+        if (!added.isEmpty() && isConnected()) {
+            sendSubscription("sub", added);
+        }
+    }
+
+    public void unsubscribe(Collection<String> instrumentKeys) {
+        List<String> removed = instrumentKeys.stream().filter(subscriptions::remove).toList();
+        if (!removed.isEmpty() && isConnected()) {
+            sendSubscription("unsub", removed);
+        }
+    }
+
+    /**
+     * Makes {@code instrumentKeys} the whole subscription set, subscribing keys that are new and
+     * unsubscribing ones that are no longer wanted.
+     */
+    public void syncSubscriptions(Collection<String> instrumentKeys) {
+        Set<String> wanted = new HashSet<>(instrumentKeys);
+        unsubscribe(subscriptions.stream().filter(key -> !wanted.contains(key)).toList());
+        subscribe(wanted);
+    }
+
+    private void connect() {
+        try {
+            URI feedUri = URI.create(resolveFeedUrl());
+            log.info("Connecting to Upstox market feed: {}", feedUri.getHost());
+            httpClient.newWebSocketBuilder()
+                .buildAsync(feedUri, new FeedListener())
+                .whenComplete((socket, ex) -> {
+                    if (ex != null) {
+                        log.error("Failed to connect to Upstox market feed: {}", ex.getMessage());
+                        scheduleReconnect();
+                    }
+                });
+        } catch (Exception e) {
+            log.error("Failed to open Upstox market feed: {}", e.getMessage(), e);
+            scheduleReconnect();
+        }
+    }
+
+    private String resolveFeedUrl() {
+        if (feedConfig.getUrl() != null && !feedConfig.getUrl().isBlank()) {
+            return feedConfig.getUrl();
+        }
+        MarketFeedAuthorizeResponse response = upStockClient.getMarketDataFeedAuthorization();
+        if (response == null || response.getData() == null || response.getData().getAuthorizedRedirectUri() == null) {
+            throw new IllegalStateException("Upstox did not return an authorized market feed URI");
+        }
+        return response.getData().getAuthorizedRedirectUri();
+    }
+
+    private void scheduleReconnect() {
+        webSocket = null;
+        if (!running) {
+            return;
+        }
+        long delay = currentReconnectDelayMs;
+        currentReconnectDelayMs = Math.min(delay * 2, feedConfig.getMaxReconnectDelayMs());
+        meterRegistry.counter(METRIC_RECONNECTS).increment();
+        log.warn("Reconnecting to Upstox market feed in {} ms", delay);
+        reconnectScheduler.schedule(this::connect, delay, TimeUnit.MILLISECONDS);
+    }
+
+    private void resubscribeAll() {
+        List<String> keys = new ArrayList<>(subscriptions);
+        if (!keys.isEmpty()) {
+            log.info("Subscribing to {} instruments on market feed", keys.size());
+            sendSubscription("sub", keys);
+        }
+    }
+
+    private void sendSubscription(String method, List<String> instrumentKeys) {
+        int batchSize = Math.max(1, feedConfig.getSubscriptionBatchSize());
+        for (int from = 0; from < instrumentKeys.size(); from += batchSize) {
+            List<String> batch = instrumentKeys.subList(from, Math.min(from + batchSize, instrumentKeys.size()));
+            send(subscriptionMessage(method, batch));
+        }
+    }
+
+    private byte[] subscriptionMessage(String method, List<String> instrumentKeys) {
+        try {
+            return objectMapper.writeValueAsBytes(Map.of(
+                "guid", UUID.randomUUID().toString(),
+                "method", method,
+                "data", Map.of("mode", feedConfig.getMode(), "instrumentKeys", instrumentKeys)));
+        } catch (Exception e) {
+            throw new IllegalStateException("Failed to build market feed subscription", e);
+        }
+    }
+
+    // The JDK WebSocket allows one outstanding send at a time, so sends are chained
+    private synchronized void send(byte[] message) {
+        WebSocket socket = webSocket;
+        if (socket == null) {
+            return;
+        }
+        lastSend = lastSend
+            .exceptionally(ex -> null)
+            .thenCompose(previous -> socket.sendBinary(ByteBuffer.wrap(message), true));
+    }
+
+    private class FeedListener implements WebSocket.Listener {
+        private final ByteArrayOutputStream frame = new ByteArrayOutputStream();
+
+        @Override
+        public void onOpen(WebSocket socket) {
+            if (!running) {
+                // Stopped while the handshake was in flight
+                socket.sendClose(WebSocket.NORMAL_CLOSURE, "shutdown");
+                return;
+            }
+            log.info("Connected to Upstox market feed");
+            webSocket = socket;
+            currentReconnectDelayMs = feedConfig.getReconnectDelayMs();
+            synchronized (UpstoxMarketFeedClient.this) {
+                lastSend = CompletableFuture.completedFuture(socket);
+            }
+            resubscribeAll();
+            socket.request(1);
+        }
+
+        @Override
+        public CompletionStage<?> onBinary(WebSocket socket, ByteBuffer data, boolean last) {
+            byte[] chunk = new byte[data.remaining()];
+            data.get(chunk);
+            frame.writeBytes(chunk);
+            if (last) {
+                byte[] message = frame.toByteArray();
+                frame.reset();
+                dispatch(message);
+            }
+            socket.request(1);
+            return null;
+        }
+
+        @Override
+        public CompletionStage<?> onText(WebSocket socket, CharSequence data, boolean last) {
+            log.debug("Market feed text message: {}", data);
+            socket.request(1);
+            return null;
+        }
+
+        @Override
+        public CompletionStage<?> onClose(WebSocket socket, int statusCode, String reason) {
+            log.warn("Upstox market feed closed. Status: {}, Reason: {}", statusCode, reason);
+            scheduleReconnect();
+            return null;
+        }
+
+        @Override
+        public void onError(WebSocket socket, Throwable error) {
+            log.error("Upstox market feed error: {}", error.getMessage(), error);
+            scheduleReconnect();
+        }
+
+        private void dispatch(byte[] message) {
+            meterRegistry.counter(METRIC_FRAMES).increment();
+            try {
+                List<MarketFeedTick> ticks = decoder.decode(message);
+                if (!ticks.isEmpty()) {
+                    tickConsumer.accept(ticks);
+                }
+            } catch (Exception e) {
+                meterRegistry.counter(METRIC_DECODE_ERRORS).increment();
+                log.warn("Failed to decode market feed frame of {} bytes: {}", message.length, e.getMessage());
+            }
+        }
+    }
+}
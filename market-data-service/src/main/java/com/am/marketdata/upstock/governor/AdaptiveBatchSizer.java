@@ -0,0 +1,39 @@
+package com.am.marketdata.upstock.governor;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Additive-increase, multiplicative-decrease batch size for multi-instrument requests. The
+ * ceiling is the smaller of the endpoint's instrument limit and what fits in the URL.
+ */
+class AdaptiveBatchSizer {
+    // "NSE_EQ|INE002A01018" URL-encoded ("|" -> %7C) plus an encoded "," separator
+    private static final int ENCODED_INSTRUMENT_KEY_LENGTH = 24;
+    // Base URL, path and the interval parameter
+    private static final int URL_OVERHEAD = 120;
+
+    private final int minSize;
+    private final int maxSize;
+    private final int growthStep;
+    private final AtomicInteger currentSize;
+
+    AdaptiveBatchSizer(int initialSize, int minSize, int endpointMaxSize, int growthStep, int maxUrlLength) {
+        int urlBound = Math.max(1, (maxUrlLength - URL_OVERHEAD) / ENCODED_INSTRUMENT_KEY_LENGTH);
+        this.maxSize = Math.max(1, Math.min(endpointMaxSize, urlBound));
+        this.minSize = Math.max(1, Math.min(minSize, this.maxSize));
+        this.growthStep = Math.max(1, growthStep);
+        this.currentSize = new AtomicInteger(Math.max(this.minSize, Math.min(initialSize, this.maxSize)));
+    }
+
+    int current() {
+        return currentSize.get();
+    }
+
+    void onSuccess() {
+        currentSize.updateAndGet(size -> Math.min(maxSize, size + growthStep));
+    }
+
+    void onFailure() {
+        currentSize.updateAndGet(size -> Math.max(minSize, size / 2));
+    }
+}
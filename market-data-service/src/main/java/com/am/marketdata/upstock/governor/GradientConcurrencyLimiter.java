@@ -0,0 +1,140 @@
+package com.am.marketdata.upstock.governor;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Concurrency limit that follows the latency gradient: while round trips stay close to the
+ * best observed latency the limit grows, and once latency rises (queueing at the provider)
+ * it shrinks proportionally. Throttling responses halve it immediately.
+ *
+ * <p>Blocking callers wait in {@link #acquire()}; asynchronous callers get a future from
+ * {@link #acquireAsync()} that completes, in arrival order, when a permit is released to them.
+ */
+class GradientConcurrencyLimiter {
+    private static final double SMOOTHING = 0.2;
+    private static final double MIN_RTT_DECAY = 1.01;
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition permitAvailable = lock.newCondition();
+    private final Queue<CompletableFuture<Void>> waiters = new ArrayDeque<>();
+
+    private double limit;
+    private int inFlight;
+    private double minRttNanos = Double.MAX_VALUE;
+
+    GradientConcurrencyLimiter(int initialLimit, int minLimit, int maxLimit) {
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.limit = initialLimit;
+    }
+
+    void acquire() throws InterruptedException {
+        lock.lock();
+        try {
+            while (inFlight >= (int) limit) {
+                permitAvailable.await(100, TimeUnit.MILLISECONDS);
+            }
+            inFlight++;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Returns a future that completes once a permit has been taken for the caller, without
+     * blocking the calling thread.
+     */
+    CompletableFuture<Void> acquireAsync() {
+        lock.lock();
+        try {
+            if (waiters.isEmpty() && inFlight < (int) limit) {
+                inFlight++;
+                return CompletableFuture.completedFuture(null);
+            }
+            CompletableFuture<Void> waiter = new CompletableFuture<>();
+            waiters.add(waiter);
+            return waiter;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    void onSuccess(long rttNanos) {
+        // A zero reading from a coarse clock would make the gradient 0/0 and poison the limit
+        double rtt = Math.max(1, rttNanos);
+        release(() -> {
+            // Let the baseline drift up slowly so a one-off fast response does not pin it
+            minRttNanos = Math.min(minRttNanos * MIN_RTT_DECAY, rtt);
+            double gradient = Math.max(0.5, Math.min(1.0, minRttNanos / rtt));
+            double queueAllowance = Math.sqrt(limit);
+            double target = limit * gradient + queueAllowance;
+            limit = clamp(limit * (1 - SMOOTHING) + target * SMOOTHING);
+        });
+    }
+
+    void onThrottled() {
+        release(() -> limit = clamp(limit / 2));
+    }
+
+    void onError() {
+        release(() -> { });
+    }
+
+    int getLimit() {
+        lock.lock();
+        try {
+            return (int) limit;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    int getInFlight() {
+        lock.lock();
+        try {
+            return inFlight;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    int getWaiting() {
+        lock.lock();
+        try {
+            return waiters.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void release(Runnable adjustLimit) {
+        List<CompletableFuture<Void>> admitted = new ArrayList<>();
+        lock.lock();
+        try {
+            inFlight--;
+            adjustLimit.run();
+            while (!waiters.isEmpty() && inFlight < (int) limit) {
+                inFlight++;
+                admitted.add(waiters.poll());
+            }
+            permitAvailable.signalAll();
+        } finally {
+            lock.unlock();
+        }
+        // Completed outside the lock, since each admitted caller goes on to send its request here
+        admitted.forEach(waiter -> waiter.complete(null));
+    }
+
+    private double clamp(double value) {
+        return Math.max(minLimit, Math.min(maxLimit, value));
+    }
+}
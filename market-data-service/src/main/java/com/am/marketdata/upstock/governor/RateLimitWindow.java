@@ -0,0 +1,46 @@
+package com.am.marketdata.upstock.governor;
+
+import java.time.Duration;
+
+/**
+ * Token bucket for one rate-limit window, refilled continuously at capacity per period.
+ * Not thread-safe; {@link UpstoxRateGovernor} guards all windows with one lock.
+ */
+class RateLimitWindow {
+    private final double capacity;
+    private final double tokensPerNano;
+    private double tokens;
+    private long lastRefillNanos;
+
+    RateLimitWindow(int capacity, Duration period, long nowNanos) {
+        this.capacity = capacity;
+        this.tokensPerNano = capacity / (double) period.toNanos();
+        this.tokens = capacity;
+        this.lastRefillNanos = nowNanos;
+    }
+
+    /**
+     * Nanoseconds until a token is available, zero if one is available now.
+     */
+    long nanosUntilAvailable(long now) {
+        refill(now);
+        return tokens >= 1 ? 0 : (long) Math.ceil((1 - tokens) / tokensPerNano);
+    }
+
+    void consume() {
+        tokens -= 1;
+    }
+
+    /**
+     * Empties the bucket, used when the provider throttles us despite the local budget.
+     */
+    void drain(long now) {
+        refill(now);
+        tokens = Math.min(tokens, 0);
+    }
+
+    private void refill(long now) {
+        tokens = Math.min(capacity, tokens + (now - lastRefillNanos) * tokensPerNano);
+        lastRefillNanos = now;
+    }
+}
@@ -0,0 +1,229 @@
+package com.am.marketdata.upstock.governor;
+
+import com.am.marketdata.upstock.config.UpstoxGovernorConfig;
+import com.am.marketdata.upstock.exception.UpStockApiException;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+
+/**
+ * Admission control in front of the Upstox API. Every call first takes a token from each
+ * documented rate-limit window, then a slot from the latency-gradient concurrency limiter.
+ * Outcomes feed back into the limiter and into the adaptive quote batch size, so callers run
+ * at the provider's ceiling and back off as soon as it pushes back with a 429.
+ *
+ * <p>{@link #execute} waits on the calling thread. {@link #executeAsync} never blocks: a caller
+ * short of rate budget is resumed by a timer task on the governor's scheduler, and one short of a
+ * concurrency slot when another request completes.
+ */
+@Slf4j
+@Component
+public class UpstoxRateGovernor {
+    private final UpstoxGovernorConfig governorConfig;
+    private final MeterRegistry meterRegistry;
+    private final LongSupplier nanoClock;
+    private final ScheduledExecutorService scheduler;
+
+    private static final int HTTP_TOO_MANY_REQUESTS = 429;
+    // Multi-instrument endpoints whose outcomes tune the batch size
+    private static final Set<String> BATCHED_ENDPOINTS = Set.of("quotes", "ohlc");
+
+    // Metric names
+    private static final String METRIC_PREFIX = "upstox.governor.";
+    private static final String METRIC_WAIT_TIME = METRIC_PREFIX + "wait.time";
+    private static final String METRIC_THROTTLED = METRIC_PREFIX + "throttled";
+    private static final String TAG_ENDPOINT = "endpoint";
+
+    private List<RateLimitWindow> windows;
+    private GradientConcurrencyLimiter concurrencyLimiter;
+    private AdaptiveBatchSizer batchSizer;
+
+    @Autowired
+    public UpstoxRateGovernor(UpstoxGovernorConfig governorConfig, MeterRegistry meterRegistry) {
+        this(governorConfig, meterRegistry, System::nanoTime, Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "upstox-governor");
+            thread.setDaemon(true);
+            return thread;
+        }));
+    }
+
+    // Tests pass a fake nanosecond clock and a scheduler they run by hand
+    UpstoxRateGovernor(UpstoxGovernorConfig governorConfig, MeterRegistry meterRegistry, LongSupplier nanoClock,
+                       ScheduledExecutorService scheduler) {
+        this.governorConfig = governorConfig;
+        this.meterRegistry = meterRegistry;
+        this.nanoClock = nanoClock;
+        this.scheduler = scheduler;
+    }
+
+    @PostConstruct
+    public void initialize() {
+        long now = nanoClock.getAsLong();
+        windows = List.of(
+            new RateLimitWindow(governorConfig.getRequestsPerSecond(), Duration.ofSeconds(1), now),
+            new RateLimitWindow(governorConfig.getRequestsPerMinute(), Duration.ofMinutes(1), now),
+            new RateLimitWindow(governorConfig.getRequestsPerThirtyMinutes(), Duration.ofMinutes(30), now));
+        concurrencyLimiter = new GradientConcurrencyLimiter(
+            governorConfig.getInitialConcurrency(), governorConfig.getMinConcurrency(), governorConfig.getMaxConcurrency());
+        batchSizer = new AdaptiveBatchSizer(
+            governorConfig.getInitialBatchSize(), governorConfig.getMinBatchSize(), governorConfig.getMaxBatchSize(),
+            governorConfig.getBatchGrowthStep(), governorConfig.getMaxUrlLength());
+
+        Gauge.builder(METRIC_PREFIX + "concurrency.limit", concurrencyLimiter, GradientConcurrencyLimiter::getLimit)
+            .description("Current Upstox concurrency limit")
+            .register(meterRegistry);
+        Gauge.builder(METRIC_PREFIX + "inflight", concurrencyLimiter, GradientConcurrencyLimiter::getInFlight)
+            .description("Upstox requests admitted and not yet completed")
+            .register(meterRegistry);
+        Gauge.builder(METRIC_PREFIX + "waiting", concurrencyLimiter, GradientConcurrencyLimiter::getWaiting)
+            .description("Asynchronous Upstox requests queued for a concurrency slot")
+            .register(meterRegistry);
+        Gauge.builder(METRIC_PREFIX + "batch.size", batchSizer, AdaptiveBatchSizer::current)
+            .description("Current instruments per Upstox quote request")
+            .register(meterRegistry);
+
+        log.info("Initialized Upstox rate governor. Limits: {}/s, {}/min, {}/30min, concurrency {}..{}, batch size {}..{}",
+            governorConfig.getRequestsPerSecond(), governorConfig.getRequestsPerMinute(),
+            governorConfig.getRequestsPerThirtyMinutes(), governorConfig.getMinConcurrency(),
+            governorConfig.getMaxConcurrency(), governorConfig.getMinBatchSize(), governorConfig.getMaxBatchSize());
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        scheduler.shutdownNow();
+    }
+
+    /**
+     * Instruments to put in the next multi-instrument quote request.
+     */
+    public int currentBatchSize() {
+        return batchSizer.current();
+    }
+
+    public <T> T execute(String endpoint, Supplier<T> call) {
+        admit(endpoint);
+        long start = nanoClock.getAsLong();
+        try {
+            T result = call.get();
+            onSuccess(endpoint, nanoClock.getAsLong() - start);
+            return result;
+        } catch (RuntimeException e) {
+            onFailure(endpoint, e);
+            throw e;
+        }
+    }
+
+    /**
+     * Sends {@code call} once it is admitted. The returned future also carries any exception
+     * thrown while creating the request.
+     */
+    public <T> CompletableFuture<T> executeAsync(String endpoint, Supplier<CompletableFuture<T>> call) {
+        Timer.Sample waitTimer = Timer.start(meterRegistry);
+        CompletableFuture<Void> token = new CompletableFuture<>();
+        takeRateTokenAsync(token);
+        return token
+            .thenCompose(ignored -> concurrencyLimiter.acquireAsync())
+            .thenCompose(admitted -> {
+                waitTimer.stop(meterRegistry.timer(METRIC_WAIT_TIME, TAG_ENDPOINT, endpoint));
+                long start = nanoClock.getAsLong();
+                CompletableFuture<T> future;
+                try {
+                    future = call.get();
+                } catch (RuntimeException e) {
+                    onFailure(endpoint, e);
+                    return CompletableFuture.failedFuture(e);
+                }
+                return future.whenComplete((result, ex) -> {
+                    if (ex == null) {
+                        onSuccess(endpoint, nanoClock.getAsLong() - start);
+                    } else {
+                        onFailure(endpoint, ex instanceof CompletionException && ex.getCause() != null ? ex.getCause() : ex);
+                    }
+                });
+            });
+    }
+
+    private void admit(String endpoint) {
+        Timer.Sample waitTimer = Timer.start(meterRegistry);
+        try {
+            takeRateToken();
+            concurrencyLimiter.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for Upstox rate budget", e);
+        } finally {
+            waitTimer.stop(meterRegistry.timer(METRIC_WAIT_TIME, TAG_ENDPOINT, endpoint));
+        }
+    }
+
+    private void takeRateToken() throws InterruptedException {
+        long waitNanos;
+        while ((waitNanos = tryTakeRateToken()) > 0) {
+            TimeUnit.NANOSECONDS.sleep(waitNanos);
+        }
+    }
+
+    private void takeRateTokenAsync(CompletableFuture<Void> token) {
+        long waitNanos = tryTakeRateToken();
+        if (waitNanos == 0) {
+            token.complete(null);
+        } else {
+            scheduler.schedule(() -> takeRateTokenAsync(token), waitNanos, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    /**
+     * Takes a token from every window if all of them have one.
+     *
+     * @return zero once taken, otherwise how long until the emptiest window refills
+     */
+    private synchronized long tryTakeRateToken() {
+        long now = nanoClock.getAsLong();
+        long waitNanos = windows.stream().mapToLong(window -> window.nanosUntilAvailable(now)).max().orElse(0);
+        if (waitNanos == 0) {
+            windows.forEach(RateLimitWindow::consume);
+        }
+        return waitNanos;
+    }
+
+    private void onSuccess(String endpoint, long rttNanos) {
+        concurrencyLimiter.onSuccess(rttNanos);
+        if (BATCHED_ENDPOINTS.contains(endpoint)) {
+            batchSizer.onSuccess();
+        }
+    }
+
+    private void onFailure(String endpoint, Throwable error) {
+        if (BATCHED_ENDPOINTS.contains(endpoint)) {
+            batchSizer.onFailure();
+        }
+        if (error instanceof UpStockApiException apiException && apiException.getStatusCode() == HTTP_TOO_MANY_REQUESTS) {
+            log.warn("Upstox throttled {} request, backing off", endpoint);
+            meterRegistry.counter(METRIC_THROTTLED, TAG_ENDPOINT, endpoint).increment();
+            concurrencyLimiter.onThrottled();
+            synchronized (this) {
+                // The shortest window is the one we overran; make callers wait for its refill
+                windows.get(0).drain(nanoClock.getAsLong());
+            }
+        } else {
+            concurrencyLimiter.onError();
+        }
+    }
+}
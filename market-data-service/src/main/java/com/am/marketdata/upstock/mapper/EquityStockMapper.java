@@ -1,20 +1,39 @@
 package com.am.marketdata.upstock.mapper;
 
+import java.time.Instant;
+import java.time.OffsetDateTime;
 import java.time.ZonedDateTime;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.stream.Collectors;
 
 import org.springframework.stereotype.Component;
 
 import com.am.common.investment.model.equity.EquityPrice;
+import com.am.marketdata.common.timeseries.TimeSeriesPoint;
+import com.am.marketdata.upstock.model.HistoricalDataResponse.Candle;
+import com.am.marketdata.upstock.model.MarketFeedTick;
 import com.am.marketdata.upstock.model.OHLCResponse.OHLCData;
 import com.am.marketdata.upstock.model.common.StockQuote;
 
 @Component
 public class EquityStockMapper {
-    
+    // Trading symbols learned from OHLC responses; feed ticks and candles only carry the ISIN
+    private final Map<String, String> symbolsByIsin = new ConcurrentHashMap<>();
+
+    public void rememberSymbols(List<EquityPrice> equityPrices) {
+        for (EquityPrice equityPrice : equityPrices) {
+            if (equityPrice.getIsin() != null && equityPrice.getSymbol() != null) {
+                symbolsByIsin.put(equityPrice.getIsin(), equityPrice.getSymbol());
+            }
+        }
+    }
+
+    public boolean hasSymbol(String isin) {
+        return symbolsByIsin.containsKey(isin);
+    }
 
     public List<EquityPrice> getEquityPrices(List<StockQuote> marketQuotes) {
         if (marketQuotes == null || marketQuotes.isEmpty()) {
@@ -62,6 +81,67 @@ public class EquityStockMapper {
             .build();
     }
 
+    public EquityPrice getEquityPriceByTick(MarketFeedTick tick) {
+        String instrumentKey = tick.getInstrumentKey();
+        String isin = getInstrumentIsin(instrumentKey);
+        return EquityPrice.builder()
+            .exchange(getExchange(instrumentKey))
+            .isin(isin)
+            .symbol(symbolsByIsin.get(isin))
+            .open(tick.getOpen())
+            .high(tick.getHigh())
+            .low(tick.getLow())
+            .close(tick.getLastPrice())
+            .volume(tick.getVolume())
+            .time(tick.getLastTradeTime() != null
+                ? Instant.ofEpochMilli(tick.getLastTradeTime())
+                : ZonedDateTime.now().toInstant())
+            .build();
+    }
+
+    public EquityPrice getEquityPriceByCandle(String instrumentKey, Candle candle) {
+        String isin = getInstrumentIsin(instrumentKey);
+        return EquityPrice.builder()
+            .exchange(getExchange(instrumentKey))
+            .isin(isin)
+            .symbol(symbolsByIsin.get(isin))
+            .open(candle.getOpen())
+            .high(candle.getHigh())
+            .low(candle.getLow())
+            .close(candle.getClose())
+            .volume(candle.getVolume())
+            .time(OffsetDateTime.parse(candle.getTimestamp()).toInstant())
+            .build();
+    }
+
+    public List<TimeSeriesPoint> getTimeSeriesPoints(List<EquityPrice> equityPrices) {
+        return equityPrices.stream().map(this::getTimeSeriesPoint).collect(Collectors.toList());
+    }
+
+    public TimeSeriesPoint getTimeSeriesPoint(EquityPrice equityPrice) {
+        return TimeSeriesPoint.measurement("equity_price")
+            .tag("isin", equityPrice.getIsin())
+            .tag("exchange", equityPrice.getExchange())
+            .tag("symbol", equityPrice.getSymbol())
+            .field("open", equityPrice.getOpen())
+            .field("high", equityPrice.getHigh())
+            .field("low", equityPrice.getLow())
+            .field("close", equityPrice.getClose())
+            .field("volume", equityPrice.getVolume())
+            .time(equityPrice.getTime());
+    }
+
+    // Instrument keys look like "NSE_EQ|INE002A01018"
+    private String getExchange(String instrumentKey) {
+        int pipeIndex = instrumentKey.indexOf('|');
+        return pipeIndex > 0 ? instrumentKey.substring(0, pipeIndex) : null;
+    }
+
+    private String getInstrumentIsin(String instrumentKey) {
+        int pipeIndex = instrumentKey.indexOf('|');
+        return pipeIndex >= 0 ? instrumentKey.substring(pipeIndex + 1) : instrumentKey;
+    }
+
     public String getSymbol(String symbol) {
         if (symbol == null) return null;
         String[] parts = symbol.split("\\:");
@@ -0,0 +1,136 @@
+package com.am.marketdata.upstock.mapper;
+
+import com.am.common.investment.model.equity.EquityPrice;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Single-pass reader for the Upstox OHLC quote response. Tokens are pulled straight off the
+ * response stream into primitive fields and then into {@link EquityPrice}, without binding the
+ * intermediate {@code Map<String, OHLCData>} or splitting keys more than once per entry.
+ *
+ * <pre>
+ * {"status":"success","data":{"NSE_EQ:RELIANCE":{"ohlc":{"open":..,"high":..,"low":..,"close":..},
+ *   "last_price":..,"instrument_token":"NSE_EQ|INE002A01018"}, ...}}
+ * </pre>
+ */
+@Component
+public class OHLCStreamParser {
+    private static final JsonFactory JSON_FACTORY = new JsonFactory();
+
+    public List<EquityPrice> parse(InputStream body) throws IOException {
+        try (JsonParser parser = JSON_FACTORY.createParser(body)) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                throw new JsonParseException(parser, "Expected OHLC response object");
+            }
+            List<EquityPrice> prices = new ArrayList<>();
+            // One timestamp per response, as every entry describes the same snapshot
+            Instant receivedAt = Instant.now();
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String field = parser.getCurrentName();
+                if (parser.nextToken() == JsonToken.START_OBJECT && "data".equals(field)) {
+                    readData(parser, prices, receivedAt);
+                } else {
+                    parser.skipChildren();
+                }
+            }
+            return prices;
+        }
+    }
+
+    private void readData(JsonParser parser, List<EquityPrice> prices, Instant receivedAt) throws IOException {
+        OhlcValues values = new OhlcValues();
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String key = parser.getCurrentName();
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                parser.skipChildren();
+                continue;
+            }
+            values.reset();
+            readEntry(parser, values);
+            prices.add(toEquityPrice(key, values, receivedAt));
+        }
+    }
+
+    private void readEntry(JsonParser parser, OhlcValues values) throws IOException {
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.getCurrentName();
+            JsonToken token = parser.nextToken();
+            if ("ohlc".equals(field) && token == JsonToken.START_OBJECT) {
+                readOhlc(parser, values);
+            } else if ("instrument_token".equals(field) && token == JsonToken.VALUE_STRING) {
+                values.instrumentToken = parser.getText();
+            } else {
+                parser.skipChildren();
+            }
+        }
+    }
+
+    private void readOhlc(JsonParser parser, OhlcValues values) throws IOException {
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.getCurrentName();
+            parser.nextToken();
+            switch (field) {
+                case "open" -> values.open = readDouble(parser);
+                case "high" -> values.high = readDouble(parser);
+                case "low" -> values.low = readDouble(parser);
+                case "close" -> values.close = readDouble(parser);
+                default -> parser.skipChildren();
+            }
+        }
+    }
+
+    private static double readDouble(JsonParser parser) throws IOException {
+        return parser.currentToken().isNumeric() ? parser.getDoubleValue() : Double.NaN;
+    }
+
+    // Keys look like "NSE_EQ:RELIANCE"; instrument tokens like "NSE_EQ|INE002A01018"
+    private static EquityPrice toEquityPrice(String key, OhlcValues values, Instant receivedAt) {
+        int colonIndex = key.indexOf(':');
+        String token = values.instrumentToken;
+        int pipeIndex = token != null ? token.indexOf('|') : -1;
+        return EquityPrice.builder()
+            .exchange(colonIndex > 0 ? key.substring(0, colonIndex) : null)
+            .isin(pipeIndex >= 0 && pipeIndex + 1 < token.length() ? token.substring(pipeIndex + 1) : null)
+            .symbol(colonIndex >= 0 ? key.substring(colonIndex + 1) : null)
+            .open(boxed(values.open))
+            .high(boxed(values.high))
+            .low(boxed(values.low))
+            .close(boxed(values.close))
+            .time(receivedAt)
+            .build();
+    }
+
+    private static Double boxed(double value) {
+        return Double.isNaN(value) ? null : value;
+    }
+
+    /**
+     * Reused scratch holder for one entry; NaN marks a missing or null price.
+     */
+    private static final class OhlcValues {
+        double open;
+        double high;
+        double low;
+        double close;
+        String instrumentToken;
+
+        void reset() {
+            open = Double.NaN;
+            high = Double.NaN;
+            low = Double.NaN;
+            close = Double.NaN;
+            instrumentToken = null;
+        }
+    }
+}
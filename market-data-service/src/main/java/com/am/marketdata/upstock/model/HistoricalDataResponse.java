@@ -1,12 +1,30 @@
 package com.am.marketdata.upstock.model;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import lombok.Data;
 import java.util.List;
 
 @Data
+@JsonIgnoreProperties(ignoreUnknown = true)
 public class HistoricalDataResponse {
     private String status;
-    private List<Candle> data;
+    private CandleData data;
+
+    @JsonIgnore
+    public List<Candle> getCandles() {
+        if (data == null || data.getCandles() == null) {
+            return List.of();
+        }
+        return data.getCandles().stream().map(Candle::fromRow).toList();
+    }
+
+    @Data
+    @JsonIgnoreProperties(ignoreUnknown = true)
+    public static class CandleData {
+        // Upstox sends each candle as [timestamp, open, high, low, close, volume, open interest]
+        private List<List<Object>> candles;
+    }
 
     @Data
     public static class Candle {
@@ -17,5 +35,25 @@ public class HistoricalDataResponse {
         private Double close;
         private Long volume;
         private Long oi;
+
+        static Candle fromRow(List<Object> row) {
+            Candle candle = new Candle();
+            candle.setTimestamp(String.valueOf(row.get(0)));
+            candle.setOpen(toDouble(row, 1));
+            candle.setHigh(toDouble(row, 2));
+            candle.setLow(toDouble(row, 3));
+            candle.setClose(toDouble(row, 4));
+            candle.setVolume(toLong(row, 5));
+            candle.setOi(toLong(row, 6));
+            return candle;
+        }
+
+        private static Double toDouble(List<Object> row, int index) {
+            return row.size() > index && row.get(index) instanceof Number number ? number.doubleValue() : null;
+        }
+
+        private static Long toLong(List<Object> row, int index) {
+            return row.size() > index && row.get(index) instanceof Number number ? number.longValue() : null;
+        }
     }
-} 
\ No newline at end of file
+}
@@ -0,0 +1,14 @@
+package com.am.marketdata.upstock.model;
+
+import lombok.Data;
+
+@Data
+public class MarketFeedAuthorizeResponse {
+    private String status;
+    private FeedAuthorization data;
+
+    @Data
+    public static class FeedAuthorization {
+        private String authorizedRedirectUri;
+    }
+}
@@ -0,0 +1,21 @@
+package com.am.marketdata.upstock.model;
+
+import lombok.Builder;
+import lombok.Data;
+
+@Data
+@Builder
+public class MarketFeedTick {
+    // Instrument key as subscribed, e.g. "NSE_EQ|INE002A01018"
+    private String instrumentKey;
+    private Double lastPrice;
+    // Exchange last-trade time in epoch millis
+    private Long lastTradeTime;
+    private Double previousClose;
+
+    // Day candle, only present in "full" mode
+    private Double open;
+    private Double high;
+    private Double low;
+    private Long volume;
+}
@@ -0,0 +1,238 @@
+package com.am.marketdata.service;
+
+import com.am.common.investment.model.equity.EquityPrice;
+import com.am.marketdata.kafka.config.KafkaPublishingConfig;
+import com.am.marketdata.kafka.producer.KafkaProducerService;
+import com.am.marketdata.kafka.producer.SendBatch;
+import com.am.marketdata.upstock.adapter.UpStockAdapter;
+import com.am.marketdata.upstock.mapper.EquityStockMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CopyOnWriteArraySet;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class EquityPriceProcessingServiceTest {
+
+    private static final List<String> ISINS = IntStream.rangeClosed(1, 6)
+        .mapToObj(i -> String.format("INE%09d", i))
+        .toList();
+
+    private SimpleMeterRegistry meterRegistry;
+    private StubAdapter adapter;
+    private RecordingKafkaProducer kafkaProducer;
+    private RecordingTransactionManager transactionManager;
+    private final List<String> saveThreads = new CopyOnWriteArrayList<>();
+    private final Set<String> failingSaves = new CopyOnWriteArraySet<>();
+    private final AtomicInteger concurrentSaves = new AtomicInteger();
+    private final AtomicInteger maxConcurrentSaves = new AtomicInteger();
+    private EquityPriceProcessingService service;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        adapter = new StubAdapter();
+        kafkaProducer = new RecordingKafkaProducer();
+        transactionManager = new RecordingTransactionManager();
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (service != null) {
+            service.shutdown();
+        }
+    }
+
+    @Test
+    void shouldFetchAsyncAndPersistNoMoreBatchesAtOnceThanParallelism() {
+        // Given six one-ISIN batches and two workers
+        start(true, 2);
+
+        // When
+        boolean processed = service.processEquityPrices(ISINS);
+
+        // Then fetches went through the async client and saves never exceeded the pool
+        assertTrue(processed);
+        assertEquals(6, adapter.asyncRequests.size());
+        assertEquals(0, adapter.syncRequests.size());
+        assertEquals(2, maxConcurrentSaves.get());
+        assertTrue(saveThreads.stream().allMatch(name -> name.startsWith("equity-price-")), () -> "Saved on " + saveThreads);
+        assertEquals(6, transactionManager.commits.get());
+        assertEquals(1, kafkaProducer.sent.size());
+        assertEquals(6, kafkaProducer.sent.get(0).size());
+        assertEquals(6.0, meterRegistry.counter("equity.price.batch.success").count());
+        assertEquals(1, meterRegistry.timer("equity.price.cycle.time", "mode", "concurrent").count());
+    }
+
+    @Test
+    void shouldProcessBatchesOnCallerInSequentialMode() {
+        start(false, 2);
+
+        boolean processed = service.processEquityPrices(ISINS);
+
+        assertTrue(processed);
+        assertEquals(6, adapter.syncRequests.size());
+        assertEquals(0, adapter.asyncRequests.size());
+        assertEquals(1, maxConcurrentSaves.get());
+        assertTrue(saveThreads.stream().allMatch(Thread.currentThread().getName()::equals));
+        assertEquals(6, transactionManager.commits.get());
+        assertEquals(1, meterRegistry.timer("equity.price.cycle.time", "mode", "sequential").count());
+    }
+
+    @Test
+    void shouldRollBackOnlyFailedBatchAndSkipKafka() {
+        // Given one batch whose save fails
+        failingSaves.add(ISINS.get(2));
+        start(true, 2);
+
+        // When
+        boolean processed = service.processEquityPrices(ISINS);
+
+        // Then the other batches stay committed in their own transactions, but nothing is published
+        assertFalse(processed);
+        assertEquals(5, transactionManager.commits.get());
+        assertEquals(1, transactionManager.rollbacks.get());
+        assertTrue(kafkaProducer.sent.isEmpty());
+        assertEquals(1.0, meterRegistry.counter("equity.price.batch.error").count());
+        assertEquals(1.0, meterRegistry.counter("equity.price.kafka.events.skipped").count());
+    }
+
+    @Test
+    void shouldCountFailedAsyncFetchAsBatchError() {
+        adapter.failingFetches.add("NSE_EQ|" + ISINS.get(0));
+        start(true, 2);
+
+        boolean processed = service.processEquityPrices(ISINS);
+
+        assertFalse(processed);
+        assertEquals(5, transactionManager.commits.get());
+        assertEquals(1.0, meterRegistry.counter("equity.price.batch.error").count());
+        assertEquals(5.0, meterRegistry.counter("equity.price.batch.success").count());
+    }
+
+    private void start(boolean concurrent, int parallelism) {
+        service = new EquityPriceProcessingService(adapter, this::save, kafkaProducer, meterRegistry,
+            transactionManager, points -> { }, new EquityStockMapper());
+        ReflectionTestUtils.setField(service, "concurrentEnabled", concurrent);
+        ReflectionTestUtils.setField(service, "parallelism", parallelism);
+        ReflectionTestUtils.setField(service, "maxInFlightChunks", 8);
+        ReflectionTestUtils.setField(service, "changeDetectionEnabled", true);
+        ReflectionTestUtils.setField(service, "fullSnapshotIntervalMinutes", 15L);
+        ReflectionTestUtils.setField(service, "publishDeliveryTimeoutMs", 5000L);
+        service.initialize();
+    }
+
+    private void save(List<EquityPrice> prices) {
+        assertTrue(transactionManager.active.get(), "Prices must be saved inside a transaction");
+        saveThreads.add(Thread.currentThread().getName());
+        maxConcurrentSaves.accumulateAndGet(concurrentSaves.incrementAndGet(), Math::max);
+        try {
+            // Long enough for the other worker to pick up a batch meanwhile
+            Thread.sleep(50);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            concurrentSaves.decrementAndGet();
+        }
+        if (prices.stream().anyMatch(price -> failingSaves.contains(price.getIsin()))) {
+            throw new IllegalStateException("database unavailable");
+        }
+    }
+
+    private static List<EquityPrice> prices(List<String> symbols) {
+        return symbols.stream()
+            .map(symbol -> EquityPrice.builder()
+                .isin(symbol.substring(symbol.indexOf('|') + 1))
+                .close(2930.0)
+                .time(Instant.parse("2026-10-05T05:00:00Z"))
+                .build())
+            .toList();
+    }
+
+    private static final class StubAdapter extends UpStockAdapter {
+        private final List<List<String>> asyncRequests = new CopyOnWriteArrayList<>();
+        private final List<List<String>> syncRequests = new CopyOnWriteArrayList<>();
+        private final Set<String> failingFetches = new CopyOnWriteArraySet<>();
+
+        StubAdapter() {
+            super(null, null, null, null);
+        }
+
+        @Override
+        public int getBatchSize() {
+            return 1;
+        }
+
+        @Override
+        public CompletableFuture<List<EquityPrice>> getStocksOHLCAsync(List<String> symbols) {
+            asyncRequests.add(symbols);
+            if (symbols.stream().anyMatch(failingFetches::contains)) {
+                return CompletableFuture.failedFuture(new IllegalStateException("Upstox unavailable"));
+            }
+            return CompletableFuture.completedFuture(prices(symbols));
+        }
+
+        @Override
+        public List<EquityPrice> getStocksOHLC(List<String> symbols) {
+            syncRequests.add(symbols);
+            return prices(symbols);
+        }
+    }
+
+    private static final class RecordingKafkaProducer extends KafkaProducerService {
+        private final List<List<EquityPrice>> sent = new CopyOnWriteArrayList<>();
+
+        RecordingKafkaProducer() {
+            super(null, new KafkaPublishingConfig());
+        }
+
+        @Override
+        public SendBatch sendEquityPriceUpdates(List<EquityPrice> equityPrices) {
+            sent.add(new ArrayList<>(equityPrices));
+            return SendBatch.empty("recorded");
+        }
+    }
+
+    /**
+     * Counts commits and rollbacks and tracks whether the current thread is inside a transaction.
+     */
+    private static final class RecordingTransactionManager implements PlatformTransactionManager {
+        private final AtomicInteger commits = new AtomicInteger();
+        private final AtomicInteger rollbacks = new AtomicInteger();
+        private final ThreadLocal<Boolean> active = ThreadLocal.withInitial(() -> false);
+
+        @Override
+        public TransactionStatus getTransaction(TransactionDefinition definition) {
+            active.set(true);
+            return new SimpleTransactionStatus();
+        }
+
+        @Override
+        public void commit(TransactionStatus status) {
+            active.set(false);
+            commits.incrementAndGet();
+        }
+
+        @Override
+        public void rollback(TransactionStatus status) {
+            active.set(false);
+            rollbacks.incrementAndGet();
+        }
+    }
+}
@@ -0,0 +1,64 @@
+package com.am.marketdata.service.backfill;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BackfillCheckpointStoreTest {
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void shouldStartEmptyWithoutCheckpointFile() {
+        BackfillCheckpointStore store = new BackfillCheckpointStore(dir.resolve("checkpoint.log"));
+
+        assertEquals(0, store.size());
+        assertFalse(store.isCompleted("INE002A01018|day|2024-01-01|2024-12-30"));
+    }
+
+    @Test
+    void shouldReloadCompletedChunksAfterRestart() {
+        // Given chunks marked by a previous process
+        Path file = dir.resolve("checkpoint.log");
+        BackfillCheckpointStore before = new BackfillCheckpointStore(file);
+        before.markCompleted("INE002A01018|day|2024-01-01|2024-12-30");
+        before.markCompleted("INE009A01021|day|2024-01-01|2024-12-30");
+
+        // When
+        BackfillCheckpointStore after = new BackfillCheckpointStore(file);
+
+        // Then
+        assertEquals(2, after.size());
+        assertTrue(after.isCompleted("INE002A01018|day|2024-01-01|2024-12-30"));
+        assertTrue(after.isCompleted("INE009A01021|day|2024-01-01|2024-12-30"));
+        assertFalse(after.isCompleted("INE002A01018|30minute|2024-01-01|2024-01-30"));
+    }
+
+    @Test
+    void shouldIgnoreBlankLinesAndSurroundingWhitespace() throws IOException {
+        Path file = dir.resolve("checkpoint.log");
+        Files.writeString(file, "\n  INE002A01018|day|2024-01-01|2024-12-30  \n\n", StandardCharsets.UTF_8);
+
+        BackfillCheckpointStore store = new BackfillCheckpointStore(file);
+
+        assertEquals(1, store.size());
+        assertTrue(store.isCompleted("INE002A01018|day|2024-01-01|2024-12-30"));
+    }
+
+    @Test
+    void shouldAppendToExistingCheckpoints() throws IOException {
+        Path file = dir.resolve("checkpoint.log");
+        new BackfillCheckpointStore(file).markCompleted("INE002A01018|day|2024-01-01|2024-12-30");
+
+        new BackfillCheckpointStore(file).markCompleted("INE009A01021|day|2024-01-01|2024-12-30");
+
+        assertEquals(2, Files.readAllLines(file).size());
+    }
+}
@@ -0,0 +1,265 @@
+package com.am.marketdata.service.backfill;
+
+import com.am.common.investment.model.equity.EquityPrice;
+import com.am.marketdata.upstock.adapter.UpStockAdapter;
+import com.am.marketdata.upstock.client.UpStockAsyncClient;
+import com.am.marketdata.upstock.config.UpstoxBackfillConfig;
+import com.am.marketdata.upstock.config.UpstoxGovernorConfig;
+import com.am.marketdata.upstock.governor.UpstoxRateGovernor;
+import com.am.marketdata.upstock.mapper.EquityStockMapper;
+import com.am.marketdata.upstock.model.HistoricalDataResponse;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class HistoricalBackfillServiceTest {
+
+    private static final String ISIN = "INE002A01018";
+    private static final String KEY = "NSE_EQ|" + ISIN;
+
+    @TempDir
+    Path checkpointDir;
+
+    private UpstoxBackfillConfig backfillConfig;
+    private UpstoxGovernorConfig governorConfig;
+    private SimpleMeterRegistry meterRegistry;
+    private UpstoxRateGovernor rateGovernor;
+    private StubAsyncClient asyncClient;
+    private RecordingAdapter adapter;
+    private List<List<EquityPrice>> savedBatches;
+
+    @BeforeEach
+    void setUp() {
+        backfillConfig = new UpstoxBackfillConfig();
+        backfillConfig.setCheckpointFile(checkpointDir.resolve("backfill-checkpoint.log").toString());
+        backfillConfig.setParallelism(1);
+        governorConfig = new UpstoxGovernorConfig();
+        meterRegistry = new SimpleMeterRegistry();
+        asyncClient = new StubAsyncClient();
+        adapter = new RecordingAdapter();
+        savedBatches = new CopyOnWriteArrayList<>();
+    }
+
+    @AfterEach
+    void tearDown() {
+        asyncClient.held.values().forEach(future -> future.completeExceptionally(new IllegalStateException("test over")));
+        if (rateGovernor != null) {
+            rateGovernor.shutdown();
+        }
+    }
+
+    @Test
+    void shouldSplitRangeIntoChunksPerInterval() {
+        // Given a range longer than one intraday chunk but shorter than one daily chunk
+        backfillConfig.setIntradayChunkDays(30);
+        backfillConfig.setDailyChunkDays(365);
+        HistoricalBackfillService service = service(List.of(ISIN));
+
+        // When
+        int failed = service.backfill(LocalDate.parse("2024-01-01"), LocalDate.parse("2024-03-15"), List.of("day", "30minute"));
+
+        // Then
+        assertEquals(0, failed);
+        assertEquals(List.of(ISIN), adapter.resolved);
+        assertEquals(List.of(
+            new Fetch(KEY, "day", "2024-01-01", "2024-03-15"),
+            new Fetch(KEY, "30minute", "2024-01-01", "2024-01-30"),
+            new Fetch(KEY, "30minute", "2024-01-31", "2024-02-29"),
+            new Fetch(KEY, "30minute", "2024-03-01", "2024-03-15")), asyncClient.fetches);
+    }
+
+    @Test
+    void shouldSaveCandlesInConfiguredBatches() {
+        backfillConfig.setSaveBatchSize(2);
+        asyncClient.candlesPerChunk = 5;
+        HistoricalBackfillService service = service(List.of(ISIN));
+
+        service.backfill(LocalDate.parse("2024-01-01"), LocalDate.parse("2024-01-05"), List.of("day"));
+
+        assertEquals(List.of(2, 2, 1), savedBatches.stream().map(List::size).toList());
+        assertEquals(ISIN, savedBatches.get(0).get(0).getIsin());
+        assertEquals(5.0, meterRegistry.counter("upstox.backfill.candles.saved").count());
+    }
+
+    @Test
+    void shouldKeepFanOutWithinGovernorConcurrency() {
+        // Given more workers than the governor admits at once, and one-day chunks
+        backfillConfig.setParallelism(8);
+        backfillConfig.setDailyChunkDays(1);
+        governorConfig.setInitialConcurrency(2);
+        governorConfig.setMaxConcurrency(2);
+        asyncClient.delayMs = 20;
+        HistoricalBackfillService service = service(List.of(ISIN));
+
+        // When
+        int failed = service.backfill(LocalDate.parse("2024-01-01"), LocalDate.parse("2024-01-10"), List.of("day"));
+
+        // Then every chunk was fetched, never more than two at a time
+        assertEquals(0, failed);
+        assertEquals(10, asyncClient.fetches.size());
+        assertEquals(2, asyncClient.maxInFlight.get());
+        assertEquals(10, meterRegistry.timer("upstox.governor.wait.time", "endpoint", "historical").count());
+    }
+
+    @Test
+    void shouldRetryOnlyFailedChunksOnNextRun() {
+        // Given a run where the second chunk failed
+        backfillConfig.setDailyChunkDays(1);
+        asyncClient.failing.add("2024-01-02");
+        assertEquals(1, service(List.of(ISIN)).backfill(LocalDate.parse("2024-01-01"), LocalDate.parse("2024-01-03"), List.of("day")));
+        asyncClient.failing.clear();
+        asyncClient.fetches.clear();
+
+        // When
+        int failed = service(List.of(ISIN)).backfill(LocalDate.parse("2024-01-01"), LocalDate.parse("2024-01-03"), List.of("day"));
+
+        // Then
+        assertEquals(0, failed);
+        assertEquals(List.of(new Fetch(KEY, "day", "2024-01-02", "2024-01-02")), asyncClient.fetches);
+        assertEquals(2.0, meterRegistry.counter("upstox.backfill.chunks", "outcome", "skipped").count());
+    }
+
+    @Test
+    void shouldFetchOnlyRemainingRangesAfterInterruptedRun() throws Exception {
+        // Given a run over four chunks interrupted while the second is still being fetched
+        backfillConfig.setIntradayChunkDays(30);
+        asyncClient.held.put("2024-01-31", new CompletableFuture<>());
+        LocalDate from = LocalDate.parse("2024-01-01");
+        LocalDate to = LocalDate.parse("2024-04-29");
+        Thread run = new Thread(() -> service(List.of(ISIN)).backfill(from, to, List.of("30minute")));
+        run.start();
+        awaitUntil(() -> asyncClient.fetches.size() == 2);
+        run.interrupt();
+        run.join(TimeUnit.SECONDS.toMillis(5));
+        assertFalse(run.isAlive());
+        // The in-flight request dies with the process
+        asyncClient.held.remove("2024-01-31").completeExceptionally(new IllegalStateException("connection reset"));
+        awaitUntil(() -> meterRegistry.counter("upstox.backfill.chunks", "outcome", "failed").count() == 1.0);
+        asyncClient.fetches.clear();
+
+        // When
+        int failed = service(List.of(ISIN)).backfill(from, to, List.of("30minute"));
+
+        // Then only the chunks the first run never finished are fetched
+        assertEquals(0, failed);
+        assertEquals(List.of(
+            new Fetch(KEY, "30minute", "2024-01-31", "2024-02-29"),
+            new Fetch(KEY, "30minute", "2024-03-01", "2024-03-30"),
+            new Fetch(KEY, "30minute", "2024-03-31", "2024-04-29")), asyncClient.fetches);
+        assertEquals(4, new BackfillCheckpointStore(Path.of(backfillConfig.getCheckpointFile())).size());
+    }
+
+    @Test
+    void shouldCheckpointEveryCompletedChunk() throws IOException {
+        backfillConfig.setDailyChunkDays(1);
+
+        service(List.of(ISIN, "INE009A01021")).backfill(LocalDate.parse("2024-01-01"), LocalDate.parse("2024-01-02"), List.of("day"));
+
+        List<String> lines = Files.readAllLines(Path.of(backfillConfig.getCheckpointFile()));
+        assertEquals(4, lines.size());
+        assertTrue(lines.contains("INE009A01021|day|2024-01-02|2024-01-02"));
+    }
+
+    private HistoricalBackfillService service(List<String> isins) {
+        if (rateGovernor == null) {
+            rateGovernor = new UpstoxRateGovernor(governorConfig, meterRegistry);
+            rateGovernor.initialize();
+        }
+        return new HistoricalBackfillService(backfillConfig, asyncClient, adapter, rateGovernor,
+            () -> isins, savedBatches::add, new EquityStockMapper(), meterRegistry);
+    }
+
+    private static void awaitUntil(BooleanSupplier condition) {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (!condition.getAsBoolean()) {
+            assertTrue(System.nanoTime() < deadline, "Condition not met within 10s");
+            try {
+                Thread.sleep(10);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                fail("Interrupted while waiting");
+            }
+        }
+    }
+
+    private record Fetch(String instrumentKey, String interval, String from, String to) {
+    }
+
+    /**
+     * Answers historical requests with {@code candlesPerChunk} candles. Requests starting on a
+     * date in {@code failing} fail, and those in {@code held} wait on the given future.
+     */
+    private static final class StubAsyncClient extends UpStockAsyncClient {
+        private final List<Fetch> fetches = new CopyOnWriteArrayList<>();
+        private final List<String> failing = new CopyOnWriteArrayList<>();
+        private final Map<String, CompletableFuture<HistoricalDataResponse>> held = new ConcurrentHashMap<>();
+        private final AtomicInteger inFlight = new AtomicInteger();
+        private final AtomicInteger maxInFlight = new AtomicInteger();
+        private volatile int candlesPerChunk = 1;
+        private volatile long delayMs;
+
+        StubAsyncClient() {
+            super(null, null, null, null);
+        }
+
+        @Override
+        public CompletableFuture<HistoricalDataResponse> getHistoricalData(String symbol, String interval, String from, String to) {
+            fetches.add(new Fetch(symbol, interval, from, to));
+            if (held.containsKey(from)) {
+                return held.get(from);
+            }
+            if (failing.contains(from)) {
+                return CompletableFuture.failedFuture(new IllegalStateException("Upstox unavailable"));
+            }
+            maxInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+            return CompletableFuture.supplyAsync(() -> {
+                inFlight.decrementAndGet();
+                return candles(LocalDate.parse(from), candlesPerChunk);
+            }, CompletableFuture.delayedExecutor(delayMs, TimeUnit.MILLISECONDS));
+        }
+
+        private static HistoricalDataResponse candles(LocalDate day, int count) {
+            List<List<Object>> rows = new ArrayList<>();
+            for (int i = 0; i < count; i++) {
+                rows.add(List.of(day.plusDays(i) + "T00:00:00+05:30", 2900.0, 2950.0, 2880.0, 2930.0, 1_000_000L + i, 0L));
+            }
+            HistoricalDataResponse.CandleData data = new HistoricalDataResponse.CandleData();
+            data.setCandles(rows);
+            HistoricalDataResponse response = new HistoricalDataResponse();
+            response.setStatus("success");
+            response.setData(data);
+            return response;
+        }
+    }
+
+    private static final class RecordingAdapter extends UpStockAdapter {
+        private final List<String> resolved = new CopyOnWriteArrayList<>();
+
+        RecordingAdapter() {
+            super(null, null, null, null);
+        }
+
+        @Override
+        public void resolveSymbols(List<String> isins) {
+            resolved.addAll(isins);
+        }
+    }
+}
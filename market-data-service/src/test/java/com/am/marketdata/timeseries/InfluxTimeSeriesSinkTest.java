@@ -0,0 +1,207 @@
+package com.am.marketdata.timeseries;
+
+import com.am.marketdata.common.timeseries.TimeSeriesPoint;
+import com.influxdb.client.InfluxDBClient;
+import com.influxdb.client.InfluxDBClientFactory;
+import com.sun.net.httpserver.HttpServer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.reactivex.rxjava3.core.BackpressureOverflowStrategy;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class InfluxTimeSeriesSinkTest {
+
+    private static final Instant TIME = Instant.parse("2026-10-05T04:00:00Z");
+
+    private HttpServer server;
+    // Line protocol of every write request, in arrival order
+    private final List<List<String>> batches = new CopyOnWriteArrayList<>();
+    // Status to answer each write with; 204 once empty
+    private final Queue<Integer> statuses = new ConcurrentLinkedQueue<>();
+    private volatile CountDownLatch serverGate = new CountDownLatch(0);
+    private InfluxDBClient influxDBClient;
+    private SimpleMeterRegistry meterRegistry;
+    private InfluxTimeSeriesSink sink;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+        server.createContext("/api/v2/write", exchange -> {
+            List<String> lines = new String(exchange.getRequestBody().readAllBytes(), StandardCharsets.UTF_8)
+                .lines().toList();
+            try {
+                serverGate.await(10, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            Integer status = statuses.poll();
+            int code = status != null ? status : 204;
+            if (code == 204) {
+                batches.add(lines);
+            }
+            exchange.sendResponseHeaders(code, -1);
+            exchange.close();
+        });
+        server.start();
+
+        influxDBClient = InfluxDBClientFactory.create("http://localhost:" + server.getAddress().getPort(),
+            "token".toCharArray(), "am_investment", "market_data");
+        meterRegistry = new SimpleMeterRegistry();
+        sink = new InfluxTimeSeriesSink(influxDBClient, meterRegistry);
+        ReflectionTestUtils.setField(sink, "enabled", true);
+        ReflectionTestUtils.setField(sink, "batchSize", 3);
+        ReflectionTestUtils.setField(sink, "flushIntervalMs", 60_000);
+        ReflectionTestUtils.setField(sink, "bufferLimit", 1000);
+        ReflectionTestUtils.setField(sink, "maxRetries", 3);
+        ReflectionTestUtils.setField(sink, "retryIntervalMs", 10);
+        ReflectionTestUtils.setField(sink, "overflowStrategy", BackpressureOverflowStrategy.DROP_OLDEST);
+    }
+
+    @AfterEach
+    void tearDown() {
+        serverGate.countDown();
+        sink.shutdown();
+        influxDBClient.close();
+        server.stop(0);
+    }
+
+    @Test
+    void shouldWriteInConfiguredBatchSizes() {
+        // Given
+        sink.initialize();
+
+        // When
+        sink.write(points(0, 7));
+        sink.shutdown();
+
+        // Then full batches go out as they fill and the remainder on close
+        assertEquals(List.of(3, 3, 1), batches.stream().map(List::size).toList());
+        assertEquals(7.0, counter("influx.sink.points"));
+        assertEquals(7.0, counter("influx.sink.points.written"));
+    }
+
+    @Test
+    void shouldFlushPartialBatchAfterInterval() {
+        ReflectionTestUtils.setField(sink, "batchSize", 100);
+        ReflectionTestUtils.setField(sink, "flushIntervalMs", 50);
+        sink.initialize();
+
+        sink.write(points(0, 2));
+
+        awaitUntil(() -> batches.size() == 1);
+        assertEquals(2, batches.get(0).size());
+    }
+
+    @Test
+    void shouldSkipPointsWithoutFieldsOrTime() {
+        sink.initialize();
+
+        sink.write(List.of(
+            TimeSeriesPoint.measurement("index_price").tag("symbol", "NIFTY 50").time(TIME),
+            TimeSeriesPoint.measurement("index_price").tag("symbol", "NIFTY 50").field("last", 22000.0),
+            point(1)));
+        sink.shutdown();
+
+        assertEquals(1.0, counter("influx.sink.points"));
+        assertEquals(1, batches.get(0).size());
+    }
+
+    @Test
+    void shouldCountRetriedBatches() {
+        // Given Influx is briefly unavailable
+        statuses.add(503);
+        ReflectionTestUtils.setField(sink, "batchSize", 1);
+        sink.initialize();
+
+        // When
+        sink.write(points(0, 1));
+
+        // Then the batch is retried and then written
+        awaitUntil(() -> counter("influx.sink.points.written") == 1.0);
+        assertEquals(1.0, counter("influx.sink.batches.retried"));
+        assertEquals(0.0, counter("influx.sink.batches.failed"));
+    }
+
+    @Test
+    void shouldCountFailedBatches() {
+        statuses.add(400);
+        ReflectionTestUtils.setField(sink, "batchSize", 1);
+        sink.initialize();
+
+        sink.write(points(0, 1));
+
+        awaitUntil(() -> counter("influx.sink.batches.failed") == 1.0);
+        assertEquals(0.0, counter("influx.sink.points.written"));
+        assertEquals(0.0, counter("influx.sink.batches.retried"));
+    }
+
+    @Test
+    void shouldDropOldestBatchesWhenBufferIsFull() {
+        // Given Influx stalls on the first write and only a couple of points fit in the buffer
+        serverGate = new CountDownLatch(1);
+        ReflectionTestUtils.setField(sink, "batchSize", 1);
+        ReflectionTestUtils.setField(sink, "bufferLimit", 2);
+        sink.initialize();
+
+        // When
+        for (int i = 0; i < 20; i++) {
+            sink.write(points(i, 1));
+        }
+        awaitUntil(() -> counter("influx.sink.backpressure") > 0);
+        serverGate.countDown();
+        sink.shutdown();
+
+        // Then the enqueue never blocked, older batches were dropped and the newest survived
+        assertEquals(20.0, counter("influx.sink.points"));
+        assertTrue(counter("influx.sink.points.written") < 20.0);
+        List<String> last = batches.get(batches.size() - 1);
+        assertTrue(last.get(last.size() - 1).contains("sequence=19i"), () -> "Last written: " + last);
+    }
+
+    private double counter(String name) {
+        return meterRegistry.find(name).counters().stream().mapToDouble(counter -> counter.count()).sum();
+    }
+
+    private static List<TimeSeriesPoint> points(int from, int count) {
+        return IntStream.range(from, from + count).mapToObj(InfluxTimeSeriesSinkTest::point).toList();
+    }
+
+    private static TimeSeriesPoint point(int sequence) {
+        return TimeSeriesPoint.measurement("index_price")
+            .tag("symbol", "NIFTY 50")
+            .field("sequence", sequence)
+            .field("last", 22000.0 + sequence)
+            .time(TIME.plusSeconds(sequence));
+    }
+
+    private static void awaitUntil(BooleanSupplier condition) {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (!condition.getAsBoolean()) {
+            assertTrue(System.nanoTime() < deadline, "Condition not met within 10s");
+            try {
+                Thread.sleep(10);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                fail("Interrupted while waiting");
+            }
+        }
+    }
+}
@@ -0,0 +1,239 @@
+package com.am.marketdata.upstock.client;
+
+import com.am.common.investment.model.equity.EquityPrice;
+import com.am.marketdata.upstock.config.UpstoxClientConfig;
+import com.am.marketdata.upstock.config.UpstoxConfig;
+import com.am.marketdata.upstock.exception.UpStockApiException;
+import com.am.marketdata.upstock.mapper.OHLCStreamParser;
+import com.sun.net.httpserver.HttpServer;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.ClassPathResource;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+import java.util.zip.GZIPOutputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class UpStockAsyncClientTest {
+
+    private static final List<String> SYMBOLS = List.of("NSE_EQ:INE002A01018");
+
+    private ExecutorService serverThreads;
+    private HttpServer server;
+    private final List<Request> requests = new CopyOnWriteArrayList<>();
+    private volatile int status = 200;
+    private volatile byte[] body;
+    private volatile boolean gzipBody;
+    private volatile CountDownLatch serverGate = new CountDownLatch(0);
+    private UpstoxClientConfig clientConfig;
+    private SimpleMeterRegistry meterRegistry;
+    private UpStockAsyncClient client;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        try (InputStream in = new ClassPathResource("ohlc-quotes.json").getInputStream()) {
+            body = in.readAllBytes();
+        }
+        serverThreads = Executors.newCachedThreadPool();
+        server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+        server.createContext("/market-quote/ohlc", exchange -> {
+            requests.add(new Request(exchange.getRemoteAddress().getPort(),
+                exchange.getRequestHeaders().getFirst("Accept-Encoding")));
+            try {
+                serverGate.await(10, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            byte[] payload = gzipBody ? gzip(body) : body;
+            if (gzipBody) {
+                exchange.getResponseHeaders().add("Content-Encoding", "gzip");
+            }
+            exchange.getResponseHeaders().add("Content-Type", "application/json");
+            exchange.sendResponseHeaders(status, payload.length);
+            exchange.getResponseBody().write(payload);
+            exchange.close();
+        });
+        server.setExecutor(serverThreads);
+        server.start();
+
+        UpstoxConfig upstoxConfig = new UpstoxConfig();
+        upstoxConfig.setAccessToken("token");
+        clientConfig = new UpstoxClientConfig();
+        clientConfig.setBaseUrl("http://localhost:" + server.getAddress().getPort());
+        // The stub server only speaks HTTP/1.1
+        clientConfig.setHttp2Enabled(false);
+        meterRegistry = new SimpleMeterRegistry();
+        client = new UpStockAsyncClient(upstoxConfig, clientConfig, meterRegistry, new OHLCStreamParser());
+    }
+
+    @AfterEach
+    void tearDown() {
+        serverGate.countDown();
+        client.shutdown();
+        server.stop(0);
+        serverThreads.shutdownNow();
+    }
+
+    @Test
+    void shouldAskForGzipAndDecodeGzippedBody() throws Exception {
+        // Given
+        gzipBody = true;
+        client.initialize();
+
+        // When
+        List<EquityPrice> prices = client.getOHLCPrices(SYMBOLS, "I1").get(5, TimeUnit.SECONDS);
+
+        // Then
+        assertEquals("gzip", requests.get(0).acceptEncoding());
+        assertEquals(5, prices.size());
+    }
+
+    @Test
+    void shouldReadPlainBodyWhenGzipIsDisabled() throws Exception {
+        clientConfig.setGzipEnabled(false);
+        client.initialize();
+
+        List<EquityPrice> prices = client.getOHLCPrices(SYMBOLS, "I1").get(5, TimeUnit.SECONDS);
+
+        assertNull(requests.get(0).acceptEncoding());
+        assertEquals(5, prices.size());
+    }
+
+    @Test
+    void shouldMapErrorStatusToApiException() {
+        // Given a rate-limited response with a gzipped error body
+        status = 429;
+        gzipBody = true;
+        body = "{\"status\":\"error\",\"errors\":[{\"errorCode\":\"UDAPI10005\"}]}".getBytes(StandardCharsets.UTF_8);
+        client.initialize();
+
+        // When
+        CompletableFuture<List<EquityPrice>> future = client.getOHLCPrices(SYMBOLS, "I1");
+
+        // Then the caller sees the status and the decoded body, and the failure is counted
+        ExecutionException thrown = assertThrows(ExecutionException.class, () -> future.get(5, TimeUnit.SECONDS));
+        UpStockApiException error = assertInstanceOf(UpStockApiException.class, thrown.getCause());
+        assertEquals("ohlc", error.getEndpoint());
+        assertEquals(429, error.getStatusCode());
+        assertEquals(new String(body, StandardCharsets.UTF_8), error.getResponseBody());
+        assertEquals(1.0, meterRegistry.counter("upstox.api.error.count", "endpoint", "ohlc").count());
+        assertEquals(1, requestTimer("error").count());
+    }
+
+    @Test
+    void shouldTrackInFlightRequestsAndLatencyPerEndpoint() throws Exception {
+        // Given a request the server is holding
+        serverGate = new CountDownLatch(1);
+        client.initialize();
+        CompletableFuture<List<EquityPrice>> future = client.getOHLCPrices(SYMBOLS, "I1");
+        awaitUntil(() -> inFlight() == 1.0);
+
+        // When
+        serverGate.countDown();
+        future.get(5, TimeUnit.SECONDS);
+
+        // Then
+        assertEquals(0.0, inFlight());
+        assertEquals(1, requestTimer("success").count());
+        assertTrue(requestTimer("success").totalTime(TimeUnit.NANOSECONDS) > 0);
+    }
+
+    @Test
+    void shouldQueueRequestsBeyondMaxConnections() throws Exception {
+        // Given two connections, both held by the server
+        clientConfig.setMaxConnections(2);
+        serverGate = new CountDownLatch(1);
+        client.initialize();
+
+        // When
+        List<CompletableFuture<List<EquityPrice>>> futures = List.of(
+            client.getOHLCPrices(SYMBOLS, "I1"),
+            client.getOHLCPrices(SYMBOLS, "I1"),
+            client.getOHLCPrices(SYMBOLS, "I1"));
+
+        // Then the third waits in the client until a connection frees up
+        awaitUntil(() -> requests.size() == 2);
+        assertEquals(2.0, inFlight());
+        assertEquals(1.0, meterRegistry.get("upstox.api.requests.queued").gauge().value());
+        serverGate.countDown();
+        for (CompletableFuture<List<EquityPrice>> future : futures) {
+            assertEquals(5, future.get(5, TimeUnit.SECONDS).size());
+        }
+        assertEquals(3, requests.size());
+        assertEquals(0.0, meterRegistry.get("upstox.api.requests.queued").gauge().value());
+    }
+
+    @Test
+    void shouldReuseConnectionWithinKeepAlive() throws Exception {
+        client.initialize();
+
+        client.getOHLCPrices(SYMBOLS, "I1").get(5, TimeUnit.SECONDS);
+        client.getOHLCPrices(SYMBOLS, "I1").get(5, TimeUnit.SECONDS);
+
+        assertEquals(requests.get(0).port(), requests.get(1).port());
+    }
+
+    @Test
+    void shouldReconnectOnceIdlePastKeepAlive() throws Exception {
+        // Given a keep-alive every pause exceeds
+        clientConfig.setKeepAliveSeconds(0);
+        client.initialize();
+
+        // When
+        client.getOHLCPrices(SYMBOLS, "I1").get(5, TimeUnit.SECONDS);
+        client.getOHLCPrices(SYMBOLS, "I1").get(5, TimeUnit.SECONDS);
+
+        // Then
+        assertNotEquals(requests.get(0).port(), requests.get(1).port());
+    }
+
+    private double inFlight() {
+        return meterRegistry.get("upstox.api.requests.inflight").tag("endpoint", "ohlc").gauge().value();
+    }
+
+    private Timer requestTimer(String outcome) {
+        return meterRegistry.get("upstox.api.request.time").tag("endpoint", "ohlc").tag("outcome", outcome).timer();
+    }
+
+    private static byte[] gzip(byte[] bytes) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+            gzip.write(bytes);
+        }
+        return out.toByteArray();
+    }
+
+    private static void awaitUntil(BooleanSupplier condition) {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (!condition.getAsBoolean()) {
+            assertTrue(System.nanoTime() < deadline, "Condition not met within 10s");
+            try {
+                Thread.sleep(10);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                fail("Interrupted while waiting");
+            }
+        }
+    }
+
+    private record Request(int port, String acceptEncoding) {
+    }
+}
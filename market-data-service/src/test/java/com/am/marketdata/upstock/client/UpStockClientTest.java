@@ -0,0 +1,15 @@
+package com.am.marketdata.upstock.client;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class UpStockClientTest {
+
+    @Test
+    void shouldPutHistoricalDatesInThePathNewestFirst() {
+        String url = UpStockClient.historicalDataUrl("NSE_EQ|INE002A01018", "day", "2025-03-01", "2025-03-07");
+
+        assertEquals(UpStockClient.BASE_URL + "/historical-data/NSE_EQ%7CINE002A01018/day/2025-03-07/2025-03-01", url);
+    }
+}
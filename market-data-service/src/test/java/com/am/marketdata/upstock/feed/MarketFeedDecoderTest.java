@@ -0,0 +1,104 @@
+package com.am.marketdata.upstock.feed;
+
+import com.am.marketdata.upstock.model.MarketFeedTick;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MarketFeedDecoderTest {
+
+    private final MarketFeedDecoder decoder = new MarketFeedDecoder();
+
+    @Test
+    void shouldDecodeLtpcFrame() throws IOException {
+        // When
+        List<MarketFeedTick> ticks = decoder.decode(frame("feed-ltpc.bin"));
+
+        // Then
+        assertEquals(2, ticks.size(), "Should have one tick per instrument");
+        MarketFeedTick reliance = ticks.get(0);
+        assertEquals("NSE_EQ|INE002A01018", reliance.getInstrumentKey());
+        assertEquals(2490.55, reliance.getLastPrice());
+        assertEquals(1741333499000L, reliance.getLastTradeTime());
+        assertEquals(2469.8, reliance.getPreviousClose());
+        assertNull(reliance.getOpen(), "LTPC mode carries no candle");
+        assertNull(reliance.getVolume());
+        assertEquals("NSE_EQ|INE467B01029", ticks.get(1).getInstrumentKey());
+        assertEquals(4102.3, ticks.get(1).getLastPrice());
+    }
+
+    @Test
+    void shouldDecodeFullEquityFeedUsingTheDayCandle() throws IOException {
+        // When
+        List<MarketFeedTick> ticks = decoder.decode(frame("feed-full-equity.bin"));
+
+        // Then the intraday I1 candle sent ahead of it is ignored
+        assertEquals(1, ticks.size());
+        MarketFeedTick tick = ticks.get(0);
+        assertEquals("NSE_EQ|INE002A01018", tick.getInstrumentKey());
+        assertEquals(2490.55, tick.getLastPrice());
+        assertEquals(2469.8, tick.getPreviousClose());
+        assertEquals(2471.05, tick.getOpen());
+        assertEquals(2498.9, tick.getHigh());
+        assertEquals(2463.2, tick.getLow());
+        assertEquals(5214331L, tick.getVolume());
+    }
+
+    @Test
+    void shouldDecodeFullIndexFeed() throws IOException {
+        // When
+        List<MarketFeedTick> ticks = decoder.decode(frame("feed-full-index.bin"));
+
+        // Then the day candle is picked even though an intraday one follows it
+        assertEquals(1, ticks.size());
+        MarketFeedTick tick = ticks.get(0);
+        assertEquals("NSE_INDEX|Nifty 50", tick.getInstrumentKey());
+        assertEquals(22552.5, tick.getLastPrice());
+        assertEquals(22460.3, tick.getOpen());
+        assertEquals(22633.8, tick.getHigh());
+        assertEquals(22245.85, tick.getLow());
+        assertEquals(0L, tick.getVolume());
+    }
+
+    @Test
+    void shouldLeaveCandleEmptyWhenOnlyIntradayCandlesAreSent() throws IOException {
+        // When
+        List<MarketFeedTick> ticks = decoder.decode(frame("feed-full-intraday-only.bin"));
+
+        // Then
+        assertEquals(1, ticks.size());
+        assertEquals(4102.3, ticks.get(0).getLastPrice());
+        assertNull(ticks.get(0).getOpen());
+        assertNull(ticks.get(0).getHigh());
+        assertNull(ticks.get(0).getLow());
+        assertNull(ticks.get(0).getVolume());
+    }
+
+    @Test
+    void shouldRejectTruncatedFrame() throws IOException {
+        byte[] full = frame("feed-full-equity.bin");
+
+        for (int length : new int[] {full.length - 1, full.length - 9, full.length / 2, 3}) {
+            byte[] truncated = Arrays.copyOf(full, length);
+            assertThrows(IllegalArgumentException.class, () -> decoder.decode(truncated),
+                "Frame cut to " + length + " of " + full.length + " bytes should be rejected");
+        }
+    }
+
+    @Test
+    void shouldDecodeEmptyFrameToNoTicks() {
+        assertTrue(decoder.decode(new byte[0]).isEmpty());
+    }
+
+    static byte[] frame(String name) throws IOException {
+        try (InputStream in = MarketFeedDecoderTest.class.getResourceAsStream("/feed/" + name)) {
+            assertNotNull(in, "Missing recorded frame " + name);
+            return in.readAllBytes();
+        }
+    }
+}
@@ -0,0 +1,188 @@
+package com.am.marketdata.upstock.feed;
+
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.Base64;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Stand-in for the Upstox feed endpoint: a bare RFC 6455 server on a loopback port that lets a
+ * test read what the client sends, replay recorded frames to it and drop the connection.
+ */
+final class ReplayWebSocketServer implements AutoCloseable {
+    private static final String HANDSHAKE_GUID = "258EAFA5-E914-47DA-95CA-C5AB0DC85B11";
+    private static final int OPCODE_BINARY = 0x2;
+    private static final int OPCODE_CLOSE = 0x8;
+    private static final int OPCODE_PING = 0x9;
+    private static final int OPCODE_PONG = 0xA;
+
+    private final ServerSocket serverSocket;
+    private final BlockingQueue<Connection> connections = new LinkedBlockingQueue<>();
+    private final Thread acceptor;
+
+    ReplayWebSocketServer() throws IOException {
+        serverSocket = new ServerSocket(0, 50, InetAddress.getLoopbackAddress());
+        acceptor = new Thread(this::acceptLoop, "replay-feed-server");
+        acceptor.setDaemon(true);
+        acceptor.start();
+    }
+
+    URI uri() {
+        return URI.create("ws://127.0.0.1:" + serverSocket.getLocalPort() + "/feed");
+    }
+
+    Connection nextConnection(Duration timeout) throws InterruptedException {
+        Connection connection = connections.poll(timeout.toMillis(), TimeUnit.MILLISECONDS);
+        if (connection == null) {
+            throw new AssertionError("Client did not connect within " + timeout);
+        }
+        return connection;
+    }
+
+    @Override
+    public void close() throws IOException {
+        serverSocket.close();
+        for (Connection connection : connections) {
+            connection.socket.close();
+        }
+    }
+
+    private void acceptLoop() {
+        while (!serverSocket.isClosed()) {
+            try {
+                Socket socket = serverSocket.accept();
+                socket.setSoTimeout(5000);
+                connections.add(new Connection(socket));
+            } catch (IOException e) {
+                // Closed, or a client that failed the handshake
+            }
+        }
+    }
+
+    static final class Connection {
+        private final Socket socket;
+        private final DataInputStream in;
+        private final OutputStream out;
+
+        private Connection(Socket socket) throws IOException {
+            this.socket = socket;
+            this.in = new DataInputStream(socket.getInputStream());
+            this.out = socket.getOutputStream();
+            handshake();
+        }
+
+        /**
+         * Reads the next data message from the client, answering pings on the way.
+         */
+        byte[] readMessage() throws IOException {
+            while (true) {
+                int first = in.readUnsignedByte();
+                int second = in.readUnsignedByte();
+                long length = second & 0x7F;
+                if (length == 126) {
+                    length = in.readUnsignedShort();
+                } else if (length == 127) {
+                    length = in.readLong();
+                }
+                byte[] mask = new byte[4];
+                if ((second & 0x80) != 0) {
+                    in.readFully(mask);
+                }
+                byte[] payload = new byte[(int) length];
+                in.readFully(payload);
+                for (int i = 0; i < payload.length; i++) {
+                    payload[i] ^= mask[i % 4];
+                }
+                int opcode = first & 0x0F;
+                if (opcode == OPCODE_PING) {
+                    writeFrame(OPCODE_PONG, payload);
+                } else if (opcode == OPCODE_CLOSE) {
+                    throw new IOException("Client closed the connection");
+                } else {
+                    return payload;
+                }
+            }
+        }
+
+        void sendBinary(byte[] payload) throws IOException {
+            writeFrame(OPCODE_BINARY, payload);
+        }
+
+        /**
+         * Sends a "going away" close frame and drops the socket, as Upstox does on a server restart.
+         */
+        void drop() throws IOException {
+            writeFrame(OPCODE_CLOSE, new byte[] {0x03, (byte) 0xE9});
+            socket.close();
+        }
+
+        private void handshake() throws IOException {
+            String key = null;
+            for (String line = readLine(); !line.isEmpty(); line = readLine()) {
+                int colon = line.indexOf(':');
+                if (colon > 0 && line.substring(0, colon).trim().equalsIgnoreCase("Sec-WebSocket-Key")) {
+                    key = line.substring(colon + 1).trim();
+                }
+            }
+            if (key == null) {
+                socket.close();
+                throw new IOException("Not a WebSocket upgrade request");
+            }
+            String response = "HTTP/1.1 101 Switching Protocols\r\n"
+                + "Upgrade: websocket\r\n"
+                + "Connection: Upgrade\r\n"
+                + "Sec-WebSocket-Accept: " + acceptKey(key) + "\r\n\r\n";
+            out.write(response.getBytes(StandardCharsets.US_ASCII));
+            out.flush();
+        }
+
+        private String readLine() throws IOException {
+            StringBuilder line = new StringBuilder();
+            InputStream raw = in;
+            for (int c = raw.read(); c != '\n'; c = raw.read()) {
+                if (c == -1) {
+                    throw new IOException("Connection closed during handshake");
+                }
+                if (c != '\r') {
+                    line.append((char) c);
+                }
+            }
+            return line.toString();
+        }
+
+        private synchronized void writeFrame(int opcode, byte[] payload) throws IOException {
+            out.write(0x80 | opcode);
+            if (payload.length < 126) {
+                out.write(payload.length);
+            } else {
+                out.write(126);
+                out.write(payload.length >>> 8);
+                out.write(payload.length & 0xFF);
+            }
+            out.write(payload);
+            out.flush();
+        }
+
+        private static String acceptKey(String key) {
+            try {
+                byte[] digest = MessageDigest.getInstance("SHA-1")
+                    .digest((key + HANDSHAKE_GUID).getBytes(StandardCharsets.US_ASCII));
+                return Base64.getEncoder().encodeToString(digest);
+            } catch (NoSuchAlgorithmException e) {
+                throw new IllegalStateException(e);
+            }
+        }
+    }
+}
@@ -0,0 +1,159 @@
+package com.am.marketdata.upstock.feed;
+
+import com.am.marketdata.upstock.config.UpstoxFeedConfig;
+import com.am.marketdata.upstock.model.MarketFeedTick;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class UpstoxMarketFeedClientTest {
+
+    private static final Duration TIMEOUT = Duration.ofSeconds(5);
+    private static final String RELIANCE = "NSE_EQ|INE002A01018";
+    private static final String INFOSYS = "NSE_EQ|INE467B01029";
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final BlockingQueue<List<MarketFeedTick>> received = new LinkedBlockingQueue<>();
+    private ReplayWebSocketServer server;
+    private UpstoxMarketFeedClient client;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        server = new ReplayWebSocketServer();
+        UpstoxFeedConfig feedConfig = new UpstoxFeedConfig();
+        feedConfig.setUrl(server.uri().toString());
+        feedConfig.setReconnectDelayMs(50);
+        feedConfig.setMaxReconnectDelayMs(200);
+        client = new UpstoxMarketFeedClient(feedConfig, null, new MarketFeedDecoder(), objectMapper, meterRegistry);
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        client.stop();
+        server.close();
+    }
+
+    @Test
+    void shouldReplayFramesAndResubscribeAfterReconnect() throws Exception {
+        // Given
+        client.subscribe(List.of(RELIANCE, INFOSYS));
+        client.start(received::add);
+
+        // When the first connection subscribes and receives a recorded frame
+        ReplayWebSocketServer.Connection first = server.nextConnection(TIMEOUT);
+        assertSubscription(first.readMessage(), "sub", RELIANCE, INFOSYS);
+        first.sendBinary(MarketFeedDecoderTest.frame("feed-ltpc.bin"));
+
+        // Then
+        List<MarketFeedTick> ticks = nextTicks();
+        assertEquals(List.of(RELIANCE, INFOSYS), ticks.stream().map(MarketFeedTick::getInstrumentKey).toList());
+
+        // When the server drops the connection
+        first.drop();
+
+        // Then the client reconnects and subscribes everything again
+        ReplayWebSocketServer.Connection second = server.nextConnection(TIMEOUT);
+        assertSubscription(second.readMessage(), "sub", RELIANCE, INFOSYS);
+        assertEquals(1.0, meterRegistry.counter("upstox.feed.reconnects").count());
+
+        second.sendBinary(MarketFeedDecoderTest.frame("feed-full-equity.bin"));
+        MarketFeedTick tick = nextTicks().get(0);
+        assertEquals(RELIANCE, tick.getInstrumentKey());
+        assertEquals(2471.05, tick.getOpen());
+    }
+
+    @Test
+    void shouldSendOnlyNewKeysWhileConnected() throws Exception {
+        // Given
+        client.subscribe(List.of(RELIANCE));
+        client.start(received::add);
+        ReplayWebSocketServer.Connection connection = server.nextConnection(TIMEOUT);
+        assertSubscription(connection.readMessage(), "sub", RELIANCE);
+
+        // When
+        client.subscribe(List.of(RELIANCE, INFOSYS));
+        client.unsubscribe(List.of(RELIANCE));
+
+        // Then
+        assertSubscription(connection.readMessage(), "sub", INFOSYS);
+        assertSubscription(connection.readMessage(), "unsub", RELIANCE);
+    }
+
+    @Test
+    void shouldSyncSubscriptionsToNewUniverse() throws Exception {
+        // Given
+        client.subscribe(List.of(RELIANCE));
+        client.start(received::add);
+        ReplayWebSocketServer.Connection connection = server.nextConnection(TIMEOUT);
+        assertSubscription(connection.readMessage(), "sub", RELIANCE);
+
+        // When the universe no longer has one instrument but has gained another
+        client.syncSubscriptions(List.of(INFOSYS));
+
+        // Then
+        assertSubscription(connection.readMessage(), "unsub", RELIANCE);
+        assertSubscription(connection.readMessage(), "sub", INFOSYS);
+    }
+
+    @Test
+    void shouldStopDeliveringTicksOnceStopped() throws Exception {
+        // Given
+        client.start(received::add);
+        ReplayWebSocketServer.Connection connection = server.nextConnection(TIMEOUT);
+
+        // When
+        client.stop();
+        client.stop();
+        connection.sendBinary(MarketFeedDecoderTest.frame("feed-ltpc.bin"));
+
+        // Then
+        assertNull(received.poll(200, TimeUnit.MILLISECONDS));
+        assertFalse(client.isConnected());
+    }
+
+    @Test
+    void shouldCountUndecodableFramesAndKeepReading() throws Exception {
+        // Given
+        client.start(received::add);
+        ReplayWebSocketServer.Connection connection = server.nextConnection(TIMEOUT);
+        byte[] full = MarketFeedDecoderTest.frame("feed-full-equity.bin");
+
+        // When
+        connection.sendBinary(Arrays.copyOf(full, full.length / 2));
+        connection.sendBinary(MarketFeedDecoderTest.frame("feed-ltpc.bin"));
+
+        // Then
+        assertEquals(2, nextTicks().size());
+        assertEquals(1.0, meterRegistry.counter("upstox.feed.decode.errors").count());
+    }
+
+    private List<MarketFeedTick> nextTicks() throws InterruptedException {
+        List<MarketFeedTick> ticks = received.poll(TIMEOUT.toMillis(), TimeUnit.MILLISECONDS);
+        assertNotNull(ticks, "No ticks delivered within " + TIMEOUT);
+        return ticks;
+    }
+
+    private void assertSubscription(byte[] message, String method, String... instrumentKeys) throws IOException {
+        JsonNode subscription = objectMapper.readTree(message);
+        assertEquals(method, subscription.get("method").asText());
+        assertEquals("full", subscription.get("data").get("mode").asText());
+        List<String> keys = new ArrayList<>();
+        subscription.get("data").get("instrumentKeys").forEach(key -> keys.add(key.asText()));
+        assertEquals(List.of(instrumentKeys).stream().sorted().toList(), keys.stream().sorted().toList());
+    }
+}
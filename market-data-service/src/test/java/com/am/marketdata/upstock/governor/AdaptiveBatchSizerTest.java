@@ -0,0 +1,54 @@
+package com.am.marketdata.upstock.governor;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AdaptiveBatchSizerTest {
+
+    @Test
+    void shouldGrowAdditivelyUpToWhatFitsInUrl() {
+        // Given an endpoint limit of 500 but room for (8000 - 120) / 24 = 328 keys in the URL
+        AdaptiveBatchSizer sizer = new AdaptiveBatchSizer(50, 10, 500, 50, 8000);
+
+        // When
+        sizer.onSuccess();
+        int afterOne = sizer.current();
+        for (int i = 0; i < 10; i++) {
+            sizer.onSuccess();
+        }
+
+        // Then
+        assertEquals(100, afterOne);
+        assertEquals(328, sizer.current());
+    }
+
+    @Test
+    void shouldHalveOnFailureDownToMinimum() {
+        AdaptiveBatchSizer sizer = new AdaptiveBatchSizer(50, 10, 500, 50, 8000);
+
+        sizer.onFailure();
+        assertEquals(25, sizer.current());
+        sizer.onFailure();
+        assertEquals(12, sizer.current());
+        sizer.onFailure();
+        assertEquals(10, sizer.current());
+        sizer.onFailure();
+        assertEquals(10, sizer.current());
+    }
+
+    @Test
+    void shouldClampInitialSizeToBounds() {
+        assertEquals(100, new AdaptiveBatchSizer(1000, 10, 100, 50, 8000).current());
+        assertEquals(10, new AdaptiveBatchSizer(1, 10, 100, 50, 8000).current());
+    }
+
+    @Test
+    void shouldKeepAtLeastOneInstrumentWhenUrlIsTooShort() {
+        AdaptiveBatchSizer sizer = new AdaptiveBatchSizer(50, 10, 500, 50, 100);
+
+        sizer.onSuccess();
+
+        assertEquals(1, sizer.current());
+    }
+}
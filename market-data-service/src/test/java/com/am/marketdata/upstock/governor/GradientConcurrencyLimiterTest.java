@@ -0,0 +1,111 @@
+package com.am.marketdata.upstock.governor;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class GradientConcurrencyLimiterTest {
+
+    private static final long BASELINE_RTT = TimeUnit.MILLISECONDS.toNanos(10);
+
+    @Test
+    void shouldGrowWhileLatencyStaysAtBaseline() {
+        GradientConcurrencyLimiter limiter = new GradientConcurrencyLimiter(10, 2, 40);
+
+        complete(limiter, 1, BASELINE_RTT);
+        int afterOne = limiter.getLimit();
+        complete(limiter, 100, BASELINE_RTT);
+
+        assertEquals(10, afterOne);
+        assertEquals(40, limiter.getLimit());
+        assertEquals(0, limiter.getInFlight());
+    }
+
+    @Test
+    void shouldShrinkWhenLatencyRises() {
+        // Given a limit grown to the maximum at a 10 ms baseline
+        GradientConcurrencyLimiter limiter = new GradientConcurrencyLimiter(10, 2, 40);
+        complete(limiter, 100, BASELINE_RTT);
+
+        // When round trips take four times as long, a sign of queueing at the provider
+        complete(limiter, 1, 4 * BASELINE_RTT);
+        int afterOne = limiter.getLimit();
+        complete(limiter, 9, 4 * BASELINE_RTT);
+
+        // Then
+        assertEquals(37, afterOne);
+        assertEquals(20, limiter.getLimit());
+    }
+
+    @Test
+    void shouldTreatZeroRoundTripAsBaseline() {
+        GradientConcurrencyLimiter limiter = new GradientConcurrencyLimiter(10, 2, 40);
+
+        complete(limiter, 100, 0);
+
+        assertEquals(40, limiter.getLimit());
+        assertTrue(limiter.acquireAsync().isDone());
+    }
+
+    @Test
+    void shouldHalveOnThrottlingDownToMinimum() {
+        GradientConcurrencyLimiter limiter = new GradientConcurrencyLimiter(10, 2, 40);
+
+        for (int expected : new int[] {5, 2, 2}) {
+            limiter.acquireAsync();
+            limiter.onThrottled();
+            assertEquals(expected, limiter.getLimit());
+        }
+    }
+
+    @Test
+    void shouldQueueAsyncCallersBeyondLimitAndAdmitThemInOrder() {
+        // Given
+        GradientConcurrencyLimiter limiter = new GradientConcurrencyLimiter(2, 1, 40);
+        CompletableFuture<Void> first = limiter.acquireAsync();
+        CompletableFuture<Void> second = limiter.acquireAsync();
+
+        // When
+        CompletableFuture<Void> third = limiter.acquireAsync();
+        CompletableFuture<Void> fourth = limiter.acquireAsync();
+
+        // Then the extra callers wait without blocking and get permits as they are released
+        assertTrue(first.isDone() && second.isDone());
+        assertFalse(third.isDone());
+        assertEquals(2, limiter.getWaiting());
+
+        limiter.onError();
+        assertTrue(third.isDone());
+        assertFalse(fourth.isDone());
+        assertEquals(2, limiter.getInFlight());
+
+        limiter.onError();
+        assertTrue(fourth.isDone());
+        assertEquals(0, limiter.getWaiting());
+    }
+
+    @Test
+    void shouldKeepWaitersQueuedWhileThrottlingShrinksLimit() {
+        GradientConcurrencyLimiter limiter = new GradientConcurrencyLimiter(2, 1, 40);
+        limiter.acquireAsync();
+        limiter.acquireAsync();
+        CompletableFuture<Void> waiting = limiter.acquireAsync();
+
+        // The limit drops to 1 while one request is still in flight
+        limiter.onThrottled();
+
+        assertFalse(waiting.isDone());
+        limiter.onError();
+        assertTrue(waiting.isDone());
+    }
+
+    private static void complete(GradientConcurrencyLimiter limiter, int requests, long rttNanos) {
+        for (int i = 0; i < requests; i++) {
+            assertTrue(limiter.acquireAsync().isDone());
+            limiter.onSuccess(rttNanos);
+        }
+    }
+}
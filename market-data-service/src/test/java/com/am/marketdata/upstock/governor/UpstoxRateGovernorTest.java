@@ -0,0 +1,142 @@
+package com.am.marketdata.upstock.governor;
+
+import com.am.marketdata.common.testing.ManualScheduler;
+import com.am.marketdata.common.testing.ScriptedCall;
+import com.am.marketdata.upstock.config.UpstoxGovernorConfig;
+import com.am.marketdata.upstock.exception.UpStockApiException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class UpstoxRateGovernorTest {
+
+    private UpstoxGovernorConfig config;
+    private SimpleMeterRegistry meterRegistry;
+    private AtomicLong nanos;
+    private ManualScheduler scheduler;
+    private ScriptedCall<String> call;
+    private UpstoxRateGovernor governor;
+
+    @BeforeEach
+    void setUp() {
+        config = new UpstoxGovernorConfig();
+        meterRegistry = new SimpleMeterRegistry();
+        nanos = new AtomicLong(TimeUnit.HOURS.toNanos(1));
+        scheduler = new ManualScheduler();
+        call = new ScriptedCall<>();
+    }
+
+    @Test
+    void shouldResumeAsyncCallerShortOfRateBudgetFromTimer() {
+        // Given a budget of two requests per second
+        config.setRequestsPerSecond(2);
+        start();
+        governor.executeAsync("historical", call);
+        governor.executeAsync("historical", call);
+
+        // When a third request arrives in the same second
+        CompletableFuture<String> third = governor.executeAsync("historical", call);
+
+        // Then the caller is not held; a timer resumes it once a token has refilled
+        assertEquals(2, call.count());
+        assertFalse(third.isDone());
+        assertEquals(500, scheduler.nextDelayMs());
+
+        nanos.addAndGet(TimeUnit.MILLISECONDS.toNanos(501));
+        scheduler.runNext();
+        assertEquals(3, call.count());
+        call.request(2).complete("ok");
+        assertEquals("ok", third.join());
+    }
+
+    @Test
+    void shouldQueueAsyncCallerBeyondConcurrencyLimitUntilSlotFrees() {
+        // Given
+        config.setInitialConcurrency(1);
+        start();
+        CompletableFuture<String> first = governor.executeAsync("historical", call);
+
+        // When
+        CompletableFuture<String> second = governor.executeAsync("historical", call);
+
+        // Then the second request is only sent once the first completes
+        assertEquals(1, call.count());
+        assertFalse(second.isDone());
+        assertEquals(0, scheduler.pending());
+
+        nanos.addAndGet(TimeUnit.MILLISECONDS.toNanos(20));
+        call.request(0).complete("first");
+        assertEquals("first", first.join());
+        assertEquals(2, call.count());
+    }
+
+    @Test
+    void shouldBackOffWhenThrottled() {
+        // Given
+        config.setInitialConcurrency(8);
+        start();
+        CompletableFuture<String> throttled = governor.executeAsync("historical", call);
+
+        // When Upstox answers 429 despite the local budget
+        call.request(0).completeExceptionally(new UpStockApiException("historical", 429, "", "Too Many Requests"));
+
+        // Then concurrency halves and the next caller waits for the one-second window to refill
+        CompletionException thrown = assertThrows(CompletionException.class, throttled::join);
+        assertInstanceOf(UpStockApiException.class, thrown.getCause());
+        assertEquals(4.0, meterRegistry.get("upstox.governor.concurrency.limit").gauge().value());
+        assertEquals(1.0, meterRegistry.counter("upstox.governor.throttled", "endpoint", "historical").count());
+
+        governor.executeAsync("historical", call);
+        assertEquals(1, call.count());
+        assertEquals(1, scheduler.pending());
+    }
+
+    @Test
+    void shouldTuneBatchSizeFromBatchedEndpointsOnly() {
+        start();
+        int initial = governor.currentBatchSize();
+
+        governor.execute("ohlc", () -> "ok");
+        int grown = governor.currentBatchSize();
+        assertThrows(UpStockApiException.class, () -> governor.execute("historical", () -> {
+            throw new UpStockApiException("historical", 500, "", "Internal Server Error");
+        }));
+        int afterOtherEndpoint = governor.currentBatchSize();
+        governor.executeAsync("quotes", call);
+        call.request(0).completeExceptionally(new UpStockApiException("quotes", 500, "", "Internal Server Error"));
+
+        assertEquals(initial + config.getBatchGrowthStep(), grown);
+        assertEquals(grown, afterOtherEndpoint);
+        assertEquals(grown / 2, governor.currentBatchSize());
+    }
+
+    @Test
+    void shouldReturnRequestCreationFailureThroughFutureAndReleaseSlot() {
+        // Given a single slot and a request that fails before it is sent
+        config.setInitialConcurrency(1);
+        start();
+
+        // When
+        CompletableFuture<String> failed = governor.executeAsync("historical", () -> {
+            throw new IllegalStateException("no access token");
+        });
+
+        // Then the caller sees the failure on the future and the slot is free again
+        CompletionException thrown = assertThrows(CompletionException.class, failed::join);
+        assertInstanceOf(IllegalStateException.class, thrown.getCause());
+        governor.executeAsync("historical", call);
+        assertEquals(1, call.count());
+    }
+
+    private void start() {
+        governor = new UpstoxRateGovernor(config, meterRegistry, nanos::get, scheduler);
+        governor.initialize();
+    }
+}
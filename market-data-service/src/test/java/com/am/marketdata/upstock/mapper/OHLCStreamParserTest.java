@@ -0,0 +1,92 @@
+package com.am.marketdata.upstock.mapper;
+
+import com.am.common.investment.model.equity.EquityPrice;
+import com.am.marketdata.common.util.JsonUtils;
+import com.am.marketdata.upstock.model.OHLCResponse;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.ClassPathResource;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class OHLCStreamParserTest {
+
+    private final OHLCStreamParser parser = new OHLCStreamParser();
+
+    @Test
+    void shouldMatchObjectMapperPathForRecordedResponse() throws IOException {
+        // Given the same recorded response read through the bound model and the mapper
+        List<EquityPrice> expected = new EquityStockMapper().getEquityPricesByOHLC(
+            JsonUtils.fromResource("ohlc-quotes.json", OHLCResponse.class).getData());
+
+        // When
+        Instant before = Instant.now();
+        List<EquityPrice> parsed;
+        try (InputStream body = new ClassPathResource("ohlc-quotes.json").getInputStream()) {
+            parsed = parser.parse(body);
+        }
+
+        // Then every field but the receive time agrees, in response order
+        assertEquals(5, expected.size());
+        assertEquals(expected.size(), parsed.size());
+        for (int i = 0; i < expected.size(); i++) {
+            EquityPrice want = expected.get(i);
+            EquityPrice got = parsed.get(i);
+            assertEquals(want.getExchange(), got.getExchange());
+            assertEquals(want.getIsin(), got.getIsin());
+            assertEquals(want.getSymbol(), got.getSymbol());
+            assertEquals(want.getOpen(), got.getOpen());
+            assertEquals(want.getHigh(), got.getHigh());
+            assertEquals(want.getLow(), got.getLow());
+            assertEquals(want.getClose(), got.getClose());
+        }
+        assertNull(parsed.get(4).getClose(), "A null price should stay null");
+        assertFalse(parsed.get(0).getTime().isBefore(before));
+        assertTrue(parsed.stream().allMatch(price -> price.getTime().equals(parsed.get(0).getTime())),
+            "Every entry should share the response's receive time");
+    }
+
+    @Test
+    void shouldReadEntryRegardlessOfFieldOrderAndSkipUnknownValues() throws IOException {
+        // Given an entry with the token first and fields the parser does not know about
+        String json = """
+            {"data":{"NSE_EQ:INFY":{"instrument_token":"NSE_EQ|INE009A01021","depth":{"buy":[{"price":1.0}]},
+              "ohlc":{"open":"n/a","high":1612.4,"low":1588.0,"close":1604.2,"extra":[1,2]},"last_price":1604.2}},
+             "status":"success"}
+            """;
+
+        // When
+        List<EquityPrice> parsed = parse(json);
+
+        // Then
+        assertEquals(1, parsed.size());
+        EquityPrice price = parsed.get(0);
+        assertEquals("NSE_EQ", price.getExchange());
+        assertEquals("INE009A01021", price.getIsin());
+        assertEquals("INFY", price.getSymbol());
+        assertNull(price.getOpen(), "A non-numeric price should be treated as missing");
+        assertEquals(1612.4, price.getHigh());
+        assertEquals(1588.0, price.getLow());
+        assertEquals(1604.2, price.getClose());
+    }
+
+    @Test
+    void shouldReturnNoPricesWhenDataIsMissing() throws IOException {
+        assertTrue(parse("{\"status\":\"error\",\"errors\":[{\"message\":\"Invalid token\"}]}").isEmpty());
+    }
+
+    @Test
+    void shouldRejectBodyThatIsNotAnObject() {
+        assertThrows(IOException.class, () -> parse("[]"));
+    }
+
+    private List<EquityPrice> parse(String json) throws IOException {
+        return parser.parse(new ByteArrayInputStream(json.getBytes(StandardCharsets.UTF_8)));
+    }
+}
@@ -0,0 +1,41 @@
+package com.am.marketdata.upstock.model;
+
+import com.am.marketdata.common.util.JsonUtils;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class HistoricalDataResponseTest {
+
+    @Test
+    void shouldDeserializeCandleArrays() {
+        // Given & When
+        HistoricalDataResponse response = JsonUtils.fromResource("historical-candles.json", HistoricalDataResponse.class);
+
+        // Then
+        assertNotNull(response, "Response should not be null");
+        assertEquals("success", response.getStatus());
+
+        List<HistoricalDataResponse.Candle> candles = response.getCandles();
+        assertEquals(3, candles.size(), "Should have one candle per row");
+
+        HistoricalDataResponse.Candle latest = candles.get(0);
+        assertEquals("2025-03-07T00:00:00+05:30", latest.getTimestamp());
+        assertEquals(2471.05, latest.getOpen());
+        assertEquals(2498.9, latest.getHigh());
+        assertEquals(2463.2, latest.getLow());
+        assertEquals(2490.55, latest.getClose());
+        assertEquals(5214331L, latest.getVolume());
+        assertEquals(0L, latest.getOi());
+    }
+
+    @Test
+    void shouldReturnNoCandlesWhenDataIsMissing() {
+        HistoricalDataResponse response = JsonUtils.fromJson("{\"status\":\"error\"}", HistoricalDataResponse.class);
+
+        assertNotNull(response);
+        assertTrue(response.getCandles().isEmpty());
+    }
+}